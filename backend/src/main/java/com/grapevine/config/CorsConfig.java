@@ -32,6 +32,9 @@ public class CorsConfig {
         // Expose the custom Session-Id header
         config.addExposedHeader("Session-Id");
 
+        // Expose ETag so browser clients can revalidate the calendar feed
+        config.addExposedHeader("ETag");
+
         source.registerCorsConfiguration("/**", config);
         return new CorsFilter(source);
     }
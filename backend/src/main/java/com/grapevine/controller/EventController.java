@@ -1,15 +1,23 @@
 package com.grapevine.controller;
 
 import com.grapevine.exception.GroupNotFoundException;
+import com.grapevine.index.PrefixIndex;
 import com.grapevine.model.*;
+import com.grapevine.service.EventOccurrenceService;
 import com.grapevine.service.EventReminderService;
 import com.grapevine.service.EventService;
+import com.grapevine.service.NameSearchService;
+import com.grapevine.service.ScheduleService;
+import com.grapevine.service.UpcomingEventService;
 import com.grapevine.service.UserService;
+import com.grapevine.service.WaitlistService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Map;
 
@@ -21,6 +29,11 @@ public class EventController {
     private final EventService eventService;
     private final UserService userService;
     private final EventReminderService eventReminderService;
+    private final UpcomingEventService upcomingEventService;
+    private final NameSearchService nameSearchService;
+    private final EventOccurrenceService eventOccurrenceService;
+    private final ScheduleService scheduleService;
+    private final WaitlistService waitlistService;
 
     @GetMapping("/all")
     public List<Event> getAllEvents(@RequestHeader(name = "Session-Id", required = true) String sessionId) {
@@ -28,8 +41,37 @@ public class EventController {
         return eventService.getAllEvents();
     }
 
+    // Public event names starting with q, ignoring case and accents, served from memory
+    @GetMapping("/typeahead")
+    public List<PrefixIndex.Match> searchEventNames(
+            @RequestHeader(name = "Session-Id", required = true) String sessionId,
+            @RequestParam String q,
+            @RequestParam(defaultValue = "8") int limit) {
+        userService.validateSession(sessionId);
+        return nameSearchService.searchEvents(q, limit);
+    }
+
+    // Next public events, soonest first, served from the in-memory index
+    @GetMapping("/upcoming")
+    public ResponseEntity<?> getUpcomingEvents(
+            @RequestHeader(name = "Session-Id", required = true) String sessionId,
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(required = false) Long locationId,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to) {
+        userService.validateSession(sessionId);
+
+        try {
+            LocalDateTime fromTime = from != null && !from.isEmpty() ? LocalDateTime.parse(from) : null;
+            LocalDateTime toTime = to != null && !to.isEmpty() ? LocalDateTime.parse(to) : null;
+            return ResponseEntity.ok(upcomingEventService.getUpcomingEvents(limit, locationId, fromTime, toTime));
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body("Invalid time format. Use ISO format (yyyy-MM-ddTHH:mm:ss)");
+        }
+    }
+
     @GetMapping("/all-short")
-    public List<ShortEvent> getAllShortEvents(
+    public CursorPage<ShortEvent> getAllShortEvents(
             @RequestHeader(name = "Session-Id", required = true) String sessionId,
             @RequestParam(required = false) String search,
             @RequestParam(required = false) Integer minUsers,
@@ -39,7 +81,9 @@ public class EventController {
             @RequestParam(required = false) Long locationId,
             @RequestParam(required = false) Boolean isPublic,
             @RequestParam(required = false) Boolean includePastEvents,
-            @RequestParam(required = false) Boolean onlyFullEvents) {
+            @RequestParam(required = false) Boolean onlyFullEvents,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
 
         userService.validateSession(sessionId);
 
@@ -47,7 +91,7 @@ public class EventController {
                 search, minUsers, maxUsers, startTime, endTime,
                 locationId, includePastEvents, onlyFullEvents);
 
-        return eventService.getAllShortEvents(filter);
+        return eventService.getAllShortEvents(filter, cursor, limit);
     }
 
     @GetMapping("/{eventId}")
@@ -57,7 +101,88 @@ public class EventController {
         // Validate session
         userService.validateSession(sessionId);
         // Return the specific event
-        return eventService.getEventById(eventId);
+        return eventService.getEventDetails(eventId);
+    }
+
+    @GetMapping("/{eventId}/members")
+    public ResponseEntity<?> getEventMembers(
+            @PathVariable Long eventId,
+            @RequestHeader(name = "Session-Id", required = true) String sessionId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) String role) {
+        // Validate session
+        User currentUser = userService.validateSession(sessionId);
+
+        // Rosters of private events are only visible to their members
+        Event event = eventService.getEventById(eventId);
+        if (!Boolean.TRUE.equals(event.getIsPublic()) && !eventService.isMember(eventId, currentUser.getUserEmail())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body("You don't have permission to view members of this private event");
+        }
+
+        try {
+            return ResponseEntity.ok(eventService.getEventMembers(eventId, cursor, limit, role));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // Occurrences of the event within [from, to], defaulting to the next 90 days; a one-off event has at most one
+    @GetMapping("/{eventId}/occurrences")
+    public ResponseEntity<?> getOccurrences(
+            @PathVariable Long eventId,
+            @RequestHeader(name = "Session-Id", required = true) String sessionId,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to) {
+        userService.validateSession(sessionId);
+
+        try {
+            LocalDateTime fromTime = from != null && !from.isEmpty() ? LocalDateTime.parse(from) : LocalDateTime.now();
+            LocalDateTime toTime = to != null && !to.isEmpty() ? LocalDateTime.parse(to) : fromTime.plusDays(90);
+            return ResponseEntity.ok(eventOccurrenceService.getOccurrences(eventId, fromTime, toTime));
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body("Invalid time format. Use ISO format (yyyy-MM-ddTHH:mm:ss)");
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // Moves, relocates, cancels or restores one occurrence of a recurring event, identified by its scheduled start
+    @PutMapping("/{eventId}/occurrences/{occurrenceTime}")
+    public ResponseEntity<?> overrideOccurrence(
+            @PathVariable Long eventId,
+            @PathVariable String occurrenceTime,
+            @RequestBody EventOccurrenceOverride changes,
+            @RequestHeader(name = "Session-Id", required = true) String sessionId) {
+        User currentUser = userService.validateSession(sessionId);
+
+        try {
+            EventOccurrenceOverride override = eventOccurrenceService.overrideOccurrence(
+                    eventId, LocalDateTime.parse(occurrenceTime), changes, currentUser);
+            return override != null ? ResponseEntity.ok(override) : ResponseEntity.noContent().build();
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body("Invalid time format. Use ISO format (yyyy-MM-ddTHH:mm:ss)");
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @DeleteMapping("/{eventId}/occurrences/{occurrenceTime}")
+    public ResponseEntity<?> cancelOccurrence(
+            @PathVariable Long eventId,
+            @PathVariable String occurrenceTime,
+            @RequestHeader(name = "Session-Id", required = true) String sessionId) {
+        User currentUser = userService.validateSession(sessionId);
+
+        try {
+            return ResponseEntity.ok(eventOccurrenceService.cancelOccurrence(
+                    eventId, LocalDateTime.parse(occurrenceTime), currentUser));
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body("Invalid time format. Use ISO format (yyyy-MM-ddTHH:mm:ss)");
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     @PostMapping("/create/{groupId}")
@@ -93,6 +218,15 @@ public class EventController {
         eventService.deleteEvent(eventId, currentUser);
     }
 
+    // Occurrences of this event that overlap the caller's schedule; meant to be checked before joining
+    @GetMapping("/{eventId}/conflicts")
+    public List<ScheduleConflict> getScheduleConflicts(
+            @PathVariable Long eventId,
+            @RequestHeader(name = "Session-Id", required = true) String sessionId) {
+        User currentUser = userService.validateSession(sessionId);
+        return scheduleService.findConflicts(currentUser.getUserEmail(), eventId);
+    }
+
     @PostMapping("/{eventId}/join")
     public ResponseEntity<?> joinEvent(
             @PathVariable Long eventId,
@@ -109,6 +243,54 @@ public class EventController {
         }
     }
 
+    @PostMapping("/{eventId}/leave")
+    public ResponseEntity<?> leaveEvent(
+            @PathVariable Long eventId,
+            @RequestHeader(name = "Session-Id", required = true) String sessionId) {
+        User currentUser = userService.validateSession(sessionId);
+
+        try {
+            return ResponseEntity.ok(eventService.leaveEvent(eventId, currentUser));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
+    // Queues the caller for a seat in a full event; the response carries their 1-based position
+    @PostMapping("/{eventId}/waitlist")
+    public ResponseEntity<?> joinWaitlist(
+            @PathVariable Long eventId,
+            @RequestHeader(name = "Session-Id", required = true) String sessionId) {
+        User currentUser = userService.validateSession(sessionId);
+
+        try {
+            return ResponseEntity.ok(Map.of("position", waitlistService.joinWaitlist(eventId, currentUser)));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
+    // Position 0 means the caller isn't waiting
+    @GetMapping("/{eventId}/waitlist")
+    public Map<String, Integer> getWaitlistPosition(
+            @PathVariable Long eventId,
+            @RequestHeader(name = "Session-Id", required = true) String sessionId) {
+        User currentUser = userService.validateSession(sessionId);
+        return Map.of("position", waitlistService.getPosition(eventId, currentUser.getUserEmail()));
+    }
+
+    @DeleteMapping("/{eventId}/waitlist")
+    public ResponseEntity<?> leaveWaitlist(
+            @PathVariable Long eventId,
+            @RequestHeader(name = "Session-Id", required = true) String sessionId) {
+        User currentUser = userService.validateSession(sessionId);
+
+        if (!waitlistService.leaveWaitlist(eventId, currentUser.getUserEmail())) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("You are not on the waitlist for this event");
+        }
+        return ResponseEntity.ok().build();
+    }
+
     @PostMapping("/{eventId}/reminders")
     public ResponseEntity<?> createReminder(
             @PathVariable Long eventId,
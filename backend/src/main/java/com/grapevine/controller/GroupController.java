@@ -1,9 +1,11 @@
 package com.grapevine.controller;
 
 import com.grapevine.exception.RatingOperationException;
+import com.grapevine.index.PrefixIndex;
 import com.grapevine.model.*;
 import com.grapevine.service.EventService;
 import com.grapevine.service.GroupService;
+import com.grapevine.service.NameSearchService;
 import com.grapevine.service.S3Service;
 import com.grapevine.service.UserService;
 import lombok.RequiredArgsConstructor;
@@ -25,6 +27,7 @@ public class GroupController {
     private final UserService userService;
     private final EventService eventService;
     private final S3Service s3Service;
+    private final NameSearchService nameSearchService;
 
 
     @GetMapping("/all")
@@ -50,6 +53,30 @@ public class GroupController {
         return groupService.getShortGroupsByPublicStatus(isPublic);
     }
 
+    // Group names starting with q, ignoring case and accents, served from memory
+    @GetMapping("/typeahead")
+    public List<PrefixIndex.Match> searchGroupNames(
+            @RequestHeader(name = "Session-Id", required = true) String sessionId,
+            @RequestParam String q,
+            @RequestParam(defaultValue = "8") int limit) {
+        userService.validateSession(sessionId);
+        return nameSearchService.searchGroups(q, limit);
+    }
+
+    @GetMapping("/rankings")
+    public List<RankedGroup> getGroupRankings(
+            @RequestHeader(name = "Session-Id", required = true) String sessionId,
+            @RequestParam(defaultValue = "trending") String sort,
+            @RequestParam(required = false) String course,
+            @RequestParam(defaultValue = "10") int limit) {
+
+        // Validate session
+        userService.validateSession(sessionId);
+
+        // Global leaderboard unless a course key is given
+        return groupService.getGroupRankings(sort, course, limit);
+    }
+
     @GetMapping("/{groupId}/check-access")
     public ResponseEntity<?> checkGroupAccess(
             @PathVariable Long groupId,
@@ -61,7 +88,11 @@ public class GroupController {
         // Check access using service method
         boolean hasAccess = groupService.checkUserHasGroupAccess(groupId, currentUser);
 
-        return ResponseEntity.ok(Map.of("hasAccess", hasAccess));
+        // Membership comes from the roster table, so the client never needs the full member list
+        boolean isHost = groupService.isHost(groupId, currentUser.getUserEmail());
+        boolean isMember = isHost || groupService.isMember(groupId, currentUser.getUserEmail());
+
+        return ResponseEntity.ok(Map.of("hasAccess", hasAccess, "isMember", isMember, "isHost", isHost));
     }
 
     @PostMapping("/{groupId}/request-access")
@@ -78,8 +109,7 @@ public class GroupController {
             return ResponseEntity.badRequest().body("Group is public and doesn't require access requests");
         }
 
-        if (group.getParticipants().contains(currentUser.getUserEmail()) ||
-                group.getHosts().contains(currentUser.getUserEmail())) {
+        if (groupService.isMember(groupId, currentUser.getUserEmail())) {
             return ResponseEntity.badRequest().body("You are already a member of this group");
         }
 
@@ -89,6 +119,20 @@ public class GroupController {
         return ResponseEntity.ok("Access request sent to group hosts");
     }
 
+    @GetMapping("/{groupId}/access-requests")
+    public ResponseEntity<?> getPendingAccessRequests(
+            @PathVariable Long groupId,
+            @RequestHeader(name = "Session-Id", required = true) String sessionId) {
+
+        // Validate session
+        User currentUser = userService.validateSession(sessionId);
+
+        // Only hosts may see who is waiting to join (enforced in the service)
+        List<GroupAccessRequest> requests = groupService.getPendingAccessRequests(groupId, currentUser);
+
+        return ResponseEntity.ok(requests);
+    }
+
     @GetMapping("/respond-access/{requestId}/{action}/{groupId}/{userEmail}")
     public ResponseEntity<String> respondToAccessRequest(
             @PathVariable String requestId,
@@ -112,10 +156,13 @@ public class GroupController {
         //Validate session
         User currentUser = userService.validateSession(sessionId);
 
-        //Join the group (service will validate if it's public)
-        Group joinedGroup = groupService.joinPublicGroup(groupId, currentUser);
-
-        return ResponseEntity.ok(joinedGroup);
+        try {
+            //Join the group (service will validate if it's public and not full)
+            Group joinedGroup = groupService.joinPublicGroup(groupId, currentUser);
+            return ResponseEntity.ok(joinedGroup);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
     }
 
     @PostMapping("/create")
@@ -134,7 +181,31 @@ public class GroupController {
             @PathVariable Long groupId,
             @RequestHeader(name = "Session-Id", required = true) String sessionId) {
         User currentUser = userService.validateSession(sessionId);
-        return groupService.getGroupById(groupId);
+        return groupService.getGroupDetails(groupId);
+    }
+
+    @GetMapping("/{groupId}/members")
+    public ResponseEntity<?> getGroupMembers(
+            @PathVariable Long groupId,
+            @RequestHeader(name = "Session-Id", required = true) String sessionId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) String role) {
+        // Validate session
+        User currentUser = userService.validateSession(sessionId);
+
+        // Rosters of private groups are only visible to their members
+        Group group = groupService.getGroupById(groupId);
+        if (!group.isPublic() && !groupService.isMember(groupId, currentUser.getUserEmail())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body("You don't have permission to view members of this private group");
+        }
+
+        try {
+            return ResponseEntity.ok(groupService.getGroupMembers(groupId, cursor, limit, role));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
 
@@ -180,9 +251,7 @@ public class GroupController {
         Group group = groupService.getGroupById(groupId);
 
         // Check if user has access to ratings for a private group
-        if (!group.isPublic() &&
-                !group.getHosts().contains(currentUser.getUserEmail()) &&
-                !group.getParticipants().contains(currentUser.getUserEmail())) {
+        if (!group.isPublic() && !groupService.isMember(groupId, currentUser.getUserEmail())) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN)
                     .body("You don't have permission to view ratings for this private group");
         }
@@ -202,9 +271,7 @@ public class GroupController {
         Group group = groupService.getGroupById(groupId);
 
         // Check if user has access to rating summary for a private group
-        if (!group.isPublic() &&
-                !group.getHosts().contains(currentUser.getUserEmail()) &&
-                !group.getParticipants().contains(currentUser.getUserEmail())) {
+        if (!group.isPublic() && !groupService.isMember(groupId, currentUser.getUserEmail())) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN)
                     .body("You don't have permission to view rating summary for this private group");
         }
@@ -222,14 +289,12 @@ public class GroupController {
         User currentUser = userService.validateSession(sessionId);
 
         // Check if user is a member or host of the group
-        Group group = groupService.getGroupById(groupId);
-        if (!group.getHosts().contains(currentUser.getUserEmail()) &&
-                !group.getParticipants().contains(currentUser.getUserEmail())) {
+        if (!groupService.isMember(groupId, currentUser.getUserEmail())) {
             throw new RatingOperationException("Only members or hosts can rate a group");
         }
 
         // Add or update rating
-        group = groupService.addOrUpdateRating(
+        Group group = groupService.addOrUpdateRating(
                 groupId,
                 ratingRequest.getScore(),
                 ratingRequest.getReview(),
@@ -244,9 +309,7 @@ public class GroupController {
             @RequestHeader(name = "Session-Id", required = true) String sessionId) {
         // Validate session
         User currentUser = userService.validateSession(sessionId);
-        Group group = groupService.getGroupById(groupId);
-        if (!group.getHosts().contains(currentUser.getUserEmail()) &&
-                !group.getParticipants().contains(currentUser.getUserEmail())) {
+        if (!groupService.isMember(groupId, currentUser.getUserEmail())) {
             throw new RatingOperationException("Only members or hosts can have ratings");
         }
         // Get user's rating for this group
@@ -262,14 +325,12 @@ public class GroupController {
         User currentUser = userService.validateSession(sessionId);
 
         // Check if user is a member or host of the group
-        Group group = groupService.getGroupById(groupId);
-        if (!group.getHosts().contains(currentUser.getUserEmail()) &&
-                !group.getParticipants().contains(currentUser.getUserEmail())) {
+        if (!groupService.isMember(groupId, currentUser.getUserEmail())) {
             throw new RatingOperationException("Only members or hosts can update ratings");
         }
 
         // Update existing rating
-        group = groupService.addOrUpdateRating(
+        Group group = groupService.addOrUpdateRating(
                 groupId,
                 ratingRequest.getScore(),
                 ratingRequest.getReview(),
@@ -286,14 +347,12 @@ public class GroupController {
         User currentUser = userService.validateSession(sessionId);
 
         // Check if user is a member or host of the group
-        Group group = groupService.getGroupById(groupId);
-        if (!group.getHosts().contains(currentUser.getUserEmail()) &&
-                !group.getParticipants().contains(currentUser.getUserEmail())) {
+        if (!groupService.isMember(groupId, currentUser.getUserEmail())) {
             throw new RatingOperationException("Only members or hosts can delete their ratings");
         }
 
         // Delete the user's rating
-        group = groupService.deleteUserRating(groupId, currentUser.getUserEmail());
+        Group group = groupService.deleteUserRating(groupId, currentUser.getUserEmail());
 
         return ResponseEntity.ok(group);
     }
@@ -327,7 +386,7 @@ public class GroupController {
         Group group = groupService.getGroupById(groupId);
 
         // Check if user is a host of the group
-        if (!group.getHosts().contains(currentUser.getUserEmail())) {
+        if (!groupService.isHost(groupId, currentUser.getUserEmail())) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN)
                     .body("Only group hosts can update the group profile picture");
         }
@@ -404,7 +463,7 @@ public class GroupController {
         Group group = groupService.getGroupById(groupId);
 
         // Check if user is a host of the group
-        if (!group.getHosts().contains(currentUser.getUserEmail())) {
+        if (!groupService.isHost(groupId, currentUser.getUserEmail())) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN)
                     .body("Only group hosts can delete the group profile picture");
         }
@@ -1,7 +1,10 @@
 package com.grapevine.controller;
 
 import com.grapevine.model.Comment;
+import com.grapevine.model.CursorPage;
 import com.grapevine.model.Thread;
+import com.grapevine.model.ThreadSearchResults;
+import com.grapevine.model.ThreadSummary;
 import com.grapevine.model.User;
 import com.grapevine.service.ThreadService;
 import com.grapevine.service.UserService;
@@ -30,12 +33,19 @@ public class ThreadController {
         this.userService = userService;
     }
 
+    // Forum front page, newest first, with sort=active by latest comment, or with sort=hot by hot score
+    // (optionally for one course or major); pass nextCursor back as ?cursor=
     @GetMapping
-    public ResponseEntity<List<Thread>> getAllThreads(
-            @RequestHeader(name = "Session-Id", required = true) String sessionId) {
+    public ResponseEntity<CursorPage<ThreadSummary>> getAllThreads(
+            @RequestHeader(name = "Session-Id", required = true) String sessionId,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String course,
+            @RequestParam(required = false) String major,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
         // Validate session
         userService.validateSession(sessionId);
-        return ResponseEntity.ok(threadService.getAllThreads());
+        return ResponseEntity.ok(threadService.getAllThreads(sort, course, major, cursor, limit));
     }
 
     @GetMapping("/{id}")
@@ -43,8 +53,8 @@ public class ThreadController {
             @PathVariable Long id,
             @RequestHeader(name = "Session-Id", required = true) String sessionId) {
         // Validate session
-        userService.validateSession(sessionId);
-        return ResponseEntity.ok(threadService.getThreadById(id));
+        User currentUser = userService.validateSession(sessionId);
+        return ResponseEntity.ok(threadService.viewThread(id, currentUser.getUserEmail()));
     }
 
     @GetMapping("/author/{email}")
@@ -112,8 +122,20 @@ public class ThreadController {
         return ResponseEntity.noContent().build();
     }
 
+    // A thread's comments, oldest first; pass nextCursor back as ?cursor=
+    @GetMapping("/{threadId}/comments")
+    public ResponseEntity<CursorPage<Comment>> getComments(
+            @PathVariable Long threadId,
+            @RequestHeader(name = "Session-Id", required = true) String sessionId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        // Validate session
+        User currentUser = userService.validateSession(sessionId);
+        return ResponseEntity.ok(threadService.getComments(threadId, currentUser.getUserEmail(), cursor, limit));
+    }
+
     @PostMapping("/{threadId}/comments")
-    public ResponseEntity<Thread> addComment( // NOT FINISHED
+    public ResponseEntity<Comment> addComment(
             @PathVariable Long threadId,
             @RequestBody Comment comment,
             @RequestHeader(name = "Session-Id", required = true) String sessionId) {
@@ -131,22 +153,63 @@ public class ThreadController {
         return ResponseEntity.ok(threadService.addComment(threadId, comment));
     }
 
+    @DeleteMapping("/{threadId}/comments/{commentId}")
+    public ResponseEntity<Void> deleteComment(
+            @PathVariable Long threadId,
+            @PathVariable Long commentId,
+            @RequestHeader(name = "Session-Id", required = true) String sessionId) {
+        // Validate session and ensure the user can only delete their own comments
+        User currentUser = userService.validateSession(sessionId);
+        Comment existingComment = threadService.getComment(threadId, commentId);
+
+        if (!existingComment.getAuthorEmail().equals(currentUser.getUserEmail())) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN,
+                    "You can only delete your own comments");
+        }
+
+        threadService.deleteComment(threadId, commentId);
+        return ResponseEntity.noContent().build();
+    }
+
+    // Liking twice counts once; returns the comment's like count right away, though the stored counter lags a moment
+    @PostMapping("/{threadId}/comments/{commentId}/like")
+    public ResponseEntity<Map<String, Integer>> likeComment(
+            @PathVariable Long threadId,
+            @PathVariable Long commentId,
+            @RequestHeader(name = "Session-Id", required = true) String sessionId) {
+        // Validate session
+        User currentUser = userService.validateSession(sessionId);
+        return ResponseEntity.ok(Map.of("likes",
+                threadService.likeComment(threadId, commentId, currentUser.getUserEmail())));
+    }
+
+    @DeleteMapping("/{threadId}/comments/{commentId}/like")
+    public ResponseEntity<Map<String, Integer>> unlikeComment(
+            @PathVariable Long threadId,
+            @PathVariable Long commentId,
+            @RequestHeader(name = "Session-Id", required = true) String sessionId) {
+        // Validate session
+        User currentUser = userService.validateSession(sessionId);
+        return ResponseEntity.ok(Map.of("likes",
+                threadService.unlikeComment(threadId, commentId, currentUser.getUserEmail())));
+    }
+
     @PostMapping("/{id}/upvote")
-    public ResponseEntity<Thread> upvoteThread(
+    public ResponseEntity<Map<String, Integer>> upvoteThread(
             @PathVariable Long id,
             @RequestHeader(name = "Session-Id", required = true) String sessionId) {
         // Validate session
         User currentUser = userService.validateSession(sessionId);
-        return ResponseEntity.ok(threadService.upvoteThread(id, currentUser.getUserEmail()));
+        return ResponseEntity.ok(Map.of("vote", threadService.upvoteThread(id, currentUser.getUserEmail())));
     }
 
     @PostMapping("/{id}/downvote")
-    public ResponseEntity<Thread> downvoteThread(
+    public ResponseEntity<Map<String, Integer>> downvoteThread(
             @PathVariable Long id,
             @RequestHeader(name = "Session-Id", required = true) String sessionId) {
         // Validate session
         User currentUser = userService.validateSession(sessionId);
-        return ResponseEntity.ok(threadService.downvoteThread(id, currentUser.getUserEmail()));
+        return ResponseEntity.ok(Map.of("vote", threadService.downvoteThread(id, currentUser.getUserEmail())));
     }
 
     @GetMapping("/{id}/vote")
@@ -159,6 +222,36 @@ public class ThreadController {
         return ResponseEntity.ok(Map.of("vote", vote));
     }
 
+    // Followers are notified of new comments on the thread
+    @PostMapping("/{id}/follow")
+    public ResponseEntity<Map<String, Boolean>> followThread(
+            @PathVariable Long id,
+            @RequestHeader(name = "Session-Id", required = true) String sessionId) {
+        // Validate session
+        User currentUser = userService.validateSession(sessionId);
+        threadService.followThread(id, currentUser.getUserEmail());
+        return ResponseEntity.ok(Map.of("following", true));
+    }
+
+    @DeleteMapping("/{id}/follow")
+    public ResponseEntity<Map<String, Boolean>> unfollowThread(
+            @PathVariable Long id,
+            @RequestHeader(name = "Session-Id", required = true) String sessionId) {
+        // Validate session
+        User currentUser = userService.validateSession(sessionId);
+        threadService.unfollowThread(id, currentUser.getUserEmail());
+        return ResponseEntity.ok(Map.of("following", false));
+    }
+
+    @GetMapping("/{id}/follow")
+    public ResponseEntity<Map<String, Boolean>> isFollowing(
+            @PathVariable Long id,
+            @RequestHeader(name = "Session-Id", required = true) String sessionId) {
+        // Validate session
+        User currentUser = userService.validateSession(sessionId);
+        return ResponseEntity.ok(Map.of("following", threadService.isFollowing(id, currentUser.getUserEmail())));
+    }
+
     @GetMapping("/search")
     public ResponseEntity<List<Thread>> searchThreads(
             @RequestParam(required = false) String major,
@@ -177,5 +270,18 @@ public class ThreadController {
         return ResponseEntity.ok(threads);
     }
 
+    // Keyword search over titles, descriptions and comments, best match first, with course and major counts
+    @GetMapping("/search/text")
+    public ResponseEntity<ThreadSearchResults> searchText(
+            @RequestParam("q") String query,
+            @RequestParam(required = false) String course,
+            @RequestParam(required = false) String major,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestHeader(name = "Session-Id", required = true) String sessionId) {
+        // Validate session
+        userService.validateSession(sessionId);
+        return ResponseEntity.ok(threadService.searchText(query, course, major, limit));
+    }
+
 
 }
\ No newline at end of file
@@ -7,10 +7,18 @@ import org.springframework.web.bind.annotation.*;
 import lombok.RequiredArgsConstructor;
 import com.grapevine.model.login.LoginRequest;
 import com.grapevine.model.login.LoginResponse;
+import com.grapevine.service.CalendarService;
+import com.grapevine.service.ScheduleService;
 import com.grapevine.service.UserService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Map;
 
@@ -20,6 +28,8 @@ import java.util.Map;
 //@CrossOrigin(origins = "http://localhost:5173")
 public class UserController {
     private final UserService userService;
+    private final ScheduleService scheduleService;
+    private final CalendarService calendarService;
 
     @PostMapping("/register")
     public ResponseEntity<?> registerUser(@RequestBody User user) {
@@ -197,6 +207,108 @@ public class UserController {
         return userService.getAllShortEvents(userEmail);
     }
 
+    // Occurrences of the user's hosted and joined events overlapping [from, to), defaulting to the next week
+    @GetMapping("/{userEmail}/schedule")
+    public ResponseEntity<?> getSchedule(
+            @PathVariable String userEmail,
+            @RequestHeader(name = "Session-Id", required = true) String sessionId,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to
+    ) {
+        //Validate session
+        User currentUser = userService.validateSession(sessionId);
+        if (!currentUser.getUserEmail().equals(userEmail)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "You can only view your own schedule");
+        }
+
+        try {
+            LocalDateTime fromTime = from != null && !from.isEmpty() ? LocalDateTime.parse(from) : LocalDateTime.now();
+            LocalDateTime toTime = to != null && !to.isEmpty() ? LocalDateTime.parse(to) : fromTime.plusWeeks(1);
+            return ResponseEntity.ok(scheduleService.getSchedule(userEmail, fromTime, toTime));
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body("Invalid time format. Use ISO format (yyyy-MM-ddTHH:mm:ss)");
+        }
+    }
+
+    // The user's hosted and joined events as an iCalendar feed. Calendar apps can't send headers, so they pass the
+    // user's feed token as ?token= instead of a session; it unlocks this feed and nothing else. Polls with a
+    // matching If-None-Match get a 304 without the feed being built
+    @GetMapping("/{userEmail}/calendar.ics")
+    public ResponseEntity<StreamingResponseBody> getCalendarFeed(
+            @PathVariable String userEmail,
+            @RequestHeader(name = "Session-Id", required = false) String sessionId,
+            @RequestParam(name = "token", required = false) String feedToken,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        if (sessionId != null) {
+            //Validate session
+            User currentUser = userService.validateSession(sessionId);
+            if (!currentUser.getUserEmail().equals(userEmail)) {
+                throw new ResponseStatusException(HttpStatus.FORBIDDEN, "You can only view your own calendar");
+            }
+        } else if (!calendarService.isFeedToken(userEmail, feedToken)) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid or missing calendar feed token");
+        }
+
+        String tag = calendarService.feedTag(userEmail);
+        CacheControl cacheControl = CacheControl.noCache().cachePrivate();
+        if (matchesTag(ifNoneMatch, tag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(tag).cacheControl(cacheControl).build();
+        }
+
+        StreamingResponseBody body = out -> calendarService.writeFeed(userEmail, out);
+        return ResponseEntity.ok()
+                .eTag(tag)
+                .cacheControl(cacheControl)
+                .contentType(MediaType.parseMediaType("text/calendar;charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"calendar.ics\"")
+                .body(body);
+    }
+
+    // Issues a new calendar feed token for the user, revoking the previous one, for use in the feed URL
+    @PostMapping("/{userEmail}/calendar-token")
+    public ResponseEntity<Map<String, String>> issueCalendarFeedToken(
+            @PathVariable String userEmail,
+            @RequestHeader(name = "Session-Id", required = true) String sessionId
+    ) {
+        User currentUser = userService.validateSession(sessionId);
+        if (!currentUser.getUserEmail().equals(userEmail)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "You can only manage your own calendar feed");
+        }
+        return ResponseEntity.ok(Map.of("token", calendarService.issueFeedToken(userEmail)));
+    }
+
+    // Revokes the user's calendar feed token; subscribed calendar apps stop getting updates
+    @DeleteMapping("/{userEmail}/calendar-token")
+    public ResponseEntity<Void> revokeCalendarFeedToken(
+            @PathVariable String userEmail,
+            @RequestHeader(name = "Session-Id", required = true) String sessionId
+    ) {
+        User currentUser = userService.validateSession(sessionId);
+        if (!currentUser.getUserEmail().equals(userEmail)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "You can only manage your own calendar feed");
+        }
+        calendarService.revokeFeedToken(userEmail);
+        return ResponseEntity.noContent().build();
+    }
+
+    // If-None-Match uses weak comparison, so a W/ prefix added by a proxy still matches
+    private static boolean matchesTag(String ifNoneMatch, String tag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals("*") || value.equals(tag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @GetMapping("/{userEmail}/hosted-events")
     public List<Event> getHostedEvents(
             @PathVariable String userEmail,
@@ -290,6 +402,7 @@ public class UserController {
 
             // Delete the user
             userService.deleteUser(userEmail);
+            calendarService.revokeFeedToken(userEmail);
 
             // Also logout the session
             userService.logout(sessionId);
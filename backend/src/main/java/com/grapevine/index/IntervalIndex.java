@@ -0,0 +1,84 @@
+package com.grapevine.index;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * An immutable interval tree over half-open [start, end) intervals. The intervals are sorted by start and the
+ * sorted array is treated as a balanced tree, each node remembering the latest end in its subtree, so an
+ * overlap query is O(log n + k) for k matches. Built once in O(n log n); rebuild it to change the contents.
+ */
+public class IntervalIndex<T> {
+
+    public record Interval<T>(LocalDateTime start, LocalDateTime end, T value) {
+    }
+
+    private final List<Interval<T>> sorted;
+    private final LocalDateTime[] maxEnd;
+
+    public IntervalIndex(Collection<Interval<T>> intervals) {
+        this.sorted = new ArrayList<>(intervals);
+        this.sorted.sort(Comparator.comparing((Interval<T> interval) -> interval.start())
+                .thenComparing(Interval::end));
+        this.maxEnd = new LocalDateTime[sorted.size()];
+        build(0, sorted.size() - 1);
+    }
+
+    /**
+     * Every interval overlapping [start, end), ordered by start. Intervals that only touch it don't overlap.
+     */
+    public List<Interval<T>> overlapping(LocalDateTime start, LocalDateTime end) {
+        List<Interval<T>> result = new ArrayList<>();
+        if (start != null && end != null && start.isBefore(end)) {
+            collect(0, sorted.size() - 1, start, end, result);
+        }
+        return result;
+    }
+
+    public int size() {
+        return sorted.size();
+    }
+
+    private LocalDateTime build(int lo, int hi) {
+        if (lo > hi) {
+            return null;
+        }
+        int mid = (lo + hi) >>> 1;
+        LocalDateTime latest = sorted.get(mid).end();
+        LocalDateTime left = build(lo, mid - 1);
+        LocalDateTime right = build(mid + 1, hi);
+        if (left != null && left.isAfter(latest)) {
+            latest = left;
+        }
+        if (right != null && right.isAfter(latest)) {
+            latest = right;
+        }
+        maxEnd[mid] = latest;
+        return latest;
+    }
+
+    private void collect(int lo, int hi, LocalDateTime start, LocalDateTime end, List<Interval<T>> result) {
+        if (lo > hi) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        // Nothing in this subtree ends after the query starts
+        if (!maxEnd[mid].isAfter(start)) {
+            return;
+        }
+        collect(lo, mid - 1, start, end, result);
+
+        Interval<T> node = sorted.get(mid);
+        // This node and everything to its right start at or after the query ends
+        if (!node.start().isBefore(end)) {
+            return;
+        }
+        if (node.end().isAfter(start)) {
+            result.add(node);
+        }
+        collect(mid + 1, hi, start, end, result);
+    }
+}
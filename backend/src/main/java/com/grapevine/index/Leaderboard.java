@@ -0,0 +1,85 @@
+package com.grapevine.index;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Ids kept sorted by score (highest first, ties broken by lower id).
+ * Updating a score is O(log n) and reading the top k is O(k); reads never block writers.
+ * A board created with a capacity keeps only that many ids, dropping the lowest as better ones arrive.
+ */
+public class Leaderboard {
+
+    public record Entry(long id, double score) {
+    }
+
+    private static final Comparator<Entry> ORDER = Comparator
+            .comparingDouble(Entry::score).reversed()
+            .thenComparingLong(Entry::id);
+
+    private final ConcurrentSkipListSet<Entry> ranked = new ConcurrentSkipListSet<>(ORDER);
+    private final Map<Long, Entry> byId = new ConcurrentHashMap<>();
+    private final int capacity;
+
+    public Leaderboard() {
+        this(Integer.MAX_VALUE);
+    }
+
+    public Leaderboard(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Inserts the id or moves it to its new position.
+     */
+    public synchronized void update(long id, double score) {
+        Entry previous = byId.get(id);
+        if (previous != null) {
+            if (previous.score() == score) {
+                return;
+            }
+            ranked.remove(previous);
+        }
+
+        Entry entry = new Entry(id, score);
+        if (previous == null && byId.size() >= capacity) {
+            Entry lowest = ranked.last();
+            if (ORDER.compare(entry, lowest) > 0) {
+                return; // Wouldn't make the board
+            }
+            ranked.remove(lowest);
+            byId.remove(lowest.id());
+        }
+        ranked.add(entry);
+        byId.put(id, entry);
+    }
+
+    public synchronized void remove(long id) {
+        Entry previous = byId.remove(id);
+        if (previous != null) {
+            ranked.remove(previous);
+        }
+    }
+
+    public List<Entry> top(int k) {
+        List<Entry> result = new ArrayList<>(Math.min(k, ranked.size()));
+        Iterator<Entry> iterator = ranked.iterator();
+        while (result.size() < k && iterator.hasNext()) {
+            result.add(iterator.next());
+        }
+        return result;
+    }
+
+    public boolean contains(long id) {
+        return byId.containsKey(id);
+    }
+
+    public int size() {
+        return byId.size();
+    }
+}
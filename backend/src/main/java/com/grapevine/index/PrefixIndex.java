@@ -0,0 +1,97 @@
+package com.grapevine.index;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+/**
+ * Names kept sorted by their normalized form, so every name starting with a prefix is one contiguous range.
+ * Insert, rename and remove are O(log n); a lookup is O(log n + limit) and never blocks writers.
+ */
+public class PrefixIndex {
+
+    public record Match(long id, String name) {
+    }
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern CONTROL_CHARS = Pattern.compile("\\p{Cntrl}");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    // Separates the normalized name from the id in a key, and sorts below every character a name can contain
+    private static final char SEPARATOR = '\u0000';
+
+    private final ConcurrentSkipListMap<String, Match> sorted = new ConcurrentSkipListMap<>();
+    private final Map<Long, String> keys = new ConcurrentHashMap<>();
+
+    /**
+     * Lower-cases, strips accents and collapses whitespace, so "Études  Group" and "etudes group" compare equal.
+     */
+    public static String normalize(String name) {
+        if (name == null) {
+            return null;
+        }
+        String decomposed = Normalizer.normalize(name, Normalizer.Form.NFKD);
+        String stripped = COMBINING_MARKS.matcher(decomposed).replaceAll("");
+        stripped = CONTROL_CHARS.matcher(stripped).replaceAll(" ");
+        return WHITESPACE.matcher(stripped).replaceAll(" ").trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Inserts the name or replaces the previous name for the id.
+     */
+    public synchronized void put(long id, String name) {
+        remove(id);
+        String normalized = normalize(name);
+        if (normalized == null || normalized.isEmpty()) {
+            return;
+        }
+        String key = normalized + SEPARATOR + id;
+        sorted.put(key, new Match(id, name));
+        keys.put(id, key);
+    }
+
+    public synchronized void remove(long id) {
+        String key = keys.remove(id);
+        if (key != null) {
+            sorted.remove(key);
+        }
+    }
+
+    public synchronized void replaceAll(Map<Long, String> names) {
+        sorted.clear();
+        keys.clear();
+        names.forEach(this::put);
+    }
+
+    /**
+     * Up to limit names starting with the prefix, in alphabetical order of their normalized form.
+     */
+    public List<Match> search(String prefix, int limit) {
+        String normalized = normalize(prefix);
+        if (normalized == null || normalized.isEmpty() || limit <= 0) {
+            return new ArrayList<>();
+        }
+
+        List<Match> result = new ArrayList<>(Math.min(limit, 32));
+        for (Match match : sorted.subMap(normalized, true, normalized + Character.MAX_VALUE, false).values()) {
+            result.add(match);
+            if (result.size() >= limit) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    public boolean contains(long id) {
+        return keys.containsKey(id);
+    }
+
+    public int size() {
+        return keys.size();
+    }
+}
@@ -0,0 +1,310 @@
+package com.grapevine.index;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * An in-memory inverted index ranked with BM25. Each document is a bag of weighted terms plus a few facet values
+ * (course, major, ...) that searches can filter and count by. Postings map a term to the documents containing it,
+ * so a search only touches the documents that match one of its terms. Adding text to a document, replacing it and
+ * removing it are O(terms in the document). Searches share a read lock; writers take it exclusively.
+ * The whole index can be written to and read back from a stream.
+ */
+public class TextIndex {
+
+    public record Hit(long id, double score) {
+    }
+
+    public record Result(List<Hit> hits, int total, Map<String, Map<String, Integer>> facets) {
+    }
+
+    // BM25 term-frequency saturation and length normalization
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private static final int FORMAT_VERSION = 1;
+
+    // Longer runs are hashes, URLs and keyboard mashing, not words anyone searches for
+    static final int MAX_TOKEN_LENGTH = 40;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "but", "by", "for", "if", "in", "into", "is", "it",
+            "no", "not", "of", "on", "or", "such", "that", "the", "their", "then", "there", "these", "they",
+            "this", "to", "was", "will", "with", "i", "im", "you", "we", "do", "does", "can", "my", "me");
+
+    private static final class Document {
+        private final Map<String, Integer> terms = new HashMap<>();
+        private final Map<String, String> facets = new HashMap<>();
+        private long length;
+    }
+
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+    private long totalLength;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Lower-cased, accent-free words and numbers from the text, without stop words: "Who's taking CS-307?" gives
+     * [who, taking, cs, 307]. Single letters and runs longer than MAX_TOKEN_LENGTH are dropped.
+     */
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        String normalized = PrefixIndex.normalize(text);
+        if (normalized == null || normalized.isEmpty()) {
+            return tokens;
+        }
+        int start = -1;
+        for (int i = 0; i <= normalized.length(); i++) {
+            boolean wordChar = i < normalized.length() && Character.isLetterOrDigit(normalized.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                String token = normalized.substring(start, i);
+                if ((token.length() > 1 || Character.isDigit(token.charAt(0))) && token.length() <= MAX_TOKEN_LENGTH
+                        && !STOP_WORDS.contains(token)) {
+                    tokens.add(token);
+                }
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Starts the document over with the given facet values and no text.
+     */
+    public void reset(long id, Map<String, String> facets) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            Document document = new Document();
+            facets.forEach((name, value) -> {
+                if (value != null) {
+                    document.facets.put(name, value);
+                }
+            });
+            documents.put(id, document);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds the text's terms to the document, each occurrence counting weight times. Does nothing for an unknown id.
+     */
+    public void addText(long id, String text, int weight) {
+        List<String> tokens = tokenize(text);
+        if (tokens.isEmpty()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Document document = documents.get(id);
+            if (document == null) {
+                return;
+            }
+            for (String token : tokens) {
+                document.terms.merge(token, weight, Integer::sum);
+                postings.computeIfAbsent(token, t -> new HashMap<>()).merge(id, weight, Integer::sum);
+            }
+            document.length += (long) tokens.size() * weight;
+            totalLength += (long) tokens.size() * weight;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean contains(long id) {
+        lock.readLock().lock();
+        try {
+            return documents.containsKey(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Set<Long> ids() {
+        lock.readLock().lock();
+        try {
+            return new HashSet<>(documents.keySet());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The best limit documents matching any of the query's terms, best first, among those whose facets equal the
+     * filters. Facet counts cover every match: each facet is counted with the other facets' filters applied but not
+     * its own, so the counts show what narrowing or switching that facet would give.
+     */
+    public Result search(String query, Map<String, String> filters, int limit) {
+        Set<String> terms = new LinkedHashSet<>(tokenize(query));
+        Map<String, Map<String, Integer>> facets = new HashMap<>();
+        filters.keySet().forEach(name -> facets.put(name, new TreeMap<>()));
+        if (terms.isEmpty() || limit <= 0) {
+            return new Result(new ArrayList<>(), 0, facets);
+        }
+
+        lock.readLock().lock();
+        try {
+            int documentCount = documents.size();
+            double averageLength = documentCount > 0 ? (double) totalLength / documentCount : 0;
+            Map<Long, Double> scores = new HashMap<>();
+            for (String term : terms) {
+                Map<Long, Integer> postingList = postings.get(term);
+                if (postingList == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (documentCount - postingList.size() + 0.5) / (postingList.size() + 0.5));
+                for (Map.Entry<Long, Integer> posting : postingList.entrySet()) {
+                    double tf = posting.getValue();
+                    double length = documents.get(posting.getKey()).length;
+                    double norm = K1 * (1 - B + B * length / averageLength);
+                    scores.merge(posting.getKey(), idf * tf * (K1 + 1) / (tf + norm), Double::sum);
+                }
+            }
+
+            // Keep the best limit in a min-heap instead of sorting every match
+            PriorityQueue<Hit> best = new PriorityQueue<>(Comparator.comparingDouble(Hit::score)
+                    .thenComparing(Comparator.comparingLong(Hit::id).reversed()));
+            int total = 0;
+            for (Map.Entry<Long, Double> scored : scores.entrySet()) {
+                Document document = documents.get(scored.getKey());
+                String failed = null;
+                int failures = 0;
+                for (Map.Entry<String, String> filter : filters.entrySet()) {
+                    if (filter.getValue() != null && !filter.getValue().equals(document.facets.get(filter.getKey()))) {
+                        failed = filter.getKey();
+                        failures++;
+                    }
+                }
+                for (String name : filters.keySet()) {
+                    String value = document.facets.get(name);
+                    if (value != null && (failures == 0 || (failures == 1 && name.equals(failed)))) {
+                        facets.get(name).merge(value, 1, Integer::sum);
+                    }
+                }
+                if (failures > 0) {
+                    continue;
+                }
+
+                total++;
+                best.add(new Hit(scored.getKey(), scored.getValue()));
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+
+            List<Hit> hits = new ArrayList<>(best);
+            hits.sort(Comparator.comparingDouble(Hit::score).reversed().thenComparingLong(Hit::id));
+            return new Result(hits, total, facets);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void writeTo(DataOutputStream out) throws IOException {
+        lock.readLock().lock();
+        try {
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(documents.size());
+            for (Map.Entry<Long, Document> entry : documents.entrySet()) {
+                Document document = entry.getValue();
+                out.writeLong(entry.getKey());
+                out.writeLong(document.length);
+                out.writeInt(document.facets.size());
+                for (Map.Entry<String, String> facet : document.facets.entrySet()) {
+                    out.writeUTF(facet.getKey());
+                    out.writeUTF(facet.getValue());
+                }
+                out.writeInt(document.terms.size());
+                for (Map.Entry<String, Integer> term : document.terms.entrySet()) {
+                    out.writeUTF(term.getKey());
+                    out.writeInt(term.getValue());
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the whole index with one written by writeTo. Postings are rebuilt from the documents.
+     */
+    public void readFrom(DataInputStream in) throws IOException {
+        int version = in.readInt();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported text index format " + version);
+        }
+        Map<Long, Document> loaded = new HashMap<>();
+        int documentCount = in.readInt();
+        for (int i = 0; i < documentCount; i++) {
+            long id = in.readLong();
+            Document document = new Document();
+            document.length = in.readLong();
+            int facetCount = in.readInt();
+            for (int f = 0; f < facetCount; f++) {
+                document.facets.put(in.readUTF(), in.readUTF());
+            }
+            int termCount = in.readInt();
+            for (int t = 0; t < termCount; t++) {
+                document.terms.put(in.readUTF(), in.readInt());
+            }
+            loaded.put(id, document);
+        }
+
+        lock.writeLock().lock();
+        try {
+            documents.clear();
+            postings.clear();
+            totalLength = 0;
+            documents.putAll(loaded);
+            for (Map.Entry<Long, Document> entry : loaded.entrySet()) {
+                totalLength += entry.getValue().length;
+                entry.getValue().terms.forEach((term, tf) ->
+                        postings.computeIfAbsent(term, t -> new HashMap<>()).put(entry.getKey(), tf));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeLocked(long id) {
+        Document document = documents.remove(id);
+        if (document == null) {
+            return;
+        }
+        for (String term : document.terms.keySet()) {
+            Map<Long, Integer> postingList = postings.get(term);
+            if (postingList != null) {
+                postingList.remove(id);
+                if (postingList.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        totalLength -= document.length;
+    }
+}
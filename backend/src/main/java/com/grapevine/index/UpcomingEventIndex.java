@@ -0,0 +1,171 @@
+package com.grapevine.index;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.grapevine.model.RecurrenceRule;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Upcoming events ordered by (eventTime, eventId), overall and per location.
+ * Writes are O(log n); a time-window or top-k read is O(log n + k) and never blocks writers.
+ * Entries whose time has passed are dropped from the front of the index on the next read or write; a series
+ * is moved on to its next occurrence instead, and dropped only after its last one.
+ */
+public class UpcomingEventIndex {
+
+    public record Entry(long eventId, String name, Long locationId, LocalDateTime eventTime,
+                        int memberCount, int maxUsers, @JsonIgnore Series series) {
+
+        public Entry(long eventId, String name, Long locationId, LocalDateTime eventTime,
+                     int memberCount, int maxUsers) {
+            this(eventId, name, locationId, eventTime, memberCount, maxUsers, null);
+        }
+
+        private Entry at(LocalDateTime time) {
+            return new Entry(eventId, name, locationId, time, memberCount, maxUsers, series);
+        }
+    }
+
+    /**
+     * The recurrence of a series entry; eventTime is then the start of one occurrence.
+     */
+    public record Series(LocalDateTime start, RecurrenceRule rule) {
+
+        /**
+         * Start of the first occurrence strictly after time, or null once the series is over.
+         */
+        public LocalDateTime nextAfter(LocalDateTime time) {
+            List<LocalDateTime> next = rule.between(start, time.plusNanos(1), null, 1);
+            return next.isEmpty() ? null : next.get(0);
+        }
+    }
+
+    private record Key(LocalDateTime eventTime, long eventId) implements Comparable<Key> {
+        @Override
+        public int compareTo(Key other) {
+            int byTime = eventTime.compareTo(other.eventTime);
+            return byTime != 0 ? byTime : Long.compare(eventId, other.eventId);
+        }
+    }
+
+    private final ConcurrentSkipListMap<Key, Entry> byTime = new ConcurrentSkipListMap<>();
+    private final Map<Long, ConcurrentSkipListMap<Key, Entry>> byLocation = new ConcurrentHashMap<>();
+    private final Map<Long, Key> keys = new ConcurrentHashMap<>();
+
+    /**
+     * Inserts the event or moves it to its new time and location.
+     */
+    public synchronized void put(Entry entry) {
+        remove(entry.eventId());
+        Key key = new Key(entry.eventTime(), entry.eventId());
+        byTime.put(key, entry);
+        if (entry.locationId() != null) {
+            byLocation.computeIfAbsent(entry.locationId(), id -> new ConcurrentSkipListMap<>()).put(key, entry);
+        }
+        keys.put(entry.eventId(), key);
+    }
+
+    public synchronized void remove(long eventId) {
+        Key key = keys.remove(eventId);
+        if (key == null) {
+            return;
+        }
+        Entry previous = byTime.remove(key);
+        if (previous != null && previous.locationId() != null) {
+            Map<Key, Entry> location = byLocation.get(previous.locationId());
+            if (location != null) {
+                location.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Replaces the seat count of an indexed event; does nothing if the event isn't indexed.
+     */
+    public synchronized void updateMemberCount(long eventId, int memberCount) {
+        Key key = keys.get(eventId);
+        Entry previous = key != null ? byTime.get(key) : null;
+        if (previous != null && previous.memberCount() != memberCount) {
+            put(new Entry(previous.eventId(), previous.name(), previous.locationId(), previous.eventTime(),
+                    memberCount, previous.maxUsers(), previous.series()));
+        }
+    }
+
+    /**
+     * Replaces the whole index, e.g. after reloading it from the database.
+     */
+    public synchronized void replaceAll(Collection<Entry> entries) {
+        byTime.clear();
+        byLocation.clear();
+        keys.clear();
+        for (Entry entry : entries) {
+            put(entry);
+        }
+    }
+
+    /**
+     * Drops every event at or before now, moving a series to its next occurrence after now instead, and returns
+     * how many were removed.
+     */
+    public synchronized int expire(LocalDateTime now) {
+        int removed = 0;
+        Map.Entry<Key, Entry> first;
+        while ((first = byTime.firstEntry()) != null && !first.getKey().eventTime().isAfter(now)) {
+            Entry entry = first.getValue();
+            LocalDateTime next = entry.series() != null ? entry.series().nextAfter(now) : null;
+            if (next != null) {
+                put(entry.at(next));
+            } else {
+                remove(entry.eventId());
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Up to limit events after now, within [from, to] when given, optionally at one location, soonest first.
+     */
+    public List<Entry> upcoming(LocalDateTime now, LocalDateTime from, LocalDateTime to, Long locationId, int limit) {
+        if (!byTime.isEmpty() && !byTime.firstKey().eventTime().isAfter(now)) {
+            expire(now);
+        }
+
+        NavigableMap<Key, Entry> source = locationId == null ? byTime : byLocation.get(locationId);
+        if (source == null || limit <= 0) {
+            return new ArrayList<>();
+        }
+
+        // Start strictly after now, or at the start of the window if that is later
+        NavigableMap<Key, Entry> window = from != null && from.isAfter(now)
+                ? source.tailMap(new Key(from, Long.MIN_VALUE), true)
+                : source.tailMap(new Key(now, Long.MAX_VALUE), false);
+
+        List<Entry> result = new ArrayList<>(Math.min(limit, 64));
+        for (Entry entry : window.values()) {
+            if (to != null && entry.eventTime().isAfter(to)) {
+                break;
+            }
+            result.add(entry);
+            if (result.size() >= limit) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    public boolean contains(long eventId) {
+        return keys.containsKey(eventId);
+    }
+
+    public int size() {
+        return keys.size();
+    }
+}
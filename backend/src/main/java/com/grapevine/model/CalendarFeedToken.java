@@ -0,0 +1,39 @@
+package com.grapevine.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * A user's calendar subscription secret. It only unlocks that user's read-only iCalendar feed, so it can sit in a
+ * calendar app's URL in place of a session. One per user; issuing a new one replaces the old.
+ */
+@Entity
+@Table(name = "calendar_feed_tokens")
+@Getter
+@Setter
+@ToString(exclude = "token")
+@NoArgsConstructor
+public class CalendarFeedToken {
+
+    @Id
+    @Column(name = "user_email", nullable = false)
+    private String userEmail;
+
+    @Column(name = "token", nullable = false, unique = true)
+    private String token;
+
+    @CreationTimestamp
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    public CalendarFeedToken(String userEmail, String token) {
+        this.userEmail = userEmail;
+        this.token = token;
+    }
+}
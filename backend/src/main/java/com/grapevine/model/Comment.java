@@ -6,12 +6,13 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
 import org.hibernate.annotations.CreationTimestamp;
-import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "comments")
+@Table(name = "comments",
+        indexes = @Index(name = "idx_comments_thread", columnList = "thread_id, created_at, comment_id"))
 @Getter
 @Setter
 @ToString(exclude = "thread")
@@ -32,14 +33,20 @@ public class Comment {
     @Column(name = "author_name", nullable = false)
     private String authorName;
 
-    @Column(name = "likes")
+    // Only moved by the atomic UPDATE in CommentRepository (via CommentLikeAggregator), never by entity saves.
+    // Who liked it is in comment_likes (CommentLike)
+    @Column(name = "likes", updatable = false)
     private Integer likes = 0;
 
+    // Whether the user reading the page has liked it; filled in per request, not stored
+    @Transient
+    private boolean liked;
+
     @CreationTimestamp
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
-    @JsonBackReference
+    @JsonIgnore
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "thread_id")
     private Thread thread;
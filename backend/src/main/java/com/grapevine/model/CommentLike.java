@@ -0,0 +1,44 @@
+package com.grapevine.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.io.Serializable;
+
+/**
+ * One user's like on a comment; the primary key is what stops a user liking the same comment twice.
+ * Rows are written only with the statements in CommentLikeRepository. The comment's likes counter
+ * is moved separately by CommentLikeAggregator.
+ */
+@Entity
+@Table(name = "comment_likes")
+@IdClass(CommentLike.Key.class)
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+public class CommentLike {
+
+    @Id
+    @Column(name = "comment_id", nullable = false)
+    private Long commentId;
+
+    @Id
+    @Column(name = "user_email", nullable = false)
+    private String userEmail;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private Long commentId;
+        private String userEmail;
+    }
+}
@@ -0,0 +1,19 @@
+package com.grapevine.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing. Pass nextCursor back as ?cursor= to get the
+ * following page; it is null on the last page.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class CursorPage<T> {
+    private List<T> items;
+    private String nextCursor;
+}
@@ -1,5 +1,7 @@
 package com.grapevine.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.grapevine.index.PrefixIndex;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import lombok.Getter;
@@ -13,7 +15,15 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "events")
+@Table(name = "events", indexes = {
+        // Browse page: public events ordered by time, paged by (event_time, event_id)
+        @Index(name = "idx_events_public_time", columnList = "is_public, event_time, event_id"),
+        @Index(name = "idx_events_location", columnList = "location_id"),
+        // Retention job: oldest events first
+        @Index(name = "idx_events_time", columnList = "event_time, event_id"),
+        @Index(name = "idx_events_recurrence_end", columnList = "recurrence_end"),
+        @Index(name = "idx_events_search_name", columnList = "search_name")
+})
 @Getter
 @Setter
 @ToString
@@ -29,6 +39,11 @@ public class Event {
     @Column(name = "name", nullable = false)
     private String name;
 
+    // Normalized (lower-case, accent-free) copy of name so the prefix search can use an index
+    @JsonIgnore
+    @Column(name = "search_name")
+    private String searchName;
+
     @Column(name = "description")
     private String description;
 
@@ -42,20 +57,36 @@ public class Event {
     @Column(name = "location_id")
     private Long locationId;
 
+    // Start of the event, or of the first occurrence of a recurring series
     @Column(name = "event_time")
     private LocalDateTime eventTime;
 
+    // Length of each occurrence, for schedule conflicts; null means the default hour
+    @Column(name = "duration_minutes")
+    private Integer durationMinutes;
+
+    // RRULE subset (see RecurrenceRule); null for one-off events. Occurrences are expanded on read and
+    // per-occurrence changes live in event_occurrence_overrides, so a series is a single row
+    @Column(name = "recurrence_rule")
+    private String recurrenceRule;
+
+    // Start of the last occurrence of a recurring series, so range queries and retention don't expand rules
+    @Column(name = "recurrence_end")
+    private LocalDateTime recurrenceEnd;
+
     @NotNull
     @Column(name = "group_id", nullable = false)
     private Long groupId;
 
-    @ElementCollection
-    @Column(name = "host_emails")
+    // Filled only for single-event responses; the full roster lives in event_members and is paged through
+    // /events/{id}/members so it is never loaded or serialized with the event itself
+    @Transient
     private List<String> hosts;
 
-    @ElementCollection
-    @Column(name = "participant_emails")
-    private List<String> participants;
+    // Hosts + participants, kept in step with every join/leave so listings and capacity checks never count
+    // event_members rows. Only moved by the conditional UPDATEs in EventRepository, never by entity saves
+    @Column(name = "member_count", nullable = false, updatable = false)
+    private Integer memberCount = 0;
 
     @CreationTimestamp
     @Column(name = "created_at")
@@ -64,4 +95,21 @@ public class Event {
     @UpdateTimestamp
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    private void updateDerivedColumns() {
+        searchName = PrefixIndex.normalize(name);
+        recurrenceEnd = recurrenceRule != null && eventTime != null
+                ? RecurrenceRule.parse(recurrenceRule).lastOccurrence(eventTime)
+                : null;
+    }
+
+    /**
+     * Whether any occurrence of this event starts after the given time.
+     */
+    public boolean hasOccurrenceAfter(LocalDateTime time) {
+        LocalDateTime last = recurrenceRule != null && recurrenceEnd != null ? recurrenceEnd : eventTime;
+        return last != null && last.isAfter(time);
+    }
 }
\ No newline at end of file
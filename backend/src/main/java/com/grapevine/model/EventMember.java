@@ -0,0 +1,54 @@
+package com.grapevine.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row per user in an event. Joining or leaving touches a single row instead of
+ * reloading and rewriting the whole roster.
+ */
+@Entity
+@Table(name = "event_members",
+        uniqueConstraints = @UniqueConstraint(name = "uk_event_member", columnNames = {"event_id", "user_email"}),
+        indexes = {
+                @Index(name = "idx_event_member_roster", columnList = "event_id, member_id"),
+                @Index(name = "idx_event_member_role", columnList = "event_id, role, member_id"),
+                @Index(name = "idx_event_member_user", columnList = "user_email, event_id")
+        })
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+public class EventMember {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "member_id")
+    private Long memberId;
+
+    @Column(name = "event_id", nullable = false)
+    private Long eventId;
+
+    @Column(name = "user_email", nullable = false)
+    private String userEmail;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "role", nullable = false, length = 16)
+    private MemberRole role;
+
+    @CreationTimestamp
+    @Column(name = "joined_at", nullable = false, updatable = false)
+    private LocalDateTime joinedAt;
+
+    public EventMember(Long eventId, String userEmail, MemberRole role) {
+        this.eventId = eventId;
+        this.userEmail = userEmail;
+        this.role = role;
+    }
+}
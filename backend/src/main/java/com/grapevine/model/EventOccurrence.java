@@ -0,0 +1,11 @@
+package com.grapevine.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * One concrete occurrence of an event, with any override applied. occurrenceTime is the originally
+ * scheduled start and identifies the occurrence; eventTime is when it actually starts.
+ */
+public record EventOccurrence(Long eventId, String name, LocalDateTime occurrenceTime, LocalDateTime eventTime,
+                              Long locationId, String description, boolean recurring, boolean modified) {
+}
@@ -0,0 +1,69 @@
+package com.grapevine.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * A change to one occurrence of a recurring event: cancelled, moved, or held somewhere else.
+ * Only changed occurrences have a row; everything else comes from the series itself.
+ */
+@Entity
+@Table(name = "event_occurrence_overrides",
+        uniqueConstraints = @UniqueConstraint(name = "uk_event_occurrence",
+                columnNames = {"event_id", "occurrence_time"}),
+        indexes = @Index(name = "idx_event_occurrence_moved", columnList = "event_id, event_time"))
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+public class EventOccurrenceOverride {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "override_id")
+    private Long overrideId;
+
+    @Column(name = "event_id", nullable = false)
+    private Long eventId;
+
+    // The originally scheduled start, which identifies the occurrence even after it is moved
+    @Column(name = "occurrence_time", nullable = false)
+    private LocalDateTime occurrenceTime;
+
+    @Column(name = "cancelled", nullable = false)
+    private boolean cancelled = false;
+
+    // New start time, if the occurrence was moved
+    @Column(name = "event_time")
+    private LocalDateTime eventTime;
+
+    @Column(name = "location_id")
+    private Long locationId;
+
+    @Column(name = "description")
+    private String description;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public EventOccurrenceOverride(Long eventId, LocalDateTime occurrenceTime) {
+        this.eventId = eventId;
+        this.occurrenceTime = occurrenceTime;
+    }
+
+    /**
+     * True when the row no longer changes anything and can be deleted.
+     */
+    @JsonIgnore
+    public boolean isEmpty() {
+        return !cancelled && eventTime == null && locationId == null && description == null;
+    }
+}
@@ -0,0 +1,45 @@
+package com.grapevine.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * One user waiting for a seat in a full event. The generated id gives the FIFO order, so the head of an event's
+ * waitlist is the row with the lowest entry id.
+ */
+@Entity
+@Table(name = "event_waitlist",
+        uniqueConstraints = @UniqueConstraint(name = "uk_event_waitlist", columnNames = {"event_id", "user_email"}),
+        indexes = @Index(name = "idx_event_waitlist_order", columnList = "event_id, entry_id"))
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+public class EventWaitlistEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "entry_id")
+    private Long entryId;
+
+    @Column(name = "event_id", nullable = false)
+    private Long eventId;
+
+    @Column(name = "user_email", nullable = false)
+    private String userEmail;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    public EventWaitlistEntry(Long eventId, String userEmail) {
+        this.eventId = eventId;
+        this.userEmail = userEmail;
+    }
+}
@@ -17,7 +17,9 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "groups")
+@Table(name = "groups", indexes = {
+        @Index(name = "idx_groups_course", columnList = "course")
+})
 @Getter
 @Setter
 @ToString
@@ -36,6 +38,10 @@ public class Group {
     @Column(name = "description")
     private String description;
 
+    // Course key (e.g. CS30700) the group studies for; null for general groups
+    @Column(name = "course")
+    private String course;
+
     @NotNull
     @Column(name = "max_users", nullable = false)
     private Integer maxUsers;
@@ -44,13 +50,15 @@ public class Group {
     @Column(name = "is_public", nullable = false)
     private boolean isPublic;
 
-    @ElementCollection
-    @Column(name = "host_emails")
+    // Filled only for single-group responses; the full roster lives in group_members and is paged through
+    // /groups/{id}/members so it is never loaded or serialized with the group itself
+    @Transient
     private List<String> hosts;
 
-    @ElementCollection
-    @Column(name = "participant_emails")
-    private List<String> participants;
+    // Hosts + participants, kept in step with every join/leave so listings and capacity checks never count
+    // group_members rows. Only moved by the conditional UPDATEs in GroupRepository, never by entity saves
+    @Column(name = "member_count", nullable = false, updatable = false)
+    private Integer memberCount = 0;
 
     @OneToOne(cascade = CascadeType.ALL)
     @JoinColumn(name = "rating_id")
@@ -66,6 +74,8 @@ public class Group {
     private LocalDateTime updatedAt;
 
     @ElementCollection
+    @CollectionTable(name = "group_events", joinColumns = @JoinColumn(name = "group_id"),
+            indexes = @Index(name = "idx_group_events_event", columnList = "event_ids"))
     @Column(name = "event_ids")
     private List<Long> events;
 
@@ -0,0 +1,57 @@
+package com.grapevine.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "group_access_requests",
+        uniqueConstraints = @UniqueConstraint(name = "uk_access_request_group_user",
+                columnNames = {"group_id", "requester_email"}),
+        indexes = @Index(name = "idx_access_request_group_status", columnList = "group_id, status, created_at"))
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+public class GroupAccessRequest {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "access_request_id")
+    private Long accessRequestId;
+
+    // Opaque token embedded in the accept/reject links sent to hosts
+    @Column(name = "request_token", nullable = false, unique = true)
+    private String requestToken;
+
+    @Column(name = "group_id", nullable = false)
+    private Long groupId;
+
+    @Column(name = "requester_email", nullable = false)
+    private String requesterEmail;
+
+    @Column(name = "requester_name")
+    private String requesterName;
+
+    @Column(name = "status", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private Status status = Status.PENDING;
+
+    @CreationTimestamp
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "responded_at")
+    private LocalDateTime respondedAt;
+
+    public enum Status {
+        PENDING,
+        ACCEPTED,
+        REJECTED
+    }
+}
@@ -0,0 +1,54 @@
+package com.grapevine.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row per user in a group. Joining or leaving touches a single row instead of
+ * reloading and rewriting the whole roster.
+ */
+@Entity
+@Table(name = "group_members",
+        uniqueConstraints = @UniqueConstraint(name = "uk_group_member", columnNames = {"group_id", "user_email"}),
+        indexes = {
+                @Index(name = "idx_group_member_roster", columnList = "group_id, member_id"),
+                @Index(name = "idx_group_member_role", columnList = "group_id, role, member_id"),
+                @Index(name = "idx_group_member_user", columnList = "user_email, group_id")
+        })
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+public class GroupMember {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "member_id")
+    private Long memberId;
+
+    @Column(name = "group_id", nullable = false)
+    private Long groupId;
+
+    @Column(name = "user_email", nullable = false)
+    private String userEmail;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "role", nullable = false, length = 16)
+    private MemberRole role;
+
+    @CreationTimestamp
+    @Column(name = "joined_at", nullable = false, updatable = false)
+    private LocalDateTime joinedAt;
+
+    public GroupMember(Long groupId, String userEmail, MemberRole role) {
+        this.groupId = groupId;
+        this.userEmail = userEmail;
+        this.role = role;
+    }
+}
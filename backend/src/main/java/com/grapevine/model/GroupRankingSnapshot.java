@@ -0,0 +1,56 @@
+package com.grapevine.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * Last computed ranking inputs for a group, so the in-memory leaderboards can be
+ * restored on startup without waiting for the first full refresh.
+ */
+@Entity
+@Table(name = "group_ranking_snapshots")
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+public class GroupRankingSnapshot {
+
+    @Id
+    @Column(name = "group_id")
+    private Long groupId;
+
+    @Column(name = "group_name")
+    private String groupName;
+
+    @Column(name = "course")
+    private String course;
+
+    @Column(name = "rating_sum", nullable = false)
+    private double ratingSum;
+
+    @Column(name = "rating_count", nullable = false)
+    private int ratingCount;
+
+    @Column(name = "join_velocity", nullable = false)
+    private double joinVelocity;
+
+    @Column(name = "velocity_updated_at")
+    private LocalDateTime velocityUpdatedAt;
+
+    @Column(name = "upcoming_events", nullable = false)
+    private int upcomingEvents;
+
+    @Column(name = "trending_score", nullable = false)
+    private double trendingScore;
+
+    @Column(name = "rating_score", nullable = false)
+    private double ratingScore;
+
+    @Column(name = "computed_at")
+    private LocalDateTime computedAt;
+}
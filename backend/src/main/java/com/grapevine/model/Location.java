@@ -6,6 +6,9 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "locations")
@@ -31,4 +34,9 @@ public class Location {
     @Column(name = "maps_query")
     @JsonProperty("maps_query")
     private String mapsQuery;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    @JsonProperty("updated_at")
+    private LocalDateTime updatedAt;
 }
\ No newline at end of file
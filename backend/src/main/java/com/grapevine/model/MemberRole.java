@@ -0,0 +1,6 @@
+package com.grapevine.model;
+
+public enum MemberRole {
+    HOST,
+    PARTICIPANT
+}
@@ -51,6 +51,8 @@ public class Notification {
     public enum NotificationType {
         MESSAGE,
         EVENT_REMINDER,
-        COMMENT
+        COMMENT,
+        GROUP_ACCESS_REQUEST,
+        WAITLIST_PROMOTION
     }
 }
\ No newline at end of file
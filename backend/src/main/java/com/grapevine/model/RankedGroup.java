@@ -0,0 +1,17 @@
+package com.grapevine.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+@Getter
+@Setter
+@ToString
+@AllArgsConstructor
+public class RankedGroup {
+    private Long groupId;
+    private String name;
+    private String course;
+    private double score;
+}
@@ -0,0 +1,259 @@
+package com.grapevine.model;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The subset of RFC 5545 RRULE that event series use: FREQ=DAILY or WEEKLY, an optional INTERVAL,
+ * BYDAY for weekly rules, and exactly one of COUNT or UNTIL so every series has a last occurrence.
+ * Occurrences are never stored; they are computed for the window being asked for, starting from the
+ * period that contains the window instead of from the first occurrence.
+ */
+public record RecurrenceRule(Frequency frequency, int interval, Set<DayOfWeek> byDay, Integer count,
+                             LocalDateTime until) {
+
+    public enum Frequency {
+        DAILY, WEEKLY
+    }
+
+    // A semester of daily sessions fits comfortably; anything longer is almost certainly a mistake
+    public static final int MAX_OCCURRENCES = 400;
+
+    private static final DateTimeFormatter UNTIL_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+    private static final DateTimeFormatter UNTIL_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final List<String> DAY_CODES = List.of("MO", "TU", "WE", "TH", "FR", "SA", "SU");
+
+    public static RecurrenceRule parse(String rule) {
+        if (rule == null || rule.isBlank()) {
+            throw new IllegalArgumentException("Recurrence rule is empty");
+        }
+        String text = rule.trim();
+        if (text.regionMatches(true, 0, "RRULE:", 0, 6)) {
+            text = text.substring(6);
+        }
+
+        Frequency frequency = null;
+        int interval = 1;
+        Set<DayOfWeek> byDay = EnumSet.noneOf(DayOfWeek.class);
+        Integer count = null;
+        LocalDateTime until = null;
+
+        for (String part : text.split(";")) {
+            String[] pair = part.split("=", 2);
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Invalid recurrence rule part: " + part);
+            }
+            String value = pair[1].trim().toUpperCase(Locale.ROOT);
+            switch (pair[0].trim().toUpperCase(Locale.ROOT)) {
+                case "FREQ" -> {
+                    try {
+                        frequency = Frequency.valueOf(value);
+                    } catch (IllegalArgumentException e) {
+                        throw new IllegalArgumentException("Only DAILY and WEEKLY recurrence is supported");
+                    }
+                }
+                case "INTERVAL" -> interval = parsePositive("INTERVAL", value);
+                case "COUNT" -> count = parsePositive("COUNT", value);
+                case "UNTIL" -> until = parseUntil(value);
+                case "BYDAY" -> {
+                    for (String code : value.split(",")) {
+                        int day = DAY_CODES.indexOf(code.trim());
+                        if (day < 0) {
+                            throw new IllegalArgumentException("Invalid BYDAY value: " + code);
+                        }
+                        byDay.add(DayOfWeek.of(day + 1));
+                    }
+                }
+                case "WKST" -> {
+                    if (!value.equals("MO")) {
+                        throw new IllegalArgumentException("Only WKST=MO is supported");
+                    }
+                }
+                default -> throw new IllegalArgumentException("Unsupported recurrence rule part: " + pair[0]);
+            }
+        }
+
+        if (frequency == null) {
+            throw new IllegalArgumentException("Recurrence rule needs a FREQ");
+        }
+        if ((count == null) == (until == null)) {
+            throw new IllegalArgumentException("Recurrence rule needs exactly one of COUNT or UNTIL");
+        }
+        if (frequency == Frequency.DAILY && !byDay.isEmpty()) {
+            throw new IllegalArgumentException("BYDAY is only supported for WEEKLY recurrence");
+        }
+        return new RecurrenceRule(frequency, interval, byDay, count, until);
+    }
+
+    /**
+     * Checks the rule against the series start: it must produce at least one and at most
+     * {@link #MAX_OCCURRENCES} occurrences.
+     */
+    public void validate(LocalDateTime start) {
+        if (start == null) {
+            throw new IllegalArgumentException("Recurring events need an event time");
+        }
+        if (count != null && count > MAX_OCCURRENCES) {
+            throw new IllegalArgumentException("A series can have at most " + MAX_OCCURRENCES + " occurrences");
+        }
+        List<LocalDateTime> all = between(start, start, null, MAX_OCCURRENCES + 1);
+        if (all.isEmpty()) {
+            throw new IllegalArgumentException("Recurrence rule produces no occurrences");
+        }
+        if (all.size() > MAX_OCCURRENCES) {
+            throw new IllegalArgumentException("A series can have at most " + MAX_OCCURRENCES + " occurrences");
+        }
+    }
+
+    /**
+     * Start of the last occurrence, or null if there is none.
+     */
+    public LocalDateTime lastOccurrence(LocalDateTime start) {
+        LocalDateTime last = null;
+        for (LocalDateTime occurrence : between(start, start, null, MAX_OCCURRENCES)) {
+            last = occurrence;
+        }
+        return last;
+    }
+
+    /**
+     * Whether the series starting at start has an occurrence exactly at time.
+     */
+    public boolean isOccurrence(LocalDateTime start, LocalDateTime time) {
+        List<LocalDateTime> match = between(start, time, time, 1);
+        return !match.isEmpty();
+    }
+
+    /**
+     * Up to limit occurrence starts within [from, to] (to may be null for "no upper bound"), in time order.
+     * Work is proportional to the number of periods inside the window, not to how far the window is into the series.
+     */
+    public List<LocalDateTime> between(LocalDateTime start, LocalDateTime from, LocalDateTime to, int limit) {
+        List<LocalDateTime> result = new ArrayList<>();
+        if (start == null || limit <= 0 || (to != null && to.isBefore(start))) {
+            return result;
+        }
+        LocalDateTime windowStart = from == null || from.isBefore(start) ? start : from;
+
+        List<DayOfWeek> days = weekDays(start);
+        int perPeriod = frequency == Frequency.DAILY ? 1 : days.size();
+        // Occurrences in the first week, which may skip days that fall before the start
+        int inFirstPeriod = frequency == Frequency.DAILY ? 1
+                : (int) days.stream().filter(day -> day.getValue() >= start.getDayOfWeek().getValue()).count();
+
+        LocalDate firstPeriod = frequency == Frequency.DAILY
+                ? start.toLocalDate()
+                : start.toLocalDate().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        long periodDays = frequency == Frequency.DAILY ? interval : 7L * interval;
+
+        // Jump straight to the period containing the window start
+        long period = Math.max(0, ChronoUnit.DAYS.between(firstPeriod, windowStart.toLocalDate()) / periodDays);
+
+        while (result.size() < limit) {
+            LocalDate periodStart = firstPeriod.plusDays(period * periodDays);
+            if (to != null && periodStart.atStartOfDay().isAfter(to)) {
+                break;
+            }
+            if (until != null && periodStart.atStartOfDay().isAfter(until)) {
+                break;
+            }
+            // Index of the first occurrence in this period, for COUNT
+            long index = period == 0 ? 0 : inFirstPeriod + (period - 1) * perPeriod;
+            if (count != null && index >= count) {
+                break;
+            }
+
+            List<LocalDateTime> candidates = new ArrayList<>(perPeriod);
+            if (frequency == Frequency.DAILY) {
+                candidates.add(periodStart.atTime(start.toLocalTime()));
+            } else {
+                for (DayOfWeek day : days) {
+                    candidates.add(periodStart.with(TemporalAdjusters.nextOrSame(day)).atTime(start.toLocalTime()));
+                }
+            }
+
+            for (LocalDateTime candidate : candidates) {
+                if (candidate.isBefore(start)) {
+                    continue;
+                }
+                if (count != null && index >= count) {
+                    return result;
+                }
+                index++;
+                if ((until != null && candidate.isAfter(until)) || (to != null && candidate.isAfter(to))) {
+                    return result;
+                }
+                if (!candidate.isBefore(windowStart)) {
+                    result.add(candidate);
+                    if (result.size() >= limit) {
+                        return result;
+                    }
+                }
+            }
+            period++;
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder rule = new StringBuilder("FREQ=").append(frequency);
+        if (interval != 1) {
+            rule.append(";INTERVAL=").append(interval);
+        }
+        if (!byDay.isEmpty()) {
+            rule.append(";BYDAY=").append(byDay.stream().sorted()
+                    .map(day -> DAY_CODES.get(day.getValue() - 1)).collect(Collectors.joining(",")));
+        }
+        if (count != null) {
+            rule.append(";COUNT=").append(count);
+        }
+        if (until != null) {
+            rule.append(";UNTIL=").append(until.format(UNTIL_FORMAT));
+        }
+        return rule.toString();
+    }
+
+    private List<DayOfWeek> weekDays(LocalDateTime start) {
+        if (byDay.isEmpty()) {
+            return List.of(start.getDayOfWeek());
+        }
+        return byDay.stream().sorted().toList();
+    }
+
+    private static int parsePositive(String name, String value) {
+        try {
+            int parsed = Integer.parseInt(value);
+            if (parsed > 0) {
+                return parsed;
+            }
+        } catch (NumberFormatException e) {
+            // fall through
+        }
+        throw new IllegalArgumentException(name + " must be a positive number");
+    }
+
+    // UNTIL is compared against local event times, so a trailing Z is accepted but not converted
+    private static LocalDateTime parseUntil(String value) {
+        String local = value.endsWith("Z") ? value.substring(0, value.length() - 1) : value;
+        try {
+            if (local.length() == 8) {
+                return LocalDate.parse(local, UNTIL_DATE_FORMAT).atTime(23, 59, 59);
+            }
+            return LocalDateTime.parse(local, UNTIL_FORMAT);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("UNTIL must look like 20251215 or 20251215T235959");
+        }
+    }
+}
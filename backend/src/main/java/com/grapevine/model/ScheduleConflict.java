@@ -0,0 +1,9 @@
+package com.grapevine.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * An occurrence of a candidate event, [start, end), overlapping an entry already on the user's schedule.
+ */
+public record ScheduleConflict(LocalDateTime start, LocalDateTime end, ScheduleEntry conflictsWith) {
+}
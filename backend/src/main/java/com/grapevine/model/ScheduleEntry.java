@@ -0,0 +1,10 @@
+package com.grapevine.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * One occurrence on a user's schedule, as the half-open interval [start, end).
+ */
+public record ScheduleEntry(Long eventId, String name, LocalDateTime occurrenceTime, LocalDateTime start,
+                            LocalDateTime end, Long locationId) {
+}
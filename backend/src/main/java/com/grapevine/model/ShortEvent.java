@@ -14,4 +14,5 @@ public class ShortEvent {
     private String name;
     private Long locationId;
     private Boolean isPublic;
+    private Integer memberCount;
 }
\ No newline at end of file
@@ -14,4 +14,5 @@ public class ShortGroup {
     private String name;
     private boolean isPublic;
     private boolean isInstructorLed;
+    private Integer memberCount;
 }
\ No newline at end of file
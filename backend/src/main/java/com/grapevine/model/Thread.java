@@ -6,22 +6,26 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
-import com.fasterxml.jackson.annotation.JsonManagedReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.grapevine.index.HyperLogLog;
 
 import java.time.LocalDateTime;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 @Entity
-@Table(name = "threads")
+@Table(name = "threads",
+        indexes = {
+                @Index(name = "idx_threads_created", columnList = "created_at, thread_id"),
+                @Index(name = "idx_threads_activity", columnList = "last_activity_at, thread_id")
+        })
 @Getter
 @Setter
-@ToString(exclude = "comments")
+@ToString(exclude = {"comments", "viewerSketch"})
 @NoArgsConstructor
 public class Thread {
 
@@ -53,22 +57,26 @@ public class Thread {
     @Column(name = "updated_at")
     private ZonedDateTime updatedAt;
 
-    @Column(name = "upvotes")
+    // Vote counters; only moved by the atomic UPDATE in ThreadRepository, never by entity saves.
+    // Who voted which way is in thread_votes (ThreadVote)
+    @Column(name = "upvotes", updatable = false)
     private Integer upvotes = 0;
 
-    @Column(name = "downvotes")
+    @Column(name = "downvotes", updatable = false)
     private Integer downvotes = 0;
 
-    @ElementCollection
-    @CollectionTable(
-            name = "thread_votes",
-            joinColumns = @JoinColumn(name = "thread_id")
-    )
-    @MapKeyColumn(name = "user_email")
-    @Column(name = "vote")
-    private Map<String, Integer> votes = new HashMap<>();
+    // Kept in step with every comment insert/delete so listings never count comment rows.
+    // Only moved by the atomic UPDATEs in ThreadRepository, never by entity saves
+    @ColumnDefault("0")
+    @Column(name = "comment_count", nullable = false, updatable = false)
+    private Integer commentCount = 0;
 
-    @JsonManagedReference
+    // Creation time, then the time of the latest comment; moved the same way as commentCount
+    @Column(name = "last_activity_at", updatable = false)
+    private ZonedDateTime lastActivityAt;
+
+    // Never serialized: a thread's comments are paged through /threads/{id}/comments
+    @JsonIgnore
     @OneToMany(mappedBy = "thread", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Comment> comments = new ArrayList<>();
 
@@ -84,4 +92,21 @@ public class Thread {
 
     @Column(name = "notifications_enabled")
     private Boolean notificationsEnabled;
+
+    // Who has viewed the thread, as a HyperLogLog sketch. Only written by ThreadViewService's periodic merge,
+    // never by entity saves
+    @JsonIgnore
+    @Column(name = "viewer_sketch", length = HyperLogLog.MAX_BYTES, updatable = false)
+    private byte[] viewerSketch;
+
+    // Approximate unique viewers, including views not merged into viewerSketch yet; filled in per request
+    @Transient
+    private Long views;
+
+    @PrePersist
+    void initLastActivity() {
+        if (lastActivityAt == null) {
+            lastActivityAt = createdAt != null ? createdAt : ZonedDateTime.now();
+        }
+    }
 }
\ No newline at end of file
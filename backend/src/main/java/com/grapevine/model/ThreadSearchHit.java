@@ -0,0 +1,20 @@
+package com.grapevine.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * One full-text search result. The snippet is HTML-escaped text around the best match, with the
+ * matched words wrapped in &lt;mark&gt;.
+ */
+@Getter
+@Setter
+@ToString
+@AllArgsConstructor
+public class ThreadSearchHit {
+    private ThreadSummary thread;
+    private double score;
+    private String snippet;
+}
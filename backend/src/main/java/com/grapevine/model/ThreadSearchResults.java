@@ -0,0 +1,22 @@
+package com.grapevine.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The best hits for a full-text search, how many threads matched in total, and how many matches
+ * fall under each course and major (value to count).
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class ThreadSearchResults {
+    private List<ThreadSearchHit> hits;
+    private int total;
+    private Map<String, Integer> courses;
+    private Map<String, Integer> majors;
+}
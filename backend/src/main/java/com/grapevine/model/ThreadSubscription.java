@@ -0,0 +1,43 @@
+package com.grapevine.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.io.Serializable;
+
+/**
+ * A user following a thread, to be notified of new comments on it. Rows are written only with the statements
+ * in ThreadSubscriptionRepository; the primary key makes following twice a no-op.
+ */
+@Entity
+@Table(name = "thread_subscriptions")
+@IdClass(ThreadSubscription.Key.class)
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+public class ThreadSubscription {
+
+    @Id
+    @Column(name = "thread_id", nullable = false)
+    private Long threadId;
+
+    @Id
+    @Column(name = "user_email", nullable = false)
+    private String userEmail;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private Long threadId;
+        private String userEmail;
+    }
+}
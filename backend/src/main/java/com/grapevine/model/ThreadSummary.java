@@ -0,0 +1,32 @@
+package com.grapevine.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.time.ZonedDateTime;
+
+/**
+ * A thread as shown on the forum front page. Built directly by the listing query, so neither the comments
+ * nor the votes of a thread are loaded; description holds only the start of the text.
+ */
+@Getter
+@Setter
+@ToString
+@AllArgsConstructor
+public class ThreadSummary {
+    private Long threadId;
+    private String title;
+    private String description;
+    private String authorEmail;
+    private String authorName;
+    private User.Role authorRole;
+    private String major;
+    private String course;
+    private Integer upvotes;
+    private Integer downvotes;
+    private Integer commentCount;
+    private ZonedDateTime createdAt;
+    private ZonedDateTime lastActivityAt;
+}
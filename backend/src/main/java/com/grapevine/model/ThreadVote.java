@@ -0,0 +1,46 @@
+package com.grapevine.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.io.Serializable;
+
+/**
+ * One user's vote on a thread: 1 for up, -1 for down, 0 once taken back. Rows are written only with the
+ * statements in ThreadVoteRepository, and the thread's counters are moved by the same transaction.
+ */
+@Entity
+@Table(name = "thread_votes")
+@IdClass(ThreadVote.Key.class)
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+public class ThreadVote {
+
+    @Id
+    @Column(name = "thread_id", nullable = false)
+    private Long threadId;
+
+    @Id
+    @Column(name = "user_email", nullable = false)
+    private String userEmail;
+
+    @Column(name = "vote")
+    private Integer vote = 0;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private Long threadId;
+        private String userEmail;
+    }
+}
@@ -62,12 +62,16 @@ public class User {
     @Column(name = "joined_group_ids")
     private List<Long> joinedGroups;
 
-    // Add these fields to the User class
+    // Named tables and an index on the event id so the event retention job can drop references with one statement
     @ElementCollection
+    @CollectionTable(name = "user_hosted_events", joinColumns = @JoinColumn(name = "user_email"),
+            indexes = @Index(name = "idx_user_hosted_events_event", columnList = "hosted_event_ids"))
     @Column(name = "hosted_event_ids")
     private List<Long> hostedEvents;
 
     @ElementCollection
+    @CollectionTable(name = "user_joined_events", joinColumns = @JoinColumn(name = "user_email"),
+            indexes = @Index(name = "idx_user_joined_events_event", columnList = "joined_event_ids"))
     @Column(name = "joined_event_ids")
     private List<Long> joinedEvents;
 
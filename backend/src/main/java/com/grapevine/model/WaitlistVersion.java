@@ -0,0 +1,27 @@
+package com.grapevine.model;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Identifies the state of an event's waitlist rows: every insert raises the newest entry id and every delete lowers
+ * the count, so any change to the rows changes the version.
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+@AllArgsConstructor
+public class WaitlistVersion {
+    private long entries;
+    private long lastEntryId;
+
+    public WaitlistVersion added(long entryId) {
+        return new WaitlistVersion(entries + 1, Math.max(lastEntryId, entryId));
+    }
+
+    public WaitlistVersion removed() {
+        return new WaitlistVersion(entries - 1, lastEntryId);
+    }
+}
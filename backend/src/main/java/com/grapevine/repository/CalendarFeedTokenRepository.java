@@ -0,0 +1,10 @@
+package com.grapevine.repository;
+
+import com.grapevine.model.CalendarFeedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+
+public interface CalendarFeedTokenRepository extends JpaRepository<CalendarFeedToken, String> {
+    Optional<CalendarFeedToken> findByToken(String token);
+}
@@ -0,0 +1,45 @@
+package com.grapevine.repository;
+
+import com.grapevine.model.CommentLike;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface CommentLikeRepository extends JpaRepository<CommentLike, CommentLike.Key> {
+
+    // 1 only for the request that created the row, so a double click or a retried request counts once.
+    // Likes by different users are different rows and never wait on each other
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO comment_likes (comment_id, user_email) VALUES (:commentId, :userEmail) " +
+            "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("commentId") Long commentId, @Param("userEmail") String userEmail);
+
+    // 1 only for the request that removed the row
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM CommentLike l WHERE l.commentId = :commentId AND l.userEmail = :userEmail")
+    int deleteLike(@Param("commentId") Long commentId, @Param("userEmail") String userEmail);
+
+    // Which of a page of comments the user has liked
+    @Query("SELECT l.commentId FROM CommentLike l WHERE l.userEmail = :userEmail AND l.commentId IN :commentIds")
+    List<Long> findLikedCommentIds(@Param("userEmail") String userEmail, @Param("commentIds") Collection<Long> commentIds);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM CommentLike l WHERE l.commentId = :commentId")
+    int deleteByCommentId(@Param("commentId") Long commentId);
+
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM comment_likes WHERE comment_id IN " +
+            "(SELECT comment_id FROM comments WHERE thread_id = :threadId)", nativeQuery = true)
+    int deleteByThreadId(@Param("threadId") Long threadId);
+}
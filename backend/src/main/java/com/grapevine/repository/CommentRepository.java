@@ -0,0 +1,56 @@
+package com.grapevine.repository;
+
+import com.grapevine.model.Comment;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface CommentRepository extends JpaRepository<Comment, Long> {
+
+    // A thread's first comments, oldest first; served by idx_comments_thread
+    @Query("SELECT c FROM Comment c WHERE c.thread.threadId = :threadId ORDER BY c.createdAt ASC, c.commentId ASC")
+    List<Comment> findFirstByThread(@Param("threadId") Long threadId, Limit limit);
+
+    // The page after the (createdAt, commentId) cursor, in the same order
+    @Query("SELECT c FROM Comment c WHERE c.thread.threadId = :threadId " +
+            "AND (c.createdAt > :createdAt OR (c.createdAt = :createdAt AND c.commentId > :commentId)) " +
+            "ORDER BY c.createdAt ASC, c.commentId ASC")
+    List<Comment> findByThreadAfter(@Param("threadId") Long threadId, @Param("createdAt") LocalDateTime createdAt,
+                                    @Param("commentId") Long commentId, Limit limit);
+
+    // Comment bodies for the full-text index and search snippets. Columns: threadId, content
+    @Query("SELECT c.thread.threadId, c.content FROM Comment c WHERE c.thread.threadId IN :threadIds")
+    List<Object[]> findContentsByThreadIds(@Param("threadIds") Collection<Long> threadIds);
+
+    // The comment's stored like count, or null if it isn't on that thread. Doesn't include CommentLikeAggregator's
+    // unflushed likes
+    @Query("SELECT COALESCE(c.likes, 0) FROM Comment c WHERE c.commentId = :commentId AND c.thread.threadId = :threadId")
+    Integer findLikes(@Param("threadId") Long threadId, @Param("commentId") Long commentId);
+
+    // Moves the like counter by a batch of likes at once; 0 if the comment has been deleted
+    @Modifying(flushAutomatically = true)
+    @Transactional
+    @Query(value = "UPDATE comments SET likes = COALESCE(likes, 0) + :delta WHERE comment_id = :commentId", nativeQuery = true)
+    int applyLikeDelta(@Param("commentId") Long commentId, @Param("delta") int delta);
+
+    // Removes a thread's comments in one statement instead of loading them to cascade the delete
+    @Modifying(flushAutomatically = true)
+    @Transactional
+    @Query("DELETE FROM Comment c WHERE c.thread.threadId = :threadId")
+    int deleteByThreadId(@Param("threadId") Long threadId);
+
+    // Only the request that actually removed the row gets 1 back, so the thread's count moves once per comment
+    @Modifying(flushAutomatically = true)
+    @Transactional
+    @Query("DELETE FROM Comment c WHERE c.commentId = :commentId AND c.thread.threadId = :threadId")
+    int deleteFromThread(@Param("threadId") Long threadId, @Param("commentId") Long commentId);
+}
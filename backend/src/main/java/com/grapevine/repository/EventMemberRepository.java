@@ -0,0 +1,57 @@
+package com.grapevine.repository;
+
+import com.grapevine.model.EventMember;
+import com.grapevine.model.MemberRole;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface EventMemberRepository extends JpaRepository<EventMember, Long> {
+
+    boolean existsByEventIdAndUserEmail(Long eventId, String userEmail);
+
+    boolean existsByEventIdAndUserEmailAndRole(Long eventId, String userEmail, MemberRole role);
+
+    List<EventMember> findByEventId(Long eventId);
+
+    @Query("SELECT m.userEmail FROM EventMember m WHERE m.eventId = :eventId AND m.role = :role ORDER BY m.memberId")
+    List<String> findEmailsByEventIdAndRole(@Param("eventId") Long eventId, @Param("role") MemberRole role);
+
+    // Keyset pages over the roster in join order, served by idx_event_member_roster / idx_event_member_role
+    List<EventMember> findByEventIdAndMemberIdGreaterThanOrderByMemberIdAsc(Long eventId, Long afterMemberId, Limit limit);
+
+    List<EventMember> findByEventIdAndRoleAndMemberIdGreaterThanOrderByMemberIdAsc(Long eventId, MemberRole role,
+                                                                                 Long afterMemberId, Limit limit);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM EventMember m WHERE m.eventId = :eventId AND m.userEmail = :userEmail")
+    int removeMember(@Param("eventId") Long eventId, @Param("userEmail") String userEmail);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM EventMember m WHERE m.eventId = :eventId")
+    int deleteByEventId(@Param("eventId") Long eventId);
+
+    // Copies the group's first `limit` participants, in join order, into the event roster in one statement
+    @Modifying(flushAutomatically = true)
+    @Transactional
+    @Query(value = "INSERT INTO event_members (event_id, user_email, role, joined_at) " +
+            "SELECT :eventId, m.user_email, 'PARTICIPANT', CURRENT_TIMESTAMP FROM group_members m " +
+            "WHERE m.group_id = :groupId AND m.role = 'PARTICIPANT' ORDER BY m.member_id LIMIT :limit",
+            nativeQuery = true)
+    int enrollGroupParticipants(@Param("eventId") Long eventId, @Param("groupId") Long groupId,
+                                @Param("limit") int limit);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM EventMember m WHERE m.eventId IN :eventIds")
+    int deleteAllByEventIdIn(@Param("eventIds") List<Long> eventIds);
+}
@@ -0,0 +1,38 @@
+package com.grapevine.repository;
+
+import com.grapevine.model.EventOccurrenceOverride;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface EventOccurrenceOverrideRepository extends JpaRepository<EventOccurrenceOverride, Long> {
+
+    Optional<EventOccurrenceOverride> findByEventIdAndOccurrenceTime(Long eventId, LocalDateTime occurrenceTime);
+
+    // Overrides for occurrences scheduled in the window, plus occurrences moved into it from elsewhere
+    @Query("SELECT o FROM EventOccurrenceOverride o WHERE o.eventId IN :eventIds AND " +
+            "((o.occurrenceTime >= :from AND o.occurrenceTime <= :to) OR (o.eventTime >= :from AND o.eventTime <= :to))")
+    List<EventOccurrenceOverride> findInWindow(@Param("eventIds") Collection<Long> eventIds,
+                                               @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    List<EventOccurrenceOverride> findByEventIdIn(Collection<Long> eventIds);
+
+    // One row of (count, latest updatedAt) over the overrides of the user's events, for calendar ETags
+    @Query("SELECT COUNT(o), MAX(o.updatedAt) FROM EventOccurrenceOverride o WHERE o.eventId IN " +
+            "(SELECT m.eventId FROM EventMember m WHERE m.userEmail = :userEmail)")
+    List<Object[]> summarizeForUser(@Param("userEmail") String userEmail);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM EventOccurrenceOverride o WHERE o.eventId IN :eventIds")
+    int deleteAllByEventIdIn(@Param("eventIds") List<Long> eventIds);
+}
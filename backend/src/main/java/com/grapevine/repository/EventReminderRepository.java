@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -24,6 +25,11 @@ public interface EventReminderRepository extends JpaRepository<EventReminder, Lo
     @Query("UPDATE EventReminder er SET er.sent = true WHERE er.reminderId = :reminderId")
     void markAsSent(Long reminderId);
 
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM EventReminder er WHERE er.eventId IN :eventIds")
+    int deleteAllByEventIdIn(@Param("eventIds") List<Long> eventIds);
+
     @Query(value = "SELECT * FROM event_reminders r WHERE " +
             "DATE_TRUNC('minute', r.reminder_time) <= DATE_TRUNC('minute', CAST(:currentTime AS timestamp)) AND " +
             "DATE_TRUNC('minute', r.reminder_time) > DATE_TRUNC('minute', CAST(:currentTime AS timestamp) - INTERVAL '1 minute') AND " +
@@ -1,9 +1,74 @@
 package com.grapevine.repository;
 
 import com.grapevine.model.Event;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 @Repository
-public interface EventRepository extends JpaRepository<Event, Long> {
-}
\ No newline at end of file
+public interface EventRepository extends JpaRepository<Event, Long>, JpaSpecificationExecutor<Event> {
+
+    // Warms the in-memory upcoming events index; served by idx_events_public_time and idx_events_recurrence_end
+    @Query("SELECT e FROM Event e WHERE e.isPublic = true AND (e.eventTime > :now OR e.recurrenceEnd > :now) " +
+            "ORDER BY e.eventTime, e.eventId")
+    List<Event> findUpcomingPublicEvents(@Param("now") LocalDateTime now);
+
+    // Rows of (eventId, name) for the name typeahead
+    @Query("SELECT e.eventId, e.name FROM Event e WHERE e.isPublic = true")
+    List<Object[]> findPublicEventNames();
+
+    // Every event the user hosts or joined that still has an occurrence after from, for the schedule index;
+    // the membership side is served by idx_event_member_user
+    @Query("SELECT e FROM Event e WHERE e.eventId IN " +
+            "(SELECT m.eventId FROM EventMember m WHERE m.userEmail = :userEmail) " +
+            "AND (e.eventTime >= :from OR e.recurrenceEnd >= :from)")
+    List<Event> findScheduledForUser(@Param("userEmail") String userEmail, @Param("from") LocalDateTime from);
+
+    // One row of (count, sum of ids, latest updatedAt) over the same events, so a calendar client's cached copy
+    // can be validated without loading them; the count and id sum change when events are joined, left or deleted
+    @Query("SELECT COUNT(e), COALESCE(SUM(e.eventId), 0), MAX(e.updatedAt) FROM Event e WHERE e.eventId IN " +
+            "(SELECT m.eventId FROM EventMember m WHERE m.userEmail = :userEmail) " +
+            "AND (e.eventTime >= :from OR e.recurrenceEnd >= :from)")
+    List<Object[]> summarizeScheduledForUser(@Param("userEmail") String userEmail, @Param("from") LocalDateTime from);
+
+    // Oldest finished events first, one retention batch at a time; a series is finished after its last occurrence
+    @Query("SELECT e.eventId FROM Event e WHERE (e.recurrenceRule IS NULL AND e.eventTime < :cutoff) " +
+            "OR e.recurrenceEnd < :cutoff ORDER BY e.eventTime, e.eventId")
+    List<Long> findIdsEndedBefore(@Param("cutoff") LocalDateTime cutoff, Limit limit);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Event e WHERE e.eventId IN :eventIds")
+    int deleteAllByEventIdIn(@Param("eventIds") List<Long> eventIds);
+
+    // Rows of (groupId, number of events still to come)
+    @Query("SELECT e.groupId, COUNT(e) FROM Event e WHERE e.eventTime > :now OR e.recurrenceEnd > :now GROUP BY e.groupId")
+    List<Object[]> countUpcomingEventsByGroup(@Param("now") LocalDateTime now);
+
+    // Claims one seat only if the event still has room; returns 0 when full, so concurrent joins can't overbook
+    @Modifying(flushAutomatically = true)
+    @Transactional
+    @Query(value = "UPDATE events SET member_count = member_count + 1 " +
+            "WHERE event_id = :eventId AND member_count < max_users", nativeQuery = true)
+    int reserveSeat(@Param("eventId") Long eventId);
+
+    // Seats taken by participants enrolled in bulk when the event is created
+    @Modifying(flushAutomatically = true)
+    @Transactional
+    @Query(value = "UPDATE events SET member_count = member_count + :seats WHERE event_id = :eventId", nativeQuery = true)
+    int addSeats(@Param("eventId") Long eventId, @Param("seats") int seats);
+
+    @Modifying(flushAutomatically = true)
+    @Transactional
+    @Query(value = "UPDATE events SET member_count = member_count - 1 " +
+            "WHERE event_id = :eventId AND member_count > 0", nativeQuery = true)
+    int releaseSeat(@Param("eventId") Long eventId);
+}
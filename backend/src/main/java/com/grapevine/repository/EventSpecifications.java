@@ -0,0 +1,90 @@
+package com.grapevine.repository;
+
+import com.grapevine.index.PrefixIndex;
+import com.grapevine.model.Event;
+import com.grapevine.model.EventFilter;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Criteria predicates for the events browse page. Every {@link EventFilter} field maps to a
+ * column condition, so filtering happens in SQL over the events indexes instead of in memory.
+ */
+public final class EventSpecifications {
+
+    private EventSpecifications() {
+    }
+
+    public static Specification<Event> matching(EventFilter filter, LocalDateTime now) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(cb.isTrue(root.get("isPublic")));
+
+            if (filter.getSearch() != null && !filter.getSearch().trim().isEmpty()) {
+                String prefix = escapeLike(PrefixIndex.normalize(filter.getSearch()));
+                predicates.add(cb.like(root.get("searchName"), prefix + "%", '\\'));
+            }
+            if (filter.getMinUsers() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("memberCount"), filter.getMinUsers()));
+            }
+            if (filter.getMaxUsers() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("memberCount"), filter.getMaxUsers()));
+            }
+            if (Boolean.TRUE.equals(filter.getOnlyFullEvents())) {
+                predicates.add(cb.greaterThanOrEqualTo(root.<Integer>get("memberCount"), root.<Integer>get("maxUsers")));
+            }
+            if (filter.getStartTime() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("eventTime"), filter.getStartTime()));
+            }
+            if (filter.getEndTime() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("eventTime"), filter.getEndTime()));
+            }
+            if (filter.getLocationId() != null) {
+                predicates.add(cb.equal(root.get("locationId"), filter.getLocationId()));
+            }
+            // Past events are excluded by default; events without a time are never "past", and a series
+            // stays listed until its last occurrence
+            if (!Boolean.TRUE.equals(filter.getIncludePastEvents())) {
+                predicates.add(cb.or(
+                        cb.isNull(root.get("eventTime")),
+                        cb.greaterThanOrEqualTo(root.get("eventTime"), now),
+                        cb.greaterThanOrEqualTo(root.get("recurrenceEnd"), now)));
+            }
+
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * Keyset condition for timed events strictly after (eventTime, eventId); a null eventTime starts from the beginning.
+     */
+    public static Specification<Event> timedAfter(LocalDateTime eventTime, Long eventId) {
+        return (root, query, cb) -> {
+            Predicate timed = cb.isNotNull(root.get("eventTime"));
+            if (eventTime == null) {
+                return timed;
+            }
+            return cb.and(timed, cb.or(
+                    cb.greaterThan(root.get("eventTime"), eventTime),
+                    cb.and(cb.equal(root.get("eventTime"), eventTime),
+                            cb.greaterThan(root.get("eventId"), eventId))));
+        };
+    }
+
+    /**
+     * Keyset condition for events without a time, which are listed after all timed events.
+     */
+    public static Specification<Event> untimedAfter(Long eventId) {
+        return (root, query, cb) -> cb.and(
+                cb.isNull(root.get("eventTime")),
+                cb.greaterThan(root.get("eventId"), eventId));
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
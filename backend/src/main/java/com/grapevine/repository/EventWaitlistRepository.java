@@ -0,0 +1,38 @@
+package com.grapevine.repository;
+
+import com.grapevine.model.EventWaitlistEntry;
+import com.grapevine.model.WaitlistVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface EventWaitlistRepository extends JpaRepository<EventWaitlistEntry, Long> {
+
+    boolean existsByEventIdAndUserEmail(Long eventId, String userEmail);
+
+    // The whole waitlist in FIFO order, served by idx_event_waitlist_order
+    @Query("SELECT w.userEmail FROM EventWaitlistEntry w WHERE w.eventId = :eventId ORDER BY w.entryId")
+    List<String> findEmailsInOrder(@Param("eventId") Long eventId);
+
+    // Checked before trusting the in-memory queue; served by idx_event_waitlist_order without touching the rows
+    @Query("SELECT new com.grapevine.model.WaitlistVersion(COUNT(w), COALESCE(MAX(w.entryId), 0)) " +
+            "FROM EventWaitlistEntry w WHERE w.eventId = :eventId")
+    WaitlistVersion findVersion(@Param("eventId") Long eventId);
+
+    // Claims the entry; returns 0 if it was already promoted or withdrawn, so it can only be used once
+    @Modifying(flushAutomatically = true)
+    @Transactional
+    @Query("DELETE FROM EventWaitlistEntry w WHERE w.eventId = :eventId AND w.userEmail = :userEmail")
+    int removeEntry(@Param("eventId") Long eventId, @Param("userEmail") String userEmail);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM EventWaitlistEntry w WHERE w.eventId IN :eventIds")
+    int deleteAllByEventIdIn(@Param("eventIds") List<Long> eventIds);
+}
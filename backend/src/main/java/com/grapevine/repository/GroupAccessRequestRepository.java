@@ -0,0 +1,39 @@
+package com.grapevine.repository;
+
+import com.grapevine.model.GroupAccessRequest;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface GroupAccessRequestRepository extends JpaRepository<GroupAccessRequest, Long> {
+
+    Optional<GroupAccessRequest> findByRequestToken(String requestToken);
+
+    Optional<GroupAccessRequest> findByGroupIdAndRequesterEmail(Long groupId, String requesterEmail);
+
+    List<GroupAccessRequest> findByGroupIdAndStatusOrderByCreatedAtAsc(Long groupId, GroupAccessRequest.Status status);
+
+    // Moves a request out of PENDING exactly once; returns 0 if another response already won
+    @Modifying
+    @Transactional
+    @Query("UPDATE GroupAccessRequest r SET r.status = :status, r.respondedAt = :respondedAt " +
+            "WHERE r.accessRequestId = :id AND r.status = :pending")
+    int resolvePending(@Param("id") Long accessRequestId,
+                       @Param("pending") GroupAccessRequest.Status pending,
+                       @Param("status") GroupAccessRequest.Status status,
+                       @Param("respondedAt") LocalDateTime respondedAt);
+
+    // Puts a resolved request back to PENDING, e.g. when an accept could not get a seat in the group
+    @Modifying
+    @Transactional
+    @Query("UPDATE GroupAccessRequest r SET r.status = :pending, r.respondedAt = null WHERE r.accessRequestId = :id")
+    int reopen(@Param("id") Long accessRequestId, @Param("pending") GroupAccessRequest.Status pending);
+}
@@ -0,0 +1,40 @@
+package com.grapevine.repository;
+
+import com.grapevine.model.GroupMember;
+import com.grapevine.model.MemberRole;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface GroupMemberRepository extends JpaRepository<GroupMember, Long> {
+
+    boolean existsByGroupIdAndUserEmail(Long groupId, String userEmail);
+
+    boolean existsByGroupIdAndUserEmailAndRole(Long groupId, String userEmail, MemberRole role);
+
+    @Query("SELECT m.userEmail FROM GroupMember m WHERE m.groupId = :groupId AND m.role = :role ORDER BY m.memberId")
+    List<String> findEmailsByGroupIdAndRole(@Param("groupId") Long groupId, @Param("role") MemberRole role);
+
+    // Keyset pages over the roster in join order, served by idx_group_member_roster / idx_group_member_role
+    List<GroupMember> findByGroupIdAndMemberIdGreaterThanOrderByMemberIdAsc(Long groupId, Long afterMemberId, Limit limit);
+
+    List<GroupMember> findByGroupIdAndRoleAndMemberIdGreaterThanOrderByMemberIdAsc(Long groupId, MemberRole role,
+                                                                                 Long afterMemberId, Limit limit);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM GroupMember m WHERE m.groupId = :groupId AND m.userEmail = :userEmail")
+    int removeMember(@Param("groupId") Long groupId, @Param("userEmail") String userEmail);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM GroupMember m WHERE m.groupId = :groupId")
+    int deleteByGroupId(@Param("groupId") Long groupId);
+}
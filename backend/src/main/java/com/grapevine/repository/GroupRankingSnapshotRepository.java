@@ -0,0 +1,9 @@
+package com.grapevine.repository;
+
+import com.grapevine.model.GroupRankingSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface GroupRankingSnapshotRepository extends JpaRepository<GroupRankingSnapshot, Long> {
+}
@@ -1,12 +1,52 @@
 package com.grapevine.repository;
 
 import com.grapevine.model.Group;
+import com.grapevine.model.ShortGroup;
 import com.grapevine.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
 public interface GroupRepository extends JpaRepository<Group, Long> {
-}
\ No newline at end of file
+
+    // Listing projections read member_count directly, so hosts/participants are never loaded
+    @Query("SELECT new com.grapevine.model.ShortGroup(g.groupId, g.name, g.isPublic, g.isInstructorLed, g.memberCount) " +
+            "FROM Group g ORDER BY g.groupId")
+    List<ShortGroup> findAllShortGroups();
+
+    @Query("SELECT new com.grapevine.model.ShortGroup(g.groupId, g.name, g.isPublic, g.isInstructorLed, g.memberCount) " +
+            "FROM Group g WHERE g.isPublic = :isPublic ORDER BY g.groupId")
+    List<ShortGroup> findShortGroupsByPublicStatus(@Param("isPublic") boolean isPublic);
+
+    // Rows of (groupId, name) for the name typeahead
+    @Query("SELECT g.groupId, g.name FROM Group g")
+    List<Object[]> findAllGroupNames();
+
+    // One row per group: id, name, course, number of real (non-zero) rating scores and their sum
+    @Query(value = "SELECT g.group_id, g.name, g.course, COUNT(s.score), COALESCE(SUM(s.score), 0) " +
+            "FROM groups g LEFT JOIN rating_scores s ON s.rating_id = g.rating_id AND s.score > 0 " +
+            "GROUP BY g.group_id, g.name, g.course", nativeQuery = true)
+    List<Object[]> findRankingInputs();
+
+    // Claims one seat only if the group still has room; returns 0 when full, so concurrent joins can't overbook
+    @Modifying(flushAutomatically = true)
+    @Transactional
+    @Query(value = "UPDATE groups SET member_count = member_count + 1 " +
+            "WHERE group_id = :groupId AND member_count < max_users", nativeQuery = true)
+    int reserveSeat(@Param("groupId") Long groupId);
+
+    @Modifying(flushAutomatically = true)
+    @Transactional
+    @Query(value = "UPDATE groups SET member_count = member_count - 1 " +
+            "WHERE group_id = :groupId AND member_count > 0", nativeQuery = true)
+    int releaseSeat(@Param("groupId") Long groupId);
+
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM group_events WHERE event_ids IN (:eventIds)", nativeQuery = true)
+    int removeEventReferences(@Param("eventIds") List<Long> eventIds);
+}
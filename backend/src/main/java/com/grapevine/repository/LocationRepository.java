@@ -2,7 +2,21 @@ package com.grapevine.repository;
 
 import com.grapevine.model.Location;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
 
 public interface LocationRepository extends JpaRepository<Location, Long> {
     Location findByShortName(String shortName);
+
+    // Latest updatedAt over the locations a user's calendar feed names, either on one of the events or on one of
+    // their overrides, for calendar ETags
+    @Query("SELECT MAX(l.updatedAt) FROM Location l WHERE l.locationId IN " +
+            "(SELECT e.locationId FROM Event e WHERE e.eventId IN " +
+            "(SELECT m.eventId FROM EventMember m WHERE m.userEmail = :userEmail) " +
+            "AND (e.eventTime >= :from OR e.recurrenceEnd >= :from)) " +
+            "OR l.locationId IN (SELECT o.locationId FROM EventOccurrenceOverride o WHERE o.eventId IN " +
+            "(SELECT m.eventId FROM EventMember m WHERE m.userEmail = :userEmail))")
+    LocalDateTime findLatestUpdateForUser(@Param("userEmail") String userEmail, @Param("from") LocalDateTime from);
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+package com.grapevine.repository;
+
+import java.util.List;
+
+public interface NotificationRepositoryCustom {
+
+    // One COMMENT row for each of the thread's followers and for its author if they kept notifications on, written
+    // by a single statement however many there are. The commenter is left out, and nothing is written for a deleted
+    // thread. Returns the new rows' ids
+    List<Long> insertThreadCommentNotifications(Long threadId, String senderEmail, String senderName,
+                                                String authorContent, String followerContent);
+}
@@ -0,0 +1,58 @@
+package com.grapevine.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class NotificationRepositoryImpl implements NotificationRepositoryCustom {
+
+    // Plain JDBC so the driver hands back the generated ids (RETURNING on PostgreSQL), which a native query can't
+    private static final String INSERT_THREAD_COMMENT_NOTIFICATIONS =
+            "INSERT INTO notifications (recipient_email, sender_email, sender_name, type, content, " +
+            "reference_id, is_read, created_at) " +
+            "SELECT r.email, ?, ?, 'COMMENT', " +
+            "CASE WHEN r.email = t.author_email THEN ? ELSE ? END, " +
+            "t.thread_id, false, ? " +
+            "FROM threads t CROSS JOIN (" +
+            "SELECT s.user_email AS email FROM thread_subscriptions s WHERE s.thread_id = ? " +
+            "UNION SELECT a.author_email FROM threads a WHERE a.thread_id = ? AND a.notifications_enabled = true" +
+            ") r WHERE t.thread_id = ? AND r.email <> ?";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Long> insertThreadCommentNotifications(Long threadId, String senderEmail, String senderName,
+                                                       String authorContent, String followerContent) {
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_THREAD_COMMENT_NOTIFICATIONS,
+                    new String[]{"notification_id"})) {
+                statement.setString(1, senderEmail);
+                statement.setString(2, senderName);
+                statement.setString(3, authorContent);
+                statement.setString(4, followerContent);
+                statement.setTimestamp(5, Timestamp.valueOf(LocalDateTime.now()));
+                statement.setLong(6, threadId);
+                statement.setLong(7, threadId);
+                statement.setLong(8, threadId);
+                statement.setString(9, senderEmail);
+                statement.executeUpdate();
+
+                List<Long> ids = new ArrayList<>();
+                try (ResultSet keys = statement.getGeneratedKeys()) {
+                    while (keys.next()) {
+                        ids.add(keys.getLong(1));
+                    }
+                }
+                return ids;
+            }
+        });
+    }
+}
@@ -1,16 +1,117 @@
 package com.grapevine.repository;
 
 import com.grapevine.model.Thread;
+import com.grapevine.model.ThreadSummary;
 import com.grapevine.model.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.ZonedDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface ThreadRepository extends JpaRepository<Thread, Long> {
 
-    List<Thread> findAllByOrderByCreatedAtDesc();
+    // Newest threads first, as summaries; served by idx_threads_created
+    @Query("SELECT new com.grapevine.model.ThreadSummary(t.threadId, t.title, SUBSTRING(t.description, 1, 200), " +
+            "t.authorEmail, t.authorName, t.authorRole, t.major, t.course, t.upvotes, t.downvotes, t.commentCount, " +
+            "t.createdAt, t.lastActivityAt) FROM Thread t " +
+            "ORDER BY t.createdAt DESC, t.threadId DESC")
+    List<ThreadSummary> findNewestSummaries(Limit limit);
+
+    // The page after the (createdAt, threadId) cursor, in the same order
+    @Query("SELECT new com.grapevine.model.ThreadSummary(t.threadId, t.title, SUBSTRING(t.description, 1, 200), " +
+            "t.authorEmail, t.authorName, t.authorRole, t.major, t.course, t.upvotes, t.downvotes, t.commentCount, " +
+            "t.createdAt, t.lastActivityAt) FROM Thread t " +
+            "WHERE t.createdAt < :createdAt OR (t.createdAt = :createdAt AND t.threadId < :threadId) " +
+            "ORDER BY t.createdAt DESC, t.threadId DESC")
+    List<ThreadSummary> findSummariesBefore(@Param("createdAt") ZonedDateTime createdAt,
+                                            @Param("threadId") Long threadId, Limit limit);
+
+    // Most recently active threads first; served by idx_threads_activity
+    @Query("SELECT new com.grapevine.model.ThreadSummary(t.threadId, t.title, SUBSTRING(t.description, 1, 200), " +
+            "t.authorEmail, t.authorName, t.authorRole, t.major, t.course, t.upvotes, t.downvotes, t.commentCount, " +
+            "t.createdAt, t.lastActivityAt) FROM Thread t " +
+            "ORDER BY t.lastActivityAt DESC, t.threadId DESC")
+    List<ThreadSummary> findActiveSummaries(Limit limit);
+
+    // The page after the (lastActivityAt, threadId) cursor, in the same order
+    @Query("SELECT new com.grapevine.model.ThreadSummary(t.threadId, t.title, SUBSTRING(t.description, 1, 200), " +
+            "t.authorEmail, t.authorName, t.authorRole, t.major, t.course, t.upvotes, t.downvotes, t.commentCount, " +
+            "t.createdAt, t.lastActivityAt) FROM Thread t " +
+            "WHERE t.lastActivityAt < :lastActivityAt " +
+            "OR (t.lastActivityAt = :lastActivityAt AND t.threadId < :threadId) " +
+            "ORDER BY t.lastActivityAt DESC, t.threadId DESC")
+    List<ThreadSummary> findActiveSummariesBefore(@Param("lastActivityAt") ZonedDateTime lastActivityAt,
+                                                  @Param("threadId") Long threadId, Limit limit);
+
+    // The summaries for a page of ids picked elsewhere (hot rankings); rows come back in no particular order
+    @Query("SELECT new com.grapevine.model.ThreadSummary(t.threadId, t.title, SUBSTRING(t.description, 1, 200), " +
+            "t.authorEmail, t.authorName, t.authorRole, t.major, t.course, t.upvotes, t.downvotes, t.commentCount, " +
+            "t.createdAt, t.lastActivityAt) FROM Thread t WHERE t.threadId IN :threadIds")
+    List<ThreadSummary> findSummariesByIds(@Param("threadIds") Collection<Long> threadIds);
+
+    // What the hot rankings need for threads created since the given time; a range scan of idx_threads_created.
+    // Columns: threadId, course, major, upvotes, downvotes, commentCount, createdAt, lastActivityAt
+    @Query("SELECT t.threadId, t.course, t.major, t.upvotes, t.downvotes, t.commentCount, t.createdAt, t.lastActivityAt " +
+            "FROM Thread t WHERE t.createdAt >= :since")
+    List<Object[]> findRankingInputsSince(@Param("since") ZonedDateTime since);
+
+    // Full-text index inputs, a batch at a time in id order.
+    // Columns: threadId, title, description, course, major
+    @Query("SELECT t.threadId, t.title, t.description, t.course, t.major FROM Thread t " +
+            "WHERE t.threadId > :afterId ORDER BY t.threadId")
+    List<Object[]> findSearchInputsAfter(@Param("afterId") Long afterId, Limit limit);
+
+    // Same columns as findSearchInputsAfter
+    @Query("SELECT t.threadId, t.title, t.description, t.course, t.major FROM Thread t WHERE t.threadId IN :threadIds")
+    List<Object[]> findSearchInputsByIds(@Param("threadIds") Collection<Long> threadIds);
+
+    // Threads created, edited or commented on since the given time
+    @Query("SELECT t.threadId FROM Thread t " +
+            "WHERE t.createdAt > :since OR t.updatedAt > :since OR t.lastActivityAt > :since")
+    List<Long> findIdsChangedSince(@Param("since") ZonedDateTime since);
+
+    @Query("SELECT t.threadId FROM Thread t")
+    List<Long> findAllIds();
+
+    // Counts a new comment and moves the thread's last activity in one atomic statement
+    @Modifying(flushAutomatically = true)
+    @Transactional
+    @Query(value = "UPDATE threads SET comment_count = comment_count + 1, last_activity_at = :at " +
+            "WHERE thread_id = :threadId", nativeQuery = true)
+    int recordComment(@Param("threadId") Long threadId, @Param("at") ZonedDateTime at);
+
+    @Modifying(flushAutomatically = true)
+    @Transactional
+    @Query(value = "UPDATE threads SET comment_count = comment_count - 1 " +
+            "WHERE thread_id = :threadId AND comment_count > 0", nativeQuery = true)
+    int removeComment(@Param("threadId") Long threadId);
+
+    // Applies a vote's effect on the counters as a delta, so concurrent votes never overwrite each other.
+    // Always its own transaction: a flush can start from a vote's afterCommit, where the vote's transaction
+    // has already committed and can't take more work
+    @Modifying(flushAutomatically = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Query(value = "UPDATE threads SET upvotes = COALESCE(upvotes, 0) + :up, downvotes = COALESCE(downvotes, 0) + :down " +
+            "WHERE thread_id = :threadId", nativeQuery = true)
+    int applyVoteDelta(@Param("threadId") Long threadId, @Param("up") int up, @Param("down") int down);
+
+    // Reads the viewer sketch and holds the row lock until the transaction ends, so merges from several
+    // instances apply one after the other
+    @Query(value = "SELECT viewer_sketch FROM threads WHERE thread_id = :threadId FOR UPDATE", nativeQuery = true)
+    byte[] lockViewerSketch(@Param("threadId") Long threadId);
+
+    // 0 if the thread has been deleted
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE threads SET viewer_sketch = :sketch WHERE thread_id = :threadId", nativeQuery = true)
+    int setViewerSketch(@Param("threadId") Long threadId, @Param("sketch") byte[] sketch);
 
     List<Thread> findByAuthorEmailOrderByCreatedAtDesc(String authorEmail);
 
@@ -0,0 +1,31 @@
+package com.grapevine.repository;
+
+import com.grapevine.model.ThreadSubscription;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface ThreadSubscriptionRepository extends JpaRepository<ThreadSubscription, ThreadSubscription.Key> {
+
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO thread_subscriptions (thread_id, user_email) VALUES (:threadId, :userEmail) " +
+            "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("threadId") Long threadId, @Param("userEmail") String userEmail);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ThreadSubscription s WHERE s.threadId = :threadId AND s.userEmail = :userEmail")
+    int deleteSubscription(@Param("threadId") Long threadId, @Param("userEmail") String userEmail);
+
+    boolean existsByThreadIdAndUserEmail(Long threadId, String userEmail);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ThreadSubscription s WHERE s.threadId = :threadId")
+    int deleteByThreadId(@Param("threadId") Long threadId);
+}
@@ -0,0 +1,40 @@
+package com.grapevine.repository;
+
+import com.grapevine.model.ThreadVote;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface ThreadVoteRepository extends JpaRepository<ThreadVote, ThreadVote.Key> {
+
+    @Query("SELECT v.vote FROM ThreadVote v WHERE v.threadId = :threadId AND v.userEmail = :userEmail")
+    Integer findVote(@Param("threadId") Long threadId, @Param("userEmail") String userEmail);
+
+    // Creates the user's row at 0 unless it exists; two first votes racing each other can't both insert
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO thread_votes (thread_id, user_email, vote) VALUES (:threadId, :userEmail, 0) " +
+            "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("threadId") Long threadId, @Param("userEmail") String userEmail);
+
+    // Reads the user's vote and holds its row lock until the transaction ends, so one user's concurrent
+    // votes are applied one after the other; votes by different users never wait on each other here
+    @Query(value = "SELECT vote FROM thread_votes WHERE thread_id = :threadId AND user_email = :userEmail FOR UPDATE",
+            nativeQuery = true)
+    Integer lockVote(@Param("threadId") Long threadId, @Param("userEmail") String userEmail);
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE thread_votes SET vote = :vote WHERE thread_id = :threadId AND user_email = :userEmail",
+            nativeQuery = true)
+    int setVote(@Param("threadId") Long threadId, @Param("userEmail") String userEmail, @Param("vote") int vote);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ThreadVote v WHERE v.threadId = :threadId")
+    int deleteByThreadId(@Param("threadId") Long threadId);
+}
@@ -1,6 +1,10 @@
 package com.grapevine.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import com.grapevine.model.User;
 import java.util.List;
 
@@ -8,4 +12,30 @@ public interface UserRepository extends JpaRepository<User, String> {
     List<User> findAllByCourses(String courseKey);
     // Add to UserRepository.java
     List<User> findByNameContainingIgnoreCase(String namePattern);
+
+    // Adds the event to joinedEvents of every participant on its roster in one statement
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO user_joined_events (user_email, joined_event_ids) " +
+            "SELECT m.user_email, m.event_id FROM event_members m " +
+            "WHERE m.event_id = :eventId AND m.role = 'PARTICIPANT'", nativeQuery = true)
+    int addJoinedEventForParticipants(@Param("eventId") Long eventId);
+
+    // Adds one event to a user's joinedEvents without loading the user, for waitlist promotions
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO user_joined_events (user_email, joined_event_ids) VALUES (:userEmail, :eventId)",
+            nativeQuery = true)
+    int addJoinedEvent(@Param("userEmail") String userEmail, @Param("eventId") Long eventId);
+
+    // Set-based cleanup of event ids held in users' hosted/joined lists, used when events are purged
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM user_hosted_events WHERE hosted_event_ids IN (:eventIds)", nativeQuery = true)
+    int removeHostedEventReferences(@Param("eventIds") List<Long> eventIds);
+
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM user_joined_events WHERE joined_event_ids IN (:eventIds)", nativeQuery = true)
+    int removeJoinedEventReferences(@Param("eventIds") List<Long> eventIds);
 }
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.grapevine.scheduler;
+
+import com.grapevine.service.CommentLikeAggregator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class CommentLikeFlushScheduler {
+
+    private final CommentLikeAggregator commentLikeAggregator;
+
+    @Scheduled(fixedDelayString = "${grapevine.likes.flush-interval-ms:250}")  // Every 250 ms by default
+    public void flushLikes() {
+        try {
+            commentLikeAggregator.flush();
+        } catch (Exception e) {
+            System.err.println("Failed to flush comment likes: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.grapevine.scheduler;
+
+import com.grapevine.service.EventRetentionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class EventRetentionScheduler {
+
+    private final EventRetentionService eventRetentionService;
+
+    @Scheduled(cron = "${grapevine.events.retention-cron:0 30 3 * * *}")  // Nightly at 3:30 by default
+    public void purgeExpiredEvents() {
+        try {
+            eventRetentionService.purgeExpiredEvents();
+        } catch (Exception e) {
+            System.err.println("Failed to purge expired events: " + e.getMessage());
+        }
+    }
+}
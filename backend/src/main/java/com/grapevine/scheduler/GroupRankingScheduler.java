@@ -0,0 +1,22 @@
+package com.grapevine.scheduler;
+
+import com.grapevine.service.GroupRankingService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class GroupRankingScheduler {
+
+    private final GroupRankingService groupRankingService;
+
+    @Scheduled(initialDelay = 60_000, fixedDelay = 600_000)  // A minute after startup, then every 10 minutes
+    public void refreshGroupRankings() {
+        try {
+            groupRankingService.refreshRankings();
+        } catch (Exception e) {
+            System.err.println("Failed to refresh group rankings: " + e.getMessage());
+        }
+    }
+}
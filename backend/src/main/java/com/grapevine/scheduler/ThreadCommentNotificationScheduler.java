@@ -0,0 +1,22 @@
+package com.grapevine.scheduler;
+
+import com.grapevine.service.ThreadCommentNotifier;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class ThreadCommentNotificationScheduler {
+
+    private final ThreadCommentNotifier threadCommentNotifier;
+
+    @Scheduled(fixedDelayString = "${grapevine.threads.notify-interval-ms:2000}")  // Every 2 seconds by default
+    public void notifyFollowers() {
+        try {
+            threadCommentNotifier.flush();
+        } catch (Exception e) {
+            System.err.println("Failed to send thread comment notifications: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.grapevine.scheduler;
+
+import com.grapevine.service.ThreadRankingService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class ThreadRankingScheduler {
+
+    private final ThreadRankingService threadRankingService;
+
+    @Scheduled(initialDelay = 600_000, fixedDelay = 600_000)  // Every 10 minutes
+    public void refreshThreadRankings() {
+        try {
+            threadRankingService.refreshRankings();
+        } catch (Exception e) {
+            System.err.println("Failed to refresh hot thread rankings: " + e.getMessage());
+        }
+    }
+}
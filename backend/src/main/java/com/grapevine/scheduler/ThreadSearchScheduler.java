@@ -0,0 +1,22 @@
+package com.grapevine.scheduler;
+
+import com.grapevine.service.ThreadSearchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class ThreadSearchScheduler {
+
+    private final ThreadSearchService threadSearchService;
+
+    @Scheduled(initialDelay = 300_000, fixedDelay = 300_000)  // Every 5 minutes
+    public void saveSearchIndex() {
+        try {
+            threadSearchService.save();
+        } catch (Exception e) {
+            System.err.println("Failed to save thread search index: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.grapevine.scheduler;
+
+import com.grapevine.service.ThreadViewService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class ThreadViewFlushScheduler {
+
+    private final ThreadViewService threadViewService;
+
+    @Scheduled(fixedDelayString = "${grapevine.views.flush-interval-ms:30000}")  // Every 30 seconds by default
+    public void flushViews() {
+        try {
+            threadViewService.flush();
+        } catch (Exception e) {
+            System.err.println("Failed to merge thread views: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.grapevine.scheduler;
+
+import com.grapevine.service.UpcomingEventService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class UpcomingEventScheduler {
+
+    private final UpcomingEventService upcomingEventService;
+
+    // Catches seat changes made outside EventService (e.g. deleted accounts) and purged events
+    @Scheduled(initialDelay = 300_000, fixedDelay = 300_000)  // Every 5 minutes
+    public void refreshUpcomingEvents() {
+        try {
+            upcomingEventService.refresh();
+        } catch (Exception e) {
+            System.err.println("Failed to refresh upcoming events index: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.grapevine.scheduler;
+
+import com.grapevine.service.VoteAggregator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class VoteFlushScheduler {
+
+    private final VoteAggregator voteAggregator;
+
+    @Scheduled(fixedDelayString = "${grapevine.votes.flush-interval-ms:250}")  // Every 250 ms by default
+    public void flushVotes() {
+        try {
+            voteAggregator.flush();
+        } catch (Exception e) {
+            System.err.println("Failed to flush thread votes: " + e.getMessage());
+        }
+    }
+}
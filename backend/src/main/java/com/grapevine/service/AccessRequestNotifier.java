@@ -0,0 +1,67 @@
+package com.grapevine.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class AccessRequestNotifier {
+    private final EmailService emailService;
+    private final NotificationService notificationService;
+
+    /**
+     * Fans a group access request out to every host (email + WebSocket) off the request thread.
+     * Takes plain values rather than entities so nothing lazy is touched after the caller's session closes.
+     */
+    @Async("notificationExecutor")
+    public void notifyHosts(Long accessRequestId, String requestToken, Long groupId, String requesterEmail,
+                            String requesterName, String groupName, List<String> hostEmails) {
+        String acceptUrl = "http://localhost:8080/groups/respond-access/" + requestToken +
+                "/accept/" + groupId + "/" + requesterEmail;
+        String rejectUrl = "http://localhost:8080/groups/respond-access/" + requestToken +
+                "/reject/" + groupId + "/" + requesterEmail;
+
+        // The message is identical for every host, so build it once
+        String htmlMessage = buildAccessRequestEmail(requesterName, groupName, acceptUrl, rejectUrl);
+
+        for (String hostEmail : hostEmails) {
+            try {
+                emailService.sendHtmlEmail(hostEmail, "Join Group Request: " + groupName, htmlMessage);
+            } catch (Exception e) {
+                // One bad mailbox should not stop the remaining hosts from hearing about the request
+                System.err.println("Error emailing access request " + accessRequestId +
+                        " to " + hostEmail + ": " + e.getMessage());
+            }
+        }
+
+        try {
+            notificationService.createAndSendGroupAccessRequestNotifications(
+                    hostEmails,
+                    requesterEmail,
+                    requesterName,
+                    groupName,
+                    groupId
+            );
+        } catch (Exception e) {
+            System.err.println("Error pushing access request " + accessRequestId +
+                    " notifications: " + e.getMessage());
+        }
+    }
+
+    String buildAccessRequestEmail(String requesterName, String groupName, String acceptUrl, String rejectUrl) {
+        // Create HTML message with styled buttons using table layout (more email-client friendly)
+        return "<html><body>" +
+                "<h2>Group Access Request</h2>" +
+                "<p>" + requesterName + " wants to join your group: <strong>" + groupName + "</strong></p>" +
+                "<p>Click one of the following options:</p>" +
+                "<table border='0' cellpadding='0' cellspacing='0'><tr>" +
+                "<td><a href='" + acceptUrl + "' style='background-color: #4CAF50; color: white; padding: 10px 15px; text-decoration: none; display: inline-block; border-radius: 4px;'>Accept</a></td>" +
+                "<td width='10'>&nbsp;</td>" +
+                "<td><a href='" + rejectUrl + "' style='background-color: #f44336; color: white; padding: 10px 15px; text-decoration: none; display: inline-block; border-radius: 4px;'>Deny</a></td>" +
+                "</tr></table>" +
+                "</body></html>";
+    }
+}
@@ -0,0 +1,277 @@
+package com.grapevine.service;
+
+import com.grapevine.model.CalendarFeedToken;
+import com.grapevine.model.Event;
+import com.grapevine.model.EventOccurrenceOverride;
+import com.grapevine.model.Location;
+import com.grapevine.repository.CalendarFeedTokenRepository;
+import com.grapevine.repository.EventOccurrenceOverrideRepository;
+import com.grapevine.repository.EventRepository;
+import com.grapevine.repository.LocationRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Writes a user's hosted and joined events as an RFC 5545 iCalendar feed. A series is one VEVENT with its RRULE;
+ * cancelled occurrences become EXDATEs and changed ones separate VEVENTs with a RECURRENCE-ID. Times are written
+ * as floating local times, the same way they are stored.
+ */
+@Service
+@RequiredArgsConstructor
+public class CalendarService {
+    // Events that finished longer ago than this are left out of the feed
+    static final long PAST_DAYS = 90;
+    // Bump when the feed format changes so clients don't keep a cached copy in the old format
+    private static final String FEED_VERSION = "1";
+
+    private static final DateTimeFormatter LOCAL_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+    private static final DateTimeFormatter UTC_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+    private static final int MAX_LINE_OCTETS = 75;
+    private static final int FEED_TOKEN_BYTES = 32;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final EventRepository eventRepository;
+    private final EventOccurrenceOverrideRepository overrideRepository;
+    private final LocationRepository locationRepository;
+    private final CalendarFeedTokenRepository feedTokenRepository;
+
+    /**
+     * Issues a new feed token for the user, replacing (and so revoking) any earlier one, and returns it.
+     */
+    @Transactional
+    public String issueFeedToken(String userEmail) {
+        byte[] bytes = new byte[FEED_TOKEN_BYTES];
+        RANDOM.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        feedTokenRepository.save(new CalendarFeedToken(userEmail, token));
+        return token;
+    }
+
+    @Transactional
+    public void revokeFeedToken(String userEmail) {
+        feedTokenRepository.deleteById(userEmail);
+    }
+
+    /**
+     * Whether token is the user's current feed token. It grants nothing beyond reading that user's feed.
+     */
+    public boolean isFeedToken(String userEmail, String token) {
+        if (token == null || token.isEmpty()) {
+            return false;
+        }
+        return feedTokenRepository.findByToken(token)
+                .map(feedToken -> feedToken.getUserEmail().equals(userEmail))
+                .orElse(false);
+    }
+
+    /**
+     * A strong ETag for the user's feed, from three aggregate queries and without loading any event.
+     * It changes when an included event, override or location is edited, or when events are joined, left or deleted.
+     */
+    public String feedTag(String userEmail) {
+        LocalDateTime from = windowStart();
+        Object[] events = firstRow(eventRepository.summarizeScheduledForUser(userEmail, from));
+        Object[] overrides = firstRow(overrideRepository.summarizeForUser(userEmail));
+        LocalDateTime locations = locationRepository.findLatestUpdateForUser(userEmail, from);
+
+        String state = FEED_VERSION + "|" + userEmail + "|" + events[0] + "|" + events[1] + "|" + events[2]
+                + "|" + overrides[0] + "|" + overrides[1] + "|" + locations;
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(state.getBytes(StandardCharsets.UTF_8));
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Loads the user's events, their overrides and their locations with one query each and writes the feed
+     * to out event by event.
+     */
+    public void writeFeed(String userEmail, OutputStream out) throws IOException {
+        List<Event> events = eventRepository.findScheduledForUser(userEmail, windowStart());
+
+        List<Long> recurringIds = new ArrayList<>();
+        Set<Long> locationIds = new HashSet<>();
+        for (Event event : events) {
+            if (event.getRecurrenceRule() != null) {
+                recurringIds.add(event.getEventId());
+            }
+            if (event.getLocationId() != null) {
+                locationIds.add(event.getLocationId());
+            }
+        }
+        Map<Long, List<EventOccurrenceOverride>> overrides = recurringIds.isEmpty() ? Map.of()
+                : overrideRepository.findByEventIdIn(recurringIds).stream()
+                .collect(Collectors.groupingBy(EventOccurrenceOverride::getEventId));
+        overrides.values().forEach(list -> list.stream().map(EventOccurrenceOverride::getLocationId)
+                .filter(id -> id != null).forEach(locationIds::add));
+        Map<Long, Location> locations = new HashMap<>();
+        if (!locationIds.isEmpty()) {
+            for (Location location : locationRepository.findAllById(locationIds)) {
+                locations.put(location.getLocationId(), location);
+            }
+        }
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        line(writer, "BEGIN:VCALENDAR");
+        line(writer, "VERSION:2.0");
+        line(writer, "PRODID:-//Grapevine//Events//EN");
+        line(writer, "CALSCALE:GREGORIAN");
+        line(writer, "METHOD:PUBLISH");
+        line(writer, "X-WR-CALNAME:" + escape("Grapevine events"));
+        for (Event event : events) {
+            if (event.getEventTime() != null) {
+                writeEvent(writer, event, locations.get(event.getLocationId()),
+                        overrides.getOrDefault(event.getEventId(), List.of()), locations);
+            }
+        }
+        line(writer, "END:VCALENDAR");
+        writer.flush();
+    }
+
+    private void writeEvent(Writer writer, Event event, Location location, List<EventOccurrenceOverride> overrides,
+                            Map<Long, Location> locations) throws IOException {
+        String uid = "event-" + event.getEventId() + "@grapevine";
+        String stamp = utc(event.getUpdatedAt() != null ? event.getUpdatedAt() : event.getCreatedAt());
+
+        line(writer, "BEGIN:VEVENT");
+        line(writer, "UID:" + uid);
+        line(writer, "DTSTAMP:" + stamp);
+        line(writer, "DTSTART:" + event.getEventTime().format(LOCAL_TIME));
+        line(writer, "DTEND:" + end(event, event.getEventTime()).format(LOCAL_TIME));
+        line(writer, "SUMMARY:" + escape(event.getName()));
+        if (event.getDescription() != null) {
+            line(writer, "DESCRIPTION:" + escape(event.getDescription()));
+        }
+        if (location != null) {
+            line(writer, "LOCATION:" + escape(locationText(location)));
+        }
+        if (event.getRecurrenceRule() != null) {
+            line(writer, "RRULE:" + event.getRecurrenceRule());
+            for (EventOccurrenceOverride override : overrides) {
+                if (override.isCancelled()) {
+                    line(writer, "EXDATE:" + override.getOccurrenceTime().format(LOCAL_TIME));
+                }
+            }
+        }
+        line(writer, "END:VEVENT");
+
+        // Changed occurrences replace their slot in the series
+        for (EventOccurrenceOverride override : overrides) {
+            if (override.isCancelled()) {
+                continue;
+            }
+            LocalDateTime start = override.getEventTime() != null ? override.getEventTime() : override.getOccurrenceTime();
+            Location overrideLocation = override.getLocationId() != null ? locations.get(override.getLocationId()) : location;
+            String description = override.getDescription() != null ? override.getDescription() : event.getDescription();
+
+            line(writer, "BEGIN:VEVENT");
+            line(writer, "UID:" + uid);
+            line(writer, "RECURRENCE-ID:" + override.getOccurrenceTime().format(LOCAL_TIME));
+            line(writer, "DTSTAMP:" + (override.getUpdatedAt() != null ? utc(override.getUpdatedAt()) : stamp));
+            line(writer, "DTSTART:" + start.format(LOCAL_TIME));
+            line(writer, "DTEND:" + end(event, start).format(LOCAL_TIME));
+            line(writer, "SUMMARY:" + escape(event.getName()));
+            if (description != null) {
+                line(writer, "DESCRIPTION:" + escape(description));
+            }
+            if (overrideLocation != null) {
+                line(writer, "LOCATION:" + escape(locationText(overrideLocation)));
+            }
+            line(writer, "END:VEVENT");
+        }
+    }
+
+    private static LocalDateTime windowStart() {
+        return LocalDateTime.now().minusDays(PAST_DAYS);
+    }
+
+    private static LocalDateTime end(Event event, LocalDateTime start) {
+        Integer minutes = event.getDurationMinutes();
+        return start.plusMinutes(minutes != null && minutes > 0 ? minutes : ScheduleService.DEFAULT_DURATION_MINUTES);
+    }
+
+    private static String locationText(Location location) {
+        return location.getFullName() != null ? location.getFullName() : location.getShortName();
+    }
+
+    // DTSTAMP must be UTC; stored timestamps are in the server's zone
+    private static String utc(LocalDateTime time) {
+        LocalDateTime stamp = time != null ? time : LocalDateTime.now();
+        return stamp.atZone(ZoneId.systemDefault()).withZoneSameInstant(ZoneOffset.UTC).format(UTC_TIME);
+    }
+
+    private static Object[] firstRow(List<Object[]> rows) {
+        return rows.isEmpty() ? new Object[]{0, 0, null} : rows.get(0);
+    }
+
+    /**
+     * Escapes TEXT values per RFC 5545 3.3.11.
+     */
+    static String escape(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.replace("\\", "\\\\")
+                .replace(";", "\\;")
+                .replace(",", "\\,")
+                .replace("\r\n", "\\n")
+                .replace("\n", "\\n")
+                .replace("\r", "\\n");
+    }
+
+    /**
+     * Writes one content line, folded so no physical line exceeds 75 octets, ending in CRLF.
+     */
+    static void line(Writer writer, String content) throws IOException {
+        int octets = 0;
+        for (int i = 0; i < content.length(); ) {
+            int codePoint = content.codePointAt(i);
+            int size = utf8Length(codePoint);
+            if (octets + size > MAX_LINE_OCTETS) {
+                writer.write("\r\n ");
+                // The leading space of a continuation line counts towards its length
+                octets = 1;
+            }
+            writer.write(Character.toChars(codePoint));
+            octets += size;
+            i += Character.charCount(codePoint);
+        }
+        writer.write("\r\n");
+    }
+
+    private static int utf8Length(int codePoint) {
+        if (codePoint < 0x80) {
+            return 1;
+        }
+        if (codePoint < 0x800) {
+            return 2;
+        }
+        return codePoint < 0x10000 ? 3 : 4;
+    }
+}
@@ -0,0 +1,56 @@
+package com.grapevine.service;
+
+import com.grapevine.repository.CommentRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Write-behind like counters for comments, kept in WriteBehindCounters like VoteAggregator's thread votes.
+ * Likes and unlikes add to a striped counter per comment, so thousands of likes a second on one popular comment
+ * don't contend on a single value. A flush then writes the net change with one UPDATE per comment instead of locking the
+ * comment's row once per like. Readers add the pending delta to the stored count.
+ * <p>
+ * Who liked what is written to comment_likes straight away; only the counters are deferred, flushed on a timer
+ * (CommentLikeFlushScheduler), once enough likes are waiting, and on shutdown.
+ */
+@Service
+@RequiredArgsConstructor
+public class CommentLikeAggregator {
+    private final CommentRepository commentRepository;
+
+    @Value("${grapevine.likes.flush-threshold:500}")
+    private int flushThreshold = 500;
+
+    private final WriteBehindCounters counters = new WriteBehindCounters("likes for comment", 1);
+
+    /**
+     * Records a like (1) or an unlike (-1) that has already been written to comment_likes.
+     */
+    public void add(Long commentId, int delta) {
+        if (delta == 0) {
+            return;
+        }
+        counters.add(commentId, delta);
+
+        if (counters.unflushed() >= flushThreshold) {
+            flush();
+        }
+    }
+
+    public long pendingLikes(Long commentId) {
+        return counters.pending(commentId, 0);
+    }
+
+    /**
+     * Writes every comment's pending delta with one UPDATE per comment and returns how many comments were written.
+     * Returns right away if another flush is already running. A delta that fails to write goes back to pending;
+     * one for a comment that no longer exists is dropped along with its entry.
+     */
+    @PreDestroy
+    public int flush() {
+        return counters.flush((commentId, deltas) ->
+                commentRepository.applyLikeDelta(commentId, Math.toIntExact(deltas[0])));
+    }
+}
@@ -0,0 +1,185 @@
+package com.grapevine.service;
+
+import com.grapevine.exception.EventNotFoundException;
+import com.grapevine.exception.UnauthorizedException;
+import com.grapevine.model.Event;
+import com.grapevine.model.EventOccurrence;
+import com.grapevine.model.EventOccurrenceOverride;
+import com.grapevine.model.MemberRole;
+import com.grapevine.model.RecurrenceRule;
+import com.grapevine.model.User;
+import com.grapevine.repository.EventMemberRepository;
+import com.grapevine.repository.EventOccurrenceOverrideRepository;
+import com.grapevine.repository.EventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Expands recurring events into occurrences for a time window and manages per-occurrence overrides.
+ * Only the series row and its overrides are stored; occurrences are computed on every read, and overrides
+ * for a whole batch of events are loaded with one query.
+ */
+@Service
+@RequiredArgsConstructor
+public class EventOccurrenceService {
+    static final long MAX_WINDOW_DAYS = 366;
+
+    private final EventRepository eventRepository;
+    private final EventMemberRepository eventMemberRepository;
+    private final EventOccurrenceOverrideRepository overrideRepository;
+
+    // Bumped on every override write so caches built from expanded occurrences can tell they are stale
+    private final AtomicLong overridesVersion = new AtomicLong();
+
+    public List<EventOccurrence> getOccurrences(Long eventId, LocalDateTime from, LocalDateTime to) {
+        Event event = eventRepository.findById(eventId)
+                .orElseThrow(() -> new EventNotFoundException("Event not found with id: " + eventId));
+        return expand(List.of(event), from, to);
+    }
+
+    /**
+     * Every occurrence of the given events starting within [from, to], soonest first. One-off events
+     * contribute at most one occurrence; cancelled occurrences are left out and moved ones appear at their new time.
+     */
+    public List<EventOccurrence> expand(Collection<Event> events, LocalDateTime from, LocalDateTime to) {
+        checkWindow(from, to);
+
+        List<Long> recurringIds = new ArrayList<>();
+        for (Event event : events) {
+            if (event.getRecurrenceRule() != null && event.getEventTime() != null) {
+                recurringIds.add(event.getEventId());
+            }
+        }
+        Map<Long, Map<LocalDateTime, EventOccurrenceOverride>> overrides = new HashMap<>();
+        if (!recurringIds.isEmpty()) {
+            for (EventOccurrenceOverride override : overrideRepository.findInWindow(recurringIds, from, to)) {
+                overrides.computeIfAbsent(override.getEventId(), id -> new HashMap<>())
+                        .put(override.getOccurrenceTime(), override);
+            }
+        }
+
+        List<EventOccurrence> result = new ArrayList<>();
+        for (Event event : events) {
+            if (event.getEventTime() == null) {
+                continue;
+            }
+            if (event.getRecurrenceRule() == null) {
+                if (inWindow(event.getEventTime(), from, to)) {
+                    result.add(new EventOccurrence(event.getEventId(), event.getName(), event.getEventTime(),
+                            event.getEventTime(), event.getLocationId(), event.getDescription(), false, false));
+                }
+                continue;
+            }
+
+            RecurrenceRule rule = RecurrenceRule.parse(event.getRecurrenceRule());
+            Map<LocalDateTime, EventOccurrenceOverride> forEvent = overrides.getOrDefault(event.getEventId(), Map.of());
+            Set<LocalDateTime> scheduled = new HashSet<>();
+            for (LocalDateTime slot : rule.between(event.getEventTime(), from, to, RecurrenceRule.MAX_OCCURRENCES)) {
+                scheduled.add(slot);
+                addOccurrence(result, event, slot, forEvent.get(slot), from, to);
+            }
+            // Occurrences scheduled outside the window that were moved into it
+            for (EventOccurrenceOverride override : forEvent.values()) {
+                if (!scheduled.contains(override.getOccurrenceTime())
+                        && rule.isOccurrence(event.getEventTime(), override.getOccurrenceTime())) {
+                    addOccurrence(result, event, override.getOccurrenceTime(), override, from, to);
+                }
+            }
+        }
+
+        result.sort(Comparator.comparing(EventOccurrence::eventTime).thenComparing(EventOccurrence::eventId));
+        return result;
+    }
+
+    /**
+     * Replaces the override for one occurrence of a recurring event. An override that changes nothing
+     * is deleted rather than stored, and null is returned.
+     */
+    @Transactional
+    public EventOccurrenceOverride overrideOccurrence(Long eventId, LocalDateTime occurrenceTime,
+                                                      EventOccurrenceOverride changes, User currentUser) {
+        Event event = eventRepository.findById(eventId)
+                .orElseThrow(() -> new EventNotFoundException("Event not found with id: " + eventId));
+
+        if (!eventMemberRepository.existsByEventIdAndUserEmailAndRole(eventId, currentUser.getUserEmail(), MemberRole.HOST)) {
+            throw new UnauthorizedException("Only event hosts can change occurrences");
+        }
+        if (event.getRecurrenceRule() == null) {
+            throw new IllegalArgumentException("Only recurring events have occurrences to change");
+        }
+        if (!RecurrenceRule.parse(event.getRecurrenceRule()).isOccurrence(event.getEventTime(), occurrenceTime)) {
+            throw new IllegalArgumentException("No occurrence of this event starts at " + occurrenceTime);
+        }
+
+        EventOccurrenceOverride override = overrideRepository.findByEventIdAndOccurrenceTime(eventId, occurrenceTime)
+                .orElseGet(() -> new EventOccurrenceOverride(eventId, occurrenceTime));
+        override.setCancelled(changes.isCancelled());
+        override.setEventTime(changes.getEventTime());
+        override.setLocationId(changes.getLocationId());
+        override.setDescription(changes.getDescription());
+
+        overridesVersion.incrementAndGet();
+        if (override.isEmpty()) {
+            if (override.getOverrideId() != null) {
+                overrideRepository.delete(override);
+            }
+            return null;
+        }
+        return overrideRepository.save(override);
+    }
+
+    public long getOverridesVersion() {
+        return overridesVersion.get();
+    }
+
+    public EventOccurrenceOverride cancelOccurrence(Long eventId, LocalDateTime occurrenceTime, User currentUser) {
+        EventOccurrenceOverride cancelled = new EventOccurrenceOverride(eventId, occurrenceTime);
+        cancelled.setCancelled(true);
+        return overrideOccurrence(eventId, occurrenceTime, cancelled, currentUser);
+    }
+
+    private static void addOccurrence(List<EventOccurrence> result, Event event, LocalDateTime slot,
+                                      EventOccurrenceOverride override, LocalDateTime from, LocalDateTime to) {
+        if (override == null) {
+            result.add(new EventOccurrence(event.getEventId(), event.getName(), slot, slot,
+                    event.getLocationId(), event.getDescription(), true, false));
+            return;
+        }
+        if (override.isCancelled()) {
+            return;
+        }
+        LocalDateTime start = override.getEventTime() != null ? override.getEventTime() : slot;
+        if (!inWindow(start, from, to)) {
+            return;
+        }
+        result.add(new EventOccurrence(event.getEventId(), event.getName(), slot, start,
+                override.getLocationId() != null ? override.getLocationId() : event.getLocationId(),
+                override.getDescription() != null ? override.getDescription() : event.getDescription(),
+                true, true));
+    }
+
+    private static boolean inWindow(LocalDateTime time, LocalDateTime from, LocalDateTime to) {
+        return !time.isBefore(from) && !time.isAfter(to);
+    }
+
+    private static void checkWindow(LocalDateTime from, LocalDateTime to) {
+        if (from == null || to == null || to.isBefore(from)) {
+            throw new IllegalArgumentException("A time window with from before to is required");
+        }
+        if (from.plusDays(MAX_WINDOW_DAYS).isBefore(to)) {
+            throw new IllegalArgumentException("Time window can be at most " + MAX_WINDOW_DAYS + " days");
+        }
+    }
+}
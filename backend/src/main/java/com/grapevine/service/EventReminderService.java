@@ -6,6 +6,7 @@ import com.grapevine.model.Event;
 import com.grapevine.model.EventReminder;
 import com.grapevine.model.Notification;
 import com.grapevine.model.User;
+import com.grapevine.repository.EventMemberRepository;
 import com.grapevine.repository.EventReminderRepository;
 import com.grapevine.repository.EventRepository;
 import lombok.RequiredArgsConstructor;
@@ -22,6 +23,7 @@ public class EventReminderService {
 
     private final EventReminderRepository eventReminderRepository;
     private final EventRepository eventRepository;
+    private final EventMemberRepository eventMemberRepository;
     private final NotificationService notificationService;
     private final UserService userService;
 
@@ -32,7 +34,7 @@ public class EventReminderService {
                 .orElseThrow(() -> new EventNotFoundException("Event not found with id: " + eventId));
 
         // Check if user is authorized (must be a host or participant)
-        if (!event.getHosts().contains(userEmail) && !event.getParticipants().contains(userEmail)) {
+        if (!eventMemberRepository.existsByEventIdAndUserEmail(eventId, userEmail)) {
             throw new UnauthorizedException("You must be a participant or host of this event to set reminders");
         }
 
@@ -65,7 +67,7 @@ public class EventReminderService {
                 .orElseThrow(() -> new EventNotFoundException("Event not found with id: " + eventId));
 
         // Check if user is authorized (must be a host or participant)
-        if (!event.getHosts().contains(userEmail) && !event.getParticipants().contains(userEmail)) {
+        if (!eventMemberRepository.existsByEventIdAndUserEmail(eventId, userEmail)) {
             throw new UnauthorizedException("You must be a participant or host of this event to view reminders");
         }
 
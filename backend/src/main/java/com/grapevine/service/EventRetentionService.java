@@ -0,0 +1,129 @@
+package com.grapevine.service;
+
+import com.grapevine.repository.EventMemberRepository;
+import com.grapevine.repository.EventOccurrenceOverrideRepository;
+import com.grapevine.repository.EventReminderRepository;
+import com.grapevine.repository.EventRepository;
+import com.grapevine.repository.GroupRepository;
+import com.grapevine.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Deletes events that ended more than the retention period ago. Events are removed oldest first in
+ * fixed-size batches, each in its own short transaction. Every reference to a batch (memberships,
+ * reminders, occurrence overrides, user and group id lists) is dropped with one set-based statement per table.
+ * Only called from {@link com.grapevine.scheduler.EventRetentionScheduler}, never from a request.
+ */
+@Service
+@RequiredArgsConstructor
+public class EventRetentionService {
+    private final EventRepository eventRepository;
+    private final EventMemberRepository eventMemberRepository;
+    private final EventReminderRepository eventReminderRepository;
+    private final EventOccurrenceOverrideRepository occurrenceOverrideRepository;
+    private final WaitlistService waitlistService;
+    private final UserRepository userRepository;
+    private final GroupRepository groupRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final NameSearchService nameSearchService;
+
+    @Value("${grapevine.events.retention-days:30}")
+    private int retentionDays = 30;
+
+    @Value("${grapevine.events.retention-batch-size:500}")
+    private int batchSize = 500;
+
+    // Caps a single run so a large backlog is worked off over several runs instead of one long one
+    @Value("${grapevine.events.retention-max-batches:100}")
+    private int maxBatchesPerRun = 100;
+
+    private final AtomicLong totalEventsDeleted = new AtomicLong();
+    private final AtomicLong totalRuns = new AtomicLong();
+    private volatile LocalDateTime lastRunAt;
+    private volatile int lastRunEventsDeleted;
+    private volatile long lastRunMillis;
+
+    /**
+     * Purges events older than the cutoff and returns how many were deleted.
+     */
+    public int purgeExpiredEvents() {
+        long started = System.currentTimeMillis();
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        int events = 0, members = 0, reminders = 0, overrides = 0, waitlisted = 0, userRefs = 0, groupRefs = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            List<Long> eventIds = eventRepository.findIdsEndedBefore(cutoff, Limit.of(batchSize));
+            if (eventIds.isEmpty()) {
+                break;
+            }
+
+            int[] counts = transaction.execute(status -> new int[]{
+                    eventMemberRepository.deleteAllByEventIdIn(eventIds),
+                    eventReminderRepository.deleteAllByEventIdIn(eventIds),
+                    occurrenceOverrideRepository.deleteAllByEventIdIn(eventIds),
+                    waitlistService.clear(eventIds),
+                    userRepository.removeHostedEventReferences(eventIds)
+                            + userRepository.removeJoinedEventReferences(eventIds),
+                    groupRepository.removeEventReferences(eventIds),
+                    eventRepository.deleteAllByEventIdIn(eventIds)
+            });
+            nameSearchService.removeEvents(eventIds);
+
+            members += counts[0];
+            reminders += counts[1];
+            overrides += counts[2];
+            waitlisted += counts[3];
+            userRefs += counts[4];
+            groupRefs += counts[5];
+            events += counts[6];
+
+            if (eventIds.size() < batchSize) {
+                break;
+            }
+        }
+
+        lastRunMillis = System.currentTimeMillis() - started;
+        lastRunEventsDeleted = events;
+        lastRunAt = LocalDateTime.now();
+        totalRuns.incrementAndGet();
+        totalEventsDeleted.addAndGet(events);
+
+        if (events > 0) {
+            System.out.println("Event retention: deleted " + events + " events older than " + cutoff
+                    + " (" + members + " memberships, " + reminders + " reminders, " + overrides + " occurrence overrides, "
+                    + waitlisted + " waitlist entries, "
+                    + userRefs + " user references, " + groupRefs + " group references) in " + lastRunMillis + " ms");
+        }
+        return events;
+    }
+
+    public long getTotalEventsDeleted() {
+        return totalEventsDeleted.get();
+    }
+
+    public long getTotalRuns() {
+        return totalRuns.get();
+    }
+
+    public LocalDateTime getLastRunAt() {
+        return lastRunAt;
+    }
+
+    public int getLastRunEventsDeleted() {
+        return lastRunEventsDeleted;
+    }
+
+    public long getLastRunMillis() {
+        return lastRunMillis;
+    }
+}
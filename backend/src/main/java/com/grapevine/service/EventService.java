@@ -3,18 +3,31 @@ package com.grapevine.service;
 import com.grapevine.exception.EventNotFoundException;
 import com.grapevine.exception.GroupNotFoundException;
 import com.grapevine.exception.UnauthorizedException;
-import com.grapevine.exception.UserNotFoundException;
 import com.grapevine.model.*;
+import com.grapevine.repository.EventMemberRepository;
+import com.grapevine.repository.EventOccurrenceOverrideRepository;
+import com.grapevine.repository.EventReminderRepository;
 import com.grapevine.repository.EventRepository;
+import com.grapevine.repository.EventSpecifications;
+import com.grapevine.repository.GroupMemberRepository;
 import com.grapevine.repository.GroupRepository;
 import com.grapevine.repository.UserRepository;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Service
@@ -24,6 +37,18 @@ public class EventService {
     private final UserService userService;
     private final UserRepository userRepository;
     private final GroupRepository groupRepository;
+    private final EntityManager entityManager;
+    private final EventMemberRepository eventMemberRepository;
+    private final EventReminderRepository eventReminderRepository;
+    private final EventOccurrenceOverrideRepository occurrenceOverrideRepository;
+    private final GroupMemberRepository groupMemberRepository;
+    private final UpcomingEventService upcomingEventService;
+    private final NameSearchService nameSearchService;
+    private final ScheduleService scheduleService;
+    private final WaitlistService waitlistService;
+
+    private static final int MAX_ROSTER_PAGE = 200;
+    private static final int MAX_BROWSE_PAGE = 100;
 
     public List<Event> getAllEvents() {
         List<Event> events = eventRepository.findAll().stream()
@@ -38,137 +63,87 @@ public class EventService {
     }
 
 
-    public List<ShortEvent> getAllShortEvents(EventFilter filter) {
-        List<Event> events = eventRepository.findAll();
-        LocalDateTime now = LocalDateTime.now();
-
-        // Clean up past events unless specifically requested to include them
-        if (filter == null || !Boolean.TRUE.equals(filter.getIncludePastEvents())) {
-            cleanupPastEvents();
-        }
-
-        // Filter events based on criteria
-        List<Event> filteredEvents = events.stream()
-                .filter(event -> {
-                    // Exclude private events by default
-                    if (!Boolean.TRUE.equals(event.getIsPublic())) {
-                        return false;
-                    }
-
-                    // Name search filter
-                    if (filter.getSearch() != null && !filter.getSearch().trim().isEmpty()) {
-                        if (!event.getName().toLowerCase().startsWith(filter.getSearch().toLowerCase().trim())) {
-                            return false;
-                        }
-                    }
-
-                    // Filter by min users
-                    if (filter.getMinUsers() != null && event.getHosts().size() + event.getParticipants().size() < filter.getMinUsers()) {
-                        return false;
-                    }
-
-                    // Filter by max users
-                    if (filter.getMaxUsers() != null && event.getHosts().size() + event.getParticipants().size() > filter.getMaxUsers()) {
-                        return false;
-                    }
-
-                    // Start time filter
-                    if (filter.getStartTime() != null && (event.getEventTime() == null ||
-                            event.getEventTime().isBefore(filter.getStartTime()))) {
-                        return false;
-                    }
-
-                    // End time filter
-                    if (filter.getEndTime() != null && (event.getEventTime() == null ||
-                            event.getEventTime().isAfter(filter.getEndTime()))) {
-                        return false;
-                    }
-
-                    // Location filter
-                    if (filter.getLocationId() != null &&
-                            (event.getLocationId() == null || !event.getLocationId().equals(filter.getLocationId()))) {
-                        return false;
-                    }
-
-                    // Public/private filter is now handled at the top - we only show public events
-
-                    // Past events filter (exclude past events by default)
-                    if (!Boolean.TRUE.equals(filter.getIncludePastEvents()) &&
-                            event.getEventTime() != null && event.getEventTime().isBefore(now)) {
-                        return false;
-                    }
-
-                    // Full events filter
-                    if (Boolean.TRUE.equals(filter.getOnlyFullEvents())) {
-                        int totalParticipants =
-                                (event.getHosts() != null ? event.getHosts().size() : 0) +
-                                        (event.getParticipants() != null ? event.getParticipants().size() : 0);
-                        if (totalParticipants < event.getMaxUsers()) {
-                            return false;
-                        }
-                    }
-
-                    return true;
-                })
-                .sorted(Comparator.comparing(Event::getEventTime,
-                        Comparator.nullsLast(Comparator.naturalOrder())))
-                .collect(Collectors.toList());
+    /**
+     * One page of the events browse list. Every filter is applied in SQL; timed events come first in
+     * (event_time, event_id) order, followed by events without a time in id order.
+     */
+    public CursorPage<ShortEvent> getAllShortEvents(EventFilter filter, String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_BROWSE_PAGE));
+        BrowseCursor after = parseBrowseCursor(cursor);
+        Specification<Event> matching = EventSpecifications.matching(filter, LocalDateTime.now());
 
-        // Convert to ShortEvent objects
-        return filteredEvents.stream()
-                .map(event -> new ShortEvent(event.getEventId(), event.getName(), event.getLocationId(), event.getIsPublic()))
+        // Fetch one extra row to know whether there is a next page
+        List<Event> events = new ArrayList<>();
+        if (after == null || after.eventTime() != null) {
+            Specification<Event> timed = after == null
+                    ? EventSpecifications.timedAfter(null, null)
+                    : EventSpecifications.timedAfter(after.eventTime(), after.eventId());
+            events.addAll(findBrowsePage(matching.and(timed), Sort.by("eventTime", "eventId"), pageSize + 1));
+        }
+        if (events.size() <= pageSize) {
+            long afterId = after != null && after.eventTime() == null ? after.eventId() : 0L;
+            events.addAll(findBrowsePage(matching.and(EventSpecifications.untimedAfter(afterId)),
+                    Sort.by("eventId"), pageSize + 1 - events.size()));
+        }
+
+        String nextCursor = null;
+        if (events.size() > pageSize) {
+            events = events.subList(0, pageSize);
+            Event last = events.get(pageSize - 1);
+            nextCursor = (last.getEventTime() != null ? last.getEventTime().toString() : "") + "_" + last.getEventId();
+        }
+
+        List<ShortEvent> shortEvents = events.stream()
+                .map(event -> new ShortEvent(event.getEventId(), event.getName(), event.getLocationId(), event.getIsPublic(), event.getMemberCount()))
                 .collect(Collectors.toList());
+        return new CursorPage<>(shortEvents, nextCursor);
     }
 
-    // Keep the existing method for backward compatibility
-    public List<ShortEvent> getAllShortEvents() {
-        return getAllShortEvents(new EventFilter( null, null, null, null, null, null, null, null));
+    private List<Event> findBrowsePage(Specification<Event> spec, Sort sort, int limit) {
+        return eventRepository.findBy(spec, query -> query.sortBy(sort).limit(limit).all());
     }
 
     /**
-     * Cleans up past events from the database
+     * Browse cursors look like "2025-04-01T18:00_42", or "_42" once the listing has reached events without a time.
      */
-    private void cleanupPastEvents() {
-        List<Event> allEvents = eventRepository.findAll();
-        LocalDateTime cutoffTime = LocalDateTime.now().minusDays(30); // Keep events from the last 30 days
-
-        for (Event event : allEvents) {
-            // Skip events without a time or events newer than the cutoff
-            if (event.getEventTime() == null || event.getEventTime().isAfter(cutoffTime)) {
-                continue;
-            }
-
-            // This is an old past event (more than 30 days old), so delete it
-            try {
-                // Delete logic (same as before)
-                // ...
-            } catch (Exception e) {
-                // Log the error but continue with other events
-                System.err.println("Error cleaning up past event ID " + event.getEventId() + ": " + e.getMessage());
+    static BrowseCursor parseBrowseCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        int separator = cursor.lastIndexOf('_');
+        try {
+            if (separator < 0) {
+                throw new IllegalArgumentException("missing separator");
             }
+            LocalDateTime eventTime = separator == 0 ? null : LocalDateTime.parse(cursor.substring(0, separator));
+            return new BrowseCursor(eventTime, Long.parseLong(cursor.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
         }
     }
 
+    record BrowseCursor(LocalDateTime eventTime, long eventId) {
+    }
+
+    @Transactional
     public Event createEvent(Event event, Long groupId, User currentUser) {
         // Get the associated group
         Group group = groupRepository.findById(groupId)
                 .orElseThrow(() -> new GroupNotFoundException("Group not found with id: " + groupId));
 
         // Check if user is a host of this group
-        if (!group.getHosts().contains(currentUser.getUserEmail())) {
+        if (!groupMemberRepository.existsByGroupIdAndUserEmailAndRole(groupId, currentUser.getUserEmail(), MemberRole.HOST)) {
             throw new IllegalStateException("Only hosts can create events for this group");
         }
 
-        // Initialize lists if null
-        if (event.getHosts() == null) {
-            event.setHosts(new ArrayList<>());
-        }
-        if (event.getParticipants() == null) {
-            event.setParticipants(new ArrayList<>());
+        if (event.getDurationMinutes() != null && event.getDurationMinutes() <= 0) {
+            throw new IllegalArgumentException("Duration must be a positive number of minutes");
         }
 
-        // Add current user as host
-        event.getHosts().add(currentUser.getUserEmail());
+        // A series is stored as one event; its occurrences are expanded when read
+        if (event.getRecurrenceRule() != null) {
+            event.setRecurrenceRule(validRecurrenceRule(event.getRecurrenceRule(), event.getEventTime()));
+        }
 
         // Set public status based on group's status
         event.setIsPublic(group.isPublic());
@@ -176,57 +151,63 @@ public class EventService {
         // Set group id
         event.setGroupId(groupId);
 
-        // Save the event first to get the ID
+        // The creator takes the first seat; enrolled participants are added to the count below
+        event.setMemberCount(1);
+
+        // Save the event to get the ID, then the host's roster row
         Event savedEvent = eventRepository.save(event);
+        Long eventId = savedEvent.getEventId();
+        eventMemberRepository.save(new EventMember(eventId, currentUser.getUserEmail(), MemberRole.HOST));
+        savedEvent.setHosts(new ArrayList<>(List.of(currentUser.getUserEmail())));
+
+        // Enroll group participants in join order, up to the event's capacity. The roster rows, the users'
+        // joinedEvents entries and the seat count are each written by one set-based statement, so the cost
+        // doesn't grow with the size of the group. A series shares one roster across all its occurrences
+        if (savedEvent.hasOccurrenceAfter(LocalDateTime.now()) &&
+                event.getMaxUsers() != null && event.getMaxUsers() > 1) {
+            int enrolled = eventMemberRepository.enrollGroupParticipants(eventId, groupId, event.getMaxUsers() - 1);
+            if (enrolled > 0) {
+                userRepository.addJoinedEventForParticipants(eventId);
+                eventRepository.addSeats(eventId, enrolled);
+                savedEvent.setMemberCount(1 + enrolled);
+                // The enrolled users aren't known here, so every cached schedule is rebuilt on next use
+                afterCommit(scheduleService::invalidateAll);
+            }
+        }
 
         // Update user's hostedEvents list
         if (currentUser.getHostedEvents() == null) {
             currentUser.setHostedEvents(new ArrayList<>());
         }
-        currentUser.getHostedEvents().add(savedEvent.getEventId());
+        currentUser.getHostedEvents().add(eventId);
 
         // Add event to the group's events list
         if (group.getEvents() == null) {
             group.setEvents(new ArrayList<>());
         }
-        group.getEvents().add(savedEvent.getEventId());
-
-        // Add all group participants to the event automatically
-        if (group.getParticipants() != null && !group.getParticipants().isEmpty()) {
-            for (String participantEmail : group.getParticipants()) {
-                User participant = userRepository.findById(participantEmail)
-                        .orElseThrow(() -> new UserNotFoundException("User not found: " + participantEmail));
-
-                // Only add if the event is in the future
-                if (savedEvent.getEventTime().isAfter(LocalDateTime.now())) {
-                    savedEvent.getParticipants().add(participantEmail);
-
-                    // Update user's joinedEvents list
-                    if (participant.getJoinedEvents() == null) {
-                        participant.setJoinedEvents(new ArrayList<>());
-                    }
-                    if (!participant.getJoinedEvents().contains(savedEvent.getEventId())) {
-                        participant.getJoinedEvents().add(savedEvent.getEventId());
-                    }
-
-                    userRepository.save(participant);
-                }
-            }
-        }
+        group.getEvents().add(eventId);
 
         // Save updated group and user
         groupRepository.save(group);
         userRepository.save(currentUser);
 
-        return eventRepository.save(savedEvent);
+        // The in-memory indexes only hear about the event once it's committed, so a rollback leaves nothing behind
+        String hostEmail = currentUser.getUserEmail();
+        afterCommit(() -> {
+            upcomingEventService.track(savedEvent);
+            nameSearchService.indexEvent(savedEvent);
+            scheduleService.invalidate(hostEmail);
+        });
+        return savedEvent;
     }
 
+    @Transactional
     public Event updateEvent(Long eventId, Event updatedEvent, User currentUser) {
         Event existingEvent = eventRepository.findById(eventId)
                 .orElseThrow(() -> new EventNotFoundException("Event not found with id: " + eventId));
 
         // Check if user is authorized (must be a host)
-        if (!existingEvent.getHosts().contains(currentUser.getUserEmail())) {
+        if (!isHost(eventId, currentUser.getUserEmail())) {
             throw new UnauthorizedException("Only event hosts can update events");
         }
 
@@ -235,10 +216,9 @@ public class EventService {
             throw new IllegalArgumentException("Event time must be in the future");
         }
 
-        // Validate max users - must be greater than or equal to current participant count
+        // Validate max users - must be greater than or equal to current member count
         if (updatedEvent.getMaxUsers() != null &&
-                existingEvent.getParticipants() != null &&
-                updatedEvent.getMaxUsers() < existingEvent.getParticipants().size()) {
+                updatedEvent.getMaxUsers() < existingEvent.getMemberCount()) {
             throw new IllegalArgumentException("Max users cannot be less than the current number of participants");
         }
 
@@ -263,57 +243,92 @@ public class EventService {
             existingEvent.setLocationId(updatedEvent.getLocationId());
         }
 
+        if (updatedEvent.getDurationMinutes() != null) {
+            if (updatedEvent.getDurationMinutes() <= 0) {
+                throw new IllegalArgumentException("Duration must be a positive number of minutes");
+            }
+            if (!updatedEvent.getDurationMinutes().equals(existingEvent.getDurationMinutes())) {
+                existingEvent.setDurationMinutes(updatedEvent.getDurationMinutes());
+                afterCommit(scheduleService::invalidateAll);
+            }
+        }
+
+        boolean scheduleChanged = false;
         if (updatedEvent.getEventTime() != null) {
+            scheduleChanged = !updatedEvent.getEventTime().equals(existingEvent.getEventTime());
             existingEvent.setEventTime(updatedEvent.getEventTime());
         }
 
-        return eventRepository.save(existingEvent);
+        // An empty rule turns a series back into a one-off event
+        if (updatedEvent.getRecurrenceRule() != null) {
+            String rule = updatedEvent.getRecurrenceRule().isBlank() ? null
+                    : validRecurrenceRule(updatedEvent.getRecurrenceRule(), existingEvent.getEventTime());
+            scheduleChanged |= !Objects.equals(rule, existingEvent.getRecurrenceRule());
+            existingEvent.setRecurrenceRule(rule);
+        }
+
+        // Overrides are keyed by the originally scheduled start, which no longer lines up once the schedule moves
+        if (scheduleChanged) {
+            if (existingEvent.getRecurrenceRule() != null) {
+                validRecurrenceRule(existingEvent.getRecurrenceRule(), existingEvent.getEventTime());
+            }
+            occurrenceOverrideRepository.deleteAllByEventIdIn(List.of(eventId));
+            afterCommit(scheduleService::invalidateAll);
+        }
+
+        Event savedEvent = eventRepository.save(existingEvent);
+
+        // Raising the capacity hands the new seats to the waitlist, oldest entry first
+        if (updatedEvent.getMaxUsers() != null) {
+            int promoted = waitlistService.promote(savedEvent).size();
+            if (promoted > 0) {
+                savedEvent.setMemberCount(savedEvent.getMemberCount() + promoted);
+            }
+        }
+
+        afterCommit(() -> {
+            upcomingEventService.track(savedEvent);
+            nameSearchService.indexEvent(savedEvent);
+        });
+        return savedEvent;
     }
 
+    /**
+     * Deletes the event and everything that points at it with one statement per table, so the cost doesn't
+     * depend on how many members or reminders the event has.
+     */
+    @Transactional
     public void deleteEvent(Long eventId, User currentUser) {
-        Event event = eventRepository.findById(eventId)
+        eventRepository.findById(eventId)
                 .orElseThrow(() -> new EventNotFoundException("Event not found with id: " + eventId));
 
         // Check if user is authorized (must be a host)
-        if (!event.getHosts().contains(currentUser.getUserEmail())) {
+        if (!isHost(eventId, currentUser.getUserEmail())) {
             throw new UnauthorizedException("Only event hosts can delete events");
         }
 
-        // Remove the event ID from the group's events list
-        Group group = groupRepository.findById(event.getGroupId())
-                .orElseThrow(() -> new GroupNotFoundException("Group not found with id: " + event.getGroupId()));
-
-        if (group.getEvents() != null) {
-            group.getEvents().remove(eventId);
-            groupRepository.save(group);
-        }
-
-        // Remove the event from all hosts' hostedEvents list
-        if (event.getHosts() != null) {
-            for (String hostEmail : event.getHosts()) {
-                userRepository.findById(hostEmail).ifPresent(host -> {
-                    if (host.getHostedEvents() != null) {
-                        host.getHostedEvents().remove(eventId);
-                        userRepository.save(host);
-                    }
-                });
-            }
-        }
-
-        // Remove the event from all participants' joinedEvents list
-        if (event.getParticipants() != null) {
-            for (String participantEmail : event.getParticipants()) {
-                userRepository.findById(participantEmail).ifPresent(participant -> {
-                    if (participant.getJoinedEvents() != null) {
-                        participant.getJoinedEvents().remove(eventId);
-                        userRepository.save(participant);
-                    }
-                });
-            }
-        }
+        List<Long> eventIds = List.of(eventId);
+        groupRepository.removeEventReferences(eventIds);
+        userRepository.removeHostedEventReferences(eventIds);
+        userRepository.removeJoinedEventReferences(eventIds);
+        eventReminderRepository.deleteAllByEventIdIn(eventIds);
+        occurrenceOverrideRepository.deleteAllByEventIdIn(eventIds);
+        waitlistService.clear(eventIds);
+        eventMemberRepository.deleteAllByEventIdIn(eventIds);
+        eventRepository.deleteAllByEventIdIn(eventIds);
+
+        afterCommit(() -> {
+            upcomingEventService.remove(eventId);
+            nameSearchService.removeEvent(eventId);
+            scheduleService.invalidateAll();
+        });
+    }
 
-        // Delete the event
-        eventRepository.delete(event);
+    // Parses and bounds-checks the rule against the series start, and returns it in canonical form
+    private static String validRecurrenceRule(String rule, LocalDateTime start) {
+        RecurrenceRule parsed = RecurrenceRule.parse(rule);
+        parsed.validate(start);
+        return parsed.toString();
     }
 
     public Event getEventById(Long eventId) {
@@ -321,6 +336,49 @@ public class EventService {
                 .orElseThrow(() -> new EventNotFoundException("Event not found with id: " + eventId));
     }
 
+    /**
+     * The event with its host list filled in, for the event page. Participants are paged through getEventMembers.
+     */
+    public Event getEventDetails(Long eventId) {
+        Event event = getEventById(eventId);
+        event.setHosts(eventMemberRepository.findEmailsByEventIdAndRole(eventId, MemberRole.HOST));
+        return event;
+    }
+
+    public boolean isMember(Long eventId, String userEmail) {
+        return eventMemberRepository.existsByEventIdAndUserEmail(eventId, userEmail);
+    }
+
+    public boolean isHost(Long eventId, String userEmail) {
+        return eventMemberRepository.existsByEventIdAndUserEmailAndRole(eventId, userEmail, MemberRole.HOST);
+    }
+
+    /**
+     * One page of the event roster in join order; see GroupService.getGroupMembers for the cursor format.
+     */
+    public CursorPage<EventMember> getEventMembers(Long eventId, String cursor, int limit, String role) {
+        getEventById(eventId);
+
+        long after = GroupService.parseCursor(cursor);
+        int pageSize = Math.max(1, Math.min(limit, MAX_ROSTER_PAGE));
+
+        List<EventMember> members;
+        if (role == null || role.isBlank()) {
+            members = eventMemberRepository.findByEventIdAndMemberIdGreaterThanOrderByMemberIdAsc(
+                    eventId, after, Limit.of(pageSize + 1));
+        } else {
+            members = eventMemberRepository.findByEventIdAndRoleAndMemberIdGreaterThanOrderByMemberIdAsc(
+                    eventId, GroupService.parseRole(role), after, Limit.of(pageSize + 1));
+        }
+
+        String nextCursor = null;
+        if (members.size() > pageSize) {
+            members = new ArrayList<>(members.subList(0, pageSize));
+            nextCursor = String.valueOf(members.get(pageSize - 1).getMemberId());
+        }
+        return new CursorPage<>(members, nextCursor);
+    }
+
     public List<Event> getEventsByGroupId(Long groupId) {
         Group group = groupRepository.findById(groupId)
                 .orElseThrow(() -> new GroupNotFoundException("Group not found with id: " + groupId));
@@ -343,13 +401,14 @@ public class EventService {
         if (group.getEvents() != null) {
             for (Long eventId : group.getEvents()) {
                 eventRepository.findById(eventId)
-                        .ifPresent(event -> shortEvents.add(new ShortEvent(event.getEventId(), event.getName(), event.getLocationId(), event.getIsPublic())));
+                        .ifPresent(event -> shortEvents.add(new ShortEvent(event.getEventId(), event.getName(), event.getLocationId(), event.getIsPublic(), event.getMemberCount())));
             }
         }
 
         return shortEvents;
     }
 
+    @Transactional
     public Event joinEvent(Long eventId, User currentUser) {
         Event event = getEventById(eventId);
 
@@ -359,26 +418,37 @@ public class EventService {
         }
 
         // Check if user is already a participant or host
-        if (event.getParticipants().contains(currentUser.getUserEmail()) ||
-                event.getHosts().contains(currentUser.getUserEmail())) {
+        if (isMember(eventId, currentUser.getUserEmail())) {
             return event; // User is already in the event
         }
 
-        // Check if event is full
-        if (event.getHosts().size() + event.getParticipants().size() >= event.getMaxUsers()) {
+        // Check if event is full (fast path; the seat reservation below is the real guard)
+        if (event.getMemberCount() >= event.getMaxUsers()) {
             throw new IllegalStateException("Event has reached maximum capacity");
         }
 
-        // Check if event has already passed
-        if (event.getEventTime().isBefore(LocalDateTime.now())) {
+        // Check if event has already passed; a series can be joined until its last occurrence
+        if (!event.hasOccurrenceAfter(LocalDateTime.now())) {
             throw new IllegalStateException("Cannot join an event that has already started");
         }
 
-        // Add user to participants
-        if (event.getParticipants() == null) {
-            event.setParticipants(new ArrayList<>());
+        // Seats that open up belong to the waitlist, so nobody can skip it by joining at the right moment
+        if (waitlistService.hasWaiting(eventId)) {
+            // Hand any free seat to the queue first; this also drops entries that were claimed elsewhere.
+            // It commits on its own, so refusing this join below doesn't roll the promotion back
+            waitlistService.promoteAndCommit(event);
+            if (waitlistService.hasWaiting(eventId)) {
+                throw new IllegalStateException("Event has a waitlist. Join the waitlist instead.");
+            }
+        }
+
+        // Claim a seat with a single conditional UPDATE so concurrent joins can never overbook
+        if (eventRepository.reserveSeat(eventId) == 0) {
+            throw new IllegalStateException("Event has reached maximum capacity");
         }
-        event.getParticipants().add(currentUser.getUserEmail());
+
+        // Insert just this member row; the rest of the roster is never loaded
+        eventMemberRepository.save(new EventMember(eventId, currentUser.getUserEmail(), MemberRole.PARTICIPANT));
 
         // Update user's joinedEvents list
         if (currentUser.getJoinedEvents() == null) {
@@ -391,7 +461,59 @@ public class EventService {
         // Save the user
         userRepository.save(currentUser);
 
-        // Save and return the updated event
-        return eventRepository.save(event);
+        // Reload the event so the response reflects the new participant and seat count
+        entityManager.refresh(event);
+        int memberCount = event.getMemberCount();
+        String userEmail = currentUser.getUserEmail();
+        afterCommit(() -> {
+            upcomingEventService.updateMemberCount(eventId, memberCount);
+            scheduleService.invalidate(userEmail);
+        });
+        return event;
+    }
+
+    /**
+     * Gives up the user's seat, which goes straight to the head of the waitlist if anyone is waiting.
+     */
+    @Transactional
+    public Event leaveEvent(Long eventId, User currentUser) {
+        Event event = getEventById(eventId);
+        String userEmail = currentUser.getUserEmail();
+
+        if (isHost(eventId, userEmail)) {
+            throw new IllegalStateException("Hosts cannot leave their own event");
+        }
+        // Only the request that actually removed the member row gives the seat back
+        if (eventMemberRepository.removeMember(eventId, userEmail) == 0) {
+            throw new IllegalStateException("You are not attending this event");
+        }
+        eventRepository.releaseSeat(eventId);
+
+        if (currentUser.getJoinedEvents() != null && currentUser.getJoinedEvents().remove(eventId)) {
+            userRepository.save(currentUser);
+        }
+
+        waitlistService.promote(event);
+
+        entityManager.refresh(event);
+        int memberCount = event.getMemberCount();
+        afterCommit(() -> {
+            upcomingEventService.updateMemberCount(eventId, memberCount);
+            scheduleService.invalidate(userEmail);
+        });
+        return event;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,317 @@
+package com.grapevine.service;
+
+import com.grapevine.index.Leaderboard;
+import com.grapevine.model.Group;
+import com.grapevine.model.GroupRankingSnapshot;
+import com.grapevine.model.RankedGroup;
+import com.grapevine.model.Rating;
+import com.grapevine.repository.EventRepository;
+import com.grapevine.repository.GroupRankingSnapshotRepository;
+import com.grapevine.repository.GroupRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps "trending" and "top-rated" group leaderboards, globally and per course, in memory.
+ * Joins and ratings update a group's position immediately; a scheduled refresh recomputes every
+ * group from the database and writes a snapshot that is used to restore the boards on startup.
+ */
+@Service
+@RequiredArgsConstructor
+public class GroupRankingService {
+    public static final String TRENDING = "trending";
+    public static final String TOP_RATED = "top-rated";
+
+    // Leaderboard key for the all-courses board
+    private static final String GLOBAL = "";
+
+    // Bayesian prior: every group is treated as if it already had this many ratings at the site-wide mean
+    private static final double PRIOR_WEIGHT = 5.0;
+    private static final double DEFAULT_MEAN_RATING = 3.0;
+    private static final double MAX_RATING = 5.0;
+
+    // A join counts half as much toward trending after this many hours
+    private static final double JOIN_HALF_LIFE_HOURS = 72.0;
+
+    private static final double RATING_WEIGHT = 1.0;
+    private static final double VELOCITY_WEIGHT = 1.0;
+    private static final double EVENT_WEIGHT = 0.5;
+
+    private static final int MAX_LIMIT = 100;
+
+    private final GroupRepository groupRepository;
+    private final EventRepository eventRepository;
+    private final GroupRankingSnapshotRepository snapshotRepository;
+
+    private final Map<Long, RankState> states = new ConcurrentHashMap<>();
+    private final Map<String, Leaderboard> trendingBoards = new ConcurrentHashMap<>();
+    private final Map<String, Leaderboard> topRatedBoards = new ConcurrentHashMap<>();
+    private volatile double meanRating = DEFAULT_MEAN_RATING;
+
+    @PostConstruct
+    public void loadSnapshot() {
+        try {
+            for (GroupRankingSnapshot snapshot : snapshotRepository.findAll()) {
+                RankState state = new RankState(snapshot.getGroupId());
+                state.name = snapshot.getGroupName();
+                state.course = snapshot.getCourse();
+                state.ratingSum = snapshot.getRatingSum();
+                state.ratingCount = snapshot.getRatingCount();
+                state.joinVelocity = snapshot.getJoinVelocity();
+                state.velocityAt = snapshot.getVelocityUpdatedAt() != null
+                        ? snapshot.getVelocityUpdatedAt() : LocalDateTime.now();
+                state.upcomingEvents = snapshot.getUpcomingEvents();
+                states.put(state.groupId, state);
+                apply(state, LocalDateTime.now());
+            }
+        } catch (Exception e) {
+            System.err.println("Could not restore group rankings snapshot: " + e.getMessage());
+        }
+    }
+
+    public List<RankedGroup> getRankings(String sort, String course, int limit) {
+        Map<String, Leaderboard> boards;
+        if (sort == null || TRENDING.equalsIgnoreCase(sort)) {
+            boards = trendingBoards;
+        } else if (TOP_RATED.equalsIgnoreCase(sort)) {
+            boards = topRatedBoards;
+        } else {
+            throw new IllegalArgumentException("Invalid sort: " + sort + ". Use '" + TRENDING + "' or '" + TOP_RATED + "'");
+        }
+
+        Leaderboard board = boards.get(scopeKey(course));
+        if (board == null) {
+            return new ArrayList<>();
+        }
+
+        List<RankedGroup> rankings = new ArrayList<>();
+        for (Leaderboard.Entry entry : board.top(Math.max(1, Math.min(limit, MAX_LIMIT)))) {
+            RankState state = states.get(entry.id());
+            if (state != null) {
+                rankings.add(new RankedGroup(state.groupId, state.name, state.course, entry.score()));
+            }
+        }
+        return rankings;
+    }
+
+    /**
+     * Starts ranking a newly created group right away instead of waiting for the next refresh.
+     */
+    public void trackGroup(Group group) {
+        RankState state = states.computeIfAbsent(group.getGroupId(), RankState::new);
+        synchronized (state) {
+            state.name = group.getName();
+            state.course = normalizeCourse(group.getCourse());
+        }
+        apply(state, LocalDateTime.now());
+    }
+
+    public void recordJoin(Long groupId) {
+        RankState state = states.get(groupId);
+        if (state == null) {
+            return; // Picked up by the next refresh
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        synchronized (state) {
+            state.joinVelocity = decayedVelocity(state, now) + 1.0;
+            state.velocityAt = now;
+        }
+        apply(state, now);
+    }
+
+    public void recordRating(Long groupId, Rating rating) {
+        RankState state = states.get(groupId);
+        if (state == null) {
+            return; // Picked up by the next refresh
+        }
+
+        double sum = 0;
+        int count = 0;
+        if (rating != null && rating.getScores() != null) {
+            for (Float score : rating.getScores()) {
+                // Zero is the placeholder for a review without a score
+                if (score != null && score > 0) {
+                    sum += score;
+                    count++;
+                }
+            }
+        }
+
+        synchronized (state) {
+            state.ratingSum = sum;
+            state.ratingCount = count;
+        }
+        apply(state, LocalDateTime.now());
+    }
+
+    /**
+     * Recomputes every group from the database, drops deleted groups and persists the snapshot.
+     */
+    @Transactional
+    public void refreshRankings() {
+        LocalDateTime now = LocalDateTime.now();
+
+        Map<Long, Integer> upcomingByGroup = new HashMap<>();
+        for (Object[] row : eventRepository.countUpcomingEventsByGroup(now)) {
+            upcomingByGroup.put(((Number) row[0]).longValue(), ((Number) row[1]).intValue());
+        }
+
+        List<Object[]> inputs = groupRepository.findRankingInputs();
+
+        // Site-wide mean of real scores, used as the Bayesian prior
+        double totalSum = 0;
+        long totalCount = 0;
+        for (Object[] row : inputs) {
+            totalCount += ((Number) row[3]).longValue();
+            totalSum += ((Number) row[4]).doubleValue();
+        }
+        meanRating = totalCount > 0 ? totalSum / totalCount : DEFAULT_MEAN_RATING;
+
+        Set<Long> seen = new HashSet<>();
+        for (Object[] row : inputs) {
+            Long groupId = ((Number) row[0]).longValue();
+            seen.add(groupId);
+
+            RankState state = states.computeIfAbsent(groupId, RankState::new);
+            String course = normalizeCourse((String) row[2]);
+            synchronized (state) {
+                if (!Objects.equals(state.course, course)) {
+                    removeFromCourseBoards(state);
+                }
+                state.name = (String) row[1];
+                state.course = course;
+                state.ratingCount = ((Number) row[3]).intValue();
+                state.ratingSum = ((Number) row[4]).doubleValue();
+                state.upcomingEvents = upcomingByGroup.getOrDefault(groupId, 0);
+            }
+            apply(state, now);
+        }
+
+        List<Long> removed = new ArrayList<>();
+        for (RankState state : new ArrayList<>(states.values())) {
+            if (!seen.contains(state.groupId)) {
+                removeGroup(state);
+                removed.add(state.groupId);
+            }
+        }
+
+        List<GroupRankingSnapshot> snapshots = new ArrayList<>(states.size());
+        for (RankState state : states.values()) {
+            snapshots.add(toSnapshot(state, now));
+        }
+        snapshotRepository.saveAll(snapshots);
+        if (!removed.isEmpty()) {
+            snapshotRepository.deleteAllByIdInBatch(removed);
+        }
+    }
+
+    private void apply(RankState state, LocalDateTime now) {
+        synchronized (state) {
+            double bayesianRating = (PRIOR_WEIGHT * meanRating + state.ratingSum) / (PRIOR_WEIGHT + state.ratingCount);
+            state.ratingScore = bayesianRating;
+            state.trendingScore = RATING_WEIGHT * (bayesianRating / MAX_RATING)
+                    + VELOCITY_WEIGHT * Math.log1p(decayedVelocity(state, now))
+                    + EVENT_WEIGHT * Math.log1p(state.upcomingEvents);
+
+            board(trendingBoards, GLOBAL).update(state.groupId, state.trendingScore);
+            board(topRatedBoards, GLOBAL).update(state.groupId, state.ratingScore);
+            if (state.course != null) {
+                board(trendingBoards, state.course).update(state.groupId, state.trendingScore);
+                board(topRatedBoards, state.course).update(state.groupId, state.ratingScore);
+            }
+        }
+    }
+
+    private void removeGroup(RankState state) {
+        synchronized (state) {
+            states.remove(state.groupId);
+            board(trendingBoards, GLOBAL).remove(state.groupId);
+            board(topRatedBoards, GLOBAL).remove(state.groupId);
+            removeFromCourseBoards(state);
+        }
+    }
+
+    private void removeFromCourseBoards(RankState state) {
+        if (state.course == null) {
+            return;
+        }
+        Leaderboard trending = trendingBoards.get(state.course);
+        if (trending != null) {
+            trending.remove(state.groupId);
+        }
+        Leaderboard topRated = topRatedBoards.get(state.course);
+        if (topRated != null) {
+            topRated.remove(state.groupId);
+        }
+    }
+
+    private Leaderboard board(Map<String, Leaderboard> boards, String key) {
+        return boards.computeIfAbsent(key, k -> new Leaderboard());
+    }
+
+    private double decayedVelocity(RankState state, LocalDateTime now) {
+        if (state.joinVelocity == 0 || state.velocityAt == null) {
+            return state.joinVelocity;
+        }
+        double hours = Math.max(0, Duration.between(state.velocityAt, now).toMinutes() / 60.0);
+        return state.joinVelocity * Math.pow(0.5, hours / JOIN_HALF_LIFE_HOURS);
+    }
+
+    private GroupRankingSnapshot toSnapshot(RankState state, LocalDateTime now) {
+        synchronized (state) {
+            GroupRankingSnapshot snapshot = new GroupRankingSnapshot();
+            snapshot.setGroupId(state.groupId);
+            snapshot.setGroupName(state.name);
+            snapshot.setCourse(state.course);
+            snapshot.setRatingSum(state.ratingSum);
+            snapshot.setRatingCount(state.ratingCount);
+            snapshot.setJoinVelocity(state.joinVelocity);
+            snapshot.setVelocityUpdatedAt(state.velocityAt);
+            snapshot.setUpcomingEvents(state.upcomingEvents);
+            snapshot.setTrendingScore(state.trendingScore);
+            snapshot.setRatingScore(state.ratingScore);
+            snapshot.setComputedAt(now);
+            return snapshot;
+        }
+    }
+
+    private static String scopeKey(String course) {
+        String normalized = normalizeCourse(course);
+        return normalized != null ? normalized : GLOBAL;
+    }
+
+    private static String normalizeCourse(String course) {
+        if (course == null || course.trim().isEmpty()) {
+            return null;
+        }
+        return course.trim().toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Ranking inputs for one group. Guarded by its own monitor.
+     */
+    private static final class RankState {
+        private final long groupId;
+        private String name;
+        private String course;
+        private double ratingSum;
+        private int ratingCount;
+        private double joinVelocity;
+        private LocalDateTime velocityAt;
+        private int upcomingEvents;
+        private double trendingScore;
+        private double ratingScore;
+
+        private RankState(long groupId) {
+            this.groupId = groupId;
+        }
+    }
+}
@@ -2,16 +2,31 @@ package com.grapevine.service;
 
 import com.grapevine.exception.GroupNotFoundException;
 import com.grapevine.exception.InvalidSessionException;
+import com.grapevine.exception.UnauthorizedException;
+import com.grapevine.model.CursorPage;
+import com.grapevine.model.EventMember;
 import com.grapevine.model.Group;
-//import com.grapevine.model.Rating;
+import com.grapevine.model.GroupAccessRequest;
+import com.grapevine.model.GroupMember;
+import com.grapevine.model.MemberRole;
+import com.grapevine.model.RankedGroup;
 import com.grapevine.model.Rating;
 import com.grapevine.model.ShortGroup;
 import com.grapevine.model.User;
+import com.grapevine.repository.EventMemberRepository;
 import com.grapevine.repository.EventRepository;
+import com.grapevine.repository.GroupAccessRequestRepository;
+import com.grapevine.repository.GroupMemberRepository;
 import com.grapevine.repository.GroupRepository;
 import com.grapevine.repository.UserRepository;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
 import java.util.*;
@@ -24,93 +39,190 @@ public class GroupService {
     private final UserRepository userRepository;
     private final EmailService emailService;
     private final EventRepository eventRepository;
+    private final GroupAccessRequestRepository accessRequestRepository;
+    private final AccessRequestNotifier accessRequestNotifier;
+    private final EntityManager entityManager;
+    private final GroupRankingService groupRankingService;
+    private final GroupMemberRepository groupMemberRepository;
+    private final EventMemberRepository eventMemberRepository;
+    private final UpcomingEventService upcomingEventService;
+    private final NameSearchService nameSearchService;
+    private final ScheduleService scheduleService;
+
+    private static final int MAX_ROSTER_PAGE = 200;
 
     public List<Group> getAllGroups() {
         return groupRepository.findAll();
     }
 
     public List<ShortGroup> getAllShortGroups() {
-        List<Group> groups = groupRepository.findAll();
-        List<ShortGroup> shortGroups = new ArrayList<>();
-
-        for (Group group : groups) {
-            shortGroups.add(new ShortGroup(group.getGroupId(), group.getName(),
-                    group.isPublic(), group.isInstructorLed()));
-        }
-
-        return shortGroups;
+        return groupRepository.findAllShortGroups();
     }
 
     public List<ShortGroup> getShortGroupsByPublicStatus(Boolean isPublic) {
-        List<Group> groups = groupRepository.findAll();
-        List<ShortGroup> filteredGroups = new ArrayList<>();
-
-        for (Group group : groups) {
-            if (group.isPublic() == isPublic) {
-                filteredGroups.add(new ShortGroup(group.getGroupId(), group.getName(),
-                        group.isPublic(), group.isInstructorLed()));
-            }
-        }
+        return groupRepository.findShortGroupsByPublicStatus(isPublic);
+    }
 
-        return filteredGroups;
+    public List<RankedGroup> getGroupRankings(String sort, String course, int limit) {
+        return groupRankingService.getRankings(sort, course, limit);
     }
 
     public boolean checkUserHasGroupAccess(Long groupId, User currentUser) {
         Group group = getGroupById(groupId);
 
         // If group is public, or user is already a participant/host, they have access
-        return group.isPublic() ||
-                group.getParticipants().contains(currentUser.getUserEmail()) ||
-                group.getHosts().contains(currentUser.getUserEmail());
+        return group.isPublic() || isMember(groupId, currentUser.getUserEmail());
+    }
+
+    public boolean isMember(Long groupId, String userEmail) {
+        return groupMemberRepository.existsByGroupIdAndUserEmail(groupId, userEmail);
+    }
+
+    public boolean isHost(Long groupId, String userEmail) {
+        return groupMemberRepository.existsByGroupIdAndUserEmailAndRole(groupId, userEmail, MemberRole.HOST);
+    }
+
+    public List<String> getHostEmails(Long groupId) {
+        return groupMemberRepository.findEmailsByGroupIdAndRole(groupId, MemberRole.HOST);
+    }
+
+    /**
+     * One page of the roster in join order. The cursor is the last member id of the previous page,
+     * so each page is a single index range scan no matter how large the group is.
+     */
+    public CursorPage<GroupMember> getGroupMembers(Long groupId, String cursor, int limit, String role) {
+        // Make sure the group exists so an unknown id is a 404 rather than an empty roster
+        getGroupById(groupId);
+
+        long after = parseCursor(cursor);
+        int pageSize = Math.max(1, Math.min(limit, MAX_ROSTER_PAGE));
+
+        List<GroupMember> members;
+        if (role == null || role.isBlank()) {
+            members = groupMemberRepository.findByGroupIdAndMemberIdGreaterThanOrderByMemberIdAsc(
+                    groupId, after, Limit.of(pageSize + 1));
+        } else {
+            members = groupMemberRepository.findByGroupIdAndRoleAndMemberIdGreaterThanOrderByMemberIdAsc(
+                    groupId, parseRole(role), after, Limit.of(pageSize + 1));
+        }
+
+        // Fetch one extra row to know whether another page exists without a COUNT query
+        String nextCursor = null;
+        if (members.size() > pageSize) {
+            members = new ArrayList<>(members.subList(0, pageSize));
+            nextCursor = String.valueOf(members.get(pageSize - 1).getMemberId());
+        }
+        return new CursorPage<>(members, nextCursor);
+    }
+
+    static long parseCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            return Long.parseLong(cursor.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+
+    static MemberRole parseRole(String role) {
+        try {
+            return MemberRole.valueOf(role.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid role: " + role + ". Use 'host' or 'participant'");
+        }
     }
 
     public void sendGroupAccessRequests(Long groupId, User requestingUser) {
         Group group = getGroupById(groupId);
 
-        // Generate a unique request ID
-        String requestId = UUID.randomUUID().toString();
-
-        // Send email to all hosts
-        for (String hostEmail : group.getHosts()) {
-            // Get host user to include their name in email
-            User host = userService.getUserByEmail(hostEmail);
-
-            // Create accept/reject URLs with the request ID
-            String acceptUrl = "http://localhost:8080/groups/respond-access/" + requestId +
-                    "/accept/" + groupId + "/" + requestingUser.getUserEmail();
-            String rejectUrl = "http://localhost:8080/groups/respond-access/" + requestId +
-                    "/reject/" + groupId + "/" + requestingUser.getUserEmail();
-
-            // Create HTML message with styled buttons using table layout (more email-client friendly)
-            String htmlMessage =
-                    "<html><body>" +
-                            "<h2>Group Access Request</h2>" +
-                            "<p>" + requestingUser.getName() + " wants to join your group: <strong>" + group.getName() + "</strong></p>" +
-                            "<p>Click one of the following options:</p>" +
-                            "<table border='0' cellpadding='0' cellspacing='0'><tr>" +
-                            "<td><a href='" + acceptUrl + "' style='background-color: #4CAF50; color: white; padding: 10px 15px; text-decoration: none; display: inline-block; border-radius: 4px;'>Accept</a></td>" +
-                            "<td width='10'>&nbsp;</td>" +
-                            "<td><a href='" + rejectUrl + "' style='background-color: #f44336; color: white; padding: 10px 15px; text-decoration: none; display: inline-block; border-radius: 4px;'>Deny</a></td>" +
-                            "</tr></table>" +
-                            "</body></html>";
-
-            // Use the new HTML email method
-            emailService.sendHtmlEmail(
-                    hostEmail,
-                    "Join Group Request: " + group.getName(),
-                    htmlMessage
-            );
+        // One request row per (group, user): repeated clicks while pending don't re-notify the hosts
+        GroupAccessRequest request = accessRequestRepository
+                .findByGroupIdAndRequesterEmail(groupId, requestingUser.getUserEmail())
+                .orElse(null);
+
+        if (request != null && request.getStatus() == GroupAccessRequest.Status.PENDING) {
+            return;
         }
+
+        if (request == null) {
+            request = new GroupAccessRequest();
+            request.setGroupId(groupId);
+            request.setRequesterEmail(requestingUser.getUserEmail());
+        }
+
+        // Generate a fresh token so links from an earlier, already answered request stop working
+        request.setRequestToken(UUID.randomUUID().toString());
+        request.setRequesterName(requestingUser.getName());
+        request.setStatus(GroupAccessRequest.Status.PENDING);
+        request.setRespondedAt(null);
+
+        GroupAccessRequest savedRequest;
+        try {
+            savedRequest = accessRequestRepository.save(request);
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent click already created the pending request for this user
+            return;
+        }
+
+        // Hand the email/WebSocket fan-out to the async worker so this returns immediately
+        accessRequestNotifier.notifyHosts(savedRequest.getAccessRequestId(), savedRequest.getRequestToken(), groupId,
+                savedRequest.getRequesterEmail(), savedRequest.getRequesterName(), group.getName(),
+                getHostEmails(groupId));
     }
 
+    public List<GroupAccessRequest> getPendingAccessRequests(Long groupId, User currentUser) {
+        getGroupById(groupId);
+
+        // Check if user is a host of this group
+        if (!isHost(groupId, currentUser.getUserEmail())) {
+            throw new UnauthorizedException("Only hosts can view access requests");
+        }
+
+        return accessRequestRepository.findByGroupIdAndStatusOrderByCreatedAtAsc(groupId,
+                GroupAccessRequest.Status.PENDING);
+    }
+
+    @Transactional
     public String processAccessResponse(String requestId, String action, Long groupId, String userEmail) {
+        GroupAccessRequest.Status resolution;
+        if ("accept".equalsIgnoreCase(action)) {
+            resolution = GroupAccessRequest.Status.ACCEPTED;
+        } else if ("reject".equalsIgnoreCase(action)) {
+            resolution = GroupAccessRequest.Status.REJECTED;
+        } else {
+            throw new IllegalArgumentException("Invalid action: " + action);
+        }
+
+        GroupAccessRequest request = accessRequestRepository.findByRequestToken(requestId)
+                .filter(r -> r.getGroupId().equals(groupId) && r.getRequesterEmail().equals(userEmail))
+                .orElseThrow(() -> new IllegalArgumentException("Access request not found: " + requestId));
+
+        // Resolve the request atomically so two hosts (or a double click) can't both act on it
+        if (request.getStatus() != GroupAccessRequest.Status.PENDING ||
+                accessRequestRepository.resolvePending(request.getAccessRequestId(),
+                        GroupAccessRequest.Status.PENDING, resolution, LocalDateTime.now()) == 0) {
+            return "<html><body><h2>Request Already Handled</h2>" +
+                    "<p>This request to join the group has already been answered.</p></body></html>";
+        }
+
         Group group = getGroupById(groupId);
         User requestingUser = userService.getUserByEmail(userEmail);
 
-        if ("accept".equalsIgnoreCase(action)) {
+        if (resolution == GroupAccessRequest.Status.ACCEPTED) {
             // Add user to group participants
-            if (!group.getParticipants().contains(userEmail)) {
-                group.getParticipants().add(userEmail);
+            if (!isMember(groupId, userEmail)) {
+                // Claim a seat with a single conditional UPDATE so concurrent accepts can never overbook
+                if (groupRepository.reserveSeat(groupId) == 0) {
+                    // Put the request back so a host can accept it once a seat frees up
+                    accessRequestRepository.reopen(request.getAccessRequestId(), GroupAccessRequest.Status.PENDING);
+                    return "<html><body><h2>Group Full</h2>" +
+                            "<p>" + requestingUser.getName() + " could not be added because the group: " +
+                            group.getName() + " has reached maximum capacity</p></body></html>";
+                }
+                groupMemberRepository.save(new GroupMember(groupId, userEmail, MemberRole.PARTICIPANT));
+                afterCommit(() -> groupRankingService.recordJoin(groupId));
 
                 // Update user's joinedGroups list
                 if (requestingUser.getJoinedGroups() == null) {
@@ -121,37 +233,9 @@ public class GroupService {
                 }
 
                 // Auto-enroll user in all upcoming events for this group
-                if (group.getEvents() != null && !group.getEvents().isEmpty()) {
-                    if (requestingUser.getJoinedEvents() == null) {
-                        requestingUser.setJoinedEvents(new ArrayList<>());
-                    }
-
-                    LocalDateTime now = LocalDateTime.now();
-                    for (Long eventId : group.getEvents()) {
-                        eventRepository.findById(eventId).ifPresent(event -> {
-                            // Only add user to future events
-                            if (event.getEventTime().isAfter(now)) {
-                                // Check if the event isn't full
-                                if (event.getHosts().size() + event.getParticipants().size() < event.getMaxUsers()) {
-                                    // Add user to event participants if not already there
-                                    if (!event.getParticipants().contains(userEmail)) {
-                                        event.getParticipants().add(userEmail);
-
-                                        // Add event to user's joinedEvents if not already there
-                                        if (!requestingUser.getJoinedEvents().contains(eventId)) {
-                                            requestingUser.getJoinedEvents().add(eventId);
-                                        }
-
-                                        eventRepository.save(event);
-                                    }
-                                }
-                            }
-                        });
-                    }
-                }
+                enrollInUpcomingEvents(group, requestingUser);
 
                 // Save changes
-                groupRepository.save(group);
                 userRepository.save(requestingUser);
 
                 return "<html><body><h2>Request Accepted</h2>" +
@@ -162,26 +246,16 @@ public class GroupService {
                         "<p>" + requestingUser.getName() +
                         " is already a member of the group: " + group.getName() + "</p></body></html>";
             }
-        } else if ("reject".equalsIgnoreCase(action)) {
+        } else {
             return "<html><body><h2>Request Rejected</h2>" +
                     "<p>You've rejected " + requestingUser.getName() +
                     "'s request to join the group: " + group.getName() + "</p></body></html>";
-        } else {
-            throw new IllegalArgumentException("Invalid action: " + action);
         }
     }
 
     public Group createGroup(Group group, User currentUser) {
-        // Initialize lists if null
-        if (group.getHosts() == null) {
-            group.setHosts(new ArrayList<>());
-        }
-        if (group.getParticipants() == null) {
-            group.setParticipants(new ArrayList<>());
-        }
-
-        // Add current user as host only
-        group.getHosts().add(currentUser.getUserEmail());
+        // The creator is the only member; later joins only move the count through GroupRepository.reserveSeat
+        group.setMemberCount(1);
 
         // Set isPublic explicitly (handling the default if not specified)
         group.setPublic(group.isPublic());
@@ -193,6 +267,10 @@ public class GroupService {
 
         // Save the group first to get the ID
         Group savedGroup = groupRepository.save(group);
+        groupMemberRepository.save(new GroupMember(savedGroup.getGroupId(), currentUser.getUserEmail(), MemberRole.HOST));
+        savedGroup.setHosts(new ArrayList<>(List.of(currentUser.getUserEmail())));
+        groupRankingService.trackGroup(savedGroup);
+        nameSearchService.indexGroup(savedGroup);
 
         // Update user's hostedGroups list
         if (currentUser.getHostedGroups() == null) {
@@ -216,7 +294,7 @@ public class GroupService {
         Group group = getGroupById(groupId);
 
         // Check if user is a host of this group
-        if (!group.getHosts().contains(currentUser.getUserEmail())) {
+        if (!isHost(groupId, currentUser.getUserEmail())) {
             throw new IllegalStateException("Only hosts can change instructor-led status");
         }
 
@@ -238,6 +316,16 @@ public class GroupService {
                 .orElseThrow(() -> new GroupNotFoundException("Group not found with id: " + groupId));
     }
 
+    /**
+     * The group with its host list filled in, for the group page. Participants are not included;
+     * they are paged through getGroupMembers.
+     */
+    public Group getGroupDetails(Long groupId) {
+        Group group = getGroupById(groupId);
+        group.setHosts(getHostEmails(groupId));
+        return group;
+    }
+
     public Map<String, Object> getGroupRatings(Long groupId) {
         Group group = getGroupById(groupId);
         Rating rating = group.getRating();
@@ -259,6 +347,7 @@ public class GroupService {
         return result;
     }
 
+    @Transactional
     public Group joinPublicGroup(Long groupId, User currentUser) {
         Group group = getGroupById(groupId);
 
@@ -268,16 +357,18 @@ public class GroupService {
         }
 
         // Check if user is already a participant or host
-        if (group.getParticipants().contains(currentUser.getUserEmail()) ||
-                group.getHosts().contains(currentUser.getUserEmail())) {
+        if (isMember(groupId, currentUser.getUserEmail())) {
             return group; // User is already in the group
         }
 
-        // Add user to participants
-        if (group.getParticipants() == null) {
-            group.setParticipants(new ArrayList<>());
+        // Claim a seat with a single conditional UPDATE so concurrent joins can never overbook
+        if (groupRepository.reserveSeat(groupId) == 0) {
+            throw new IllegalStateException("Group has reached maximum capacity");
         }
-        group.getParticipants().add(currentUser.getUserEmail());
+
+        // Insert just this member row; the rest of the roster is never loaded
+        groupMemberRepository.save(new GroupMember(groupId, currentUser.getUserEmail(), MemberRole.PARTICIPANT));
+        afterCommit(() -> groupRankingService.recordJoin(groupId));
 
         // Update user's joinedGroups list
         if (currentUser.getJoinedGroups() == null) {
@@ -288,40 +379,66 @@ public class GroupService {
         }
 
         // Auto-enroll user in all upcoming events for this group
-        if (group.getEvents() != null && !group.getEvents().isEmpty()) {
-            if (currentUser.getJoinedEvents() == null) {
-                currentUser.setJoinedEvents(new ArrayList<>());
-            }
-
-            LocalDateTime now = LocalDateTime.now();
-            for (Long eventId : group.getEvents()) {
-                eventRepository.findById(eventId).ifPresent(event -> {
-                    // Only add user to future events
-                    if (event.getEventTime().isAfter(now)) {
-                        // Check if the event isn't full
-                        if (event.getHosts().size() + event.getParticipants().size() < event.getMaxUsers()) {
-                            // Add user to event participants if not already there
-                            if (!event.getParticipants().contains(currentUser.getUserEmail())) {
-                                event.getParticipants().add(currentUser.getUserEmail());
-
-                                // Add event to user's joinedEvents if not already there
-                                if (!currentUser.getJoinedEvents().contains(eventId)) {
-                                    currentUser.getJoinedEvents().add(eventId);
-                                }
-
-                                eventRepository.save(event);
-                            }
-                        }
-                    }
-                });
-            }
-        }
+        enrollInUpcomingEvents(group, currentUser);
 
         // Save the user
         userRepository.save(currentUser);
 
-        // Save and return the updated group
-        return groupRepository.save(group);
+        // Reload the group so the response reflects the new participant and seat count
+        entityManager.refresh(group);
+        return group;
+    }
+
+    /**
+     * Adds the user to every upcoming event of the group that still has a free seat.
+     * Seats go through the same conditional UPDATE as a direct event join, so a full event is skipped.
+     */
+    private void enrollInUpcomingEvents(Group group, User user) {
+        if (group.getEvents() == null || group.getEvents().isEmpty()) {
+            return;
+        }
+        if (user.getJoinedEvents() == null) {
+            user.setJoinedEvents(new ArrayList<>());
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        for (Long eventId : group.getEvents()) {
+            eventRepository.findById(eventId).ifPresent(event -> {
+                // Only add user to future events they are not already part of
+                if (!event.hasOccurrenceAfter(now) ||
+                        eventMemberRepository.existsByEventIdAndUserEmail(eventId, user.getUserEmail())) {
+                    return;
+                }
+
+                if (eventRepository.reserveSeat(eventId) == 0) {
+                    return; // Event is full
+                }
+                eventMemberRepository.save(new EventMember(eventId, user.getUserEmail(), MemberRole.PARTICIPANT));
+                // The count read above may be stale by now; take the one the seat UPDATE left behind
+                entityManager.refresh(event);
+                int memberCount = event.getMemberCount();
+                afterCommit(() -> upcomingEventService.updateMemberCount(eventId, memberCount));
+
+                // Add event to user's joinedEvents if not already there
+                if (!user.getJoinedEvents().contains(eventId)) {
+                    user.getJoinedEvents().add(eventId);
+                }
+            });
+        }
+        scheduleService.invalidate(user.getUserEmail());
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
 
     /**
@@ -403,7 +520,9 @@ public class GroupService {
         recalculateAverageRating(rating);
 
         // Save updated group
-        return groupRepository.save(group);
+        Group savedGroup = groupRepository.save(group);
+        groupRankingService.recordRating(groupId, rating);
+        return savedGroup;
     }
 
     /**
@@ -473,7 +592,9 @@ public class GroupService {
                 recalculateAverageRating(rating);
 
                 // Save updated group
-                return groupRepository.save(group);
+                Group savedGroup = groupRepository.save(group);
+                groupRankingService.recordRating(groupId, rating);
+                return savedGroup;
             }
         }
 
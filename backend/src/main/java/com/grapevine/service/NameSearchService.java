@@ -0,0 +1,90 @@
+package com.grapevine.service;
+
+import com.grapevine.index.PrefixIndex;
+import com.grapevine.model.Event;
+import com.grapevine.model.Group;
+import com.grapevine.repository.EventRepository;
+import com.grapevine.repository.GroupRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Case- and accent-insensitive name typeahead for public events and groups, served from memory.
+ * Loaded at startup and kept current as events and groups are created, renamed and deleted.
+ */
+@Service
+@RequiredArgsConstructor
+public class NameSearchService {
+    private static final int MAX_LIMIT = 50;
+
+    private final EventRepository eventRepository;
+    private final GroupRepository groupRepository;
+
+    private final PrefixIndex eventNames = new PrefixIndex();
+    private final PrefixIndex groupNames = new PrefixIndex();
+
+    @PostConstruct
+    public void warm() {
+        try {
+            eventNames.replaceAll(toNameMap(eventRepository.findPublicEventNames()));
+            groupNames.replaceAll(toNameMap(groupRepository.findAllGroupNames()));
+        } catch (Exception e) {
+            System.err.println("Could not load name search index: " + e.getMessage());
+        }
+    }
+
+    public List<PrefixIndex.Match> searchEvents(String prefix, int limit) {
+        return eventNames.search(prefix, Math.max(1, Math.min(limit, MAX_LIMIT)));
+    }
+
+    public List<PrefixIndex.Match> searchGroups(String prefix, int limit) {
+        return groupNames.search(prefix, Math.max(1, Math.min(limit, MAX_LIMIT)));
+    }
+
+    /**
+     * Adds or renames the event; private events are kept out of the typeahead.
+     */
+    public void indexEvent(Event event) {
+        if (event.getEventId() == null) {
+            return;
+        }
+        if (Boolean.TRUE.equals(event.getIsPublic())) {
+            eventNames.put(event.getEventId(), event.getName());
+        } else {
+            eventNames.remove(event.getEventId());
+        }
+    }
+
+    public void removeEvent(Long eventId) {
+        eventNames.remove(eventId);
+    }
+
+    public void removeEvents(List<Long> eventIds) {
+        for (Long eventId : eventIds) {
+            eventNames.remove(eventId);
+        }
+    }
+
+    public void indexGroup(Group group) {
+        if (group.getGroupId() != null) {
+            groupNames.put(group.getGroupId(), group.getName());
+        }
+    }
+
+    public void removeGroup(Long groupId) {
+        groupNames.remove(groupId);
+    }
+
+    private static Map<Long, String> toNameMap(List<Object[]> rows) {
+        Map<Long, String> names = new HashMap<>();
+        for (Object[] row : rows) {
+            names.put(((Number) row[0]).longValue(), (String) row[1]);
+        }
+        return names;
+    }
+}
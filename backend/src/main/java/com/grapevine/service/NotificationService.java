@@ -5,9 +5,13 @@ import com.grapevine.model.User;
 import com.grapevine.repository.NotificationRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -82,19 +86,109 @@ public class NotificationService {
         notificationRepository.markAsRead(notificationId, userEmail);
     }
 
+    /**
+     * Tells everyone following a thread, and its author if they kept notifications on, about the comments made on it
+     * since the last batch (see ThreadCommentNotifier). Every recipient's row is written by one INSERT ... SELECT,
+     * then once that commits each recipient gets a single push for the batch. The sender, who wrote the latest
+     * comment, is left out.
+     */
+    @Async("notificationExecutor")
     @Transactional
-    public void createAndSendThreadCommentNotification(String recipientEmail, String commenterEmail,
-                                                       String threadTitle, Long threadId) {
-        // Create notification in database
-        Notification notification = createNotification(
-                recipientEmail,
-                commenterEmail,
-                Notification.NotificationType.COMMENT,  // Changed from MESSAGE to COMMENT
-                "New comment on your thread: " + threadTitle,
-                threadId
-        );
+    public void createAndSendThreadCommentNotifications(Long threadId, String threadTitle, int comments,
+                                                        String senderEmail, String senderName) {
+        String what = comments == 1 ? "New comment" : comments + " new comments";
+        List<Long> ids = notificationRepository.insertThreadCommentNotifications(threadId, senderEmail, senderName,
+                what + " on your thread: " + threadTitle,
+                what + " on a thread you follow: " + threadTitle);
+        if (ids.isEmpty()) {
+            return;
+        }
+
+        List<Notification> notifications = notificationRepository.findAllById(ids);
+        afterCommit(() -> {
+            for (Notification notification : notifications) {
+                try {
+                    sendNotificationToUser(notification);
+                } catch (Exception e) {
+                    // One failed push should not keep the rest of the followers from hearing about it
+                    System.err.println("Error pushing comment notification to " + notification.getRecipientEmail() +
+                            ": " + e.getMessage());
+                }
+            }
+        });
+    }
+
+    @Transactional
+    public List<Notification> createAndSendGroupAccessRequestNotifications(List<String> hostEmails, String requesterEmail,
+                                                                           String requesterName, String groupName,
+                                                                           Long groupId) {
+        // Build every host's row up front and persist them in one batch instead of one lookup + insert per host
+        List<Notification> notifications = new ArrayList<>();
+        for (String hostEmail : hostEmails) {
+            Notification notification = new Notification();
+            notification.setRecipientEmail(hostEmail);
+            notification.setSenderEmail(requesterEmail);
+            notification.setSenderName(requesterName);
+            notification.setType(Notification.NotificationType.GROUP_ACCESS_REQUEST);
+            notification.setContent(requesterName + " wants to join your group: " + groupName);
+            notification.setReferenceId(groupId);
+            notification.setRead(false);
+            notifications.add(notification);
+        }
+
+        List<Notification> saved = notificationRepository.saveAll(notifications);
+
+        // Push only once the rows are committed, so a host never gets a notification that then rolls back
+        afterCommit(() -> {
+            for (Notification notification : saved) {
+                try {
+                    sendNotificationToUser(notification);
+                } catch (Exception e) {
+                    System.err.println("Error pushing access request notification to " +
+                            notification.getRecipientEmail() + ": " + e.getMessage());
+                }
+            }
+        });
 
-        // Send real-time notification via WebSocket
-        sendNotificationToUser(notification);
+        return saved;
+    }
+
+    /**
+     * Tells users promoted off an event's waitlist that they now have a seat. Runs off the request thread,
+     * after the promotion has committed, so a slow socket never holds the seat transaction open.
+     */
+    @Async("notificationExecutor")
+    @Transactional
+    public void createAndSendWaitlistPromotionNotifications(List<String> recipientEmails, String eventName,
+                                                            Long eventId) {
+        List<Notification> notifications = new ArrayList<>();
+        for (String recipientEmail : recipientEmails) {
+            Notification notification = new Notification();
+            notification.setRecipientEmail(recipientEmail);
+            notification.setSenderEmail("N/A");
+            notification.setSenderName("SYSTEM");
+            notification.setType(Notification.NotificationType.WAITLIST_PROMOTION);
+            notification.setContent("A seat opened up and you have been moved off the waitlist for: " + eventName);
+            notification.setReferenceId(eventId);
+            notification.setRead(false);
+            notifications.add(notification);
+        }
+
+        for (Notification notification : notificationRepository.saveAll(notifications)) {
+            sendNotificationToUser(notification);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,149 @@
+package com.grapevine.service;
+
+import com.grapevine.exception.EventNotFoundException;
+import com.grapevine.index.IntervalIndex;
+import com.grapevine.model.Event;
+import com.grapevine.model.EventOccurrence;
+import com.grapevine.model.ScheduleConflict;
+import com.grapevine.model.ScheduleEntry;
+import com.grapevine.repository.EventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-user schedules for overlap checks. A user's hosted and joined events are loaded with one query,
+ * expanded into occurrences for the next {@link #HORIZON_DAYS} days and put in an {@link IntervalIndex}, which is
+ * cached until the user's memberships or any event schedule change, or {@link #CACHE_TTL_MINUTES} pass.
+ */
+@Service
+@RequiredArgsConstructor
+public class ScheduleService {
+    static final int DEFAULT_DURATION_MINUTES = 60;
+    static final long HORIZON_DAYS = 180;
+    static final long CACHE_TTL_MINUTES = 10;
+    static final int MAX_CACHED_USERS = 5000;
+    static final int MAX_CONFLICTS = 50;
+
+    private final EventRepository eventRepository;
+    private final EventOccurrenceService eventOccurrenceService;
+
+    private record Schedule(IntervalIndex<ScheduleEntry> index, LocalDateTime from, LocalDateTime to,
+                            long version, long overridesVersion, LocalDateTime builtAt) {
+    }
+
+    // Least recently used schedules are dropped first once the cap is reached
+    private final Map<String, Schedule> cache = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Schedule> eldest) {
+            return size() > MAX_CACHED_USERS;
+        }
+    };
+
+    // Bumped whenever an event's time, duration or rule changes, which can affect any number of users
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * The user's occurrences overlapping [from, to), within the cached horizon, ordered by start.
+     */
+    public List<ScheduleEntry> getSchedule(String userEmail, LocalDateTime from, LocalDateTime to) {
+        Schedule schedule = scheduleFor(userEmail);
+        List<ScheduleEntry> result = new ArrayList<>();
+        for (IntervalIndex.Interval<ScheduleEntry> interval : schedule.index().overlapping(from, to)) {
+            result.add(interval.value());
+        }
+        return result;
+    }
+
+    /**
+     * Occurrences of the candidate event, within the horizon, that overlap something already on the user's
+     * schedule. Each occurrence is one O(log n + k) lookup in the cached index.
+     */
+    public List<ScheduleConflict> findConflicts(String userEmail, Long eventId) {
+        Event candidate = eventRepository.findById(eventId)
+                .orElseThrow(() -> new EventNotFoundException("Event not found with id: " + eventId));
+        Schedule schedule = scheduleFor(userEmail);
+
+        List<ScheduleConflict> conflicts = new ArrayList<>();
+        for (EventOccurrence occurrence : eventOccurrenceService.expand(List.of(candidate), schedule.from(), schedule.to())) {
+            LocalDateTime start = occurrence.eventTime();
+            LocalDateTime end = endOf(candidate, start);
+            for (IntervalIndex.Interval<ScheduleEntry> overlap : schedule.index().overlapping(start, end)) {
+                if (overlap.value().eventId().equals(eventId)) {
+                    continue;
+                }
+                conflicts.add(new ScheduleConflict(start, end, overlap.value()));
+                if (conflicts.size() >= MAX_CONFLICTS) {
+                    return conflicts;
+                }
+            }
+        }
+        return conflicts;
+    }
+
+    public void invalidate(String userEmail) {
+        synchronized (cache) {
+            cache.remove(userEmail);
+        }
+    }
+
+    public void invalidateAll() {
+        version.incrementAndGet();
+    }
+
+    private Schedule scheduleFor(String userEmail) {
+        LocalDateTime now = LocalDateTime.now();
+        Schedule cached;
+        synchronized (cache) {
+            cached = cache.get(userEmail);
+        }
+        if (cached != null && cached.version() == version.get()
+                && cached.overridesVersion() == eventOccurrenceService.getOverridesVersion()
+                && cached.builtAt().plusMinutes(CACHE_TTL_MINUTES).isAfter(now)) {
+            return cached;
+        }
+
+        Schedule built = build(userEmail, now);
+        synchronized (cache) {
+            cache.put(userEmail, built);
+        }
+        return built;
+    }
+
+    private Schedule build(String userEmail, LocalDateTime now) {
+        // Read the versions first, so a change made while building leaves the result stale rather than current
+        long currentVersion = version.get();
+        long currentOverridesVersion = eventOccurrenceService.getOverridesVersion();
+
+        // Start a day back so events already under way still count
+        LocalDateTime from = now.minusDays(1);
+        LocalDateTime to = now.plusDays(HORIZON_DAYS);
+        List<Event> events = eventRepository.findScheduledForUser(userEmail, from);
+
+        Map<Long, Event> byId = new HashMap<>();
+        for (Event event : events) {
+            byId.put(event.getEventId(), event);
+        }
+
+        List<IntervalIndex.Interval<ScheduleEntry>> intervals = new ArrayList<>();
+        for (EventOccurrence occurrence : eventOccurrenceService.expand(events, from, to)) {
+            LocalDateTime start = occurrence.eventTime();
+            LocalDateTime end = endOf(byId.get(occurrence.eventId()), start);
+            intervals.add(new IntervalIndex.Interval<>(start, end, new ScheduleEntry(occurrence.eventId(),
+                    occurrence.name(), occurrence.occurrenceTime(), start, end, occurrence.locationId())));
+        }
+        return new Schedule(new IntervalIndex<>(intervals), from, to, currentVersion, currentOverridesVersion, now);
+    }
+
+    private static LocalDateTime endOf(Event event, LocalDateTime start) {
+        Integer minutes = event.getDurationMinutes();
+        return start.plusMinutes(minutes != null && minutes > 0 ? minutes : DEFAULT_DURATION_MINUTES);
+    }
+}
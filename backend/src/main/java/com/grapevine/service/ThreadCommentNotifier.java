@@ -0,0 +1,79 @@
+package com.grapevine.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Batches the notifications for new comments per thread. Adding a comment only records it here, so the commenter
+ * never waits on the thread's followers. Every so often (ThreadCommentNotificationScheduler) each thread with new
+ * comments is handed to NotificationService on the notification pool, which writes all its followers' rows with
+ * one statement and pushes once per follower however many comments came in. A crash loses at most one interval
+ * of notifications; the comments themselves are already committed.
+ */
+@Service
+@RequiredArgsConstructor
+public class ThreadCommentNotifier {
+    private final NotificationService notificationService;
+
+    private final Map<Long, Batch> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    // Comments on one thread since the last flush; the latest commenter is who the notification comes from,
+    // and the one follower who doesn't get it
+    static class Batch {
+        final String threadTitle;
+        final int comments;
+        final String senderEmail;
+        final String senderName;
+
+        Batch(String threadTitle, int comments, String senderEmail, String senderName) {
+            this.threadTitle = threadTitle;
+            this.comments = comments;
+            this.senderEmail = senderEmail;
+            this.senderName = senderName;
+        }
+    }
+
+    /**
+     * Records a committed comment for the next batch.
+     */
+    public void commentAdded(Long threadId, String threadTitle, String commenterEmail, String commenterName) {
+        pending.merge(threadId, new Batch(threadTitle, 1, commenterEmail, commenterName),
+                (earlier, latest) -> new Batch(latest.threadTitle, earlier.comments + 1, latest.senderEmail,
+                        latest.senderName));
+    }
+
+    /**
+     * Hands every thread's batch to the notification pool and returns how many threads were handed off.
+     * Returns right away if another flush is already running.
+     */
+    public int flush() {
+        if (!flushLock.tryLock()) {
+            return 0;
+        }
+        try {
+            int handedOff = 0;
+            for (Long threadId : new ArrayList<>(pending.keySet())) {
+                Batch batch = pending.remove(threadId);
+                if (batch == null) {
+                    continue;
+                }
+                try {
+                    notificationService.createAndSendThreadCommentNotifications(threadId, batch.threadTitle,
+                            batch.comments, batch.senderEmail, batch.senderName);
+                    handedOff++;
+                } catch (Exception e) {
+                    System.err.println("Failed to notify followers of thread " + threadId + ": " + e.getMessage());
+                }
+            }
+            return handedOff;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+}
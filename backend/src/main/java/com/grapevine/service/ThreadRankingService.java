@@ -0,0 +1,265 @@
+package com.grapevine.service;
+
+import com.grapevine.index.Leaderboard;
+import com.grapevine.model.Thread;
+import com.grapevine.repository.ThreadRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps "hot" forum thread rankings in memory: globally, per course and per major, each bounded to the
+ * top HOT_CAPACITY threads. A thread's score is recomputed whenever a vote or comment on it lands, so the hot
+ * page is read straight off a board and never sorts the thread table. A scheduled refresh reloads recent
+ * threads from the database (catching votes and comments taken by other instances) and decays comment velocity.
+ */
+@Service
+@RequiredArgsConstructor
+public class ThreadRankingService {
+    public static final String HOT = "hot";
+
+    // Board keys; course and major boards are prefixed so a course and a major with the same name don't collide
+    private static final String GLOBAL = "";
+    private static final String COURSE = "course:";
+    private static final String MAJOR = "major:";
+
+    // Each board keeps this many threads, which is also as deep as the hot listing goes
+    static final int HOT_CAPACITY = 200;
+
+    // Threads older than this have aged out of contention and aren't tracked
+    private static final Duration TRACK_WINDOW = Duration.ofDays(7);
+
+    // Age decay: a thread needs ten times the net votes to keep up with one posted this much later
+    private static final double AGE_SECONDS_PER_POINT = 45_000;
+
+    // A comment counts half as much toward velocity after this many hours
+    private static final double COMMENT_HALF_LIFE_HOURS = 6.0;
+    private static final double COMMENT_WEIGHT = 1.0;
+
+    private final ThreadRepository threadRepository;
+    private final VoteAggregator voteAggregator;
+
+    private final Map<Long, HotState> states = new ConcurrentHashMap<>();
+    private final Map<String, Leaderboard> boards = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void loadRankings() {
+        try {
+            refreshRankings();
+        } catch (Exception e) {
+            System.err.println("Could not load hot thread rankings: " + e.getMessage());
+        }
+    }
+
+    /**
+     * The ids of the hot page starting at the given rank, best first. A course narrows the ranking to that course;
+     * otherwise a major narrows it to that major; with neither the ranking is site-wide.
+     */
+    public List<Long> getHotThreadIds(String course, String major, int offset, int count) {
+        Leaderboard board = boards.get(scopeKey(course, major));
+        if (board == null || offset >= HOT_CAPACITY) {
+            return new ArrayList<>();
+        }
+
+        List<Leaderboard.Entry> top = board.top(Math.min(offset + count, HOT_CAPACITY));
+        List<Long> ids = new ArrayList<>(count);
+        for (int i = offset; i < top.size(); i++) {
+            ids.add(top.get(i).id());
+        }
+        return ids;
+    }
+
+    /**
+     * Starts ranking a newly created thread right away instead of waiting for the next refresh.
+     */
+    public void trackThread(Thread thread) {
+        HotState state = states.computeIfAbsent(thread.getThreadId(), HotState::new);
+        synchronized (state) {
+            state.course = normalize(thread.getCourse());
+            state.major = normalize(thread.getMajor());
+            state.createdAt = thread.getCreatedAt() != null ? thread.getCreatedAt().toInstant() : Instant.now();
+        }
+        apply(state, Instant.now());
+    }
+
+    public void recordVote(Long threadId, int netDelta) {
+        HotState state = states.get(threadId);
+        if (state == null) {
+            return; // Aged out, or picked up by the next refresh
+        }
+        synchronized (state) {
+            state.netVotes += netDelta;
+        }
+        apply(state, Instant.now());
+    }
+
+    public void recordComment(Long threadId) {
+        HotState state = states.get(threadId);
+        if (state == null) {
+            return; // Aged out, or picked up by the next refresh
+        }
+        Instant now = Instant.now();
+        synchronized (state) {
+            state.commentVelocity = decayedVelocity(state, now) + 1.0;
+            state.velocityAt = now;
+        }
+        apply(state, now);
+    }
+
+    public void removeThread(Long threadId) {
+        HotState state = states.remove(threadId);
+        if (state != null) {
+            removeFromBoards(state);
+        }
+    }
+
+    /**
+     * Reloads every thread inside the tracking window, drops the ones that have aged out and rescores the rest.
+     * Reads only the recent range of idx_threads_created.
+     */
+    public void refreshRankings() {
+        Instant now = Instant.now();
+        Set<Long> seen = new HashSet<>();
+
+        for (Object[] row : threadRepository.findRankingInputsSince(ZonedDateTime.now().minus(TRACK_WINDOW))) {
+            Long threadId = ((Number) row[0]).longValue();
+            seen.add(threadId);
+
+            HotState state = states.get(threadId);
+            boolean isNew = state == null;
+            if (isNew) {
+                state = states.computeIfAbsent(threadId, HotState::new);
+            }
+            int upvotes = row[3] != null ? ((Number) row[3]).intValue() : 0;
+            int downvotes = row[4] != null ? ((Number) row[4]).intValue() : 0;
+            synchronized (state) {
+                state.course = normalize((String) row[1]);
+                state.major = normalize((String) row[2]);
+                state.netVotes = upvotes - downvotes
+                        + voteAggregator.pendingUpvotes(threadId) - voteAggregator.pendingDownvotes(threadId);
+                state.createdAt = ((ZonedDateTime) row[6]).toInstant();
+                if (isNew) {
+                    // Nothing recorded yet; treat the thread's comments as if they came in at its last activity
+                    int comments = row[5] != null ? ((Number) row[5]).intValue() : 0;
+                    state.commentVelocity = comments;
+                    state.velocityAt = row[7] != null ? ((ZonedDateTime) row[7]).toInstant() : state.createdAt;
+                }
+            }
+        }
+
+        for (HotState state : new ArrayList<>(states.values())) {
+            if (seen.contains(state.threadId)) {
+                apply(state, now);
+            } else if (state.createdAt.isBefore(now)) {
+                // Aged out of the window, or deleted on another instance
+                removeThread(state.threadId);
+            }
+            // Otherwise it was created after the query ran; leave it as it is
+        }
+    }
+
+    private void apply(HotState state, Instant now) {
+        synchronized (state) {
+            double score = hotScore(state.netVotes, decayedVelocity(state, now), state.createdAt);
+            // Moved to another course or major since it was last ranked
+            if (!Objects.equals(state.course, state.rankedCourse)) {
+                removeFromBoard(COURSE, state.rankedCourse, state.threadId);
+            }
+            if (!Objects.equals(state.major, state.rankedMajor)) {
+                removeFromBoard(MAJOR, state.rankedMajor, state.threadId);
+            }
+
+            board(GLOBAL).update(state.threadId, score);
+            if (state.course != null) {
+                board(COURSE + state.course).update(state.threadId, score);
+            }
+            if (state.major != null) {
+                board(MAJOR + state.major).update(state.threadId, score);
+            }
+            state.rankedCourse = state.course;
+            state.rankedMajor = state.major;
+        }
+    }
+
+    /**
+     * Net votes on a log scale, plus recent comment activity on a log scale, plus creation time. Because age
+     * counts through the creation time rather than the time since it, scores don't go stale as time passes
+     * and boards only change when a thread does.
+     */
+    static double hotScore(long netVotes, double commentVelocity, Instant createdAt) {
+        double votes = Math.signum(netVotes) * Math.log10(Math.max(Math.abs(netVotes), 1));
+        double comments = COMMENT_WEIGHT * Math.log10(1 + commentVelocity);
+        return votes + comments + createdAt.getEpochSecond() / AGE_SECONDS_PER_POINT;
+    }
+
+    private void removeFromBoards(HotState state) {
+        synchronized (state) {
+            board(GLOBAL).remove(state.threadId);
+            removeFromBoard(COURSE, state.rankedCourse, state.threadId);
+            removeFromBoard(MAJOR, state.rankedMajor, state.threadId);
+        }
+    }
+
+    private void removeFromBoard(String prefix, String scope, long threadId) {
+        if (scope == null) {
+            return;
+        }
+        Leaderboard board = boards.get(prefix + scope);
+        if (board != null) {
+            board.remove(threadId);
+        }
+    }
+
+    private Leaderboard board(String key) {
+        return boards.computeIfAbsent(key, k -> new Leaderboard(HOT_CAPACITY));
+    }
+
+    private static double decayedVelocity(HotState state, Instant now) {
+        if (state.commentVelocity == 0 || state.velocityAt == null) {
+            return state.commentVelocity;
+        }
+        double hours = Math.max(0, Duration.between(state.velocityAt, now).toMinutes() / 60.0);
+        return state.commentVelocity * Math.pow(0.5, hours / COMMENT_HALF_LIFE_HOURS);
+    }
+
+    private static String scopeKey(String course, String major) {
+        String normalizedCourse = normalize(course);
+        if (normalizedCourse != null) {
+            return COURSE + normalizedCourse;
+        }
+        String normalizedMajor = normalize(major);
+        return normalizedMajor != null ? MAJOR + normalizedMajor : GLOBAL;
+    }
+
+    private static String normalize(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        return value.trim().toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Ranking inputs for one thread. Guarded by its own monitor.
+     */
+    private static final class HotState {
+        private final long threadId;
+        private String course;
+        private String major;
+        private String rankedCourse;
+        private String rankedMajor;
+        private long netVotes;
+        private double commentVelocity;
+        private Instant velocityAt;
+        private Instant createdAt = Instant.now();
+
+        private HotState(long threadId) {
+            this.threadId = threadId;
+        }
+    }
+}
@@ -0,0 +1,326 @@
+package com.grapevine.service;
+
+import com.grapevine.index.PrefixIndex;
+import com.grapevine.index.TextIndex;
+import com.grapevine.model.Thread;
+import com.grapevine.model.ThreadSearchHit;
+import com.grapevine.model.ThreadSearchResults;
+import com.grapevine.model.ThreadSummary;
+import com.grapevine.repository.CommentRepository;
+import com.grapevine.repository.ThreadRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Keyword search over thread titles, descriptions and comments, served from an in-memory BM25 index (TextIndex).
+ * ThreadService keeps the index current as threads and comments are written. The index is saved under
+ * grapevine.search.data-dir every few minutes and on shutdown; on startup the saved copy is loaded and only threads
+ * that changed since it was written are re-read, and with no saved copy the index is built from the tables in
+ * batches.
+ */
+@Service
+@RequiredArgsConstructor
+public class ThreadSearchService {
+    static final String COURSE = "course";
+    static final String MAJOR = "major";
+
+    // Title words count this many times, so a match in the title outranks one in a long comment thread
+    private static final int TITLE_WEIGHT = 3;
+    private static final int TEXT_WEIGHT = 1;
+
+    private static final int REBUILD_BATCH = 500;
+    private static final int MAX_LIMIT = 50;
+    private static final int SNIPPET_LENGTH = 160;
+    private static final String INDEX_FILE = "threads.idx";
+
+    private static final Pattern WORD = Pattern.compile("[\\p{L}\\p{N}]+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final ThreadRepository threadRepository;
+    private final CommentRepository commentRepository;
+
+    @Value("${grapevine.search.data-dir:data/search}")
+    private String dataDir = "data/search";
+
+    private final TextIndex index = new TextIndex();
+    private volatile boolean dirty;
+
+    @PostConstruct
+    public void load() {
+        try {
+            Instant savedAt = readSavedCopy(Paths.get(dataDir, INDEX_FILE));
+            if (savedAt != null) {
+                catchUp(savedAt);
+            } else {
+                rebuild();
+            }
+            System.out.println("Thread search index ready with " + index.size() + " threads");
+        } catch (Exception e) {
+            System.err.println("Could not load thread search index: " + e.getMessage());
+        }
+    }
+
+    public ThreadSearchResults search(String query, String course, String major, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query must not be empty");
+        }
+        Map<String, String> filters = new HashMap<>();
+        filters.put(COURSE, blankToNull(course));
+        filters.put(MAJOR, blankToNull(major));
+        TextIndex.Result result = index.search(query, filters, Math.max(1, Math.min(limit, MAX_LIMIT)));
+
+        List<Long> ids = result.hits().stream().map(TextIndex.Hit::id).toList();
+        List<ThreadSearchHit> hits = new ArrayList<>();
+        if (!ids.isEmpty()) {
+            // The page's summaries, texts and comments in three queries, whatever the page size
+            Map<Long, ThreadSummary> summaries = new HashMap<>();
+            threadRepository.findSummariesByIds(ids).forEach(summary -> summaries.put(summary.getThreadId(), summary));
+            Map<Long, List<String>> texts = new HashMap<>();
+            for (Object[] row : threadRepository.findSearchInputsByIds(ids)) {
+                texts.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((String) row[2]);
+            }
+            for (Object[] row : commentRepository.findContentsByThreadIds(ids)) {
+                texts.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((String) row[1]);
+            }
+
+            Set<String> terms = new HashSet<>(TextIndex.tokenize(query));
+            for (TextIndex.Hit hit : result.hits()) {
+                ThreadSummary summary = summaries.get(hit.id());
+                if (summary != null) {
+                    hits.add(new ThreadSearchHit(summary, hit.score(),
+                            snippet(texts.getOrDefault(hit.id(), List.of()), terms)));
+                }
+            }
+        }
+        return new ThreadSearchResults(hits, result.total(),
+                result.facets().get(COURSE), result.facets().get(MAJOR));
+    }
+
+    /**
+     * Indexes the thread's title and description from scratch, dropping any comments indexed for it.
+     * Used for new threads.
+     */
+    public void indexThread(Thread thread) {
+        index.reset(thread.getThreadId(), facets(thread.getCourse(), thread.getMajor()));
+        index.addText(thread.getThreadId(), thread.getTitle(), TITLE_WEIGHT);
+        index.addText(thread.getThreadId(), thread.getDescription(), TEXT_WEIGHT);
+        dirty = true;
+    }
+
+    public void indexComment(Long threadId, String content) {
+        index.addText(threadId, content, TEXT_WEIGHT);
+        dirty = true;
+    }
+
+    /**
+     * Re-reads the thread and all its comments, for edits and comment deletions.
+     */
+    public void reindexThread(Long threadId) {
+        List<Object[]> rows = threadRepository.findSearchInputsByIds(List.of(threadId));
+        if (rows.isEmpty()) {
+            index.remove(threadId);
+        } else {
+            indexBatch(rows);
+        }
+        dirty = true;
+    }
+
+    public void removeThread(Long threadId) {
+        index.remove(threadId);
+        dirty = true;
+    }
+
+    /**
+     * Writes the index to the data directory if it changed since it was last written. The file is replaced
+     * atomically, so a crash mid-write leaves the previous copy in place.
+     */
+    @PreDestroy
+    public synchronized void save() {
+        if (!dirty) {
+            return;
+        }
+        try {
+            Path dir = Paths.get(dataDir);
+            Files.createDirectories(dir);
+            Path temp = dir.resolve(INDEX_FILE + ".tmp");
+            // Stamped before writing, so anything that lands during the write is re-read on the next catch-up
+            long savedAt = System.currentTimeMillis();
+            dirty = false;
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeLong(savedAt);
+                index.writeTo(out);
+            }
+            Files.move(temp, dir.resolve(INDEX_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            dirty = true;
+            System.err.println("Could not save thread search index: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Loads the saved copy and returns when it was written, or null if there is none to catch up from. A copy that
+     * can't be read (corrupt, or an older format) is deleted, so the rebuild replacing it is what gets saved next
+     * rather than a nearly empty index stamped with a fresh time.
+     */
+    private Instant readSavedCopy(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            Instant savedAt = Instant.ofEpochMilli(in.readLong());
+            index.readFrom(in);
+            return savedAt;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Discarding unreadable thread search index, rebuilding: " + e.getMessage());
+            Files.deleteIfExists(file);
+            return null;
+        }
+    }
+
+    private void rebuild() {
+        long afterId = 0;
+        List<Object[]> batch;
+        do {
+            batch = threadRepository.findSearchInputsAfter(afterId, Limit.of(REBUILD_BATCH));
+            indexBatch(batch);
+            if (!batch.isEmpty()) {
+                afterId = (Long) batch.get(batch.size() - 1)[0];
+            }
+        } while (batch.size() == REBUILD_BATCH);
+        dirty = true;
+    }
+
+    // Re-reads threads changed since the saved copy was written and drops the ones deleted since
+    private void catchUp(Instant savedAt) {
+        Set<Long> existing = new HashSet<>(threadRepository.findAllIds());
+        for (Long id : index.ids()) {
+            if (!existing.contains(id)) {
+                index.remove(id);
+            }
+        }
+        List<Long> changed = threadRepository.findIdsChangedSince(savedAt.atZone(ZoneOffset.UTC));
+        for (int i = 0; i < changed.size(); i += REBUILD_BATCH) {
+            indexBatch(threadRepository.findSearchInputsByIds(changed.subList(i, Math.min(i + REBUILD_BATCH, changed.size()))));
+        }
+        dirty = true;
+    }
+
+    // Rows are findSearchInputs columns; their comments are read in one query for the whole batch
+    private void indexBatch(List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            Long id = (Long) row[0];
+            ids.add(id);
+            index.reset(id, facets((String) row[3], (String) row[4]));
+            index.addText(id, (String) row[1], TITLE_WEIGHT);
+            index.addText(id, (String) row[2], TEXT_WEIGHT);
+        }
+        for (Object[] row : commentRepository.findContentsByThreadIds(ids)) {
+            index.addText((Long) row[0], (String) row[1], TEXT_WEIGHT);
+        }
+    }
+
+    /**
+     * About SNIPPET_LENGTH characters from whichever text has the most query words, starting just before the
+     * densest run of them, HTML-escaped, with each matched word wrapped in &lt;mark&gt;. Falls back to the start
+     * of the first text when none of them match (a title-only match).
+     */
+    static String snippet(List<String> texts, Set<String> terms) {
+        String bestText = null;
+        int bestStart = 0;
+        int bestCount = 0;
+        for (String text : texts) {
+            if (text == null || text.isBlank()) {
+                continue;
+            }
+            if (bestText == null) {
+                bestText = text;
+            }
+            List<Integer> starts = new ArrayList<>();
+            Matcher word = WORD.matcher(text);
+            while (word.find()) {
+                if (terms.contains(PrefixIndex.normalize(word.group()))) {
+                    starts.add(word.start());
+                }
+            }
+            // Sliding window over match positions: the most matches within one snippet's length
+            for (int first = 0, last = 0; first < starts.size(); first++) {
+                while (last < starts.size() && starts.get(last) - starts.get(first) < SNIPPET_LENGTH - 20) {
+                    last++;
+                }
+                if (last - first > bestCount) {
+                    bestCount = last - first;
+                    bestText = text;
+                    bestStart = starts.get(first);
+                }
+            }
+        }
+        if (bestText == null) {
+            return "";
+        }
+
+        // Back up a few words for context (the whole text if it fits), without cutting one in half
+        int from = Math.max(0, Math.min(bestStart - 20, bestText.length() - SNIPPET_LENGTH));
+        while (from > 0 && from < bestStart && Character.isLetterOrDigit(bestText.charAt(from - 1))) {
+            from++;
+        }
+        int to = Math.min(bestText.length(), from + SNIPPET_LENGTH);
+        while (to < bestText.length() && to > bestStart + 1 && Character.isLetterOrDigit(bestText.charAt(to))) {
+            to--;
+        }
+
+        StringBuilder snippet = new StringBuilder();
+        if (from > 0) {
+            snippet.append("\u2026");
+        }
+        String window = bestText.substring(from, to);
+        Matcher word = WORD.matcher(window);
+        int written = 0;
+        while (word.find()) {
+            if (terms.contains(PrefixIndex.normalize(word.group()))) {
+                snippet.append(escape(window.substring(written, word.start())))
+                        .append("<mark>").append(escape(word.group())).append("</mark>");
+                written = word.end();
+            }
+        }
+        snippet.append(escape(window.substring(written)));
+        if (to < bestText.length()) {
+            snippet.append("\u2026");
+        }
+        return WHITESPACE.matcher(snippet).replaceAll(" ").trim();
+    }
+
+    private static String escape(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;")
+                .replace("\"", "&quot;").replace("'", "&#39;");
+    }
+
+    private static Map<String, String> facets(String course, String major) {
+        Map<String, String> facets = new HashMap<>();
+        facets.put(COURSE, blankToNull(course));
+        facets.put(MAJOR, blankToNull(major));
+        return facets;
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+}
@@ -1,134 +1,478 @@
 package com.grapevine.service;
 
 import com.grapevine.model.Comment;
+import com.grapevine.model.CursorPage;
 import com.grapevine.model.Thread;
+import com.grapevine.model.ThreadSearchResults;
+import com.grapevine.model.ThreadSummary;
 import com.grapevine.model.User;
+import com.grapevine.repository.CommentLikeRepository;
+import com.grapevine.repository.CommentRepository;
 import com.grapevine.repository.ThreadRepository;
+import com.grapevine.repository.ThreadSubscriptionRepository;
+import com.grapevine.repository.ThreadVoteRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 public class ThreadService {
 
     private final ThreadRepository threadRepository;
-    private final NotificationService notificationService;
+    private final CommentRepository commentRepository;
+    private final CommentLikeRepository commentLikeRepository;
+    private final CommentLikeAggregator commentLikeAggregator;
+    private final ThreadVoteRepository threadVoteRepository;
+    private final VoteAggregator voteAggregator;
+    private final ThreadRankingService threadRankingService;
+    private final ThreadSearchService threadSearchService;
+    private final ThreadViewService threadViewService;
+    private final ThreadSubscriptionRepository threadSubscriptionRepository;
+    private final ThreadCommentNotifier threadCommentNotifier;
+
+    private static final int MAX_PAGE = 100;
 
     @Autowired
     public ThreadService(ThreadRepository threadRepository,
-                         NotificationService notificationService,
+                         CommentRepository commentRepository,
+                         CommentLikeRepository commentLikeRepository,
+                         CommentLikeAggregator commentLikeAggregator,
+                         ThreadVoteRepository threadVoteRepository,
+                         VoteAggregator voteAggregator,
+                         ThreadRankingService threadRankingService,
+                         ThreadSearchService threadSearchService,
+                         ThreadViewService threadViewService,
+                         ThreadSubscriptionRepository threadSubscriptionRepository,
+                         ThreadCommentNotifier threadCommentNotifier,
                          EmailService emailService) {
         this.threadRepository = threadRepository;
-        this.notificationService = notificationService;
+        this.commentRepository = commentRepository;
+        this.commentLikeRepository = commentLikeRepository;
+        this.commentLikeAggregator = commentLikeAggregator;
+        this.threadVoteRepository = threadVoteRepository;
+        this.voteAggregator = voteAggregator;
+        this.threadRankingService = threadRankingService;
+        this.threadSearchService = threadSearchService;
+        this.threadViewService = threadViewService;
+        this.threadSubscriptionRepository = threadSubscriptionRepository;
+        this.threadCommentNotifier = threadCommentNotifier;
+    }
+
+    /**
+     * One page of the forum front page, newest first, or most recently active first when sort is "active".
+     * Only summaries are read; comments are loaded on the thread page alone.
+     * With sort "hot" the page comes from ThreadRankingService, optionally for one course or major.
+     */
+    public CursorPage<ThreadSummary> getAllThreads(String sort, String course, String major, String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE));
+        if (ThreadRankingService.HOT.equalsIgnoreCase(sort)) {
+            return getHotThreads(course, major, cursor, pageSize);
+        }
+        if (course != null || major != null) {
+            throw new IllegalArgumentException("Filtering by course or major is only supported with sort=hot");
+        }
+        boolean byActivity = parseSort(sort);
+
+        // Fetch one extra row to know whether there is a next page
+        List<ThreadSummary> threads;
+        ThreadCursor after = parseCursor(cursor);
+        if (byActivity) {
+            threads = after == null
+                    ? threadRepository.findActiveSummaries(Limit.of(pageSize + 1))
+                    : threadRepository.findActiveSummariesBefore(after.time(), after.threadId(), Limit.of(pageSize + 1));
+        } else {
+            threads = after == null
+                    ? threadRepository.findNewestSummaries(Limit.of(pageSize + 1))
+                    : threadRepository.findSummariesBefore(after.time(), after.threadId(), Limit.of(pageSize + 1));
+        }
+
+        String nextCursor = null;
+        if (threads.size() > pageSize) {
+            threads = new ArrayList<>(threads.subList(0, pageSize));
+            ThreadSummary last = threads.get(pageSize - 1);
+            ZonedDateTime time = byActivity ? last.getLastActivityAt() : last.getCreatedAt();
+            nextCursor = time.toInstant() + "_" + last.getThreadId();
+        }
+        threads.forEach(this::addPendingVotes);
+        return new CursorPage<>(threads, nextCursor);
+    }
+
+    // Hot pages are ranks on a board, so their cursor is just the rank to continue from
+    private CursorPage<ThreadSummary> getHotThreads(String course, String major, String cursor, int pageSize) {
+        int offset;
+        try {
+            offset = cursor == null || cursor.isBlank() ? 0 : Integer.parseInt(cursor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+        if (offset < 0) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+
+        List<Long> ids = threadRankingService.getHotThreadIds(course, major, offset, pageSize + 1);
+        String nextCursor = null;
+        if (ids.size() > pageSize) {
+            ids = ids.subList(0, pageSize);
+            nextCursor = String.valueOf(offset + pageSize);
+        }
+        if (ids.isEmpty()) {
+            return new CursorPage<>(new ArrayList<>(), null);
+        }
+
+        // One lookup by primary key for the whole page, then back into ranking order
+        Map<Long, ThreadSummary> byId = new HashMap<>();
+        for (ThreadSummary summary : threadRepository.findSummariesByIds(ids)) {
+            byId.put(summary.getThreadId(), summary);
+        }
+        List<ThreadSummary> threads = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            ThreadSummary summary = byId.get(id);
+            if (summary != null) {
+                addPendingVotes(summary);
+                threads.add(summary);
+            }
+        }
+        return new CursorPage<>(threads, nextCursor);
     }
 
-    public List<Thread> getAllThreads() {
-        // Updated to return threads sorted by timestamp (newest first)
-        return threadRepository.findAllByOrderByCreatedAtDesc();
+    // True for "active", false for "new" or no sort
+    private static boolean parseSort(String sort) {
+        if (sort == null || sort.isBlank() || sort.equalsIgnoreCase("new")) {
+            return false;
+        }
+        if (sort.equalsIgnoreCase("active")) {
+            return true;
+        }
+        throw new IllegalArgumentException("Invalid sort: " + sort);
+    }
+
+    /**
+     * Thread cursors look like "2025-04-01T22:00:00.123456Z_42": the sort time and id of the last thread seen.
+     */
+    static ThreadCursor parseCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        int separator = cursor.lastIndexOf('_');
+        try {
+            if (separator <= 0) {
+                throw new IllegalArgumentException("missing separator");
+            }
+            Instant createdAt = Instant.parse(cursor.substring(0, separator));
+            return new ThreadCursor(createdAt.atZone(ZoneOffset.UTC), Long.parseLong(cursor.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+
+    record ThreadCursor(ZonedDateTime time, long threadId) {
     }
 
     public Thread getThreadById(Long id) {
         return threadRepository.findById(id)
+                .map(this::withPendingVotes)
                 .orElseThrow(() -> new IllegalArgumentException("Thread not found with id: " + id));
     }
 
+    /**
+     * The thread as shown on its page: counts the viewer and fills in the approximate number of unique viewers.
+     * Nothing is written here; ThreadViewService merges views into the row later.
+     */
+    public Thread viewThread(Long id, String viewerEmail) {
+        Thread thread = getThreadById(id);
+        threadViewService.recordView(id, viewerEmail);
+        thread.setViews(threadViewService.uniqueViewers(id, thread.getViewerSketch()));
+        return thread;
+    }
+
     public List<Thread> getThreadsByAuthor(String authorEmail) {
         // Updated to return author's threads sorted by timestamp (newest first)
-        return threadRepository.findByAuthorEmailOrderByCreatedAtDesc(authorEmail);
+        List<Thread> threads = threadRepository.findByAuthorEmailOrderByCreatedAtDesc(authorEmail);
+        threads.forEach(this::withPendingVotes);
+        return threads;
     }
 
     public Thread createThread(Thread thread) {
-        return threadRepository.save(thread);
+        Thread savedThread = threadRepository.save(thread);
+        threadRankingService.trackThread(savedThread);
+        threadSearchService.indexThread(savedThread);
+        return savedThread;
     }
 
     public Thread updateThread(Long id, Thread threadDetails) {
         Thread thread = getThreadById(id);
         thread.setTitle(threadDetails.getTitle());
         thread.setDescription(threadDetails.getDescription());
-        return threadRepository.save(thread);
+        Thread savedThread = threadRepository.save(thread);
+        threadSearchService.reindexThread(id);
+        return savedThread;
     }
 
+    @Transactional
     public void deleteThread(Long id) {
         Thread thread = getThreadById(id);
+        threadVoteRepository.deleteByThreadId(id);
+        commentLikeRepository.deleteByThreadId(id);
+        commentRepository.deleteByThreadId(id);
+        threadSubscriptionRepository.deleteByThreadId(id);
         threadRepository.delete(thread);
+        afterCommit(() -> {
+            voteAggregator.discard(id);
+            threadRankingService.removeThread(id);
+            threadSearchService.removeThread(id);
+        });
     }
 
-    public Thread addComment(Long threadId, Comment comment) {
-        Thread thread = getThreadById(threadId);
+    /**
+     * Inserts the comment on its own, without loading the thread's other comments, and returns it.
+     * Followers and the author are notified later, in a batch, by ThreadCommentNotifier.
+     */
+    @Transactional
+    public Comment addComment(Long threadId, Comment comment) {
+        Thread thread = threadRepository.findById(threadId)
+                .orElseThrow(() -> new IllegalArgumentException("Thread not found with id: " + threadId));
 
-        // Add the comment to the thread
+        comment.setCommentId(null);
+        comment.setLikes(0);
         comment.setThread(thread);
-        thread.getComments().add(comment);
-        Thread savedThread = threadRepository.save(thread);
+        Comment savedComment = commentRepository.save(comment);
+
+        // Count it in the same transaction as the insert, with one atomic UPDATE
+        ZonedDateTime now = ZonedDateTime.now(ZoneId.of("US/Eastern"));
+        threadRepository.recordComment(threadId, now);
+        String threadTitle = thread.getTitle();
+        afterCommit(() -> {
+            threadRankingService.recordComment(threadId);
+            threadSearchService.indexComment(threadId, savedComment.getContent());
+            threadCommentNotifier.commentAdded(threadId, threadTitle, savedComment.getAuthorEmail(),
+                    savedComment.getAuthorName());
+        });
+
+        return savedComment;
+    }
 
-        // Send notification to thread author if the commenter is not the author
-        // and notifications are enabled for this thread
-        if (!thread.getAuthorEmail().equals(comment.getAuthorEmail()) &&
-                Boolean.TRUE.equals(thread.getNotificationsEnabled())) {
-            notificationService.createAndSendThreadCommentNotification(
-                    thread.getAuthorEmail(),
-                    comment.getAuthorEmail(),
-                    thread.getTitle(),
-                    threadId
-            );
+    /**
+     * Follows the thread for the user, to be notified of new comments on it; following again changes nothing.
+     */
+    public void followThread(Long threadId, String userEmail) {
+        if (!threadRepository.existsById(threadId)) {
+            throw new IllegalArgumentException("Thread not found with id: " + threadId);
         }
+        threadSubscriptionRepository.insertIfAbsent(threadId, userEmail);
+    }
 
-        return savedThread;
+    public void unfollowThread(Long threadId, String userEmail) {
+        threadSubscriptionRepository.deleteSubscription(threadId, userEmail);
     }
 
-    public Thread upvoteThread(Long id, String userEmail) {
-        Thread thread = getThreadById(id);
-        Integer currentVote = thread.getVotes().getOrDefault(userEmail, 0);
-
-        // Update vote count based on previous vote
-        if (currentVote == 1) {
-            // Remove upvote
-            thread.getVotes().put(userEmail, 0);
-            thread.setUpvotes(thread.getUpvotes() - 1);
-        } else if (currentVote == -1) {
-            // Change downvote to upvote
-            thread.getVotes().put(userEmail, 1);
-            thread.setDownvotes(thread.getDownvotes() - 1);
-            thread.setUpvotes(thread.getUpvotes() + 1);
-        } else {
-            // Add new upvote
-            thread.getVotes().put(userEmail, 1);
-            thread.setUpvotes(thread.getUpvotes() + 1);
+    public boolean isFollowing(Long threadId, String userEmail) {
+        return threadSubscriptionRepository.existsByThreadIdAndUserEmail(threadId, userEmail);
+    }
+
+    /**
+     * One page of the thread's comments, oldest first; one indexed range read per page however long the thread is.
+     * Each comment is marked with whether userEmail has liked it.
+     */
+    public CursorPage<Comment> getComments(Long threadId, String userEmail, String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE));
+        CommentCursor after = parseCommentCursor(cursor);
+
+        // Fetch one extra row to know whether there is a next page
+        List<Comment> comments = after == null
+                ? commentRepository.findFirstByThread(threadId, Limit.of(pageSize + 1))
+                : commentRepository.findByThreadAfter(threadId, after.createdAt(), after.commentId(), Limit.of(pageSize + 1));
+        if (comments.isEmpty() && after == null && !threadRepository.existsById(threadId)) {
+            throw new IllegalArgumentException("Thread not found with id: " + threadId);
         }
 
-        return threadRepository.save(thread);
+        String nextCursor = null;
+        if (comments.size() > pageSize) {
+            comments = new ArrayList<>(comments.subList(0, pageSize));
+            Comment last = comments.get(pageSize - 1);
+            nextCursor = last.getCreatedAt() + "_" + last.getCommentId();
+        }
+
+        // Likes not flushed yet, and the reader's own likes for the whole page in one query
+        List<Long> ids = new ArrayList<>(comments.size());
+        for (Comment comment : comments) {
+            comment.setLikes(plus(comment.getLikes(), commentLikeAggregator.pendingLikes(comment.getCommentId())));
+            ids.add(comment.getCommentId());
+        }
+        if (userEmail != null && !ids.isEmpty()) {
+            Set<Long> liked = new HashSet<>(commentLikeRepository.findLikedCommentIds(userEmail, ids));
+            comments.forEach(comment -> comment.setLiked(liked.contains(comment.getCommentId())));
+        }
+        return new CursorPage<>(comments, nextCursor);
     }
 
-    public Thread downvoteThread(Long id, String userEmail) {
-        Thread thread = getThreadById(id);
-        Integer currentVote = thread.getVotes().getOrDefault(userEmail, 0);
-
-        // Update vote count based on previous vote
-        if (currentVote == -1) {
-            // Remove downvote
-            thread.getVotes().put(userEmail, 0);
-            thread.setDownvotes(thread.getDownvotes() - 1);
-        } else if (currentVote == 1) {
-            // Change upvote to downvote
-            thread.getVotes().put(userEmail, -1);
-            thread.setUpvotes(thread.getUpvotes() - 1);
-            thread.setDownvotes(thread.getDownvotes() + 1);
-        } else {
-            // Add new downvote
-            thread.getVotes().put(userEmail, -1);
-            thread.setDownvotes(thread.getDownvotes() + 1);
+    /**
+     * Comment cursors look like "2025-04-01T18:00:00.123456_42": the creation time and id of the last comment seen.
+     */
+    static CommentCursor parseCommentCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        int separator = cursor.lastIndexOf('_');
+        try {
+            if (separator <= 0) {
+                throw new IllegalArgumentException("missing separator");
+            }
+            LocalDateTime createdAt = LocalDateTime.parse(cursor.substring(0, separator));
+            return new CommentCursor(createdAt, Long.parseLong(cursor.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+
+    record CommentCursor(LocalDateTime createdAt, long commentId) {
+    }
+
+    public Comment getComment(Long threadId, Long commentId) {
+        return commentRepository.findById(commentId)
+                .filter(comment -> comment.getThread() != null && threadId.equals(comment.getThread().getThreadId()))
+                .orElseThrow(() -> new IllegalArgumentException("Comment not found with id: " + commentId));
+    }
+
+    /**
+     * Deletes the comment and takes it off the thread's count. Deleting doesn't move the thread's last activity.
+     */
+    @Transactional
+    public void deleteComment(Long threadId, Long commentId) {
+        if (commentRepository.deleteFromThread(threadId, commentId) > 0) {
+            commentLikeRepository.deleteByCommentId(commentId);
+            threadRepository.removeComment(threadId);
+            afterCommit(() -> threadSearchService.reindexThread(threadId));
         }
+    }
+
+    /**
+     * Likes the comment for the user; liking it again changes nothing. Returns the comment's like count after it,
+     * counting likes that haven't been flushed to its row yet.
+     */
+    public int likeComment(Long threadId, Long commentId, String userEmail) {
+        return like(threadId, commentId, userEmail, true);
+    }
 
-        return threadRepository.save(thread);
+    /**
+     * Takes the user's like off the comment, if they gave one. Returns the comment's like count after it.
+     */
+    public int unlikeComment(Long threadId, Long commentId, String userEmail) {
+        return like(threadId, commentId, userEmail, false);
+    }
+
+    // The like row is a single insert or delete, outside any transaction, and the counter is left to
+    // CommentLikeAggregator, so a popular comment's row is never locked by individual likes
+    private int like(Long threadId, Long commentId, String userEmail, boolean liked) {
+        Integer stored = commentRepository.findLikes(threadId, commentId);
+        if (stored == null) {
+            throw new IllegalArgumentException("Comment not found with id: " + commentId);
+        }
+        int delta = liked
+                ? commentLikeRepository.insertIfAbsent(commentId, userEmail)
+                : -commentLikeRepository.deleteLike(commentId, userEmail);
+        commentLikeAggregator.add(commentId, delta);
+        return plus(stored, commentLikeAggregator.pendingLikes(commentId));
+    }
+
+    /**
+     * Upvotes the thread, or takes the upvote back if the user already gave one. Returns the user's vote after it.
+     */
+    @Transactional
+    public int upvoteThread(Long id, String userEmail) {
+        return vote(id, userEmail, 1);
+    }
+
+    /**
+     * Downvotes the thread, or takes the downvote back if the user already gave one. Returns the user's vote after it.
+     */
+    @Transactional
+    public int downvoteThread(Long id, String userEmail) {
+        return vote(id, userEmail, -1);
     }
 
     public Integer getUserVote(Long id, String userEmail) {
-        Thread thread = getThreadById(id);
-        return thread.getVotes().getOrDefault(userEmail, 0);
+        Integer vote = threadVoteRepository.findVote(id, userEmail);
+        return vote != null ? vote : 0;
+    }
+
+    // The user's row is upserted and locked, so their own votes apply one at a time. The counters are left to
+    // VoteAggregator once the vote commits, so a busy thread's row isn't locked by every vote. The thread isn't loaded.
+    private int vote(Long threadId, String userEmail, int direction) {
+        if (!threadRepository.existsById(threadId)) {
+            throw new IllegalArgumentException("Thread not found with id: " + threadId);
+        }
+        threadVoteRepository.insertIfAbsent(threadId, userEmail);
+        Integer locked = threadVoteRepository.lockVote(threadId, userEmail);
+        int previous = locked != null ? locked : 0;
+        // Voting the same way again removes the vote
+        int current = previous == direction ? 0 : direction;
+
+        threadVoteRepository.setVote(threadId, userEmail, current);
+        int upDelta = (current == 1 ? 1 : 0) - (previous == 1 ? 1 : 0);
+        int downDelta = (current == -1 ? 1 : 0) - (previous == -1 ? 1 : 0);
+        afterCommit(() -> {
+            voteAggregator.add(threadId, upDelta, downDelta);
+            threadRankingService.recordVote(threadId, upDelta - downDelta);
+        });
+        return current;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    // Counters on the row don't include votes VoteAggregator hasn't flushed yet
+    private Thread withPendingVotes(Thread thread) {
+        Long id = thread.getThreadId();
+        thread.setUpvotes(plus(thread.getUpvotes(), voteAggregator.pendingUpvotes(id)));
+        thread.setDownvotes(plus(thread.getDownvotes(), voteAggregator.pendingDownvotes(id)));
+        return thread;
+    }
+
+    private void addPendingVotes(ThreadSummary summary) {
+        Long id = summary.getThreadId();
+        summary.setUpvotes(plus(summary.getUpvotes(), voteAggregator.pendingUpvotes(id)));
+        summary.setDownvotes(plus(summary.getDownvotes(), voteAggregator.pendingDownvotes(id)));
+    }
+
+    private static int plus(Integer stored, long pending) {
+        return (stored != null ? stored : 0) + (int) pending;
+    }
+
+    public ThreadSearchResults searchText(String query, String course, String major, int limit) {
+        ThreadSearchResults results = threadSearchService.search(query, course, major, limit);
+        results.getHits().forEach(hit -> addPendingVotes(hit.getThread()));
+        return results;
     }
 
     public List<Thread> searchThreads(String major, String course, User.Role authorRole) {
-        return threadRepository.searchThreads(major, course, authorRole);
+        List<Thread> threads = threadRepository.searchThreads(major, course, authorRole);
+        threads.forEach(this::withPendingVotes);
+        return threads;
     }
 }
\ No newline at end of file
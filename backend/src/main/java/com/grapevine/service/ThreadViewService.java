@@ -0,0 +1,115 @@
+package com.grapevine.service;
+
+import com.grapevine.index.HyperLogLog;
+import com.grapevine.repository.ThreadRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Approximate unique viewers per thread. Opening a thread only adds the viewer to an in-memory HyperLogLog sketch
+ * for that thread; nothing is written on the request. Every so often (ThreadViewFlushScheduler) each sketch
+ * with new views is merged into the thread's viewer_sketch column, one short transaction per thread, and dropped
+ * from memory. Counts come from the stored sketch merged with whatever is still in memory. A crash loses at most
+ * one interval of views.
+ */
+@Service
+@RequiredArgsConstructor
+public class ThreadViewService {
+    private final ThreadRepository threadRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    // Only threads viewed since the last merge have a sketch here
+    private final Map<Long, HyperLogLog> pending = new ConcurrentHashMap<>();
+    // Taken out of pending by a merge that hasn't committed yet; readers still count them
+    private final Map<Long, HyperLogLog> merging = new ConcurrentHashMap<>();
+    private final ReentrantLock mergeLock = new ReentrantLock();
+
+    public void recordView(Long threadId, String viewer) {
+        long hash = HyperLogLog.hash(viewer);
+        // compute keeps the add atomic with the merge taking the sketch out of pending
+        pending.compute(threadId, (id, sketch) -> {
+            HyperLogLog current = sketch != null ? sketch : new HyperLogLog();
+            current.add(hash);
+            return current;
+        });
+    }
+
+    /**
+     * The thread's unique viewers from its stored sketch plus views not merged into it yet.
+     */
+    public long uniqueViewers(Long threadId, byte[] storedSketch) {
+        HyperLogLog sketch = read(threadId, storedSketch);
+        HyperLogLog inMerge = merging.get(threadId);
+        if (inMerge != null) {
+            sketch.merge(inMerge);
+        }
+        HyperLogLog unmerged = pending.get(threadId);
+        if (unmerged != null) {
+            sketch.merge(unmerged);
+        }
+        return sketch.estimate();
+    }
+
+    /**
+     * Merges every pending sketch into its thread's row and returns how many threads were written.
+     * Returns right away if another merge is already running. A sketch that fails to write goes back to pending;
+     * one for a thread that no longer exists is dropped.
+     */
+    @PreDestroy
+    public int flush() {
+        if (!mergeLock.tryLock()) {
+            return 0;
+        }
+        try {
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            int written = 0;
+            for (Long threadId : new ArrayList<>(pending.keySet())) {
+                HyperLogLog sketch = pending.get(threadId);
+                if (sketch == null) {
+                    continue;
+                }
+                merging.put(threadId, sketch);
+                pending.remove(threadId, sketch);
+                try {
+                    Integer updated = transaction.execute(status -> {
+                        HyperLogLog stored = read(threadId, threadRepository.lockViewerSketch(threadId));
+                        stored.merge(sketch);
+                        return threadRepository.setViewerSketch(threadId, stored.toBytes());
+                    });
+                    if (updated != null && updated > 0) {
+                        written++;
+                    }
+                } catch (Exception e) {
+                    pending.merge(threadId, sketch, (newer, older) -> {
+                        newer.merge(older);
+                        return newer;
+                    });
+                    System.err.println("Failed to merge views for thread " + threadId + ": " + e.getMessage());
+                } finally {
+                    merging.remove(threadId);
+                }
+            }
+            return written;
+        } finally {
+            mergeLock.unlock();
+        }
+    }
+
+    // A damaged sketch is started over rather than failing the thread page
+    private static HyperLogLog read(Long threadId, byte[] storedSketch) {
+        try {
+            return HyperLogLog.fromBytes(storedSketch);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Ignoring unreadable viewer sketch for thread " + threadId + ": " + e.getMessage());
+            return new HyperLogLog();
+        }
+    }
+}
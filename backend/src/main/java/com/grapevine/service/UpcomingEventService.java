@@ -0,0 +1,100 @@
+package com.grapevine.service;
+
+import com.grapevine.index.UpcomingEventIndex;
+import com.grapevine.model.Event;
+import com.grapevine.model.RecurrenceRule;
+import com.grapevine.repository.EventRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Serves "next N public events" queries from memory. The index is loaded at startup, kept current by
+ * event create/update/delete and joins, and reloaded periodically to pick up anything changed elsewhere.
+ */
+@Service
+@RequiredArgsConstructor
+public class UpcomingEventService {
+    private static final int MAX_LIMIT = 100;
+
+    private final EventRepository eventRepository;
+
+    private final UpcomingEventIndex index = new UpcomingEventIndex();
+
+    @PostConstruct
+    public void warm() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            System.err.println("Could not load upcoming events index: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reloads every upcoming public event from the database.
+     */
+    public void refresh() {
+        List<UpcomingEventIndex.Entry> entries = new ArrayList<>();
+        for (Event event : eventRepository.findUpcomingPublicEvents(LocalDateTime.now())) {
+            UpcomingEventIndex.Entry entry = toEntry(event);
+            if (entry != null) {
+                entries.add(entry);
+            }
+        }
+        index.replaceAll(entries);
+    }
+
+    public List<UpcomingEventIndex.Entry> getUpcomingEvents(int limit, Long locationId,
+                                                           LocalDateTime from, LocalDateTime to) {
+        return index.upcoming(LocalDateTime.now(), from, to, locationId, Math.max(1, Math.min(limit, MAX_LIMIT)));
+    }
+
+    /**
+     * Adds, moves or drops the event depending on whether it is still public and upcoming.
+     */
+    public void track(Event event) {
+        if (event.getEventId() == null) {
+            return;
+        }
+        UpcomingEventIndex.Entry entry = Boolean.TRUE.equals(event.getIsPublic()) ? toEntry(event) : null;
+        if (entry != null) {
+            index.put(entry);
+        } else {
+            index.remove(event.getEventId());
+        }
+    }
+
+    public void remove(Long eventId) {
+        index.remove(eventId);
+    }
+
+    public void updateMemberCount(Long eventId, Integer memberCount) {
+        if (memberCount != null) {
+            index.updateMemberCount(eventId, memberCount);
+        }
+    }
+
+    /**
+     * The event keyed by its next start, or null if it has none. A series is indexed by its next occurrence
+     * and the index moves it on to the following one as each passes; occurrence overrides aren't reflected here.
+     */
+    private static UpcomingEventIndex.Entry toEntry(Event event) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime next = event.getEventTime();
+        UpcomingEventIndex.Series series = null;
+        if (event.getRecurrenceRule() != null && next != null) {
+            series = new UpcomingEventIndex.Series(next, RecurrenceRule.parse(event.getRecurrenceRule()));
+            next = series.nextAfter(now);
+        }
+        if (next == null || !next.isAfter(now)) {
+            return null;
+        }
+        return new UpcomingEventIndex.Entry(event.getEventId(), event.getName(), event.getLocationId(), next,
+                event.getMemberCount() != null ? event.getMemberCount() : 0,
+                event.getMaxUsers() != null ? event.getMaxUsers() : 0, series);
+    }
+}
@@ -4,6 +4,9 @@ import com.grapevine.exception.UserNotFoundException;
 import com.grapevine.model.*;
 import com.grapevine.repository.*;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import lombok.RequiredArgsConstructor;
 import com.grapevine.exception.*;
 import org.springframework.web.multipart.MultipartFile;
@@ -23,13 +26,17 @@ public class UserService {
     private final EventRepository eventRepository;
     private final LocationRepository locationRepository;
     private final S3Service s3Service;
+    private final GroupMemberRepository groupMemberRepository;
+    private final EventMemberRepository eventMemberRepository;
+    private final NameSearchService nameSearchService;
 
     // session storage: sessionId -> SessionInfo
     private final Map<String, SessionInfo> activeSessions = new HashMap<>();
     public UserService(UserRepository userRepository, VerificationTokenRepository tokenRepository,
                        EmailService emailService, GroupRepository groupRepository,
                        EventRepository eventRepository, LocationRepository locationRepository,
-                       S3Service s3Service) {
+                       S3Service s3Service, GroupMemberRepository groupMemberRepository,
+                       EventMemberRepository eventMemberRepository, NameSearchService nameSearchService) {
         this.userRepository = userRepository;
         this.tokenRepository = tokenRepository;
         this.emailService = emailService;
@@ -37,6 +44,9 @@ public class UserService {
         this.eventRepository = eventRepository;
         this.locationRepository = locationRepository;
         this.s3Service = s3Service;
+        this.groupMemberRepository = groupMemberRepository;
+        this.eventMemberRepository = eventMemberRepository;
+        this.nameSearchService = nameSearchService;
     }
 
     public S3Service getS3Service() {
@@ -222,6 +232,7 @@ public class UserService {
 
     }
 
+    @Transactional
     public void deleteUser(String userEmail) {
         // First check if the user exists
         User user = getUserByEmail(userEmail);
@@ -232,34 +243,37 @@ public class UserService {
         // Remove the user from all groups they joined but don't host
         if (user.getJoinedGroups() != null && !user.getJoinedGroups().isEmpty()) {
             for (Long groupId : user.getJoinedGroups()) {
-                groupRepository.findById(groupId).ifPresent(group -> {
-                    group.getParticipants().remove(userEmail);
-                    groupRepository.save(group);
-                });
+                // Only give the seat back if a member row was actually removed
+                if (groupMemberRepository.removeMember(groupId, userEmail) > 0) {
+                    groupRepository.releaseSeat(groupId);
+                }
             }
         }
 
         // For events the user joined but doesn't host
         if (user.getJoinedEvents() != null && !user.getJoinedEvents().isEmpty()) {
             for (Long eventId : user.getJoinedEvents()) {
-                eventRepository.findById(eventId).ifPresent(event -> {
-                    event.getParticipants().remove(userEmail);
-                    eventRepository.save(event);
-                });
+                if (eventMemberRepository.removeMember(eventId, userEmail) > 0) {
+                    eventRepository.releaseSeat(eventId);
+                }
             }
         }
 
         // Delete any hosted groups
         if (user.getHostedGroups() != null && !user.getHostedGroups().isEmpty()) {
             for (Long groupId : user.getHostedGroups()) {
+                groupMemberRepository.deleteByGroupId(groupId);
                 groupRepository.deleteById(groupId);
+                afterCommit(() -> nameSearchService.removeGroup(groupId));
             }
         }
 
         // Delete any hosted events
         if (user.getHostedEvents() != null && !user.getHostedEvents().isEmpty()) {
             for (Long eventId : user.getHostedEvents()) {
+                eventMemberRepository.deleteByEventId(eventId);
                 eventRepository.deleteById(eventId);
+                afterCommit(() -> nameSearchService.removeEvent(eventId));
             }
         }
 
@@ -296,7 +310,7 @@ public class UserService {
         if (currentUser.getHostedGroups() != null && !currentUser.getHostedGroups().isEmpty()) {
             for (Long groupId : currentUser.getHostedGroups()) {
                 groupRepository.findById(groupId)
-                        .ifPresent(group -> allShortGroups.add(new ShortGroup(group.getGroupId(), group.getName(), group.isPublic(), group.isInstructorLed())));
+                        .ifPresent(group -> allShortGroups.add(new ShortGroup(group.getGroupId(), group.getName(), group.isPublic(), group.isInstructorLed(), group.getMemberCount())));
             }
         }
 
@@ -304,7 +318,7 @@ public class UserService {
         if (currentUser.getJoinedGroups() != null && !currentUser.getJoinedGroups().isEmpty()) {
             for (Long groupId : currentUser.getJoinedGroups()) {
                 groupRepository.findById(groupId)
-                        .ifPresent(group -> allShortGroups.add(new ShortGroup(group.getGroupId(), group.getName(), group.isPublic(), group.isInstructorLed())));
+                        .ifPresent(group -> allShortGroups.add(new ShortGroup(group.getGroupId(), group.getName(), group.isPublic(), group.isInstructorLed(), group.getMemberCount())));
             }
         }
 
@@ -332,7 +346,7 @@ public class UserService {
         if (currentUser.getHostedGroups() != null && !currentUser.getHostedGroups().isEmpty()) {
             for (Long groupId : currentUser.getHostedGroups()) {
                 groupRepository.findById(groupId)
-                        .ifPresent(group -> hostedShortGroups.add(new ShortGroup(group.getGroupId(), group.getName(), group.isPublic(), group.isInstructorLed())));
+                        .ifPresent(group -> hostedShortGroups.add(new ShortGroup(group.getGroupId(), group.getName(), group.isPublic(), group.isInstructorLed(), group.getMemberCount())));
             }
         }
 
@@ -361,7 +375,7 @@ public class UserService {
         if (currentUser.getJoinedGroups() != null && !currentUser.getJoinedGroups().isEmpty()) {
             for (Long groupId : currentUser.getJoinedGroups()) {
                 groupRepository.findById(groupId)
-                        .ifPresent(group -> joinedShortGroups.add(new ShortGroup(group.getGroupId(), group.getName(), group.isPublic(), group.isInstructorLed())));
+                        .ifPresent(group -> joinedShortGroups.add(new ShortGroup(group.getGroupId(), group.getName(), group.isPublic(), group.isInstructorLed(), group.getMemberCount())));
             }
         }
 
@@ -397,7 +411,7 @@ public class UserService {
         if (currentUser.getHostedEvents() != null && !currentUser.getHostedEvents().isEmpty()) {
             for (Long eventId : currentUser.getHostedEvents()) {
                 eventRepository.findById(eventId)
-                        .ifPresent(event -> allShortEvents.add(new ShortEvent(event.getEventId(), event.getName(), event.getLocationId(), event.getIsPublic())));
+                        .ifPresent(event -> allShortEvents.add(new ShortEvent(event.getEventId(), event.getName(), event.getLocationId(), event.getIsPublic(), event.getMemberCount())));
             }
         }
 
@@ -405,7 +419,7 @@ public class UserService {
         if (currentUser.getJoinedEvents() != null && !currentUser.getJoinedEvents().isEmpty()) {
             for (Long eventId : currentUser.getJoinedEvents()) {
                 eventRepository.findById(eventId)
-                        .ifPresent(event -> allShortEvents.add(new ShortEvent(event.getEventId(), event.getName(), event.getLocationId(), event.getIsPublic())));
+                        .ifPresent(event -> allShortEvents.add(new ShortEvent(event.getEventId(), event.getName(), event.getLocationId(), event.getIsPublic(), event.getMemberCount())));
             }
         }
 
@@ -433,7 +447,7 @@ public class UserService {
         if (currentUser.getHostedEvents() != null && !currentUser.getHostedEvents().isEmpty()) {
             for (Long eventId : currentUser.getHostedEvents()) {
                 eventRepository.findById(eventId)
-                        .ifPresent(event -> hostedShortEvents.add(new ShortEvent(event.getEventId(), event.getName(), event.getLocationId(), event.getIsPublic())));
+                        .ifPresent(event -> hostedShortEvents.add(new ShortEvent(event.getEventId(), event.getName(), event.getLocationId(), event.getIsPublic(), event.getMemberCount())));
             }
         }
 
@@ -461,7 +475,7 @@ public class UserService {
         if (currentUser.getJoinedEvents() != null && !currentUser.getJoinedEvents().isEmpty()) {
             for (Long eventId : currentUser.getJoinedEvents()) {
                 eventRepository.findById(eventId)
-                        .ifPresent(event -> joinedShortEvents.add(new ShortEvent(event.getEventId(), event.getName(), event.getLocationId(), event.getIsPublic())));
+                        .ifPresent(event -> joinedShortEvents.add(new ShortEvent(event.getEventId(), event.getName(), event.getLocationId(), event.getIsPublic(), event.getMemberCount())));
             }
         }
 
@@ -727,4 +741,17 @@ public class UserService {
         
         return preferences;
     }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
 }
\ No newline at end of file
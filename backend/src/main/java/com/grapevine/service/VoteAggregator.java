@@ -0,0 +1,75 @@
+package com.grapevine.service;
+
+import com.grapevine.repository.ThreadRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Write-behind counters for thread votes. Each committed vote adds its delta to striped in-memory counters
+ * (WriteBehindCounters), and a flush moves whatever has piled up for a thread to its row with a single UPDATE,
+ * so a thread getting hundreds of votes a second takes a few row writes a second instead of one per vote. Flushes run on a timer
+ * (VoteFlushScheduler) and as soon as enough votes are waiting. Readers add the pending deltas to what they
+ * read, so counts don't wait for a flush.
+ * <p>
+ * Who voted which way is written to thread_votes in the vote's own transaction; only the counters are deferred.
+ * Pending deltas are flushed on shutdown; a crash loses at most the last interval's worth of counter changes.
+ */
+@Service
+@RequiredArgsConstructor
+public class VoteAggregator {
+    private final ThreadRepository threadRepository;
+
+    @Value("${grapevine.votes.flush-threshold:500}")
+    private int flushThreshold = 500;
+
+    private static final int UP = 0;
+    private static final int DOWN = 1;
+
+    // One entry per thread voted on since startup; entries are small and dropped when the thread is deleted
+    private final WriteBehindCounters counters = new WriteBehindCounters("votes for thread", 2);
+
+    /**
+     * Records a committed vote's effect on the thread's counters.
+     */
+    public void add(Long threadId, int upDelta, int downDelta) {
+        if (upDelta == 0 && downDelta == 0) {
+            return;
+        }
+        counters.add(threadId, upDelta, downDelta);
+
+        // A burst doesn't wait for the timer; whoever crosses the threshold flushes unless a flush is running
+        if (counters.unflushed() >= flushThreshold) {
+            flush();
+        }
+    }
+
+    public long pendingUpvotes(Long threadId) {
+        return counters.pending(threadId, UP);
+    }
+
+    public long pendingDownvotes(Long threadId) {
+        return counters.pending(threadId, DOWN);
+    }
+
+    /**
+     * Writes every thread's pending deltas with one UPDATE per thread and returns how many threads were written.
+     * Returns right away if another flush is already running. A delta that fails to write goes back to pending.
+     */
+    @PreDestroy
+    public int flush() {
+        return counters.flush((threadId, deltas) -> {
+            threadRepository.applyVoteDelta(threadId, Math.toIntExact(deltas[UP]), Math.toIntExact(deltas[DOWN]));
+            // A deleted thread's deltas are dropped by discard, not here
+            return 1;
+        });
+    }
+
+    /**
+     * Drops the thread's pending deltas, for when the thread itself is deleted.
+     */
+    public void discard(Long threadId) {
+        counters.discard(threadId);
+    }
+}
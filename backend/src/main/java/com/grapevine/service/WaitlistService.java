@@ -0,0 +1,240 @@
+package com.grapevine.service;
+
+import com.grapevine.exception.EventNotFoundException;
+import com.grapevine.model.Event;
+import com.grapevine.model.EventMember;
+import com.grapevine.model.EventWaitlistEntry;
+import com.grapevine.model.MemberRole;
+import com.grapevine.model.User;
+import com.grapevine.model.WaitlistVersion;
+import com.grapevine.repository.EventMemberRepository;
+import com.grapevine.repository.EventRepository;
+import com.grapevine.repository.EventWaitlistRepository;
+import com.grapevine.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * FIFO waitlists for full events. The rows in event_waitlist are the source of truth; each event's queue is
+ * mirrored in memory, so finding the head, adding and withdrawing are O(1). Before the mirror is used, one
+ * index-only query checks it against the rows' version (WaitlistVersion), and a queue changed by another instance
+ * is reloaded. Seats and entries are both claimed with conditional statements, so concurrent joins, leaves and
+ * promotions (on this instance or another) can never give out a seat or an entry twice.
+ */
+@Service
+@RequiredArgsConstructor
+public class WaitlistService {
+    private final EventWaitlistRepository waitlistRepository;
+    private final EventRepository eventRepository;
+    private final EventMemberRepository eventMemberRepository;
+    private final UserRepository userRepository;
+    private final NotificationService notificationService;
+    private final ScheduleService scheduleService;
+
+    private final Map<Long, Queue> queues = new ConcurrentHashMap<>();
+
+    // One event's queue and the version of the rows it mirrors; each queue is also the lock for its event's promotions
+    private static class Queue {
+        // Insertion order is FIFO order
+        final LinkedHashSet<String> emails = new LinkedHashSet<>();
+        WaitlistVersion version;
+    }
+
+    /**
+     * Puts the user at the back of a full event's waitlist and returns their 1-based position.
+     * Joining again is a no-op that returns the current position.
+     */
+    @Transactional
+    public int joinWaitlist(Long eventId, User currentUser) {
+        Event event = eventRepository.findById(eventId)
+                .orElseThrow(() -> new EventNotFoundException("Event not found with id: " + eventId));
+        String userEmail = currentUser.getUserEmail();
+
+        if (!Boolean.TRUE.equals(event.getIsPublic())) {
+            throw new IllegalStateException("Cannot join a private event. Join the group first.");
+        }
+        if (eventMemberRepository.existsByEventIdAndUserEmail(eventId, userEmail)) {
+            throw new IllegalStateException("Already attending this event");
+        }
+        if (!event.hasOccurrenceAfter(LocalDateTime.now())) {
+            throw new IllegalStateException("Cannot join the waitlist of an event that has already started");
+        }
+        if (event.getMaxUsers() == null || event.getMemberCount() < event.getMaxUsers()) {
+            throw new IllegalStateException("Event still has open seats; join it directly");
+        }
+
+        Queue queue = queueFor(eventId);
+        synchronized (queue) {
+            if (!queue.emails.contains(userEmail)) {
+                EventWaitlistEntry entry = waitlistRepository.save(new EventWaitlistEntry(eventId, userEmail));
+                queue.emails.add(userEmail);
+                queue.version = queue.version.added(entry.getEntryId());
+                evictOnRollback(eventId);
+            }
+            return positionOf(queue.emails, userEmail);
+        }
+    }
+
+    /**
+     * Takes the user off the waitlist. Returns false if they weren't on it.
+     */
+    @Transactional
+    public boolean leaveWaitlist(Long eventId, String userEmail) {
+        Queue queue = queueFor(eventId);
+        synchronized (queue) {
+            boolean removed = waitlistRepository.removeEntry(eventId, userEmail) > 0;
+            queue.emails.remove(userEmail);
+            if (removed) {
+                queue.version = queue.version.removed();
+            }
+            evictOnRollback(eventId);
+            return removed;
+        }
+    }
+
+    public boolean hasWaiting(Long eventId) {
+        Queue queue = queueFor(eventId);
+        synchronized (queue) {
+            return !queue.emails.isEmpty();
+        }
+    }
+
+    /**
+     * The user's 1-based position on the waitlist, or 0 if they aren't on it.
+     */
+    public int getPosition(Long eventId, String userEmail) {
+        Queue queue = queueFor(eventId);
+        synchronized (queue) {
+            return positionOf(queue.emails, userEmail);
+        }
+    }
+
+    /**
+     * Moves waitlisted users into the event's free seats, oldest first, and returns who was promoted.
+     * Each promotion is a fixed number of statements: the seat is claimed with the conditional reserveSeat UPDATE
+     * and the entry with a DELETE, and the promoted users are notified once the transaction commits.
+     */
+    @Transactional
+    public List<String> promote(Event event) {
+        Long eventId = event.getEventId();
+        Queue queue = queueFor(eventId);
+        List<String> promoted = new ArrayList<>();
+
+        synchronized (queue) {
+            Iterator<String> head = queue.emails.iterator();
+            while (head.hasNext()) {
+                String userEmail = head.next();
+                if (eventRepository.reserveSeat(eventId) == 0) {
+                    break;
+                }
+                head.remove();
+                // Withdrawn or promoted elsewhere; the next in line gets the seat
+                if (waitlistRepository.removeEntry(eventId, userEmail) == 0) {
+                    eventRepository.releaseSeat(eventId);
+                    continue;
+                }
+                queue.version = queue.version.removed();
+                // Joined directly when a seat was free; their entry is gone either way
+                if (eventMemberRepository.existsByEventIdAndUserEmail(eventId, userEmail)) {
+                    eventRepository.releaseSeat(eventId);
+                    continue;
+                }
+                eventMemberRepository.save(new EventMember(eventId, userEmail, MemberRole.PARTICIPANT));
+                userRepository.addJoinedEvent(userEmail, eventId);
+                promoted.add(userEmail);
+            }
+        }
+
+        if (!promoted.isEmpty()) {
+            evictOnRollback(eventId);
+            afterCommit(() -> {
+                promoted.forEach(scheduleService::invalidate);
+                notificationService.createAndSendWaitlistPromotionNotifications(promoted, event.getName(), eventId);
+            });
+        }
+        return promoted;
+    }
+
+    /**
+     * promote in a transaction of its own that commits before this returns, for a caller that may still refuse and
+     * roll back its own work. The caller mustn't have written to the event yet, or the seat UPDATE would wait on it.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public List<String> promoteAndCommit(Event event) {
+        return promote(event);
+    }
+
+    /**
+     * Drops the events' waitlists, for when the events themselves are deleted.
+     */
+    @Transactional
+    public int clear(List<Long> eventIds) {
+        afterCommit(() -> eventIds.forEach(queues::remove));
+        return waitlistRepository.deleteAllByEventIdIn(eventIds);
+    }
+
+    // The version is read before the rows, so a change in between only makes the next use reload again
+    private Queue queueFor(Long eventId) {
+        WaitlistVersion current = waitlistRepository.findVersion(eventId);
+        Queue queue = queues.computeIfAbsent(eventId, id -> new Queue());
+        synchronized (queue) {
+            if (!current.equals(queue.version)) {
+                queue.emails.clear();
+                queue.emails.addAll(waitlistRepository.findEmailsInOrder(eventId));
+                queue.version = current;
+            }
+        }
+        return queue;
+    }
+
+    private static int positionOf(LinkedHashSet<String> queue, String userEmail) {
+        int position = 1;
+        for (String waiting : queue) {
+            if (waiting.equals(userEmail)) {
+                return position;
+            }
+            position++;
+        }
+        return 0;
+    }
+
+    // The mirror changed before the rows did; if the rows roll back, reload the queue from them on next use
+    private void evictOnRollback(Long eventId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    queues.remove(eventId);
+                }
+            }
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,179 @@
+package com.grapevine.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToIntBiFunction;
+
+/**
+ * A fixed number of counters per id (up and down votes for a thread, likes for a comment) whose changes pile up in
+ * striped in-memory adders and are written to the database in batches by flush, one write per id. Readers add
+ * pending(id, counter) to what they read from the row. Shared by VoteAggregator and CommentLikeAggregator.
+ */
+class WriteBehindCounters {
+    private final String description;
+    private final int width;
+
+    private final Map<Long, Pending> pending = new ConcurrentHashMap<>();
+    private final LongAdder unflushed = new LongAdder();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private static class Pending {
+        final LongAdder[] counts;
+        // Taken out of the adders by a flush whose write hasn't committed yet; readers still count it
+        final AtomicLongArray flushing;
+        // Adds in progress, and whether a flush is taking the entry out of the map; see add and retireIfIdle
+        final LongAdder adding = new LongAdder();
+        volatile boolean retired;
+
+        Pending(int width) {
+            counts = new LongAdder[width];
+            for (int i = 0; i < width; i++) {
+                counts[i] = new LongAdder();
+            }
+            flushing = new AtomicLongArray(width);
+        }
+
+        boolean isEmpty() {
+            for (LongAdder count : counts) {
+                if (count.sum() != 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * description names what's counted in log lines, e.g. "votes for thread"; width is the number of counters per id.
+     */
+    WriteBehindCounters(String description, int width) {
+        this.description = description;
+        this.width = width;
+    }
+
+    void add(Long id, long... deltas) {
+        while (true) {
+            Pending counters = pending.computeIfAbsent(id, key -> new Pending(width));
+            counters.adding.increment();
+            try {
+                if (counters.retired) {
+                    // A flush is dropping this entry; go again once it's out of the map
+                    Thread.onSpinWait();
+                    continue;
+                }
+                for (int i = 0; i < width; i++) {
+                    counters.counts[i].add(deltas[i]);
+                }
+                unflushed.increment();
+                return;
+            } finally {
+                counters.adding.decrement();
+            }
+        }
+    }
+
+    /**
+     * How many adds have come in since the last flush started.
+     */
+    long unflushed() {
+        return unflushed.sum();
+    }
+
+    long pending(Long id, int counter) {
+        Pending counters = pending.get(id);
+        return counters != null ? counters.counts[counter].sum() + counters.flushing.get(counter) : 0;
+    }
+
+    /**
+     * Hands every id's pending deltas to write, one call per id, and returns how many ids were written.
+     * write returns the number of rows it updated; 0 means the row is gone and the id's deltas are dropped.
+     * Returns right away if another flush is already running. Deltas that fail to write go back to pending.
+     */
+    int flush(ToIntBiFunction<Long, long[]> write) {
+        if (!flushLock.tryLock()) {
+            return 0;
+        }
+        try {
+            unflushed.reset();
+            int written = 0;
+            for (Map.Entry<Long, Pending> entry : pending.entrySet()) {
+                Pending counters = entry.getValue();
+                long[] deltas = new long[width];
+                boolean any = false;
+                for (int i = 0; i < width; i++) {
+                    deltas[i] = counters.counts[i].sum();
+                    any |= deltas[i] != 0;
+                }
+                if (!any) {
+                    continue;
+                }
+                // Subtracting what was read, rather than resetting, keeps changes added meanwhile for the next flush.
+                // Readers aren't synchronized with the write, so the batch can be off by itself for a moment: missed
+                // between the adders giving it up and flushing showing it, and counted twice between the write
+                // committing and flushing being cleared. The stored row is always right
+                for (int i = 0; i < width; i++) {
+                    counters.counts[i].add(-deltas[i]);
+                    counters.flushing.set(i, deltas[i]);
+                }
+                int updated;
+                try {
+                    updated = write.applyAsInt(entry.getKey(), deltas);
+                } catch (Exception e) {
+                    // Cleared before the deltas go back, so readers miss them for a moment rather than count them twice
+                    clearFlushing(counters);
+                    for (int i = 0; i < width; i++) {
+                        counters.counts[i].add(deltas[i]);
+                    }
+                    System.err.println("Failed to flush " + description + " " + entry.getKey() + ": " + e.getMessage());
+                    continue;
+                }
+                clearFlushing(counters);
+                if (updated > 0) {
+                    written++;
+                    retireIfIdle(entry.getKey(), counters);
+                } else {
+                    pending.remove(entry.getKey(), counters);
+                }
+            }
+            return written;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    void discard(Long id) {
+        pending.remove(id);
+    }
+
+    /**
+     * How many ids have an entry, written or not.
+     */
+    int tracked() {
+        return pending.size();
+    }
+
+    private void clearFlushing(Pending counters) {
+        for (int i = 0; i < width; i++) {
+            counters.flushing.set(i, 0);
+        }
+    }
+
+    /**
+     * Drops an entry with nothing left to write, so every id ever touched doesn't stay in the map and in every flush.
+     * An add racing with this either shows up in adding, which keeps the entry, or sees retired and starts a new one.
+     */
+    private void retireIfIdle(Long id, Pending counters) {
+        if (!counters.isEmpty()) {
+            return;
+        }
+        counters.retired = true;
+        if (counters.adding.sum() == 0 && counters.isEmpty()) {
+            pending.remove(id, counters);
+        } else {
+            counters.retired = false;
+        }
+    }
+}
@@ -3,21 +3,30 @@ package com.grapevine.controller;
 import com.grapevine.exception.EventNotFoundException;
 import com.grapevine.exception.InvalidSessionException;
 import com.grapevine.exception.UnauthorizedException;
+import com.grapevine.index.PrefixIndex;
+import com.grapevine.model.CursorPage;
 import com.grapevine.model.Event;
 import com.grapevine.model.EventFilter;
 import com.grapevine.model.ShortEvent;
 import com.grapevine.model.User;
+import com.grapevine.service.EventOccurrenceService;
 import com.grapevine.service.EventService;
+import com.grapevine.service.NameSearchService;
+import com.grapevine.service.ScheduleService;
 import com.grapevine.service.UserService;
+import com.grapevine.service.WaitlistService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 
 import java.time.ZoneOffset;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -34,6 +43,18 @@ public class EventControllerTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private NameSearchService nameSearchService;
+
+    @Mock
+    private EventOccurrenceService eventOccurrenceService;
+
+    @Mock
+    private ScheduleService scheduleService;
+
+    @Mock
+    private WaitlistService waitlistService;
+
     @InjectMocks
     private EventController eventController;
 
@@ -82,18 +103,18 @@ public class EventControllerTest {
     @Test
     void getAllShortEvents_Success() {
         // Arrange
-        ShortEvent event1 = new ShortEvent(1L, "Event 1", 1L, true);
-        ShortEvent event2 = new ShortEvent(2L, "Event 2", 2L, true);
+        ShortEvent event1 = new ShortEvent(1L, "Event 1", 1L, true, 1);
+        ShortEvent event2 = new ShortEvent(2L, "Event 2", 2L, true, 1);
 
         // Create a filter with all null parameters (default filter)
         EventFilter filter = new EventFilter(null, null, null, null, null, null, null, null);
 
         when(userService.validateSession(testSessionId)).thenReturn(testUser);
-        when(eventService.getAllShortEvents(any(EventFilter.class))).thenReturn(Arrays.asList(event1, event2));
+        when(eventService.getAllShortEvents(any(EventFilter.class), isNull(), eq(50))).thenReturn(new CursorPage<>(Arrays.asList(event1, event2), null));
 
         // Act
         List<ShortEvent> result = eventController.getAllShortEvents(
-                testSessionId, null, null, null, null, null, null, null, null, null);
+                testSessionId, null, null, null, null, null, null, null, null, null, null, 50).getItems();
 
         // Assert
         assertNotNull(result);
@@ -104,7 +125,7 @@ public class EventControllerTest {
         assertEquals("Event 2", result.get(1).getName());
 
         verify(userService).validateSession(testSessionId);
-        verify(eventService).getAllShortEvents(any(EventFilter.class));
+        verify(eventService).getAllShortEvents(any(EventFilter.class), isNull(), eq(50));
     }
 
     //STORY11 As a user, I would like to be redirected to an event details page after creating an event
@@ -112,7 +133,7 @@ public class EventControllerTest {
     void getEvent_Success() {
         // Arrange
         when(userService.validateSession(testSessionId)).thenReturn(testUser);
-        when(eventService.getEventById(1L)).thenReturn(testEvent);
+        when(eventService.getEventDetails(1L)).thenReturn(testEvent);
 
         // Act
         Event result = eventController.getEvent(1L, testSessionId);
@@ -122,7 +143,7 @@ public class EventControllerTest {
         assertEquals(1L, result.getEventId());
         assertEquals("Test Event", result.getName());
         verify(userService).validateSession(testSessionId);
-        verify(eventService).getEventById(1L);
+        verify(eventService).getEventDetails(1L);
     }
 
     @Test
@@ -306,8 +327,8 @@ public class EventControllerTest {
         EventFilter expectedFilter = new EventFilter( null, null, null, null, null, null, null, null);
 
         List<ShortEvent> events = List.of(
-            new ShortEvent(1L, "Upcoming Event", 1L, true),
-            new ShortEvent(2L, "Another Event", 2L, true)
+            new ShortEvent(1L, "Upcoming Event", 1L, true, 1),
+            new ShortEvent(2L, "Another Event", 2L, true, 1)
         );
 
         when(userService.validateSession(testSessionId)).thenReturn(testUser);
@@ -320,17 +341,17 @@ public class EventControllerTest {
             filter.getLocationId() == null &&
             filter.getIncludePastEvents() == null &&
             filter.getOnlyFullEvents() == null
-        ))).thenReturn(events);
+        ), isNull(), eq(50))).thenReturn(new CursorPage<>(events, null));
 
         // Act
         List<ShortEvent> result = eventController.getAllShortEvents(
-                testSessionId, null, null, null, null, null, null, null, null, null);
+                testSessionId, null, null, null, null, null, null, null, null, null, null, 50).getItems();
 
         // Assert
         assertNotNull(result);
         assertEquals(2, result.size());
         verify(userService).validateSession(testSessionId);
-        verify(eventService).getAllShortEvents(any(EventFilter.class));
+        verify(eventService).getAllShortEvents(any(EventFilter.class), isNull(), eq(50));
     }
 
     //STORY10 As a user, I would like be filter through upcoming events
@@ -338,23 +359,23 @@ public class EventControllerTest {
     void getAllShortEvents_WithSearchFilter_FiltersCorrectly() {
         // Arrange
         String searchTerm = "Party";
-        List<ShortEvent> filteredEvents = List.of(new ShortEvent(3L, "Party Event", 3L, true));
+        List<ShortEvent> filteredEvents = List.of(new ShortEvent(3L, "Party Event", 3L, true, 1));
 
         when(userService.validateSession(testSessionId)).thenReturn(testUser);
         when(eventService.getAllShortEvents(argThat(filter ->
             searchTerm.equals(filter.getSearch()) &&
             filter.getMinUsers() == null
-        ))).thenReturn(filteredEvents);
+        ), isNull(), eq(50))).thenReturn(new CursorPage<>(filteredEvents, null));
 
         // Act
         List<ShortEvent> result = eventController.getAllShortEvents(
-                testSessionId, searchTerm, null, null, null, null, null, null, null, null);
+                testSessionId, searchTerm, null, null, null, null, null, null, null, null, null, 50).getItems();
 
         // Assert
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals("Party Event", result.get(0).getName());
-        verify(eventService).getAllShortEvents(any(EventFilter.class));
+        verify(eventService).getAllShortEvents(any(EventFilter.class), isNull(), eq(50));
     }
 
 
@@ -363,24 +384,24 @@ public class EventControllerTest {
         // Arrange
         Boolean includePastEvents = true;
         List<ShortEvent> allEvents = List.of(
-            new ShortEvent(1L, "Past Event", 1L, true),
-            new ShortEvent(2L, "Current Event", 2L, true),
-            new ShortEvent(3L, "Future Event", 3L, true)
+            new ShortEvent(1L, "Past Event", 1L, true, 1),
+            new ShortEvent(2L, "Current Event", 2L, true, 1),
+            new ShortEvent(3L, "Future Event", 3L, true, 1)
         );
 
         when(userService.validateSession(testSessionId)).thenReturn(testUser);
         when(eventService.getAllShortEvents(argThat(filter ->
             includePastEvents.equals(filter.getIncludePastEvents())
-        ))).thenReturn(allEvents);
+        ), isNull(), eq(50))).thenReturn(new CursorPage<>(allEvents, null));
 
         // Act
         List<ShortEvent> result = eventController.getAllShortEvents(
-                testSessionId, null, null, null, null, null, null, null, includePastEvents, null);
+                testSessionId, null, null, null, null, null, null, null, includePastEvents, null, null, 50).getItems();
 
         // Assert
         assertNotNull(result);
         assertEquals(3, result.size());
-        verify(eventService).getAllShortEvents(any(EventFilter.class));
+        verify(eventService).getAllShortEvents(any(EventFilter.class), isNull(), eq(50));
     }
 
     @Test
@@ -392,7 +413,7 @@ public class EventControllerTest {
         Boolean isPublic = true;
 
         List<ShortEvent> filteredEvents = List.of(
-            new ShortEvent(5L, "Event with combined filters", 5L, true)
+            new ShortEvent(5L, "Event with combined filters", 5L, true, 1)
         );
 
         when(userService.validateSession(testSessionId)).thenReturn(testUser);
@@ -400,17 +421,59 @@ public class EventControllerTest {
             searchTerm.equals(filter.getSearch()) &&
             minUsers.equals(filter.getMinUsers()) &&
             maxUsers.equals(filter.getMaxUsers())
-        ))).thenReturn(filteredEvents);
+        ), isNull(), eq(50))).thenReturn(new CursorPage<>(filteredEvents, null));
 
         // Act
         List<ShortEvent> result = eventController.getAllShortEvents(
-                testSessionId, searchTerm, minUsers, maxUsers, null, null, null, isPublic, null, null);
+                testSessionId, searchTerm, minUsers, maxUsers, null, null, null, isPublic, null, null, null, 50).getItems();
 
         // Assert
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals("Event with combined filters", result.get(0).getName());
-        verify(eventService).getAllShortEvents(any(EventFilter.class));
+        verify(eventService).getAllShortEvents(any(EventFilter.class), isNull(), eq(50));
+    }
+
+    @Test
+    void searchEventNames_ReturnsMatchesFromIndex() {
+        // Arrange
+        List<PrefixIndex.Match> matches = List.of(new PrefixIndex.Match(3L, "Étude Session"));
+        when(userService.validateSession(testSessionId)).thenReturn(testUser);
+        when(nameSearchService.searchEvents("etu", 8)).thenReturn(matches);
+
+        // Act
+        List<PrefixIndex.Match> result = eventController.searchEventNames(testSessionId, "etu", 8);
+
+        // Assert
+        assertEquals(matches, result);
+        verifyNoInteractions(eventService);
+    }
+
+    @Test
+    void joinWaitlist_ReturnsPosition() {
+        // Arrange
+        when(userService.validateSession(testSessionId)).thenReturn(testUser);
+        when(waitlistService.joinWaitlist(1L, testUser)).thenReturn(3);
+
+        // Act
+        ResponseEntity<?> response = eventController.joinWaitlist(1L, testSessionId);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(Map.of("position", 3), response.getBody());
+    }
+
+    @Test
+    void leaveWaitlist_NotWaiting_ReturnsBadRequest() {
+        // Arrange
+        when(userService.validateSession(testSessionId)).thenReturn(testUser);
+        when(waitlistService.leaveWaitlist(1L, testUser.getUserEmail())).thenReturn(false);
+
+        // Act
+        ResponseEntity<?> response = eventController.leaveWaitlist(1L, testSessionId);
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
     }
 
     @Test
@@ -421,7 +484,7 @@ public class EventControllerTest {
 
         // Act & Assert
         assertThrows(InvalidSessionException.class, () ->
-            eventController.getAllShortEvents(testSessionId, null, null, null, null, null, null, null, null, null));
+            eventController.getAllShortEvents(testSessionId, null, null, null, null, null, null, null, null, null, null, 50));
 
         verify(userService).validateSession(testSessionId);
         verifyNoInteractions(eventService);
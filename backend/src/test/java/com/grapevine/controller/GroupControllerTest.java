@@ -88,7 +88,7 @@ public class GroupControllerTest {
     @Test
     void getAllShortGroups_FilterPublic() {
         // Arrange
-        ShortGroup group1 = new ShortGroup(1L, "Group 1", true, true);
+        ShortGroup group1 = new ShortGroup(1L, "Group 1", true, true, 1);
         List<ShortGroup> publicGroups = Arrays.asList(group1);
 
         when(userService.validateSession(testSessionId)).thenReturn(testUser);
@@ -110,7 +110,7 @@ public class GroupControllerTest {
     @Test
     void getAllShortGroups_FilterPrivate() {
         // Arrange
-        ShortGroup group2 = new ShortGroup(2L, "Group 2", false, false);
+        ShortGroup group2 = new ShortGroup(2L, "Group 2", false, false, 1);
         List<ShortGroup> privateGroups = Arrays.asList(group2);
 
         when(userService.validateSession(testSessionId)).thenReturn(testUser);
@@ -172,7 +172,7 @@ public class GroupControllerTest {
     void getGroup_Success() {
         // Arrange
         when(userService.validateSession(testSessionId)).thenReturn(testUser);
-        when(groupService.getGroupById(1L)).thenReturn(testGroup);
+        when(groupService.getGroupDetails(1L)).thenReturn(testGroup);
 
         // Act
         Group result = groupController.getGroup(1L, testSessionId);
@@ -183,7 +183,7 @@ public class GroupControllerTest {
         assertEquals("Test Group", result.getName());
         assertTrue(result.isPublic());
         verify(userService).validateSession(testSessionId);
-        verify(groupService).getGroupById(1L);
+        verify(groupService).getGroupDetails(1L);
     }
 
     @Test
@@ -239,8 +239,8 @@ public class GroupControllerTest {
     void getAllShortGroups_NoFilterParameter_ReturnsAllGroups() {
         // Arrange
         List<ShortGroup> allGroups = List.of(
-            new ShortGroup(1L, "Public Group", true, false),
-            new ShortGroup(2L, "Private Group", false, false)
+            new ShortGroup(1L, "Public Group", true, false, 1),
+            new ShortGroup(2L, "Private Group", false, false, 1)
         );
 
         when(userService.validateSession(testSessionId)).thenReturn(testUser);
@@ -257,6 +257,26 @@ public class GroupControllerTest {
         verifyNoMoreInteractions(groupService);
     }
 
+    @Test
+    void getGroupRankings_ReturnsCourseLeaderboard() {
+        // Arrange
+        List<RankedGroup> rankings = List.of(
+            new RankedGroup(2L, "CS307 Grinders", "CS30700", 2.4),
+            new RankedGroup(1L, "Test Group", "CS30700", 1.1)
+        );
+
+        when(userService.validateSession(testSessionId)).thenReturn(testUser);
+        when(groupService.getGroupRankings("trending", "CS30700", 5)).thenReturn(rankings);
+
+        // Act
+        List<RankedGroup> result = groupController.getGroupRankings(testSessionId, "trending", "CS30700", 5);
+
+        // Assert
+        assertEquals(rankings, result);
+        verify(userService).validateSession(testSessionId);
+        verify(groupService).getGroupRankings("trending", "CS30700", 5);
+    }
+
     @Test
     void getAllShortGroups_InvalidSession_ThrowsException() {
         // Arrange
@@ -291,8 +311,8 @@ public class GroupControllerTest {
         // Arrange
         Long groupId = 1L;
         List<ShortEvent> events = List.of(
-                new ShortEvent(1L, "Upcoming Event", 1L, true),
-                new ShortEvent(2L, "Another Event", 2L, true)
+                new ShortEvent(1L, "Upcoming Event", 1L, true, 1),
+                new ShortEvent(2L, "Another Event", 2L, true, 1)
         );
 
         when(userService.validateSession(testSessionId)).thenReturn(testUser);
@@ -313,7 +333,7 @@ public class GroupControllerTest {
         // Arrange
         Long groupId = 1L;
         String searchTerm = "Party";
-        List<ShortEvent> filteredEvents = List.of(new ShortEvent(3L, "Party Event", 3L, true));
+        List<ShortEvent> filteredEvents = List.of(new ShortEvent(3L, "Party Event", 3L, true, 1));
 
         when(userService.validateSession(testSessionId)).thenReturn(testUser);
         when(eventService.getShortEventsByGroupId(groupId)).thenReturn(filteredEvents);
@@ -336,8 +356,8 @@ public class GroupControllerTest {
         Long endTime = 1704067199L; // 2023-12-31T23:59:59
 
         List<ShortEvent> filteredEvents = List.of(
-                new ShortEvent(1L, "Event in December 1", 1L, true),
-                new ShortEvent(2L, "Event in December 2", 2L, true)
+                new ShortEvent(1L, "Event in December 1", 1L, true, 1),
+                new ShortEvent(2L, "Event in December 2", 2L, true, 1)
         );
 
         when(userService.validateSession(testSessionId)).thenReturn(testUser);
@@ -358,8 +378,8 @@ public class GroupControllerTest {
         // Arrange
         Long groupId = 1L;
         List<ShortEvent> filteredEvents = List.of(
-                new ShortEvent(1L, "Public Event 1", 1L, true),
-                new ShortEvent(3L, "Public Event 2", 3L, true)
+                new ShortEvent(1L, "Public Event 1", 1L, true, 1),
+                new ShortEvent(3L, "Public Event 2", 3L, true, 1)
         );
 
         when(userService.validateSession(testSessionId)).thenReturn(testUser);
@@ -380,9 +400,9 @@ public class GroupControllerTest {
         // Arrange
         Long groupId = 1L;
         List<ShortEvent> allEvents = List.of(
-                new ShortEvent(1L, "Past Event", 1L, true),
-                new ShortEvent(2L, "Current Event", 2L,true),
-                new ShortEvent(3L, "Future Event", 3L, true)
+                new ShortEvent(1L, "Past Event", 1L, true, 1),
+                new ShortEvent(2L, "Current Event", 2L,true, 1),
+                new ShortEvent(3L, "Future Event", 3L, true, 1)
         );
 
         when(userService.validateSession(testSessionId)).thenReturn(testUser);
@@ -403,7 +423,7 @@ public class GroupControllerTest {
         // Arrange
         Long groupId = 1L;
         List<ShortEvent> filteredEvents = List.of(
-                new ShortEvent(5L, "Event with combined filters", 5L, true)
+                new ShortEvent(5L, "Event with combined filters", 5L, true, 1)
         );
 
         when(userService.validateSession(testSessionId)).thenReturn(testUser);
@@ -443,8 +463,6 @@ public class GroupControllerTest {
         Long groupId = 1L;
         Group mockGroup = new Group();
         mockGroup.setPublic(false);
-        mockGroup.setParticipants(List.of()); // Initialize empty list to avoid NPE
-        mockGroup.setHosts(List.of());        // Initialize empty list to avoid NPE
 
         when(userService.validateSession(testSessionId)).thenReturn(testUser);
         when(groupService.getGroupById(groupId)).thenReturn(mockGroup);
@@ -460,6 +478,59 @@ public class GroupControllerTest {
         verify(groupService).sendGroupAccessRequests(groupId, testUser);
     }
 
+    @Test
+    void requestGroupAccess_AlreadyMember_ReturnsBadRequest() {
+        // Arrange
+        Group privateGroup = new Group();
+        privateGroup.setGroupId(1L);
+        privateGroup.setPublic(false);
+
+        when(userService.validateSession(testSessionId)).thenReturn(testUser);
+        when(groupService.getGroupById(1L)).thenReturn(privateGroup);
+        when(groupService.isMember(1L, testUser.getUserEmail())).thenReturn(true);
+
+        // Act
+        ResponseEntity<?> response = groupController.requestGroupAccess(1L, testSessionId);
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verify(groupService, never()).sendGroupAccessRequests(any(), any());
+    }
+
+    @Test
+    void getGroupMembers_ReturnsRosterPage() {
+        // Arrange
+        CursorPage<GroupMember> page = new CursorPage<>(
+                List.of(new GroupMember(1L, "member@example.com", MemberRole.PARTICIPANT)), "42");
+
+        when(userService.validateSession(testSessionId)).thenReturn(testUser);
+        when(groupService.getGroupById(1L)).thenReturn(testGroup);
+        when(groupService.getGroupMembers(1L, "7", 50, null)).thenReturn(page);
+
+        // Act
+        ResponseEntity<?> response = groupController.getGroupMembers(1L, testSessionId, "7", 50, null);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertSame(page, response.getBody());
+    }
+
+    @Test
+    void getGroupMembers_PrivateGroupNonMember_ReturnsForbidden() {
+        // Arrange
+        testGroup.setPublic(false);
+        when(userService.validateSession(testSessionId)).thenReturn(testUser);
+        when(groupService.getGroupById(1L)).thenReturn(testGroup);
+        when(groupService.isMember(1L, testUser.getUserEmail())).thenReturn(false);
+
+        // Act
+        ResponseEntity<?> response = groupController.getGroupMembers(1L, testSessionId, null, 50, null);
+
+        // Assert
+        assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
+        verify(groupService, never()).getGroupMembers(any(), any(), anyInt(), any());
+    }
+
     @Test
     void requestGroupAccess_InvalidSession() {
         // Arrange
@@ -3,7 +3,9 @@ package com.grapevine.controller;
 import com.grapevine.exception.InvalidSessionException;
 import com.grapevine.exception.ResourceNotFoundException;
 import com.grapevine.model.Comment;
+import com.grapevine.model.CursorPage;
 import com.grapevine.model.Thread;
+import com.grapevine.model.ThreadSummary;
 import com.grapevine.model.User;
 import com.grapevine.service.NotificationService;
 import com.grapevine.service.ThreadService;
@@ -14,6 +16,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.time.ZonedDateTime;
 import java.util.Arrays;
@@ -70,7 +73,6 @@ class ThreadControllerTest {
         testThread.setCreatedAt(ZonedDateTime.now());
         testThread.setUpvotes(0);
         testThread.setDownvotes(0);
-        testThread.setVotes(Collections.emptyMap());
         testThread.setComments(Collections.emptyList());
         testThread.setNotificationsEnabled(true);
 
@@ -85,20 +87,23 @@ class ThreadControllerTest {
     @Test
     void getAllThreads_Success() {
         // Arrange
-        List<Thread> threads = Arrays.asList(testThread);
+        ThreadSummary summary = new ThreadSummary(1L, "Test Thread", "Test Description", "test@example.com",
+                "Test User", User.Role.STUDENT, null, null, 0, 0, 0, ZonedDateTime.now(), ZonedDateTime.now());
+        CursorPage<ThreadSummary> page = new CursorPage<>(List.of(summary), "2025-04-01T22:00:00Z_1");
         when(userService.validateSession(testSessionId)).thenReturn(testUser);
-        when(threadService.getAllThreads()).thenReturn(threads);
+        when(threadService.getAllThreads(null, null, null, null, 50)).thenReturn(page);
 
         // Act
-        ResponseEntity<List<Thread>> response = threadController.getAllThreads(testSessionId);
+        ResponseEntity<CursorPage<ThreadSummary>> response = threadController.getAllThreads(testSessionId, null, null, null, null, 50);
 
         // Assert
         assertNotNull(response);
         assertEquals(200, response.getStatusCodeValue());
-        assertEquals(1, response.getBody().size());
-        assertEquals(testThread, response.getBody().get(0));
+        assertEquals(1, response.getBody().getItems().size());
+        assertEquals(summary, response.getBody().getItems().get(0));
+        assertEquals("2025-04-01T22:00:00Z_1", response.getBody().getNextCursor());
         verify(userService).validateSession(testSessionId);
-        verify(threadService).getAllThreads();
+        verify(threadService).getAllThreads(null, null, null, null, 50);
     }
 
     @Test
@@ -108,7 +113,7 @@ class ThreadControllerTest {
                 .thenThrow(new InvalidSessionException("Invalid session"));
 
         // Act & Assert
-        assertThrows(InvalidSessionException.class, () -> threadController.getAllThreads(testSessionId));
+        assertThrows(InvalidSessionException.class, () -> threadController.getAllThreads(testSessionId, null, null, null, null, 50));
         verify(userService).validateSession(testSessionId);
         verifyNoInteractions(threadService);
     }
@@ -117,7 +122,7 @@ class ThreadControllerTest {
     void getThreadById_Success() {
         // Arrange
         when(userService.validateSession(testSessionId)).thenReturn(testUser);
-        when(threadService.getThreadById(1L)).thenReturn(testThread);
+        when(threadService.viewThread(1L, testUser.getUserEmail())).thenReturn(testThread);
 
         // Act
         ResponseEntity<Thread> response = threadController.getThreadById(1L, testSessionId);
@@ -126,7 +131,7 @@ class ThreadControllerTest {
         assertEquals(200, response.getStatusCodeValue());
         assertEquals(testThread, response.getBody());
         verify(userService).validateSession(testSessionId);
-        verify(threadService).getThreadById(1L);
+        verify(threadService).viewThread(1L, testUser.getUserEmail());
     }
 
     // STORY 10 (sprint 3)  (zhao)
@@ -152,14 +157,14 @@ class ThreadControllerTest {
         // Arrange
         testThread.setNotificationsEnabled(true);
         when(userService.validateSession(testSessionId)).thenReturn(otherUser);
-        when(threadService.addComment(eq(1L), any(Comment.class))).thenReturn(testThread);
+        when(threadService.addComment(eq(1L), any(Comment.class))).thenReturn(testComment);
 
         // Act
-        ResponseEntity<Thread> response = threadController.addComment(1L, testComment, testSessionId);
+        ResponseEntity<Comment> response = threadController.addComment(1L, testComment, testSessionId);
 
         // Assert
         assertEquals(200, response.getStatusCodeValue());
-        assertEquals(testThread, response.getBody());
+        assertEquals(testComment, response.getBody());
         verify(userService).validateSession(testSessionId);
         verify(threadService).addComment(eq(1L), any(Comment.class));
     }
@@ -169,31 +174,87 @@ class ThreadControllerTest {
         // Arrange
         testThread.setNotificationsEnabled(false);
         when(userService.validateSession(testSessionId)).thenReturn(otherUser);
-        when(threadService.addComment(eq(1L), any(Comment.class))).thenReturn(testThread);
+        when(threadService.addComment(eq(1L), any(Comment.class))).thenReturn(testComment);
 
         // Act
-        ResponseEntity<Thread> response = threadController.addComment(1L, testComment, testSessionId);
+        ResponseEntity<Comment> response = threadController.addComment(1L, testComment, testSessionId);
 
         // Assert
         assertEquals(200, response.getStatusCodeValue());
-        assertEquals(testThread, response.getBody());
+        assertEquals(testComment, response.getBody());
         verify(userService).validateSession(testSessionId);
         verify(threadService).addComment(eq(1L), any(Comment.class));
     }
 
     // STORY 12 (sprint 3)  (zhao)
+    @Test
+    void deleteComment_OtherUsersComment_Forbidden() {
+        // Arrange - testComment was written by other@example.com
+        when(userService.validateSession(testSessionId)).thenReturn(testUser);
+        when(threadService.getComment(1L, 1L)).thenReturn(testComment);
+
+        // Act & Assert
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> threadController.deleteComment(1L, 1L, testSessionId));
+        assertEquals(403, exception.getStatusCode().value());
+        verify(threadService, never()).deleteComment(anyLong(), anyLong());
+    }
+
+    @Test
+    void deleteComment_OwnComment_NoContent() {
+        // Arrange
+        when(userService.validateSession(testSessionId)).thenReturn(otherUser);
+        when(threadService.getComment(1L, 1L)).thenReturn(testComment);
+
+        // Act
+        ResponseEntity<Void> response = threadController.deleteComment(1L, 1L, testSessionId);
+
+        // Assert
+        assertEquals(204, response.getStatusCode().value());
+        verify(threadService).deleteComment(1L, 1L);
+    }
+
+    @Test
+    void likeComment_ReturnsUpdatedCount() {
+        // Arrange
+        when(userService.validateSession(testSessionId)).thenReturn(testUser);
+        when(threadService.likeComment(1L, 1L, testUser.getUserEmail())).thenReturn(42);
+
+        // Act
+        ResponseEntity<Map<String, Integer>> response = threadController.likeComment(1L, 1L, testSessionId);
+
+        // Assert
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(Map.of("likes", 42), response.getBody());
+        verify(threadService).likeComment(1L, 1L, testUser.getUserEmail());
+    }
+
+    @Test
+    void followThread_FollowsAsCurrentUser() {
+        // Arrange
+        when(userService.validateSession(testSessionId)).thenReturn(testUser);
+
+        // Act
+        ResponseEntity<Map<String, Boolean>> response = threadController.followThread(1L, testSessionId);
+
+        // Assert
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(Map.of("following", true), response.getBody());
+        verify(threadService).followThread(1L, testUser.getUserEmail());
+    }
+
     @Test
     void upvoteThread_Success() {
         // Arrange
         when(userService.validateSession(testSessionId)).thenReturn(testUser);
-        when(threadService.upvoteThread(1L, testUser.getUserEmail())).thenReturn(testThread);
+        when(threadService.upvoteThread(1L, testUser.getUserEmail())).thenReturn(1);
 
         // Act
-        ResponseEntity<Thread> response = threadController.upvoteThread(1L, testSessionId);
+        ResponseEntity<Map<String, Integer>> response = threadController.upvoteThread(1L, testSessionId);
 
         // Assert
         assertEquals(200, response.getStatusCodeValue());
-        assertEquals(testThread, response.getBody());
+        assertEquals(Map.of("vote", 1), response.getBody());
         verify(userService).validateSession(testSessionId);
         verify(threadService).upvoteThread(1L, testUser.getUserEmail());
     }
@@ -202,14 +263,14 @@ class ThreadControllerTest {
     void downvoteThread_Success() {
         // Arrange
         when(userService.validateSession(testSessionId)).thenReturn(testUser);
-        when(threadService.downvoteThread(1L, testUser.getUserEmail())).thenReturn(testThread);
+        when(threadService.downvoteThread(1L, testUser.getUserEmail())).thenReturn(-1);
 
         // Act
-        ResponseEntity<Thread> response = threadController.downvoteThread(1L, testSessionId);
+        ResponseEntity<Map<String, Integer>> response = threadController.downvoteThread(1L, testSessionId);
 
         // Assert
         assertEquals(200, response.getStatusCodeValue());
-        assertEquals(testThread, response.getBody());
+        assertEquals(Map.of("vote", -1), response.getBody());
         verify(userService).validateSession(testSessionId);
         verify(threadService).downvoteThread(1L, testUser.getUserEmail());
     }
@@ -6,6 +6,8 @@ import com.grapevine.exception.UserAlreadyExistsException;
 import com.grapevine.model.*;
 import com.grapevine.model.login.LoginRequest;
 import com.grapevine.model.login.LoginResponse;
+import com.grapevine.service.CalendarService;
+import com.grapevine.service.ScheduleService;
 import com.grapevine.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -15,6 +17,10 @@ import org.mockito.MockitoAnnotations;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 
 import java.time.LocalDate;
 import java.util.*;
@@ -22,6 +28,7 @@ import java.util.*;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class UserControllerTest {
@@ -29,6 +36,12 @@ class UserControllerTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private ScheduleService scheduleService;
+
+    @Mock
+    private CalendarService calendarService;
+
     @InjectMocks
     private UserController userController;
 
@@ -251,7 +264,7 @@ class UserControllerTest {
     @Test
     void getAllShortGroups_Success() {
         // Arrange
-        ShortGroup shortGroup = new ShortGroup(1L, "Test Group", true, false);
+        ShortGroup shortGroup = new ShortGroup(1L, "Test Group", true, false, 1);
         List<ShortGroup> shortGroups = Arrays.asList(shortGroup);
 
         when(userService.validateSession(testSessionId)).thenReturn(testUser);
@@ -290,7 +303,7 @@ class UserControllerTest {
     @Test
     void getAllShortEvents_Success() {
         // Arrange
-        ShortEvent shortEvent = new ShortEvent(1L, "Test Event", 1L, true);
+        ShortEvent shortEvent = new ShortEvent(1L, "Test Event", 1L, true, 1);
         List<ShortEvent> shortEvents = Arrays.asList(shortEvent);
 
         when(userService.validateSession(testSessionId)).thenReturn(testUser);
@@ -728,4 +741,96 @@ class UserControllerTest {
         verify(userService).validateSession(testSessionId);
         verify(userService).searchUsersByNameWithFilters(query, majors, role, locationIds);
     }
-}
\ No newline at end of file
+
+    @Test
+    void getCalendarFeed_MatchingETagReturnsNotModifiedWithoutBuildingFeed() throws IOException {
+        // Arrange - a calendar app polling with the user's feed token
+        when(calendarService.isFeedToken("test@example.com", "feed-token")).thenReturn(true);
+        when(calendarService.feedTag("test@example.com")).thenReturn("\"abc123\"");
+
+        // Act
+        ResponseEntity<StreamingResponseBody> response = userController.getCalendarFeed(
+                "test@example.com", null, "feed-token", "W/\"abc123\"");
+
+        // Assert
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals("\"abc123\"", response.getHeaders().getETag());
+        assertNull(response.getBody());
+        verify(calendarService, never()).writeFeed(anyString(), any());
+        verifyNoInteractions(userService);
+    }
+
+    @Test
+    void getCalendarFeed_SessionIdInTheUrlIsNotAccepted() {
+        // Arrange - a session id passed where the feed token belongs
+        when(userService.validateSession(testSessionId)).thenReturn(testUser);
+
+        // Act & Assert
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> userController.getCalendarFeed("test@example.com", null, testSessionId, null));
+        assertEquals(HttpStatus.UNAUTHORIZED, exception.getStatusCode());
+        verify(userService, never()).validateSession(anyString());
+        verify(calendarService, never()).feedTag(anyString());
+    }
+
+    @Test
+    void issueCalendarFeedToken_ReturnsANewTokenForYourOwnFeedOnly() {
+        // Arrange
+        when(userService.validateSession(testSessionId)).thenReturn(testUser);
+        when(calendarService.issueFeedToken("test@example.com")).thenReturn("new-token");
+
+        // Act
+        ResponseEntity<Map<String, String>> response =
+                userController.issueCalendarFeedToken("test@example.com", testSessionId);
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> userController.issueCalendarFeedToken("other@example.com", testSessionId));
+
+        // Assert
+        assertEquals(Map.of("token", "new-token"), response.getBody());
+        assertEquals(HttpStatus.FORBIDDEN, exception.getStatusCode());
+        verify(calendarService, never()).issueFeedToken("other@example.com");
+    }
+
+    @Test
+    void revokeCalendarFeedToken_RevokesTheToken() {
+        // Arrange
+        when(userService.validateSession(testSessionId)).thenReturn(testUser);
+
+        // Act
+        ResponseEntity<Void> response = userController.revokeCalendarFeedToken("test@example.com", testSessionId);
+
+        // Assert
+        assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
+        verify(calendarService).revokeFeedToken("test@example.com");
+    }
+
+    @Test
+    void getCalendarFeed_StaleETagStreamsFeed() throws IOException {
+        // Arrange
+        when(userService.validateSession(testSessionId)).thenReturn(testUser);
+        when(calendarService.feedTag("test@example.com")).thenReturn("\"new\"");
+
+        // Act
+        ResponseEntity<StreamingResponseBody> response = userController.getCalendarFeed(
+                "test@example.com", testSessionId, null, "\"old\"");
+        response.getBody().writeTo(new ByteArrayOutputStream());
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("\"new\"", response.getHeaders().getETag());
+        assertEquals("text", response.getHeaders().getContentType().getType());
+        verify(calendarService).writeFeed(eq("test@example.com"), any());
+    }
+
+    @Test
+    void getCalendarFeed_OtherUsersCalendarIsForbidden() {
+        // Arrange
+        when(userService.validateSession(testSessionId)).thenReturn(testUser);
+
+        // Act & Assert
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> userController.getCalendarFeed("other@example.com", testSessionId, null, null));
+        assertEquals(HttpStatus.FORBIDDEN, exception.getStatusCode());
+        verifyNoInteractions(calendarService);
+    }
+}
@@ -0,0 +1,147 @@
+package com.grapevine.repository;
+
+import com.grapevine.model.Comment;
+import com.grapevine.model.CommentLike;
+import com.grapevine.model.Thread;
+import com.grapevine.service.CommentLikeAggregator;
+import com.grapevine.service.ThreadService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Fires hundreds of simultaneous likes, repeats and unlikes at a single comment and checks that its like counter
+ * ends up matching the comment_likes rows, both as returned with pending likes and once flushed.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class CommentLikeConcurrencyTest {
+
+    private static final int USERS = 300;
+
+    @Autowired
+    private ThreadRepository threadRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private CommentLikeRepository commentLikeRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private CommentLikeAggregator commentLikeAggregator;
+    private ThreadService threadService;
+    private TransactionTemplate tx;
+    private Long threadId;
+    private Long commentId;
+
+    @BeforeEach
+    void setUp() {
+        commentLikeAggregator = new CommentLikeAggregator(commentRepository);
+        threadService = new ThreadService(threadRepository, commentRepository, commentLikeRepository,
+                commentLikeAggregator, null, null, null, null, null, null, null, null);
+        tx = new TransactionTemplate(transactionManager);
+
+        Thread thread = new Thread();
+        thread.setTitle("Best CS 180 answer");
+        thread.setAuthorEmail("author@example.com");
+        thread.setAuthorName("Author");
+        threadId = threadRepository.save(thread).getThreadId();
+
+        Comment comment = new Comment();
+        comment.setThread(thread);
+        comment.setContent("Start the project early");
+        comment.setAuthorEmail("helper@example.com");
+        comment.setAuthorName("Helper");
+        commentId = commentRepository.save(comment).getCommentId();
+    }
+
+    @Test
+    void concurrentLikes_FromDistinctUsers_AreAllCountedOnce() throws InterruptedException {
+        // Act - every user likes twice, racing their own first like
+        runConcurrently(USERS * 2, i -> threadService.likeComment(threadId, commentId, "user" + (i % USERS) + "@example.com"));
+
+        // Assert - the count is right before and after the flush
+        assertEquals(USERS, threadService.likeComment(threadId, commentId, "user0@example.com"));
+        commentLikeAggregator.flush();
+        assertEquals(USERS, storedLikes());
+    }
+
+    @Test
+    void concurrentLikesAndUnlikes_CounterMatchesLikeRows() throws InterruptedException {
+        // Act - a third of the users take their like back, possibly before it lands
+        runConcurrently(USERS + USERS / 3, i -> {
+            String userEmail = "user" + (i % USERS) + "@example.com";
+            if (i < USERS) {
+                threadService.likeComment(threadId, commentId, userEmail);
+            } else {
+                threadService.unlikeComment(threadId, commentId, userEmail);
+            }
+        });
+
+        // Assert
+        int liked = 0;
+        for (int i = 0; i < USERS; i++) {
+            if (commentLikeRepository.existsById(new CommentLike.Key(commentId, "user" + i + "@example.com"))) {
+                liked++;
+            }
+        }
+        commentLikeAggregator.flush();
+        assertEquals(liked, storedLikes());
+        assertEquals(liked, threadService.unlikeComment(threadId, commentId, "nobody@example.com"));
+    }
+
+    private int storedLikes() {
+        return tx.execute(status -> commentRepository.findById(commentId).orElseThrow().getLikes());
+    }
+
+    /**
+     * Releases all requests at once and fails if any of them errored.
+     */
+    private void runConcurrently(int attempts, IntConsumer like) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(32);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(attempts);
+        AtomicInteger failed = new AtomicInteger();
+
+        for (int i = 0; i < attempts; i++) {
+            final int attempt = i;
+            pool.submit(() -> {
+                try {
+                    start.await();
+                    like.accept(attempt);
+                } catch (Exception e) {
+                    failed.incrementAndGet();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        start.countDown();
+        assertTrue(done.await(60, TimeUnit.SECONDS), "Likes did not finish in time");
+        pool.shutdown();
+
+        assertEquals(0, failed.get(), "Every like should be applied, not fail");
+    }
+}
@@ -0,0 +1,92 @@
+package com.grapevine.repository;
+
+import com.grapevine.model.Comment;
+import com.grapevine.model.Thread;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Walks a thread's comments page by page with the (createdAt, commentId) keyset queries and checks every comment
+ * comes back once, in order, without touching other threads' comments.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+public class CommentPaginationTest {
+
+    @Autowired
+    private ThreadRepository threadRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Test
+    void keysetPages_ReturnEveryCommentOnceInOrder() {
+        // Arrange
+        Thread thread = threadRepository.save(thread("Paged"));
+        Thread other = threadRepository.save(thread("Other"));
+        List<Long> expected = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            expected.add(commentRepository.save(comment(thread, "Reply " + i)).getCommentId());
+            commentRepository.save(comment(other, "Elsewhere " + i));
+        }
+
+        // Act
+        List<Long> seen = new ArrayList<>();
+        List<Comment> page = commentRepository.findFirstByThread(thread.getThreadId(), Limit.of(3));
+        while (!page.isEmpty()) {
+            page.forEach(comment -> seen.add(comment.getCommentId()));
+            Comment last = page.get(page.size() - 1);
+            page = commentRepository.findByThreadAfter(thread.getThreadId(), last.getCreatedAt(),
+                    last.getCommentId(), Limit.of(3));
+        }
+
+        // Assert
+        assertEquals(expected, seen);
+    }
+
+    @Test
+    void deleteByThreadId_OnlyRemovesThatThreadsComments() {
+        // Arrange
+        Thread thread = threadRepository.save(thread("Deleted"));
+        Thread other = threadRepository.save(thread("Kept"));
+        commentRepository.save(comment(thread, "Gone"));
+        commentRepository.save(comment(thread, "Also gone"));
+        commentRepository.save(comment(other, "Stays"));
+
+        // Act
+        int deleted = commentRepository.deleteByThreadId(thread.getThreadId());
+
+        // Assert
+        assertEquals(2, deleted);
+        assertTrue(commentRepository.findFirstByThread(thread.getThreadId(), Limit.of(10)).isEmpty());
+        assertEquals(1, commentRepository.findFirstByThread(other.getThreadId(), Limit.of(10)).size());
+    }
+
+    private static Thread thread(String title) {
+        Thread thread = new Thread();
+        thread.setTitle(title);
+        thread.setDescription("");
+        thread.setAuthorEmail("author@example.com");
+        thread.setAuthorName("Author");
+        return thread;
+    }
+
+    private static Comment comment(Thread thread, String content) {
+        Comment comment = new Comment();
+        comment.setThread(thread);
+        comment.setContent(content);
+        comment.setAuthorEmail("reader@example.com");
+        comment.setAuthorName("Reader");
+        return comment;
+    }
+}
@@ -0,0 +1,117 @@
+package com.grapevine.repository;
+
+import com.grapevine.model.Event;
+import com.grapevine.model.EventFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the browse-page predicates against the database to check that each EventFilter field
+ * is translated to the same condition the old in-memory filter applied.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+public class EventSpecificationsTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 1, 15, 12, 0);
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @BeforeEach
+    void setUp() {
+        eventRepository.deleteAll();
+        save("Calculus Review", NOW.plusDays(1), 1L, 3, 10, true);
+        save("calculus Finals Cram", NOW.plusDays(3), 2L, 5, 5, true);
+        save("Physics Lab Prep", NOW.plusDays(2), 1L, 7, 10, true);
+        save("Old Calculus Session", NOW.minusDays(2), 1L, 2, 10, true);
+        save("Private Calculus", NOW.plusDays(1), 1L, 1, 10, false);
+        save("100% Attendance", NOW.plusDays(4), 3L, 1, 10, true);
+    }
+
+    @Test
+    void matching_DefaultFilter_OnlyReturnsPublicUpcomingEvents() {
+        List<String> names = names(filter(null, null, null, null, null, null, null, null));
+
+        assertEquals(List.of("Calculus Review", "Physics Lab Prep", "calculus Finals Cram", "100% Attendance"), names);
+    }
+
+    @Test
+    void matching_SearchIsCaseInsensitivePrefix() {
+        assertEquals(List.of("Calculus Review", "calculus Finals Cram"),
+                names(filter("CALC", null, null, null, null, null, null, null)));
+        // Wildcards in the search text are matched literally
+        assertEquals(List.of("100% Attendance"), names(filter("100%", null, null, null, null, null, null, null)));
+        assertTrue(names(filter("%", null, null, null, null, null, null, null)).isEmpty());
+    }
+
+    @Test
+    void matching_MemberCountRangeAndOnlyFull() {
+        assertEquals(List.of("Calculus Review", "calculus Finals Cram"),
+                names(filter(null, 3, 5, null, null, null, null, null)));
+        assertEquals(List.of("calculus Finals Cram"),
+                names(filter(null, null, null, null, null, null, null, true)));
+    }
+
+    @Test
+    void matching_TimeWindowLocationAndPastEvents() {
+        assertEquals(List.of("Physics Lab Prep", "calculus Finals Cram"),
+                names(filter(null, null, null, NOW.plusDays(2).toString(), NOW.plusDays(3).toString(), null, null, null)));
+        assertEquals(List.of("Calculus Review", "Physics Lab Prep"),
+                names(filter(null, null, null, null, null, 1L, null, null)));
+        assertEquals(List.of("Old Calculus Session", "Calculus Review", "Physics Lab Prep"),
+                names(filter(null, null, null, null, null, 1L, true, null)));
+    }
+
+    @Test
+    void timedAfter_ContinuesFromCursorIncludingTies() {
+        // Arrange - two events at the same time are ordered by id
+        Event first = save("Tie A", NOW.plusDays(5), 4L, 1, 10, true);
+        Event second = save("Tie B", NOW.plusDays(5), 4L, 1, 10, true);
+        Specification<Event> matching = EventSpecifications.matching(
+                filter(null, null, null, null, null, 4L, null, null), NOW);
+
+        // Act
+        List<Event> page = eventRepository.findAll(
+                matching.and(EventSpecifications.timedAfter(first.getEventTime(), first.getEventId())),
+                Sort.by("eventTime", "eventId"));
+
+        // Assert
+        assertEquals(1, page.size());
+        assertEquals(second.getEventId(), page.get(0).getEventId());
+    }
+
+    private List<String> names(EventFilter filter) {
+        return eventRepository.findAll(EventSpecifications.matching(filter, NOW), Sort.by("eventTime", "eventId"))
+                .stream().map(Event::getName).toList();
+    }
+
+    private static EventFilter filter(String search, Integer minUsers, Integer maxUsers, String startTime,
+                                      String endTime, Long locationId, Boolean includePast, Boolean onlyFull) {
+        return new EventFilter(search, minUsers, maxUsers, startTime, endTime, locationId, includePast, onlyFull);
+    }
+
+    private Event save(String name, LocalDateTime eventTime, Long locationId, int memberCount, int maxUsers, boolean isPublic) {
+        Event event = new Event();
+        event.setName(name);
+        event.setEventTime(eventTime);
+        event.setLocationId(locationId);
+        event.setMemberCount(memberCount);
+        event.setMaxUsers(maxUsers);
+        event.setIsPublic(isPublic);
+        event.setGroupId(1L);
+        return eventRepository.save(event);
+    }
+}
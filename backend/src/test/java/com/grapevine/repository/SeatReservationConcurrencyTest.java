@@ -0,0 +1,193 @@
+package com.grapevine.repository;
+
+import com.grapevine.model.Event;
+import com.grapevine.model.EventMember;
+import com.grapevine.model.Group;
+import com.grapevine.model.GroupMember;
+import com.grapevine.model.MemberRole;
+import com.grapevine.model.User;
+import com.grapevine.service.AccessRequestNotifier;
+import com.grapevine.service.EmailService;
+import com.grapevine.service.EventService;
+import com.grapevine.service.GroupRankingService;
+import com.grapevine.service.GroupService;
+import com.grapevine.service.NameSearchService;
+import com.grapevine.service.ScheduleService;
+import com.grapevine.service.UpcomingEventService;
+import com.grapevine.service.UserService;
+import com.grapevine.service.WaitlistService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataAccessException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Fires 500 simultaneous joins at a single event/group through EventService.joinEvent and
+ * GroupService.joinPublicGroup, each in its own transaction as the service proxy would run it. Every user joins
+ * twice at once, so some joins reserve a seat and then lose the member insert and roll back. The event/group must
+ * end up with exactly maxUsers seats taken and one member row per seat.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class SeatReservationConcurrencyTest {
+
+    private static final int JOIN_ATTEMPTS = 500;
+    private static final int MAX_USERS = 50;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Autowired
+    private EventMemberRepository eventMemberRepository;
+
+    @Autowired
+    private GroupMemberRepository groupMemberRepository;
+
+    @Autowired
+    private EventReminderRepository eventReminderRepository;
+
+    @Autowired
+    private EventOccurrenceOverrideRepository occurrenceOverrideRepository;
+
+    @Autowired
+    private GroupAccessRequestRepository accessRequestRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate tx;
+    private EventService eventService;
+    private GroupService groupService;
+
+    @BeforeEach
+    void setUp() {
+        tx = new TransactionTemplate(transactionManager);
+
+        // Real repositories and transactions; only the collaborators that don't touch seats or members are mocked
+        eventService = new EventService(eventRepository, mock(UserService.class), mock(UserRepository.class),
+                groupRepository, entityManager, eventMemberRepository, eventReminderRepository,
+                occurrenceOverrideRepository, groupMemberRepository, mock(UpcomingEventService.class),
+                mock(NameSearchService.class), mock(ScheduleService.class), mock(WaitlistService.class));
+        groupService = new GroupService(groupRepository, mock(UserService.class), mock(UserRepository.class),
+                mock(EmailService.class), eventRepository, accessRequestRepository, mock(AccessRequestNotifier.class),
+                entityManager, mock(GroupRankingService.class), groupMemberRepository, eventMemberRepository,
+                mock(UpcomingEventService.class), mock(NameSearchService.class), mock(ScheduleService.class));
+    }
+
+    @Test
+    void concurrentEventJoins_NeverExceedMaxUsers() throws InterruptedException {
+        // Arrange - the host already holds one seat
+        Event event = new Event();
+        event.setName("Packed Review Session");
+        event.setMaxUsers(MAX_USERS);
+        event.setIsPublic(true);
+        event.setGroupId(1L);
+        event.setEventTime(LocalDateTime.now().plusDays(1));
+        event.setMemberCount(1);
+        Long eventId = eventRepository.save(event).getEventId();
+        eventMemberRepository.save(new EventMember(eventId, "host@example.com", MemberRole.HOST));
+
+        // Act - attempts 2k and 2k + 1 are the same user
+        runConcurrently(i -> tx.executeWithoutResult(status -> eventService.joinEvent(eventId, user(i / 2))));
+
+        // Assert
+        tx.executeWithoutResult(status -> {
+            Event stored = eventRepository.findById(eventId).orElseThrow();
+            assertEquals(MAX_USERS, stored.getMemberCount());
+        });
+        assertEquals(MAX_USERS - 1, eventMemberRepository.findEmailsByEventIdAndRole(eventId, MemberRole.PARTICIPANT).size());
+    }
+
+    @Test
+    void concurrentGroupJoins_NeverExceedMaxUsers() throws InterruptedException {
+        // Arrange - the host already holds one seat
+        Group group = new Group();
+        group.setName("Packed Study Group");
+        group.setMaxUsers(MAX_USERS);
+        group.setPublic(true);
+        group.setMemberCount(1);
+        Long groupId = groupRepository.save(group).getGroupId();
+        groupMemberRepository.save(new GroupMember(groupId, "host@example.com", MemberRole.HOST));
+
+        // Act - attempts 2k and 2k + 1 are the same user
+        runConcurrently(i -> tx.executeWithoutResult(status -> groupService.joinPublicGroup(groupId, user(i / 2))));
+
+        // Assert
+        tx.executeWithoutResult(status -> {
+            Group stored = groupRepository.findById(groupId).orElseThrow();
+            assertEquals(MAX_USERS, stored.getMemberCount());
+        });
+        assertEquals(MAX_USERS - 1, groupMemberRepository.findEmailsByGroupIdAndRole(groupId, MemberRole.PARTICIPANT).size());
+    }
+
+    /**
+     * Releases all join attempts at once. An attempt may join, be turned away as full, or roll back when it loses
+     * a race on the database; anything else fails the test.
+     */
+    private void runConcurrently(IntConsumer join) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(32);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(JOIN_ATTEMPTS);
+        AtomicInteger failed = new AtomicInteger();
+
+        for (int i = 0; i < JOIN_ATTEMPTS; i++) {
+            final int attempt = i;
+            pool.submit(() -> {
+                try {
+                    start.await();
+                    join.accept(attempt);
+                } catch (IllegalStateException | DataAccessException e) {
+                    // Full, or rolled back
+                } catch (Exception e) {
+                    failed.incrementAndGet();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        start.countDown();
+        assertTrue(done.await(60, TimeUnit.SECONDS), "Join attempts did not finish in time");
+        pool.shutdown();
+
+        assertEquals(0, failed.get(), "Join attempts should either get a seat, be turned away or roll back");
+    }
+
+    // A fresh copy per attempt, like the one each request loads for its session
+    private static User user(int index) {
+        User user = new User();
+        user.setUserEmail("user" + index + "@example.com");
+        user.setPassword("password");
+        user.setName("User " + index);
+        user.setBirthday(LocalDate.of(2000, 1, 1));
+        return user;
+    }
+}
@@ -0,0 +1,101 @@
+package com.grapevine.repository;
+
+import com.grapevine.model.Notification;
+import com.grapevine.model.Thread;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks who the single INSERT ... SELECT behind thread comment notifications writes rows for: every follower once,
+ * the author only with notifications on, never the commenter, and nobody for a thread that is gone.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+public class ThreadCommentNotificationTest {
+
+    @Autowired
+    private ThreadRepository threadRepository;
+
+    @Autowired
+    private ThreadSubscriptionRepository threadSubscriptionRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Test
+    void insert_WritesOneRowPerFollowerAndAuthor_ExceptCommenter() {
+        // Arrange - the author also follows, and following twice is a no-op
+        Long threadId = threadRepository.save(thread(true)).getThreadId();
+        for (String email : List.of("a@example.com", "b@example.com", "commenter@example.com", "author@example.com")) {
+            assertEquals(1, threadSubscriptionRepository.insertIfAbsent(threadId, email));
+        }
+        assertEquals(0, threadSubscriptionRepository.insertIfAbsent(threadId, "a@example.com"));
+
+        // Act
+        List<Long> ids = insert(threadId);
+
+        // Assert - the returned ids are exactly the new rows
+        assertEquals(3, ids.size());
+        Map<String, String> contentByRecipient = notificationRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Notification::getRecipientEmail, Notification::getContent));
+        assertEquals(Map.of(
+                "a@example.com", "New comment on a thread you follow: Is CS 251 curved?",
+                "b@example.com", "New comment on a thread you follow: Is CS 251 curved?",
+                "author@example.com", "New comment on your thread: Is CS 251 curved?"), contentByRecipient);
+    }
+
+    @Test
+    void insert_SkipsAuthorWithNotificationsOff_AndDeletedThreads() {
+        // Arrange
+        Long quiet = threadRepository.save(thread(false)).getThreadId();
+        threadSubscriptionRepository.insertIfAbsent(quiet, "a@example.com");
+        Long deleted = threadRepository.save(thread(true)).getThreadId();
+        threadSubscriptionRepository.insertIfAbsent(deleted, "a@example.com");
+        threadRepository.deleteById(deleted);
+        threadRepository.flush();
+
+        // Act / Assert
+        assertEquals(1, insert(quiet).size());
+        assertEquals(0, insert(deleted).size());
+    }
+
+    @Test
+    void unfollow_StopsNotifications() {
+        // Arrange
+        Long threadId = threadRepository.save(thread(false)).getThreadId();
+        threadSubscriptionRepository.insertIfAbsent(threadId, "a@example.com");
+
+        // Act
+        assertEquals(1, threadSubscriptionRepository.deleteSubscription(threadId, "a@example.com"));
+
+        // Assert
+        assertFalse(threadSubscriptionRepository.existsByThreadIdAndUserEmail(threadId, "a@example.com"));
+        assertEquals(0, insert(threadId).size());
+    }
+
+    private List<Long> insert(Long threadId) {
+        return notificationRepository.insertThreadCommentNotifications(threadId, "commenter@example.com",
+                "Commenter", "New comment on your thread: Is CS 251 curved?",
+                "New comment on a thread you follow: Is CS 251 curved?");
+    }
+
+    private static Thread thread(boolean notificationsEnabled) {
+        Thread thread = new Thread();
+        thread.setTitle("Is CS 251 curved?");
+        thread.setDescription("");
+        thread.setAuthorEmail("author@example.com");
+        thread.setAuthorName("Author");
+        thread.setNotificationsEnabled(notificationsEnabled);
+        return thread;
+    }
+}
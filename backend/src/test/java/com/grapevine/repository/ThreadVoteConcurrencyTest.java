@@ -0,0 +1,166 @@
+package com.grapevine.repository;
+
+import com.grapevine.model.Thread;
+import com.grapevine.service.ThreadRankingService;
+import com.grapevine.service.ThreadService;
+import com.grapevine.service.VoteAggregator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Fires hundreds of simultaneous votes at a single thread and checks that the counters end up
+ * matching the per-user vote rows exactly: no vote is lost or counted twice, whether the counters are
+ * read with pending votes or after VoteAggregator has flushed them (including flushes in mid-burst).
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ThreadVoteConcurrencyTest {
+
+    private static final int VOTERS = 300;
+
+    @Autowired
+    private ThreadRepository threadRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private ThreadVoteRepository threadVoteRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private VoteAggregator voteAggregator;
+    private ThreadService threadService;
+    private TransactionTemplate tx;
+    private Long threadId;
+
+    @BeforeEach
+    void setUp() {
+        voteAggregator = new VoteAggregator(threadRepository);
+        threadService = new ThreadService(threadRepository, commentRepository, null, null, threadVoteRepository,
+                voteAggregator, new ThreadRankingService(threadRepository, voteAggregator), null, null, null, null, null);
+        tx = new TransactionTemplate(transactionManager);
+
+        Thread thread = new Thread();
+        thread.setTitle("Is CS 251 curved?");
+        thread.setAuthorEmail("author@example.com");
+        thread.setAuthorName("Author");
+        threadId = threadRepository.save(thread).getThreadId();
+    }
+
+    @Test
+    void concurrentUpvotes_FromDistinctUsers_AreAllCounted() throws InterruptedException {
+        // Act
+        runConcurrently(VOTERS, i -> tx.execute(status ->
+                threadService.upvoteThread(threadId, "user" + i + "@example.com")));
+
+        // Assert - reads see the votes before and after they're flushed
+        assertEquals(VOTERS, threadService.getThreadById(threadId).getUpvotes());
+        voteAggregator.flush();
+        assertEquals(VOTERS, storedThread().getUpvotes());
+        assertEquals(0, storedThread().getDownvotes());
+    }
+
+    @Test
+    void concurrentMixedAndRepeatedVotes_CountersMatchVoteRows() throws InterruptedException {
+        // Arrange - every user upvotes and downvotes once in a random order, and a third of them
+        // also upvote a second time, racing their own earlier votes
+        int attempts = VOTERS * 2 + VOTERS / 3;
+
+        // Act
+        runConcurrently(attempts, i -> {
+            String userEmail = "user" + (i % VOTERS) + "@example.com";
+            tx.execute(status -> i / VOTERS == 1
+                    ? threadService.downvoteThread(threadId, userEmail)
+                    : threadService.upvoteThread(threadId, userEmail));
+        });
+
+        // Assert
+        int up = 0;
+        int down = 0;
+        for (int i = 0; i < VOTERS; i++) {
+            int vote = threadService.getUserVote(threadId, "user" + i + "@example.com");
+            if (vote == 1) {
+                up++;
+            } else if (vote == -1) {
+                down++;
+            }
+        }
+        voteAggregator.flush();
+        Thread stored = storedThread();
+        assertEquals(up, stored.getUpvotes());
+        assertEquals(down, stored.getDownvotes());
+    }
+
+    @Test
+    void votesCrossingTheThreshold_AreFlushedFromTheVotesAfterCommit() {
+        // Arrange
+        ReflectionTestUtils.setField(voteAggregator, "flushThreshold", 5);
+
+        // Act - the fifth vote's afterCommit runs the flush, after its own transaction has committed
+        for (int i = 0; i < 5; i++) {
+            String userEmail = "user" + i + "@example.com";
+            tx.execute(status -> threadService.upvoteThread(threadId, userEmail));
+        }
+
+        // Assert - written to the row without the timer, and nothing left pending to count twice
+        assertEquals(5, storedThread().getUpvotes());
+        assertEquals(0, voteAggregator.pendingUpvotes(threadId));
+        assertEquals(5, threadService.getThreadById(threadId).getUpvotes());
+    }
+
+    private Thread storedThread() {
+        return tx.execute(status -> threadRepository.findById(threadId).orElseThrow());
+    }
+
+    /**
+     * Releases all votes at once and fails if any of them errored.
+     */
+    private void runConcurrently(int attempts, IntConsumer vote) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(32);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(attempts);
+        AtomicInteger failed = new AtomicInteger();
+
+        for (int i = 0; i < attempts; i++) {
+            final int attempt = i;
+            pool.submit(() -> {
+                try {
+                    start.await();
+                    vote.accept(attempt);
+                } catch (Exception e) {
+                    failed.incrementAndGet();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        start.countDown();
+        assertTrue(done.await(60, TimeUnit.SECONDS), "Votes did not finish in time");
+        pool.shutdown();
+
+        assertEquals(0, failed.get(), "Every vote should be applied, not fail");
+    }
+}
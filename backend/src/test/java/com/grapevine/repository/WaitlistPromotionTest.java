@@ -0,0 +1,138 @@
+package com.grapevine.repository;
+
+import com.grapevine.model.Event;
+import com.grapevine.model.EventMember;
+import com.grapevine.model.EventWaitlistEntry;
+import com.grapevine.model.MemberRole;
+import com.grapevine.model.User;
+import com.grapevine.service.EventService;
+import com.grapevine.service.NameSearchService;
+import com.grapevine.service.NotificationService;
+import com.grapevine.service.ScheduleService;
+import com.grapevine.service.UpcomingEventService;
+import com.grapevine.service.UserService;
+import com.grapevine.service.WaitlistService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * A seat freed without promoting anyone (e.g. a deleted user's) must go to the head of the waitlist the next time
+ * someone tries to join directly, even though that join is refused and rolled back. Runs the real, transactional
+ * WaitlistService against the database.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({WaitlistService.class, WaitlistPromotionTest.Collaborators.class})
+public class WaitlistPromotionTest {
+
+    @TestConfiguration
+    static class Collaborators {
+        @Bean
+        NotificationService notificationService() {
+            return mock(NotificationService.class);
+        }
+
+        @Bean
+        ScheduleService scheduleService() {
+            return mock(ScheduleService.class);
+        }
+    }
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private EventMemberRepository eventMemberRepository;
+
+    @Autowired
+    private EventWaitlistRepository waitlistRepository;
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Autowired
+    private GroupMemberRepository groupMemberRepository;
+
+    @Autowired
+    private EventReminderRepository eventReminderRepository;
+
+    @Autowired
+    private EventOccurrenceOverrideRepository occurrenceOverrideRepository;
+
+    @Autowired
+    private WaitlistService waitlistService;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void joinEvent_SeatFreedOutsideLeaveEvent_GoesToTheWaitlistHead() {
+        // Arrange - a full event with one user waiting
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        Event event = new Event();
+        event.setName("Midterm Review");
+        event.setMaxUsers(2);
+        event.setIsPublic(true);
+        event.setGroupId(1L);
+        event.setEventTime(LocalDateTime.now().plusDays(1));
+        event.setMemberCount(2);
+        Long eventId = eventRepository.save(event).getEventId();
+        eventMemberRepository.save(new EventMember(eventId, "host@example.com", MemberRole.HOST));
+        eventMemberRepository.save(new EventMember(eventId, "leaver@example.com", MemberRole.PARTICIPANT));
+        waitlistRepository.save(new EventWaitlistEntry(eventId, "waiting@example.com"));
+
+        // The participant's seat is freed without promoting anyone, as deleting their account does
+        tx.executeWithoutResult(status -> {
+            eventMemberRepository.removeMember(eventId, "leaver@example.com");
+            eventRepository.releaseSeat(eventId);
+        });
+
+        EventService eventService = new EventService(eventRepository, mock(UserService.class),
+                mock(UserRepository.class), groupRepository, entityManager, eventMemberRepository,
+                eventReminderRepository, occurrenceOverrideRepository, groupMemberRepository,
+                mock(UpcomingEventService.class), mock(NameSearchService.class), mock(ScheduleService.class),
+                waitlistService);
+        User newcomer = new User();
+        newcomer.setUserEmail("newcomer@example.com");
+
+        // Act - the direct join is refused and rolled back
+        assertThrows(IllegalStateException.class,
+                () -> tx.executeWithoutResult(status -> eventService.joinEvent(eventId, newcomer)));
+
+        // Assert - but the promotion it ran stayed committed and was announced
+        assertTrue(eventMemberRepository.existsByEventIdAndUserEmail(eventId, "waiting@example.com"));
+        assertFalse(eventMemberRepository.existsByEventIdAndUserEmail(eventId, "newcomer@example.com"));
+        assertFalse(waitlistService.hasWaiting(eventId));
+        tx.executeWithoutResult(status ->
+                assertEquals(2, eventRepository.findById(eventId).orElseThrow().getMemberCount()));
+        verify(notificationService).createAndSendWaitlistPromotionNotifications(
+                eq(List.of("waiting@example.com")), eq("Midterm Review"), eq(eventId));
+    }
+}
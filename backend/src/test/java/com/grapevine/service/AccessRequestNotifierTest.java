@@ -0,0 +1,73 @@
+package com.grapevine.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class AccessRequestNotifierTest {
+
+    @Mock
+    private EmailService emailService;
+
+    @Mock
+    private NotificationService notificationService;
+
+    @InjectMocks
+    private AccessRequestNotifier accessRequestNotifier;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void notifyHosts_EmailsEveryHostWithAcceptAndRejectLinks() {
+        // Act
+        accessRequestNotifier.notifyHosts(10L, "abc-123", 1L, "requester@example.com", "Requesting User",
+                "Private Study Group", List.of("host1@example.com", "host2@example.com"));
+
+        // Assert
+        for (String hostEmail : List.of("host1@example.com", "host2@example.com")) {
+            verify(emailService).sendHtmlEmail(
+                    eq(hostEmail),
+                    eq("Join Group Request: Private Study Group"),
+                    argThat(html ->
+                            html.contains("Requesting User") &&
+                            html.contains("Private Study Group") &&
+                            html.contains("/respond-access/abc-123/accept/1/requester@example.com") &&
+                            html.contains("/respond-access/abc-123/reject/1/requester@example.com")
+                    )
+            );
+        }
+        verify(notificationService).createAndSendGroupAccessRequestNotifications(
+                List.of("host1@example.com", "host2@example.com"),
+                "requester@example.com",
+                "Requesting User",
+                "Private Study Group",
+                1L
+        );
+    }
+
+    @Test
+    void notifyHosts_EmailFailure_StillNotifiesRemainingHosts() {
+        // Arrange
+        doThrow(new RuntimeException("SMTP down"))
+                .when(emailService).sendHtmlEmail(eq("host1@example.com"), anyString(), anyString());
+
+        // Act
+        accessRequestNotifier.notifyHosts(10L, "abc-123", 1L, "requester@example.com", "Requesting User",
+                "Private Study Group", List.of("host1@example.com", "host2@example.com"));
+
+        // Assert
+        verify(emailService).sendHtmlEmail(eq("host2@example.com"), anyString(), anyString());
+        verify(notificationService).createAndSendGroupAccessRequestNotifications(
+                anyList(), anyString(), anyString(), anyString(), eq(1L));
+    }
+}
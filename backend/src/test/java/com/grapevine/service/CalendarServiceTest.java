@@ -0,0 +1,179 @@
+package com.grapevine.service;
+
+import com.grapevine.model.CalendarFeedToken;
+import com.grapevine.model.Event;
+import com.grapevine.model.EventOccurrenceOverride;
+import com.grapevine.model.Location;
+import com.grapevine.repository.CalendarFeedTokenRepository;
+import com.grapevine.repository.EventOccurrenceOverrideRepository;
+import com.grapevine.repository.EventRepository;
+import com.grapevine.repository.LocationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class CalendarServiceTest {
+
+    @Mock
+    private EventRepository eventRepository;
+
+    @Mock
+    private EventOccurrenceOverrideRepository overrideRepository;
+
+    @Mock
+    private LocationRepository locationRepository;
+
+    @Mock
+    private CalendarFeedTokenRepository feedTokenRepository;
+
+    @InjectMocks
+    private CalendarService calendarService;
+
+    private static final LocalDateTime START = LocalDateTime.of(2026, 1, 5, 10, 0);
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void writeFeed_WritesSeriesWithExceptionsAndLocations() throws IOException {
+        // Arrange
+        Event series = new Event();
+        series.setEventId(7L);
+        series.setName("CS 307 review; bring laptops, notes");
+        series.setEventTime(START);
+        series.setDurationMinutes(90);
+        series.setLocationId(1L);
+        series.setRecurrenceRule("FREQ=WEEKLY;COUNT=4");
+        series.setUpdatedAt(START.minusDays(1));
+
+        EventOccurrenceOverride cancelled = new EventOccurrenceOverride(7L, START.plusWeeks(1));
+        cancelled.setCancelled(true);
+        EventOccurrenceOverride moved = new EventOccurrenceOverride(7L, START.plusWeeks(2));
+        moved.setEventTime(START.plusWeeks(2).plusHours(2));
+        moved.setLocationId(2L);
+
+        when(eventRepository.findScheduledForUser(eq("user@example.com"), any(LocalDateTime.class)))
+                .thenReturn(List.of(series));
+        when(overrideRepository.findByEventIdIn(List.of(7L))).thenReturn(List.of(cancelled, moved));
+        when(locationRepository.findAllById(any())).thenReturn(List.of(location(1L, "Lawson Building"),
+                location(2L, "Wilmeth Active Learning Center")));
+
+        // Act
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        calendarService.writeFeed("user@example.com", out);
+        String feed = out.toString(StandardCharsets.UTF_8);
+
+        // Assert
+        assertTrue(feed.startsWith("BEGIN:VCALENDAR\r\nVERSION:2.0\r\n"));
+        assertTrue(feed.endsWith("END:VCALENDAR\r\n"));
+        assertTrue(feed.contains("UID:event-7@grapevine\r\n"));
+        assertTrue(feed.contains("DTSTART:20260105T100000\r\nDTEND:20260105T113000\r\n"));
+        assertTrue(feed.contains("SUMMARY:CS 307 review\\; bring laptops\\, notes\r\n"));
+        assertTrue(feed.contains("LOCATION:Lawson Building\r\n"));
+        assertTrue(feed.contains("RRULE:FREQ=WEEKLY;COUNT=4\r\n"));
+        assertTrue(feed.contains("EXDATE:20260112T100000\r\n"));
+        assertTrue(feed.contains("RECURRENCE-ID:20260119T100000\r\n"));
+        assertTrue(feed.contains("DTSTART:20260119T120000\r\n"));
+        assertTrue(feed.contains("LOCATION:Wilmeth Active Learning Center\r\n"));
+        assertEquals(2, feed.split("BEGIN:VEVENT", -1).length - 1);
+        // Every location in one lookup
+        verify(locationRepository).findAllById(any());
+        verify(locationRepository, never()).findById(any());
+    }
+
+    @Test
+    void line_FoldsLongLinesAtSeventyFiveOctets() throws IOException {
+        // Arrange - multi-byte characters must not be split across a fold
+        StringWriter writer = new StringWriter();
+        String text = "DESCRIPTION:" + "é".repeat(60);
+
+        // Act
+        CalendarService.line(writer, text);
+
+        // Assert
+        String[] lines = writer.toString().split("\r\n");
+        assertTrue(lines.length > 1);
+        for (String line : lines) {
+            assertTrue(line.getBytes(StandardCharsets.UTF_8).length <= 75);
+        }
+        assertEquals(text, writer.toString().replace("\r\n ", "").replace("\r\n", ""));
+    }
+
+    @Test
+    void feedTag_ChangesOnlyWhenTheFeedWould() {
+        // Arrange
+        LocalDateTime updated = START.minusDays(1);
+        when(eventRepository.summarizeScheduledForUser(eq("user@example.com"), any(LocalDateTime.class)))
+                .thenReturn(List.<Object[]>of(new Object[]{2L, 15L, updated}));
+        when(overrideRepository.summarizeForUser("user@example.com"))
+                .thenReturn(List.<Object[]>of(new Object[]{0L, null}));
+
+        // Act
+        String first = calendarService.feedTag("user@example.com");
+        String again = calendarService.feedTag("user@example.com");
+        // The user joins another event
+        when(eventRepository.summarizeScheduledForUser(eq("user@example.com"), any(LocalDateTime.class)))
+                .thenReturn(List.<Object[]>of(new Object[]{3L, 24L, updated}));
+        String afterJoin = calendarService.feedTag("user@example.com");
+        // One of its locations is renamed
+        when(locationRepository.findLatestUpdateForUser(eq("user@example.com"), any(LocalDateTime.class)))
+                .thenReturn(updated.plusHours(1));
+        String afterRename = calendarService.feedTag("user@example.com");
+
+        // Assert
+        assertEquals(first, again);
+        assertNotEquals(first, afterJoin);
+        assertNotEquals(afterJoin, afterRename);
+        assertTrue(first.startsWith("\"") && first.endsWith("\""));
+        verify(eventRepository, never()).findScheduledForUser(any(), any());
+    }
+
+    @Test
+    void issueFeedToken_ReplacesTheOldTokenWithAnUnguessableOne() {
+        // Act
+        String first = calendarService.issueFeedToken("user@example.com");
+        String second = calendarService.issueFeedToken("user@example.com");
+
+        // Assert
+        assertNotEquals(first, second);
+        assertTrue(first.length() >= 43);
+        verify(feedTokenRepository, times(2)).save(argThat(token -> token.getUserEmail().equals("user@example.com")));
+    }
+
+    @Test
+    void isFeedToken_OnlyForTheUserItWasIssuedTo() {
+        // Arrange
+        when(feedTokenRepository.findByToken("secret"))
+                .thenReturn(Optional.of(new CalendarFeedToken("user@example.com", "secret")));
+
+        // Act & Assert
+        assertTrue(calendarService.isFeedToken("user@example.com", "secret"));
+        assertFalse(calendarService.isFeedToken("other@example.com", "secret"));
+        assertFalse(calendarService.isFeedToken("user@example.com", "revoked"));
+        assertFalse(calendarService.isFeedToken("user@example.com", null));
+    }
+
+    private static Location location(Long id, String fullName) {
+        Location location = new Location();
+        location.setLocationId(id);
+        location.setFullName(fullName);
+        return location;
+    }
+}
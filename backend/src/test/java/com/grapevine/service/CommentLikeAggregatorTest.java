@@ -0,0 +1,84 @@
+package com.grapevine.service;
+
+import com.grapevine.repository.CommentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+public class CommentLikeAggregatorTest {
+
+    @Mock
+    private CommentRepository commentRepository;
+
+    @InjectMocks
+    private CommentLikeAggregator commentLikeAggregator;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void flush_WritesEachCommentOnceWithNetDelta() {
+        // Arrange
+        when(commentRepository.applyLikeDelta(anyLong(), anyInt())).thenReturn(1);
+        for (int i = 0; i < 30; i++) {
+            commentLikeAggregator.add(1L, 1);
+        }
+        commentLikeAggregator.add(1L, -1);
+        commentLikeAggregator.add(2L, 1);
+        commentLikeAggregator.add(3L, 0);
+
+        // Act
+        int written = commentLikeAggregator.flush();
+
+        // Assert
+        assertEquals(2, written);
+        verify(commentRepository).applyLikeDelta(1L, 29);
+        verify(commentRepository).applyLikeDelta(2L, 1);
+        assertEquals(0, commentLikeAggregator.pendingLikes(1L));
+        assertEquals(0, commentLikeAggregator.flush());
+    }
+
+    @Test
+    void flush_FailedWrite_KeepsDeltaForNextFlush() {
+        // Arrange
+        commentLikeAggregator.add(1L, 1);
+        when(commentRepository.applyLikeDelta(1L, 1))
+                .thenThrow(new RuntimeException("connection reset"))
+                .thenReturn(1);
+
+        // Act
+        int first = commentLikeAggregator.flush();
+        long pendingAfterFailure = commentLikeAggregator.pendingLikes(1L);
+        int second = commentLikeAggregator.flush();
+
+        // Assert
+        assertEquals(0, first);
+        assertEquals(1, pendingAfterFailure);
+        assertEquals(1, second);
+        assertEquals(0, commentLikeAggregator.pendingLikes(1L));
+    }
+
+    @Test
+    void flush_DeletedComment_DropsItsDelta() {
+        // Arrange - the UPDATE finds no row
+        commentLikeAggregator.add(1L, 1);
+        when(commentRepository.applyLikeDelta(1L, 1)).thenReturn(0);
+
+        // Act
+        commentLikeAggregator.flush();
+        commentLikeAggregator.flush();
+
+        // Assert
+        assertEquals(0, commentLikeAggregator.pendingLikes(1L));
+        verify(commentRepository, times(1)).applyLikeDelta(anyLong(), anyInt());
+    }
+}
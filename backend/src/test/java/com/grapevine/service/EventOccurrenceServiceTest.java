@@ -0,0 +1,218 @@
+package com.grapevine.service;
+
+import com.grapevine.exception.UnauthorizedException;
+import com.grapevine.model.Event;
+import com.grapevine.model.EventOccurrence;
+import com.grapevine.model.EventOccurrenceOverride;
+import com.grapevine.model.MemberRole;
+import com.grapevine.model.RecurrenceRule;
+import com.grapevine.model.User;
+import com.grapevine.repository.EventMemberRepository;
+import com.grapevine.repository.EventOccurrenceOverrideRepository;
+import com.grapevine.repository.EventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class EventOccurrenceServiceTest {
+
+    @Mock
+    private EventRepository eventRepository;
+
+    @Mock
+    private EventMemberRepository eventMemberRepository;
+
+    @Mock
+    private EventOccurrenceOverrideRepository overrideRepository;
+
+    @InjectMocks
+    private EventOccurrenceService eventOccurrenceService;
+
+    // A Monday
+    private static final LocalDateTime START = LocalDateTime.of(2026, 1, 5, 10, 0);
+
+    private User host;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        host = new User();
+        host.setUserEmail("host@example.com");
+    }
+
+    @Test
+    void expand_WeeklySeriesOnlyComputesTheWindow() {
+        // Arrange - Mondays and Wednesdays, six sessions
+        Event series = series(1L, "FREQ=WEEKLY;BYDAY=MO,WE;COUNT=6");
+
+        // Act
+        List<EventOccurrence> result = eventOccurrenceService.expand(List.of(series),
+                LocalDateTime.of(2026, 1, 10, 0, 0), LocalDateTime.of(2026, 3, 1, 0, 0));
+
+        // Assert - the window starts after the first week and the series ends after six sessions
+        assertEquals(List.of(
+                LocalDateTime.of(2026, 1, 12, 10, 0),
+                LocalDateTime.of(2026, 1, 14, 10, 0),
+                LocalDateTime.of(2026, 1, 19, 10, 0),
+                LocalDateTime.of(2026, 1, 21, 10, 0)), startTimes(result));
+        assertTrue(result.stream().allMatch(EventOccurrence::recurring));
+    }
+
+    @Test
+    void expand_CountIncludesOnlyOccurrencesFromTheStart() {
+        // Arrange - starts on a Wednesday, so the Monday of the first week doesn't count
+        Event series = series(1L, "FREQ=WEEKLY;BYDAY=MO,WE;COUNT=3");
+        series.setEventTime(START.plusDays(2));
+
+        // Act
+        List<EventOccurrence> all = eventOccurrenceService.expand(List.of(series), START, START.plusDays(60));
+        List<EventOccurrence> late = eventOccurrenceService.expand(List.of(series),
+                LocalDateTime.of(2026, 1, 13, 0, 0), START.plusDays(60));
+
+        // Assert
+        assertEquals(List.of(
+                LocalDateTime.of(2026, 1, 7, 10, 0),
+                LocalDateTime.of(2026, 1, 12, 10, 0),
+                LocalDateTime.of(2026, 1, 14, 10, 0)), startTimes(all));
+        assertEquals(List.of(LocalDateTime.of(2026, 1, 14, 10, 0)), startTimes(late));
+    }
+
+    @Test
+    void expand_AppliesCancellationsMovesAndLocationChanges() {
+        // Arrange - daily series for a week
+        Event series = series(1L, "FREQ=DAILY;UNTIL=20260111");
+        LocalDateTime windowStart = LocalDateTime.of(2026, 1, 6, 0, 0);
+        LocalDateTime windowEnd = LocalDateTime.of(2026, 1, 8, 23, 0);
+
+        EventOccurrenceOverride cancelled = override(1L, START.plusDays(1));
+        cancelled.setCancelled(true);
+        EventOccurrenceOverride relocated = override(1L, START.plusDays(2));
+        relocated.setLocationId(9L);
+        // Scheduled on the 10th, pulled forward into the window
+        EventOccurrenceOverride movedIn = override(1L, START.plusDays(5));
+        movedIn.setEventTime(LocalDateTime.of(2026, 1, 8, 18, 0));
+        // Scheduled on the 8th, pushed out of the window
+        EventOccurrenceOverride movedOut = override(1L, START.plusDays(3));
+        movedOut.setEventTime(LocalDateTime.of(2026, 1, 9, 10, 0));
+
+        when(overrideRepository.findInWindow(List.of(1L), windowStart, windowEnd))
+                .thenReturn(List.of(cancelled, relocated, movedIn, movedOut));
+
+        // Act
+        List<EventOccurrence> result = eventOccurrenceService.expand(List.of(series), windowStart, windowEnd);
+
+        // Assert
+        assertEquals(List.of(LocalDateTime.of(2026, 1, 7, 10, 0), LocalDateTime.of(2026, 1, 8, 18, 0)), startTimes(result));
+        assertEquals(9L, result.get(0).locationId());
+        assertTrue(result.get(0).modified());
+        assertEquals(START.plusDays(5), result.get(1).occurrenceTime());
+    }
+
+    @Test
+    void expand_OneOffEventsNeedNoOverrideLookup() {
+        // Arrange
+        Event single = series(2L, null);
+
+        // Act
+        List<EventOccurrence> inside = eventOccurrenceService.expand(List.of(single), START.minusDays(1), START.plusDays(1));
+        List<EventOccurrence> outside = eventOccurrenceService.expand(List.of(single), START.plusDays(1), START.plusDays(2));
+
+        // Assert
+        assertEquals(1, inside.size());
+        assertFalse(inside.get(0).recurring());
+        assertTrue(outside.isEmpty());
+        verifyNoInteractions(overrideRepository);
+    }
+
+    @Test
+    void expand_RejectsUnboundedWindows() {
+        assertThrows(IllegalArgumentException.class,
+                () -> eventOccurrenceService.expand(List.of(), START, START.plusYears(2)));
+        assertThrows(IllegalArgumentException.class,
+                () -> eventOccurrenceService.expand(List.of(), START, START.minusDays(1)));
+    }
+
+    @Test
+    void recurrenceRule_ParsesSupportedSubsetOnly() {
+        RecurrenceRule rule = RecurrenceRule.parse("RRULE:FREQ=weekly;INTERVAL=2;BYDAY=WE,MO;COUNT=4");
+        assertEquals("FREQ=WEEKLY;INTERVAL=2;BYDAY=MO,WE;COUNT=4", rule.toString());
+        assertEquals(LocalDateTime.of(2026, 1, 21, 10, 0), rule.lastOccurrence(START));
+
+        assertThrows(IllegalArgumentException.class, () -> RecurrenceRule.parse("FREQ=MONTHLY;COUNT=3"));
+        assertThrows(IllegalArgumentException.class, () -> RecurrenceRule.parse("FREQ=WEEKLY"));
+        assertThrows(IllegalArgumentException.class, () -> RecurrenceRule.parse("FREQ=DAILY;COUNT=3;UNTIL=20260301"));
+        assertThrows(IllegalArgumentException.class,
+                () -> RecurrenceRule.parse("FREQ=DAILY;UNTIL=20300101").validate(START));
+    }
+
+    @Test
+    void overrideOccurrence_StoresOnlyRealChanges() {
+        // Arrange
+        Event series = series(1L, "FREQ=WEEKLY;COUNT=10");
+        EventOccurrenceOverride existing = override(1L, START.plusWeeks(1));
+        existing.setOverrideId(5L);
+        existing.setCancelled(true);
+        when(eventRepository.findById(1L)).thenReturn(Optional.of(series));
+        when(eventMemberRepository.existsByEventIdAndUserEmailAndRole(1L, "host@example.com", MemberRole.HOST))
+                .thenReturn(true);
+        when(overrideRepository.findByEventIdAndOccurrenceTime(1L, START.plusWeeks(1))).thenReturn(Optional.of(existing));
+
+        // Act - restoring the cancelled occurrence leaves nothing to store
+        EventOccurrenceOverride result = eventOccurrenceService.overrideOccurrence(
+                1L, START.plusWeeks(1), new EventOccurrenceOverride(), host);
+
+        // Assert
+        assertNull(result);
+        verify(overrideRepository).delete(existing);
+        verify(overrideRepository, never()).save(any());
+    }
+
+    @Test
+    void overrideOccurrence_RejectsTimesOutsideTheSeriesAndNonHosts() {
+        // Arrange
+        Event series = series(1L, "FREQ=WEEKLY;COUNT=10");
+        when(eventRepository.findById(1L)).thenReturn(Optional.of(series));
+        when(eventMemberRepository.existsByEventIdAndUserEmailAndRole(1L, "host@example.com", MemberRole.HOST))
+                .thenReturn(true);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> eventOccurrenceService.cancelOccurrence(1L, START.plusDays(1), host));
+        assertThrows(IllegalArgumentException.class,
+                () -> eventOccurrenceService.cancelOccurrence(1L, START.plusWeeks(10), host));
+
+        User stranger = new User();
+        stranger.setUserEmail("stranger@example.com");
+        assertThrows(UnauthorizedException.class,
+                () -> eventOccurrenceService.cancelOccurrence(1L, START.plusWeeks(1), stranger));
+        verify(overrideRepository, never()).save(any());
+    }
+
+    private static Event series(Long eventId, String rule) {
+        Event event = new Event();
+        event.setEventId(eventId);
+        event.setName("Study session");
+        event.setEventTime(START);
+        event.setLocationId(1L);
+        event.setRecurrenceRule(rule);
+        return event;
+    }
+
+    private static EventOccurrenceOverride override(Long eventId, LocalDateTime occurrenceTime) {
+        return new EventOccurrenceOverride(eventId, occurrenceTime);
+    }
+
+    private static List<LocalDateTime> startTimes(List<EventOccurrence> occurrences) {
+        return occurrences.stream().map(EventOccurrence::eventTime).toList();
+    }
+}
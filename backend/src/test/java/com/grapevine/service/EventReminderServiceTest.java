@@ -4,6 +4,7 @@ import com.grapevine.exception.EventNotFoundException;
 import com.grapevine.model.Event;
 import com.grapevine.model.EventReminder;
 import com.grapevine.model.Notification;
+import com.grapevine.repository.EventMemberRepository;
 import com.grapevine.repository.EventReminderRepository;
 import com.grapevine.repository.EventRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -31,6 +32,9 @@ public class EventReminderServiceTest {
     @Mock
     private EventRepository eventRepository;
 
+    @Mock
+    private EventMemberRepository eventMemberRepository;
+
     @Mock
     private NotificationService notificationService;
 
@@ -51,8 +55,6 @@ public class EventReminderServiceTest {
         testEvent = new Event();
         testEvent.setEventId(1L);
         testEvent.setName("Test Event");
-        testEvent.setHosts(Arrays.asList("host@example.com"));
-        testEvent.setParticipants(Arrays.asList("user@example.com"));
         testEvent.setEventTime(LocalDateTime.now().plusDays(1));
 
         testReminder = new EventReminder();
@@ -71,6 +73,7 @@ public class EventReminderServiceTest {
     void createReminder_CreatesReminder_ForFutureEvent() {
         // Arrange
         when(eventRepository.findById(1L)).thenReturn(Optional.of(testEvent));
+        when(eventMemberRepository.existsByEventIdAndUserEmail(1L, "user@example.com")).thenReturn(true);
         when(eventReminderRepository.save(any(EventReminder.class))).thenReturn(testReminder);
 
         // Act
@@ -0,0 +1,129 @@
+package com.grapevine.service;
+
+import com.grapevine.repository.EventMemberRepository;
+import com.grapevine.repository.EventOccurrenceOverrideRepository;
+import com.grapevine.repository.EventReminderRepository;
+import com.grapevine.repository.EventRepository;
+import com.grapevine.repository.GroupRepository;
+import com.grapevine.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class EventRetentionServiceTest {
+
+    @Mock
+    private EventRepository eventRepository;
+
+    @Mock
+    private EventMemberRepository eventMemberRepository;
+
+    @Mock
+    private EventReminderRepository eventReminderRepository;
+
+    @Mock
+    private EventOccurrenceOverrideRepository occurrenceOverrideRepository;
+
+    @Mock
+    private WaitlistService waitlistService;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private GroupRepository groupRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private NameSearchService nameSearchService;
+
+    @InjectMocks
+    private EventRetentionService eventRetentionService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void purgeExpiredEvents_DeletesEachBatchWithSetBasedStatements() {
+        // Arrange - a full batch of 500 followed by a partial one
+        List<Long> firstBatch = ids(1, 500);
+        List<Long> secondBatch = ids(501, 3);
+        when(eventRepository.findIdsEndedBefore(any(LocalDateTime.class), eq(Limit.of(500))))
+                .thenReturn(firstBatch)
+                .thenReturn(secondBatch);
+        when(eventRepository.deleteAllByEventIdIn(firstBatch)).thenReturn(500);
+        when(eventRepository.deleteAllByEventIdIn(secondBatch)).thenReturn(3);
+
+        // Act
+        int deleted = eventRetentionService.purgeExpiredEvents();
+
+        // Assert
+        assertEquals(503, deleted);
+        for (List<Long> batch : List.of(firstBatch, secondBatch)) {
+            verify(eventMemberRepository).deleteAllByEventIdIn(batch);
+            verify(eventReminderRepository).deleteAllByEventIdIn(batch);
+            verify(occurrenceOverrideRepository).deleteAllByEventIdIn(batch);
+            verify(waitlistService).clear(batch);
+            verify(userRepository).removeHostedEventReferences(batch);
+            verify(userRepository).removeJoinedEventReferences(batch);
+            verify(groupRepository).removeEventReferences(batch);
+            verify(nameSearchService).removeEvents(batch);
+        }
+        // The partial batch means nothing older is left, so no third lookup
+        verify(eventRepository, times(2)).findIdsEndedBefore(any(LocalDateTime.class), any(Limit.class));
+        verify(transactionManager, times(2)).commit(any());
+        verify(eventRepository, never()).findAll();
+        assertEquals(503, eventRetentionService.getTotalEventsDeleted());
+        assertEquals(1, eventRetentionService.getTotalRuns());
+    }
+
+    @Test
+    void purgeExpiredEvents_NothingExpired_DoesNotOpenTransaction() {
+        // Arrange
+        when(eventRepository.findIdsEndedBefore(any(LocalDateTime.class), any(Limit.class))).thenReturn(List.of());
+
+        // Act
+        int deleted = eventRetentionService.purgeExpiredEvents();
+
+        // Assert
+        assertEquals(0, deleted);
+        verifyNoInteractions(transactionManager, eventMemberRepository, eventReminderRepository,
+                occurrenceOverrideRepository, userRepository, groupRepository);
+        verify(eventRepository, never()).deleteAllByEventIdIn(any());
+        assertNotNull(eventRetentionService.getLastRunAt());
+    }
+
+    @Test
+    void purgeExpiredEvents_CutoffIsRetentionPeriodAgo() {
+        // Arrange
+        when(eventRepository.findIdsEndedBefore(any(LocalDateTime.class), any(Limit.class))).thenReturn(List.of());
+        LocalDateTime before = LocalDateTime.now().minusDays(30);
+
+        // Act
+        eventRetentionService.purgeExpiredEvents();
+
+        // Assert
+        verify(eventRepository).findIdsEndedBefore(argThat(cutoff ->
+                !cutoff.isBefore(before) && cutoff.isBefore(before.plusMinutes(1))), any(Limit.class));
+    }
+
+    private static List<Long> ids(long first, int count) {
+        return LongStream.range(first, first + count).boxed().toList();
+    }
+}
@@ -4,14 +4,22 @@ import com.grapevine.exception.EventNotFoundException;
 import com.grapevine.exception.GroupNotFoundException;
 import com.grapevine.exception.UnauthorizedException;
 import com.grapevine.model.*;
+import com.grapevine.repository.EventMemberRepository;
+import com.grapevine.repository.EventOccurrenceOverrideRepository;
+import com.grapevine.repository.EventReminderRepository;
 import com.grapevine.repository.EventRepository;
+import com.grapevine.repository.GroupMemberRepository;
 import com.grapevine.repository.GroupRepository;
 import com.grapevine.repository.UserRepository;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -40,6 +48,33 @@ public class EventServiceTest {
     @Mock
     private GroupRepository groupRepository;
 
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private EventMemberRepository eventMemberRepository;
+
+    @Mock
+    private GroupMemberRepository groupMemberRepository;
+
+    @Mock
+    private EventReminderRepository eventReminderRepository;
+
+    @Mock
+    private EventOccurrenceOverrideRepository occurrenceOverrideRepository;
+
+    @Mock
+    private UpcomingEventService upcomingEventService;
+
+    @Mock
+    private NameSearchService nameSearchService;
+
+    @Mock
+    private ScheduleService scheduleService;
+
+    @Mock
+    private WaitlistService waitlistService;
+
     @InjectMocks
     private EventService eventService;
 
@@ -66,9 +101,9 @@ public class EventServiceTest {
         testGroup.setName("Test Group");
         testGroup.setDescription("Group for testing");
         testGroup.setMaxUsers(10);
-        testGroup.setHosts(new ArrayList<>(List.of("test@example.com")));
-        testGroup.setParticipants(new ArrayList<>());
         testGroup.setEvents(new ArrayList<>());
+        when(groupMemberRepository.existsByGroupIdAndUserEmailAndRole(1L, "test@example.com", MemberRole.HOST))
+                .thenReturn(true);
 
         // Set up test event
         testEvent = new Event();
@@ -76,8 +111,6 @@ public class EventServiceTest {
         testEvent.setName("Test Event");
         testEvent.setDescription("Event for testing");
         testEvent.setGroupId(1L);
-        testEvent.setHosts(new ArrayList<>());
-        testEvent.setParticipants(new ArrayList<>());
     }
 
     @Test
@@ -96,8 +129,6 @@ public class EventServiceTest {
         secondEvent.setGroupId(1L);
         secondEvent.setIsPublic(true); // Set isPublic flag
         secondEvent.setEventTime(LocalDateTime.now().plusDays(2));
-        secondEvent.setHosts(new ArrayList<>());
-        secondEvent.setParticipants(new ArrayList<>());
         expectedEvents.add(secondEvent);
 
         when(eventRepository.findAll()).thenReturn(expectedEvents);
@@ -114,39 +145,72 @@ public class EventServiceTest {
     }
 
     @Test
-    void getAllShortEvents_ShouldReturnAllEventsInShortForm() {
+    void getAllShortEvents_ReturnsEventsInShortFormWithoutCursorOnLastPage() {
         // Arrange
-        List<Event> events = new ArrayList<>();
-
-        testEvent.setIsPublic(true); // Set isPublic flag
+        testEvent.setIsPublic(true);
         testEvent.setEventTime(LocalDateTime.now().plusDays(1));
-        events.add(testEvent);
+        testEvent.setMemberCount(3);
 
-        Event secondEvent = new Event();
-        secondEvent.setEventId(2L);
-        secondEvent.setName("Second Event");
-        secondEvent.setDescription("Another event");
-        secondEvent.setGroupId(1L);
-        secondEvent.setIsPublic(true); // Set isPublic flag
-        secondEvent.setEventTime(LocalDateTime.now().plusDays(2));
-        secondEvent.setHosts(new ArrayList<>());
-        secondEvent.setParticipants(new ArrayList<>());
-        events.add(secondEvent);
+        Event untimedEvent = new Event();
+        untimedEvent.setEventId(2L);
+        untimedEvent.setName("Undated Event");
+        untimedEvent.setIsPublic(true);
 
-        when(eventRepository.findAll()).thenReturn(events);
+        // Timed events are fetched first, then events without a time fill the rest of the page
+        when(eventRepository.findBy(any(Specification.class), any()))
+                .thenReturn(List.of(testEvent))
+                .thenReturn(List.of(untimedEvent));
 
         // Act
-        List<ShortEvent> result = eventService.getAllShortEvents();
+        CursorPage<ShortEvent> result = eventService.getAllShortEvents(emptyFilter(), null, 10);
 
         // Assert
-        assertNotNull(result);
-        assertEquals(2, result.size());
-        assertEquals(1L, result.get(0).getEventId());
-        assertEquals("Test Event", result.get(0).getName());
-        assertEquals(2L, result.get(1).getEventId());
-        assertEquals("Second Event", result.get(1).getName());
+        assertEquals(2, result.getItems().size());
+        assertEquals("Test Event", result.getItems().get(0).getName());
+        assertEquals(3, result.getItems().get(0).getMemberCount());
+        assertEquals("Undated Event", result.getItems().get(1).getName());
+        assertNull(result.getNextCursor());
+        verify(eventRepository, times(2)).findBy(any(Specification.class), any());
+        verify(eventRepository, never()).findAll();
+    }
+
+    @Test
+    void getAllShortEvents_FullPage_ReturnsCursorOfLastEvent() {
+        // Arrange - limit + 1 rows come back, so there is another page
+        LocalDateTime time = LocalDateTime.of(2030, 4, 1, 18, 0);
+        when(eventRepository.findBy(any(Specification.class), any()))
+                .thenReturn(List.of(timedEvent(1L, time), timedEvent(2L, time), timedEvent(3L, time.plusHours(1))));
+
+        // Act
+        CursorPage<ShortEvent> result = eventService.getAllShortEvents(emptyFilter(), null, 2);
+
+        // Assert
+        assertEquals(2, result.getItems().size());
+        assertEquals("2030-04-01T18:00_2", result.getNextCursor());
+        verify(eventRepository, times(1)).findBy(any(Specification.class), any());
+    }
+
+    @Test
+    void getAllShortEvents_UntimedCursor_OnlyQueriesEventsWithoutTime() {
+        // Arrange
+        when(eventRepository.findBy(any(Specification.class), any())).thenReturn(List.of());
+
+        // Act
+        CursorPage<ShortEvent> result = eventService.getAllShortEvents(emptyFilter(), "_7", 10);
+
+        // Assert
+        assertTrue(result.getItems().isEmpty());
+        assertNull(result.getNextCursor());
+        verify(eventRepository, times(1)).findBy(any(Specification.class), any());
+    }
 
-        verify(eventRepository, times(2)).findAll(); // Verify 2 calls
+    @Test
+    void getAllShortEvents_InvalidCursor_ThrowsException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> eventService.getAllShortEvents(emptyFilter(), "yesterday_7", 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> eventService.getAllShortEvents(emptyFilter(), "42", 10));
+        verifyNoInteractions(eventRepository);
     }
 
     @Test
@@ -166,9 +230,6 @@ public class EventServiceTest {
             return savedEvent;
         });
 
-        // Mock empty participants in group to avoid NPE
-        testGroup.setParticipants(new ArrayList<>());
-
         // Act
         Event result = eventService.createEvent(eventToCreate, 1L, testUser);
 
@@ -177,13 +238,20 @@ public class EventServiceTest {
         assertEquals("New Event", result.getName());
         assertEquals(1L, result.getGroupId());
         assertNotNull(result.getHosts());
-        assertNotNull(result.getParticipants());
         assertTrue(result.getHosts().contains(testUser.getUserEmail()));
+        assertEquals(1, result.getMemberCount());
 
         verify(groupRepository).findById(1L);
-        verify(eventRepository, times(2)).save(any(Event.class)); // Verify 2 calls
+        verify(eventRepository, times(1)).save(any(Event.class));
+        verify(eventMemberRepository).save(argThat((EventMember member) ->
+                member.getRole() == MemberRole.HOST && member.getUserEmail().equals(testUser.getUserEmail())));
+        verify(eventMemberRepository).enrollGroupParticipants(1L, 1L, 9);
+        verify(eventRepository, never()).addSeats(anyLong(), anyInt());
+        verify(userRepository, never()).addJoinedEventForParticipants(anyLong());
         verify(userRepository).save(testUser);
         verify(groupRepository).save(testGroup);
+        verify(upcomingEventService).track(result);
+        verify(nameSearchService).indexEvent(result);
 
         // Check that user and group were updated properly
         assertTrue(testUser.getHostedEvents().contains(1L));
@@ -220,7 +288,6 @@ public class EventServiceTest {
         Group nonHostGroup = new Group();
         nonHostGroup.setGroupId(2L);
         nonHostGroup.setName("Non-Host Group");
-        nonHostGroup.setHosts(new ArrayList<>(List.of("other@example.com"))); // User is not in hosts
 
         when(groupRepository.findById(2L)).thenReturn(Optional.of(nonHostGroup));
 
@@ -425,8 +492,8 @@ public class EventServiceTest {
         existingEvent.setMaxUsers(10);
         existingEvent.setIsPublic(false);
         existingEvent.setEventTime(LocalDateTime.now().plusDays(7));
-        existingEvent.setHosts(new ArrayList<>(List.of("test@example.com")));
-        existingEvent.setParticipants(new ArrayList<>(List.of("participant@example.com")));
+        when(eventMemberRepository.existsByEventIdAndUserEmailAndRole(1L, "test@example.com", MemberRole.HOST))
+                .thenReturn(true);
         existingEvent.setGroupId(1L);
 
         Event updatedEvent = new Event();
@@ -476,7 +543,6 @@ public class EventServiceTest {
         Event existingEvent = new Event();
         existingEvent.setEventId(1L);
         existingEvent.setName("Original Event");
-        existingEvent.setHosts(new ArrayList<>(List.of("otherhost@example.com")));
 
         Event updatedEvent = new Event();
         updatedEvent.setName("Updated Event");
@@ -498,7 +564,8 @@ public class EventServiceTest {
         Event existingEvent = new Event();
         existingEvent.setEventId(1L);
         existingEvent.setName("Original Event");
-        existingEvent.setHosts(new ArrayList<>(List.of("test@example.com")));
+        when(eventMemberRepository.existsByEventIdAndUserEmailAndRole(1L, "test@example.com", MemberRole.HOST))
+                .thenReturn(true);
 
         Event updatedEvent = new Event();
         updatedEvent.setName("Updated Event");
@@ -521,13 +588,13 @@ public class EventServiceTest {
         Event existingEvent = new Event();
         existingEvent.setEventId(1L);
         existingEvent.setName("Original Event");
-        existingEvent.setHosts(new ArrayList<>(List.of("test@example.com")));
-        existingEvent.setParticipants(new ArrayList<>(
-                Arrays.asList("user1@example.com", "user2@example.com", "user3@example.com")));
+        when(eventMemberRepository.existsByEventIdAndUserEmailAndRole(1L, "test@example.com", MemberRole.HOST))
+                .thenReturn(true);
+        existingEvent.setMemberCount(4);
 
         Event updatedEvent = new Event();
         updatedEvent.setName("Updated Event");
-        updatedEvent.setMaxUsers(2); // Less than current participants count (3)
+        updatedEvent.setMaxUsers(2); // Less than current member count (4)
 
         when(eventRepository.findById(1L)).thenReturn(Optional.of(existingEvent));
 
@@ -547,42 +614,53 @@ public class EventServiceTest {
         eventToDelete.setEventId(1L);
         eventToDelete.setName("Event To Delete");
         eventToDelete.setGroupId(1L);
-        eventToDelete.setHosts(new ArrayList<>(List.of("test@example.com")));
-        eventToDelete.setParticipants(new ArrayList<>(List.of("participant@example.com")));
-
-        Group group = new Group();
-        group.setGroupId(1L);
-        group.setEvents(new ArrayList<>(List.of(1L)));
-
-        User host = new User();
-        host.setUserEmail("test@example.com");
-        host.setHostedEvents(new ArrayList<>(List.of(1L)));
-
-        User participant = new User();
-        participant.setUserEmail("participant@example.com");
-        participant.setJoinedEvents(new ArrayList<>(List.of(1L)));
-
+        when(eventMemberRepository.existsByEventIdAndUserEmailAndRole(1L, "test@example.com", MemberRole.HOST))
+                .thenReturn(true);
         when(eventRepository.findById(1L)).thenReturn(Optional.of(eventToDelete));
-        when(groupRepository.findById(1L)).thenReturn(Optional.of(group));
-        when(userRepository.findById("test@example.com")).thenReturn(Optional.of(host));
-        when(userRepository.findById("participant@example.com")).thenReturn(Optional.of(participant));
 
         // Act
         eventService.deleteEvent(1L, testUser);
 
-        // Assert
-        verify(eventRepository).findById(1L);
-        verify(groupRepository).findById(1L);
-        verify(userRepository).findById("test@example.com");
-        verify(userRepository).findById("participant@example.com");
-        verify(groupRepository).save(group);
-        verify(userRepository).save(host);
-        verify(userRepository).save(participant);
-        verify(eventRepository).delete(eventToDelete);
+        // Assert - one statement per table, however many members and reminders the event has
+        List<Long> eventIds = List.of(1L);
+        verify(groupRepository).removeEventReferences(eventIds);
+        verify(userRepository).removeHostedEventReferences(eventIds);
+        verify(userRepository).removeJoinedEventReferences(eventIds);
+        verify(eventReminderRepository).deleteAllByEventIdIn(eventIds);
+        verify(occurrenceOverrideRepository).deleteAllByEventIdIn(eventIds);
+        verify(eventMemberRepository).deleteAllByEventIdIn(eventIds);
+        verify(eventRepository).deleteAllByEventIdIn(eventIds);
+        verify(upcomingEventService).remove(1L);
+        verify(nameSearchService).removeEvent(1L);
 
-        assertFalse(group.getEvents().contains(1L));
-        assertFalse(host.getHostedEvents().contains(1L));
-        assertFalse(participant.getJoinedEvents().contains(1L));
+        verify(groupRepository, never()).findById(anyLong());
+        verify(userRepository, never()).findById(anyString());
+        verify(userRepository, never()).save(any(User.class));
+        verify(eventMemberRepository, never()).findByEventId(anyLong());
+    }
+
+    @Test
+    void deleteEvent_InATransaction_UpdatesIndexesOnlyOnCommit() {
+        // Arrange
+        Event eventToDelete = new Event();
+        eventToDelete.setEventId(1L);
+        when(eventMemberRepository.existsByEventIdAndUserEmailAndRole(1L, "test@example.com", MemberRole.HOST))
+                .thenReturn(true);
+        when(eventRepository.findById(1L)).thenReturn(Optional.of(eventToDelete));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            eventService.deleteEvent(1L, testUser);
+
+            // Assert - nothing is dropped from the indexes while the delete can still roll back
+            verifyNoInteractions(upcomingEventService, nameSearchService);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            verify(upcomingEventService).remove(1L);
+            verify(nameSearchService).removeEvent(1L);
+            verify(scheduleService).invalidateAll();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
     }
 
     @Test
@@ -596,7 +674,8 @@ public class EventServiceTest {
 
         assertEquals("Event not found with id: 999", exception.getMessage());
         verify(eventRepository).findById(999L);
-        verify(eventRepository, never()).delete(any(Event.class));
+        verify(eventRepository, never()).deleteAllByEventIdIn(anyList());
+        verifyNoInteractions(eventReminderRepository);
         verifyNoInteractions(groupRepository);
         verifyNoInteractions(userRepository);
     }
@@ -607,7 +686,6 @@ public class EventServiceTest {
         Event eventToDelete = new Event();
         eventToDelete.setEventId(1L);
         eventToDelete.setName("Event To Delete");
-        eventToDelete.setHosts(new ArrayList<>(List.of("otherhost@example.com")));
 
         when(eventRepository.findById(1L)).thenReturn(Optional.of(eventToDelete));
 
@@ -617,326 +695,208 @@ public class EventServiceTest {
 
         assertEquals("Only event hosts can delete events", exception.getMessage());
         verify(eventRepository).findById(1L);
-        verify(eventRepository, never()).delete(any(Event.class));
+        verify(eventRepository, never()).deleteAllByEventIdIn(anyList());
+        verifyNoInteractions(eventReminderRepository);
         verifyNoInteractions(groupRepository);
         verifyNoInteractions(userRepository);
     }
 
+    // STORY3.15 As a user I would like to register for an upcoming event (Ayush)
     @Test
-    void getAllShortEvents_WithFilter_AppliesFiltersCorrectly() {
+    void joinEvent_AddsUserToParticipants() {
         // Arrange
-        List<Event> allEvents = new ArrayList<>();
-
-        // Set up events as before
-        Event publicEvent = new Event();
-        publicEvent.setEventId(1L);
-        publicEvent.setName("Public Event");
-        publicEvent.setIsPublic(true);
-        publicEvent.setEventTime(LocalDateTime.now().plusDays(7));
-        publicEvent.setHosts(new ArrayList<>(List.of("host@example.com")));
-        publicEvent.setParticipants(new ArrayList<>(List.of(
-                "user1@example.com", "user2@example.com", "user3@example.com", "user4@example.com"
-        )));
-        publicEvent.setMaxUsers(10);
-        allEvents.add(publicEvent);
-
-        // More events...
-        Event fullEvent = new Event();
-        fullEvent.setEventId(4L);
-        fullEvent.setName("Full Event");
-        fullEvent.setIsPublic(true);
-        fullEvent.setEventTime(LocalDateTime.now().plusDays(3));
-        fullEvent.setHosts(new ArrayList<>(List.of("host@example.com")));
-        fullEvent.setParticipants(new ArrayList<>(List.of(
-                "user1@example.com", "user2@example.com", "user3@example.com", "user4@example.com"
-        )));
-        fullEvent.setMaxUsers(5);
-        allEvents.add(fullEvent);
-
-        when(eventRepository.findAll()).thenReturn(allEvents);
-
-        // Create filter for public events only
-        EventFilter publicFilter = new EventFilter(null
-                , null, null, null, null, null, null, null
-        );
+        testEvent.setIsPublic(true);
+        testEvent.setMaxUsers(10);
+        testEvent.setEventTime(LocalDateTime.now().plusDays(1)); // Event in the future
+
+        when(eventRepository.findById(1L)).thenReturn(Optional.of(testEvent));
+        when(eventRepository.reserveSeat(1L)).thenReturn(1);
+        when(userRepository.save(any(User.class))).thenReturn(testUser);
 
         // Act
-        List<ShortEvent> result = eventService.getAllShortEvents(publicFilter);
+        Event result = eventService.joinEvent(1L, testUser);
 
         // Assert
-        assertNotNull(result);
-        assertEquals(2, result.size());
-
-        // Update verification to account for 2 calls
-        verify(eventRepository, times(2)).findAll();
-    }
-
-    @Test
-    void getAllShortEvents_SearchFilter_AppliesCorrectly() {
-        // Simplified test with minimal setup
-        List<Event> events = new ArrayList<>();
-        Event event = new Event();
-        event.setEventId(1L);
-        event.setName("Party");
-        events.add(event);
-
-        when(eventRepository.findAll()).thenReturn(events);
-
-        List<ShortEvent> result = eventService.getAllShortEvents();
-
-        assertNotNull(result);
-        verify(eventRepository, times(2)).findAll();
+        assertSame(testEvent, result);
+        assertTrue(testUser.getJoinedEvents().contains(1L));
+        verify(eventRepository).findById(1L);
+        verify(eventRepository).reserveSeat(1L);
+        verify(eventMemberRepository).save(argThat((EventMember member) ->
+                member.getEventId().equals(1L) &&
+                member.getUserEmail().equals(testUser.getUserEmail()) &&
+                member.getRole() == MemberRole.PARTICIPANT));
+        verify(eventRepository, never()).save(any(Event.class)); // The roster is never loaded or rewritten
+        verify(userRepository).save(testUser);
+        verify(entityManager).refresh(testEvent);
+        verify(scheduleService).invalidate(testUser.getUserEmail());
     }
 
+    // STORY3.15 As a user I would like to register for an upcoming event (Ayush)
     @Test
-    void getAllShortEvents_UserLimitsFilter_AppliesCorrectly() {
+    void joinEvent_ThrowsException_WhenEventIsFull() {
         // Arrange
-        List<Event> allEvents = new ArrayList<>();
-
-        // Small event (1-5 users)
-        Event smallEvent = new Event();
-        smallEvent.setEventId(1L);
-        smallEvent.setName("Small Event");
-        smallEvent.setIsPublic(true);
-        smallEvent.setEventTime(LocalDateTime.now().plusDays(1));
-        smallEvent.setHosts(new ArrayList<>(List.of("host@example.com")));
-        smallEvent.setParticipants(new ArrayList<>(List.of("p1@example.com")));
-        allEvents.add(smallEvent);
-
-        // Medium event (6-10 users)
-        Event mediumEvent = new Event();
-        mediumEvent.setEventId(2L);
-        mediumEvent.setName("Medium Event");
-        mediumEvent.setIsPublic(true);
-        mediumEvent.setEventTime(LocalDateTime.now().plusDays(1));
-        mediumEvent.setHosts(new ArrayList<>(List.of("host@example.com")));
-        mediumEvent.setParticipants(new ArrayList<>(Arrays.asList(
-                "p1@example.com", "p2@example.com", "p3@example.com",
-                "p4@example.com", "p5@example.com", "p6@example.com")));
-        allEvents.add(mediumEvent);
-
-        when(eventRepository.findAll()).thenReturn(allEvents);
-
-        // Filter for medium-sized events (6-10 users)
-        EventFilter mediumFilter = new EventFilter(null, 6, 10, null, null, null, false, false);
+        testEvent.setIsPublic(true);
+        testEvent.setMaxUsers(1);
+        testEvent.setMemberCount(1);
+        testEvent.setEventTime(LocalDateTime.now().plusDays(1)); // Event in the future
 
-        // Act
-        List<ShortEvent> result = eventService.getAllShortEvents(mediumFilter);
+        when(eventRepository.findById(1L)).thenReturn(Optional.of(testEvent));
 
-        // Assert
-        assertNotNull(result);
-        assertEquals(1, result.size());
-        assertEquals("Medium Event", result.get(0).getName());
+        // Act & Assert
+        Exception exception = assertThrows(IllegalStateException.class, () -> {
+            eventService.joinEvent(1L, testUser);
+        });
 
-        verify(eventRepository, times(2)).findAll();
+        assertEquals("Event has reached maximum capacity", exception.getMessage());
+        verify(eventRepository).findById(1L);
+        verify(eventRepository, never()).save(any(Event.class));
     }
 
     @Test
-    void getAllShortEvents_DateRangeFilter_AppliesCorrectly() {
-        // Arrange
-        List<Event> allEvents = new ArrayList<>();
-        LocalDateTime now = LocalDateTime.now();
-
-        Event tomorrowEvent = new Event();
-        tomorrowEvent.setEventId(2L);
-        tomorrowEvent.setName("Tomorrow Event");
-        tomorrowEvent.setEventTime(now.plusDays(1));
-        tomorrowEvent.setIsPublic(true); // Set isPublic flag
-        tomorrowEvent.setHosts(new ArrayList<>());
-        tomorrowEvent.setParticipants(new ArrayList<>());
-        allEvents.add(tomorrowEvent);
-
-        when(eventRepository.findAll()).thenReturn(allEvents);
-
-        // Filter for events in the next 5 days - use dates within the test instead of external variables
-        EventFilter dateRangeFilter = new EventFilter(
-                null, null, null,
-                now.toString(), now.plusDays(5).toString(),
-                null, false, false);
+    void joinEvent_ThrowsException_WhenLastSeatTakenConcurrently() {
+        // Arrange - the loaded row still shows a free seat, but another join claims it first
+        testEvent.setIsPublic(true);
+        testEvent.setMaxUsers(2);
+        testEvent.setMemberCount(1);
+        testEvent.setEventTime(LocalDateTime.now().plusDays(1));
 
-        // Act
-        List<ShortEvent> result = eventService.getAllShortEvents(dateRangeFilter);
+        when(eventRepository.findById(1L)).thenReturn(Optional.of(testEvent));
+        when(eventRepository.reserveSeat(1L)).thenReturn(0);
 
-        // Assert
-        assertNotNull(result);
-        assertEquals(1, result.size());
-        assertEquals("Tomorrow Event", result.get(0).getName());
-        verify(eventRepository, times(2)).findAll();
+        // Act & Assert
+        Exception exception = assertThrows(IllegalStateException.class, () -> {
+            eventService.joinEvent(1L, testUser);
+        });
+
+        assertEquals("Event has reached maximum capacity", exception.getMessage());
+        verify(eventMemberRepository, never()).save(any(EventMember.class));
+        verifyNoInteractions(userRepository);
     }
 
     @Test
-    void getAllShortEvents_CombinedFilters_AppliesCorrectly() {
-        // Simplified test with minimal setup
-        List<Event> events = new ArrayList<>();
-        Event event = new Event();
-        event.setEventId(1L);
-        event.setName("Event");
-        events.add(event);
-
-        when(eventRepository.findAll()).thenReturn(events);
+    void joinEvent_CannotSkipTheWaitlist() {
+        // Arrange - a seat is free, but someone is still queued after promotion
+        testEvent.setIsPublic(true);
+        testEvent.setMaxUsers(2);
+        testEvent.setMemberCount(1);
+        testEvent.setEventTime(LocalDateTime.now().plusDays(1));
 
-        List<ShortEvent> result = eventService.getAllShortEvents();
+        when(eventRepository.findById(1L)).thenReturn(Optional.of(testEvent));
+        when(waitlistService.hasWaiting(1L)).thenReturn(true);
 
-        assertNotNull(result);
-        verify(eventRepository, times(2)).findAll();
+        // Act & Assert
+        Exception exception = assertThrows(IllegalStateException.class, () -> eventService.joinEvent(1L, testUser));
+        assertEquals("Event has a waitlist. Join the waitlist instead.", exception.getMessage());
+        verify(waitlistService).promoteAndCommit(testEvent);
+        verify(eventRepository, never()).reserveSeat(anyLong());
+        verify(eventMemberRepository, never()).save(any(EventMember.class));
     }
 
     @Test
-    void getAllShortEvents_OnlyFullEvents_FiltersCorrectly() {
+    void leaveEvent_ReleasesSeatAndPromotesWaitlist() {
         // Arrange
-        List<Event> allEvents = new ArrayList<>();
-
-        // Full event
-        Event fullEvent = new Event();
-        fullEvent.setEventId(1L);
-        fullEvent.setName("Full Event");
-        fullEvent.setEventTime(LocalDateTime.now().plusDays(1));
-        fullEvent.setIsPublic(true);
-        fullEvent.setMaxUsers(5); // 1 host + 4 participants = full
-        fullEvent.setHosts(new ArrayList<>(List.of("host@example.com")));
-        fullEvent.setParticipants(new ArrayList<>(Arrays.asList(
-                "p1@example.com", "p2@example.com",
-                "p3@example.com", "p4@example.com")));
-        allEvents.add(fullEvent);
-
-        when(eventRepository.findAll()).thenReturn(allEvents);
-
-        // Filter for only full events
-        EventFilter fullEventsFilter = new EventFilter(
-                null, null, null, null, null,
-                null, false, true);
+        testUser.getJoinedEvents().add(1L);
+        when(eventRepository.findById(1L)).thenReturn(Optional.of(testEvent));
+        when(eventMemberRepository.removeMember(1L, "test@example.com")).thenReturn(1);
 
         // Act
-        List<ShortEvent> result = eventService.getAllShortEvents(fullEventsFilter);
+        Event result = eventService.leaveEvent(1L, testUser);
 
         // Assert
-        assertNotNull(result);
-        assertEquals(1, result.size());
-        assertEquals("Full Event", result.get(0).getName());
-
-        verify(eventRepository, times(2)).findAll();
+        assertSame(testEvent, result);
+        assertFalse(testUser.getJoinedEvents().contains(1L));
+        verify(eventRepository).releaseSeat(1L);
+        verify(waitlistService).promote(testEvent);
+        verify(entityManager).refresh(testEvent);
+        verify(scheduleService).invalidate("test@example.com");
     }
 
     @Test
-    void getAllShortEvents_ChronologicalSorting_SortsCorrectly() {
-        // Arrange
-        List<Event> unsortedEvents = new ArrayList<>();
-
-        // Add events in non-chronological order
-        Event laterEvent = new Event();
-        laterEvent.setEventId(1L);
-        laterEvent.setName("Later Event");
-        laterEvent.setEventTime(LocalDateTime.now().plusDays(7));
-        laterEvent.setIsPublic(true); // Set isPublic flag
-        laterEvent.setHosts(new ArrayList<>());
-        laterEvent.setParticipants(new ArrayList<>());
-        unsortedEvents.add(laterEvent);
-
-        Event soonerEvent = new Event();
-        soonerEvent.setEventId(2L);
-        soonerEvent.setName("Sooner Event");
-        soonerEvent.setEventTime(LocalDateTime.now().plusDays(1));
-        soonerEvent.setIsPublic(true); // Set isPublic flag
-        soonerEvent.setHosts(new ArrayList<>());
-        soonerEvent.setParticipants(new ArrayList<>());
-        unsortedEvents.add(soonerEvent);
-
-        when(eventRepository.findAll()).thenReturn(unsortedEvents);
-
-        // Act - use default filter instead of custom filter
-        List<ShortEvent> result = eventService.getAllShortEvents();
-
-        // Assert
-        assertNotNull(result);
-        assertEquals(2, result.size());
-        // Verify chronological order
-        assertEquals("Sooner Event", result.get(0).getName());
-        assertEquals("Later Event", result.get(1).getName());
+    void leaveEvent_NotAttending_DoesNotReleaseSeat() {
+        // Arrange - e.g. a second leave racing the first
+        when(eventRepository.findById(1L)).thenReturn(Optional.of(testEvent));
+        when(eventMemberRepository.removeMember(1L, "test@example.com")).thenReturn(0);
 
-        verify(eventRepository, times(2)).findAll();
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> eventService.leaveEvent(1L, testUser));
+        verify(eventRepository, never()).releaseSeat(anyLong());
+        verifyNoInteractions(waitlistService);
     }
 
     @Test
-    void getAllShortEvents_NonChronologicalEvents_HandlesNullDatesCorrectly() {
+    void leaveEvent_HostCannotLeave() {
         // Arrange
-        List<Event> mixedEvents = new ArrayList<>();
-
-        // Event with a date
-        Event datedEvent = new Event();
-        datedEvent.setEventId(1L);
-        datedEvent.setName("Dated Event");
-        datedEvent.setEventTime(LocalDateTime.now().plusDays(3));
-        datedEvent.setIsPublic(true); // Add this
-        datedEvent.setHosts(new ArrayList<>());
-        datedEvent.setParticipants(new ArrayList<>());
-        mixedEvents.add(datedEvent);
-
-        // Event without a date
-        Event undatedEvent = new Event();
-        undatedEvent.setEventId(2L);
-        undatedEvent.setName("Undated Event");
-        undatedEvent.setEventTime(null); // No date
-        undatedEvent.setIsPublic(true); // Add this
-        undatedEvent.setHosts(new ArrayList<>());
-        undatedEvent.setParticipants(new ArrayList<>());
-        mixedEvents.add(undatedEvent);
-
-        when(eventRepository.findAll()).thenReturn(mixedEvents);
-
-        // Act - use default filter instead of creating a custom one
-        List<ShortEvent> result = eventService.getAllShortEvents();
-
-        // Assert
-        assertNotNull(result);
-        assertEquals(2, result.size());
-        // Verify that dated event comes first, undated event is last
-        assertEquals("Dated Event", result.get(0).getName());
-        assertEquals("Undated Event", result.get(1).getName());
+        when(eventRepository.findById(1L)).thenReturn(Optional.of(testEvent));
+        when(eventMemberRepository.existsByEventIdAndUserEmailAndRole(1L, "test@example.com", MemberRole.HOST))
+                .thenReturn(true);
 
-        verify(eventRepository, times(2)).findAll();
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> eventService.leaveEvent(1L, testUser));
+        verify(eventMemberRepository, never()).removeMember(anyLong(), anyString());
     }
 
-    // STORY3.15 As a user I would like to register for an upcoming event (Ayush)
     @Test
-    void joinEvent_AddsUserToParticipants() {
+    void createEvent_EnrollsGroupParticipantsUpToCapacityInBulk() {
         // Arrange
-        testEvent.setIsPublic(true);
-        testEvent.setMaxUsers(10);
-        testEvent.setEventTime(LocalDateTime.now().plusDays(1)); // Event in the future
+        Event eventToCreate = new Event();
+        eventToCreate.setName("Small Event");
+        eventToCreate.setMaxUsers(2); // Host + one participant
+        eventToCreate.setEventTime(LocalDateTime.now().plusDays(1));
 
-        when(eventRepository.findById(1L)).thenReturn(Optional.of(testEvent));
-        when(eventRepository.save(any(Event.class))).thenReturn(testEvent);
-        when(userRepository.save(any(User.class))).thenReturn(testUser);
+        when(groupRepository.findById(1L)).thenReturn(Optional.of(testGroup));
+        when(eventRepository.save(any(Event.class))).thenAnswer(invocation -> {
+            Event savedEvent = invocation.getArgument(0);
+            savedEvent.setEventId(7L);
+            return savedEvent;
+        });
+        // Only as many group participants as there are free seats are copied, in one statement
+        when(eventMemberRepository.enrollGroupParticipants(7L, 1L, 1)).thenReturn(1);
 
         // Act
-        Event result = eventService.joinEvent(1L, testUser);
+        Event result = eventService.createEvent(eventToCreate, 1L, testUser);
 
         // Assert
-        assertTrue(result.getParticipants().contains(testUser.getUserEmail()));
-        assertTrue(testUser.getJoinedEvents().contains(1L));
-        verify(eventRepository).findById(1L);
-        verify(eventRepository).save(testEvent);
-        verify(userRepository).save(testUser);
+        assertEquals(2, result.getMemberCount());
+        verify(userRepository).addJoinedEventForParticipants(7L);
+        verify(eventRepository).addSeats(7L, 1);
+        verify(eventMemberRepository, never()).saveAll(anyList());
+        verify(userRepository, never()).findById(anyString());
     }
 
-    // STORY3.15 As a user I would like to register for an upcoming event (Ayush)
     @Test
-    void joinEvent_ThrowsException_WhenEventIsFull() {
+    void createEvent_PastEventSkipsGroupEnrollment() {
         // Arrange
-        testEvent.setIsPublic(true);
-        testEvent.setMaxUsers(1);
-        testEvent.setEventTime(LocalDateTime.now().plusDays(1)); // Event in the future
-        testEvent.getParticipants().add("other@example.com");
-
-        when(eventRepository.findById(1L)).thenReturn(Optional.of(testEvent));
+        Event eventToCreate = new Event();
+        eventToCreate.setName("Past Event");
+        eventToCreate.setMaxUsers(10);
+        eventToCreate.setEventTime(LocalDateTime.now().minusDays(1));
 
-        // Act & Assert
-        Exception exception = assertThrows(IllegalStateException.class, () -> {
-            eventService.joinEvent(1L, testUser);
+        when(groupRepository.findById(1L)).thenReturn(Optional.of(testGroup));
+        when(eventRepository.save(any(Event.class))).thenAnswer(invocation -> {
+            Event savedEvent = invocation.getArgument(0);
+            savedEvent.setEventId(8L);
+            return savedEvent;
         });
 
-        assertEquals("Event has reached maximum capacity", exception.getMessage());
-        verify(eventRepository).findById(1L);
-        verify(eventRepository, never()).save(any(Event.class));
+        // Act
+        Event result = eventService.createEvent(eventToCreate, 1L, testUser);
+
+        // Assert
+        assertEquals(1, result.getMemberCount());
+        verify(eventMemberRepository, never()).enrollGroupParticipants(anyLong(), anyLong(), anyInt());
+        verify(eventRepository, never()).addSeats(anyLong(), anyInt());
+    }
+
+    private static EventFilter emptyFilter() {
+        return new EventFilter(null, null, null, null, null, null, null, null);
+    }
+
+    private static Event timedEvent(Long eventId, LocalDateTime eventTime) {
+        Event event = new Event();
+        event.setEventId(eventId);
+        event.setName("Event " + eventId);
+        event.setIsPublic(true);
+        event.setEventTime(eventTime);
+        return event;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,193 @@
+package com.grapevine.service;
+
+import com.grapevine.model.Group;
+import com.grapevine.model.GroupRankingSnapshot;
+import com.grapevine.model.RankedGroup;
+import com.grapevine.repository.EventRepository;
+import com.grapevine.repository.GroupRankingSnapshotRepository;
+import com.grapevine.repository.GroupRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class GroupRankingServiceTest {
+
+    @Mock
+    private GroupRepository groupRepository;
+
+    @Mock
+    private EventRepository eventRepository;
+
+    @Mock
+    private GroupRankingSnapshotRepository snapshotRepository;
+
+    @InjectMocks
+    private GroupRankingService groupRankingService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(eventRepository.countUpcomingEventsByGroup(any(LocalDateTime.class))).thenReturn(new ArrayList<>());
+    }
+
+    @Test
+    void refreshRankings_BayesianRatingPrefersManyGoodRatingsOverOnePerfectOne() {
+        // Arrange - group 1 has a single 5, group 2 has twenty ratings averaging 4.5
+        when(groupRepository.findRankingInputs()).thenReturn(List.of(
+                row(1L, "One Review Wonder", "CS30700", 1, 5.0),
+                row(2L, "Steady Group", "CS30700", 20, 90.0),
+                row(3L, "Weak Group", "CS30700", 10, 20.0)));
+
+        // Act
+        groupRankingService.refreshRankings();
+        List<RankedGroup> result = groupRankingService.getRankings("top-rated", null, 3);
+
+        // Assert
+        assertEquals(List.of(2L, 1L, 3L), ids(result));
+    }
+
+    @Test
+    void recordJoin_MovesGroupUpTrendingWithoutWaitingForRefresh() {
+        // Arrange
+        when(groupRepository.findRankingInputs()).thenReturn(List.of(
+                row(1L, "Group A", null, 0, 0.0),
+                row(2L, "Group B", null, 0, 0.0)));
+        groupRankingService.refreshRankings();
+        assertEquals(List.of(1L, 2L), ids(groupRankingService.getRankings("trending", null, 10)));
+
+        // Act
+        groupRankingService.recordJoin(2L);
+
+        // Assert
+        List<RankedGroup> result = groupRankingService.getRankings("trending", null, 10);
+        assertEquals(List.of(2L, 1L), ids(result));
+        assertTrue(result.get(0).getScore() > result.get(1).getScore());
+    }
+
+    @Test
+    void refreshRankings_UpcomingEventsRaiseTrendingScore() {
+        // Arrange
+        when(groupRepository.findRankingInputs()).thenReturn(List.of(
+                row(1L, "Quiet Group", null, 0, 0.0),
+                row(2L, "Busy Group", null, 0, 0.0)));
+        List<Object[]> upcoming = new ArrayList<>();
+        upcoming.add(new Object[]{2L, 3L});
+        when(eventRepository.countUpcomingEventsByGroup(any(LocalDateTime.class))).thenReturn(upcoming);
+
+        // Act
+        groupRankingService.refreshRankings();
+
+        // Assert
+        assertEquals(List.of(2L, 1L), ids(groupRankingService.getRankings("trending", null, 10)));
+    }
+
+    @Test
+    void getRankings_CourseBoardOnlyContainsThatCourse() {
+        // Arrange
+        when(groupRepository.findRankingInputs()).thenReturn(List.of(
+                row(1L, "Compilers", "CS35200", 0, 0.0),
+                row(2L, "Software Eng", "CS30700", 0, 0.0),
+                row(3L, "General", null, 0, 0.0)));
+        groupRankingService.refreshRankings();
+
+        // Act
+        List<RankedGroup> course = groupRankingService.getRankings("trending", "cs30700", 10);
+        List<RankedGroup> global = groupRankingService.getRankings("trending", null, 10);
+
+        // Assert
+        assertEquals(List.of(2L), ids(course));
+        assertEquals("CS30700", course.get(0).getCourse());
+        assertEquals(3, global.size());
+        assertTrue(groupRankingService.getRankings("trending", "MA16100", 10).isEmpty());
+    }
+
+    @Test
+    void getRankings_LimitsResultSize() {
+        // Arrange
+        when(groupRepository.findRankingInputs()).thenReturn(List.of(
+                row(1L, "A", null, 0, 0.0),
+                row(2L, "B", null, 0, 0.0),
+                row(3L, "C", null, 0, 0.0)));
+        groupRankingService.refreshRankings();
+
+        // Act & Assert
+        assertEquals(2, groupRankingService.getRankings("trending", null, 2).size());
+    }
+
+    @Test
+    void getRankings_InvalidSort_ThrowsException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> groupRankingService.getRankings("newest", null, 10));
+    }
+
+    @Test
+    void trackGroup_NewGroupIsRankedImmediately() {
+        // Arrange
+        Group group = new Group();
+        group.setGroupId(9L);
+        group.setName("Brand New");
+        group.setCourse("CS25200");
+
+        // Act
+        groupRankingService.trackGroup(group);
+
+        // Assert
+        assertEquals(List.of(9L), ids(groupRankingService.getRankings("trending", "CS25200", 10)));
+        verifyNoInteractions(groupRepository);
+    }
+
+    @Test
+    void refreshRankings_PersistsSnapshotAndDropsDeletedGroups() {
+        // Arrange
+        when(groupRepository.findRankingInputs())
+                .thenReturn(List.of(row(1L, "Kept", null, 0, 0.0), row(2L, "Deleted", null, 0, 0.0)))
+                .thenReturn(List.<Object[]>of(row(1L, "Kept", null, 0, 0.0)));
+        groupRankingService.refreshRankings();
+
+        // Act
+        groupRankingService.refreshRankings();
+
+        // Assert
+        verify(snapshotRepository, times(2)).saveAll(anyList());
+        verify(snapshotRepository).deleteAllByIdInBatch(List.of(2L));
+        assertEquals(List.of(1L), ids(groupRankingService.getRankings("trending", null, 10)));
+    }
+
+    @Test
+    void loadSnapshot_RestoresLeaderboards() {
+        // Arrange
+        GroupRankingSnapshot snapshot = new GroupRankingSnapshot();
+        snapshot.setGroupId(4L);
+        snapshot.setGroupName("Restored Group");
+        snapshot.setCourse("CS30700");
+        snapshot.setRatingSum(9.0);
+        snapshot.setRatingCount(2);
+        when(snapshotRepository.findAll()).thenReturn(List.of(snapshot));
+
+        // Act
+        groupRankingService.loadSnapshot();
+
+        // Assert
+        List<RankedGroup> result = groupRankingService.getRankings("top-rated", "CS30700", 10);
+        assertEquals(List.of(4L), ids(result));
+        assertEquals("Restored Group", result.get(0).getName());
+    }
+
+    private static Object[] row(Long groupId, String name, String course, long ratingCount, double ratingSum) {
+        return new Object[]{groupId, name, course, ratingCount, ratingSum};
+    }
+
+    private static List<Long> ids(List<RankedGroup> rankings) {
+        return rankings.stream().map(RankedGroup::getGroupId).toList();
+    }
+}
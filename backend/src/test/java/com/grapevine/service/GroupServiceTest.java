@@ -1,18 +1,32 @@
 package com.grapevine.service;
 
 import com.grapevine.exception.GroupNotFoundException;
+import com.grapevine.exception.UnauthorizedException;
+import com.grapevine.model.CursorPage;
+import com.grapevine.model.Event;
+import com.grapevine.model.EventMember;
 import com.grapevine.model.Group;
+import com.grapevine.model.GroupAccessRequest;
+import com.grapevine.model.GroupMember;
+import com.grapevine.model.MemberRole;
 import com.grapevine.model.Rating;
 import com.grapevine.model.ShortGroup;
 import com.grapevine.model.User;
+import com.grapevine.repository.EventMemberRepository;
+import com.grapevine.repository.EventRepository;
+import com.grapevine.repository.GroupAccessRequestRepository;
+import com.grapevine.repository.GroupMemberRepository;
 import com.grapevine.repository.GroupRepository;
 import com.grapevine.repository.UserRepository;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Limit;
 
+import java.time.LocalDateTime;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -35,6 +49,36 @@ public class GroupServiceTest {
     @Mock
     private EmailService emailService;
 
+    @Mock
+    private GroupAccessRequestRepository accessRequestRepository;
+
+    @Mock
+    private AccessRequestNotifier accessRequestNotifier;
+
+    @Mock
+    private EventRepository eventRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private GroupRankingService groupRankingService;
+
+    @Mock
+    private GroupMemberRepository groupMemberRepository;
+
+    @Mock
+    private EventMemberRepository eventMemberRepository;
+
+    @Mock
+    private UpcomingEventService upcomingEventService;
+
+    @Mock
+    private NameSearchService nameSearchService;
+
+    @Mock
+    private ScheduleService scheduleService;
+
     private User instructorUser;
     private User studentUser;
     private Group testGroup;
@@ -61,8 +105,6 @@ public class GroupServiceTest {
         testGroup.setDescription("Group for testing");
         testGroup.setMaxUsers(10);
         testGroup.setPublic(true); // Set isPublic attribute
-        testGroup.setHosts(new ArrayList<>());
-        testGroup.setParticipants(new ArrayList<>());
 
         // Set up test user using no-args constructor
         testUser = new User();
@@ -84,8 +126,6 @@ public class GroupServiceTest {
         secondGroup.setDescription("Another group");
         secondGroup.setMaxUsers(15);
         secondGroup.setPublic(false); // Set isPublic attribute
-        secondGroup.setHosts(new ArrayList<>());
-        secondGroup.setParticipants(new ArrayList<>());
         expectedGroups.add(secondGroup);
 
         when(groupRepository.findAll()).thenReturn(expectedGroups);
@@ -120,16 +160,11 @@ public class GroupServiceTest {
     @Test
     void getAllShortGroups_ShouldReturnAllGroupsInShortForm() {
         // Arrange
-        List<Group> groups = new ArrayList<>();
-        groups.add(testGroup);
+        List<ShortGroup> groups = List.of(
+                new ShortGroup(1L, "Test Group", true, false, 3),
+                new ShortGroup(2L, "Second Group", false, false, 1));
 
-        Group secondGroup = new Group();
-        secondGroup.setGroupId(2L);
-        secondGroup.setName("Second Group");
-        secondGroup.setPublic(false); // Set isPublic attribute
-        groups.add(secondGroup);
-
-        when(groupRepository.findAll()).thenReturn(groups);
+        when(groupRepository.findAllShortGroups()).thenReturn(groups);
 
         // Act
         List<ShortGroup> result = groupService.getAllShortGroups();
@@ -140,16 +175,18 @@ public class GroupServiceTest {
         assertEquals(1L, result.get(0).getGroupId());
         assertEquals("Test Group", result.get(0).getName());
         assertTrue(result.get(0).isPublic());
+        assertEquals(3, result.get(0).getMemberCount());
         assertEquals(2L, result.get(1).getGroupId());
         assertEquals("Second Group", result.get(1).getName());
         assertFalse(result.get(1).isPublic());
-        verify(groupRepository).findAll();
+        verify(groupRepository).findAllShortGroups();
+        verify(groupRepository, never()).findAll(); // Listing never loads full groups or their members
     }
 
     @Test
     void getAllShortGroups_ShouldReturnEmptyList_WhenNoGroupsExist() {
         // Arrange
-        when(groupRepository.findAll()).thenReturn(new ArrayList<>());
+        when(groupRepository.findAllShortGroups()).thenReturn(new ArrayList<>());
 
         // Act
         List<ShortGroup> result = groupService.getAllShortGroups();
@@ -157,7 +194,7 @@ public class GroupServiceTest {
         // Assert
         assertNotNull(result);
         assertTrue(result.isEmpty());
-        verify(groupRepository).findAll();
+        verify(groupRepository).findAllShortGroups();
     }
 
     @Test
@@ -181,9 +218,14 @@ public class GroupServiceTest {
         assertEquals(testGroup.getName(), result.getName());
         assertEquals(testGroup.isPublic(), result.isPublic());
 
-        // Verify the group was initialized correctly
+        // Verify the group was initialized correctly and the creator got a host row
         verify(groupRepository).save(any(Group.class));
+        verify(groupMemberRepository).save(argThat((GroupMember member) ->
+                member.getGroupId().equals(testGroup.getGroupId()) &&
+                member.getUserEmail().equals(testUser.getUserEmail()) &&
+                member.getRole() == MemberRole.HOST));
         verify(userRepository).save(testUser);
+        verify(nameSearchService).indexGroup(testGroup);
 
         // Check that the current user was added as host and user's hosted groups updated
         assertTrue(testUser.getHostedGroups().contains(testGroup.getGroupId()));
@@ -208,12 +250,163 @@ public class GroupServiceTest {
 
         // Assert
         assertNotNull(result.getHosts());
-        assertNotNull(result.getParticipants());
         assertTrue(result.getHosts().contains(testUser.getUserEmail()));
+        assertEquals(1, result.getMemberCount());
         assertTrue(result.isPublic());
         verify(groupRepository).save(any(Group.class));
     }
 
+    @Test
+    void joinPublicGroup_ReservesSeatAndInsertsParticipant() {
+        // Arrange
+        testUser.setJoinedGroups(new ArrayList<>());
+        when(groupRepository.findById(1L)).thenReturn(Optional.of(testGroup));
+        when(groupRepository.reserveSeat(1L)).thenReturn(1);
+
+        // Act
+        Group result = groupService.joinPublicGroup(1L, testUser);
+
+        // Assert
+        assertSame(testGroup, result);
+        assertTrue(testUser.getJoinedGroups().contains(1L));
+        verify(groupMemberRepository).save(argThat((GroupMember member) ->
+                member.getGroupId().equals(1L) &&
+                member.getUserEmail().equals(testUser.getUserEmail()) &&
+                member.getRole() == MemberRole.PARTICIPANT));
+        verify(groupRepository, never()).save(any(Group.class)); // The roster is never loaded or rewritten
+        verify(userRepository).save(testUser);
+        verify(entityManager).refresh(testGroup);
+        verify(groupRankingService).recordJoin(1L);
+    }
+
+    @Test
+    void joinPublicGroup_ThrowsWhenGroupIsFull() {
+        // Arrange
+        when(groupRepository.findById(1L)).thenReturn(Optional.of(testGroup));
+        when(groupRepository.reserveSeat(1L)).thenReturn(0);
+
+        // Act & Assert
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> groupService.joinPublicGroup(1L, testUser));
+
+        assertEquals("Group has reached maximum capacity", exception.getMessage());
+        verify(groupMemberRepository, never()).save(any(GroupMember.class));
+        verifyNoInteractions(userRepository);
+        verifyNoInteractions(groupRankingService);
+    }
+
+    @Test
+    void joinPublicGroup_SkipsUpcomingEventsWithoutFreeSeats() {
+        // Arrange
+        testUser.setJoinedGroups(new ArrayList<>());
+        testUser.setJoinedEvents(new ArrayList<>());
+        testGroup.setEvents(new ArrayList<>(List.of(100L, 200L)));
+
+        Event openEvent = createUpcomingEvent(100L);
+        Event fullEvent = createUpcomingEvent(200L);
+
+        when(groupRepository.findById(1L)).thenReturn(Optional.of(testGroup));
+        when(groupRepository.reserveSeat(1L)).thenReturn(1);
+        when(eventRepository.findById(100L)).thenReturn(Optional.of(openEvent));
+        when(eventRepository.findById(200L)).thenReturn(Optional.of(fullEvent));
+        when(eventRepository.reserveSeat(100L)).thenReturn(1);
+        when(eventRepository.reserveSeat(200L)).thenReturn(0);
+
+        // Act
+        groupService.joinPublicGroup(1L, testUser);
+
+        // Assert
+        assertEquals(List.of(100L), testUser.getJoinedEvents());
+        verify(eventMemberRepository).save(argThat((EventMember member) -> member.getEventId().equals(100L)));
+        verify(eventMemberRepository, never()).save(argThat((EventMember member) -> member.getEventId().equals(200L)));
+        verify(eventRepository, never()).save(any(Event.class));
+    }
+
+    @Test
+    void joinPublicGroup_ReportsSeatCountReadAfterTheReservation() {
+        // Arrange - other joins land between loading the event and claiming the seat
+        testUser.setJoinedGroups(new ArrayList<>());
+        testUser.setJoinedEvents(new ArrayList<>());
+        testGroup.setEvents(new ArrayList<>(List.of(100L)));
+        Event event = createUpcomingEvent(100L);
+        event.setMemberCount(3);
+
+        when(groupRepository.findById(1L)).thenReturn(Optional.of(testGroup));
+        when(groupRepository.reserveSeat(1L)).thenReturn(1);
+        when(eventRepository.findById(100L)).thenReturn(Optional.of(event));
+        when(eventRepository.reserveSeat(100L)).thenReturn(1);
+        doAnswer(invocation -> {
+            event.setMemberCount(7);
+            return null;
+        }).when(entityManager).refresh(event);
+
+        // Act
+        groupService.joinPublicGroup(1L, testUser);
+
+        // Assert
+        verify(upcomingEventService).updateMemberCount(100L, 7);
+    }
+
+    @Test
+    void getGroupMembers_ReturnsOnePageAndCursorToTheNext() {
+        // Arrange - the repository is asked for one row more than the page size
+        when(groupRepository.findById(1L)).thenReturn(Optional.of(testGroup));
+        when(groupMemberRepository.findByGroupIdAndMemberIdGreaterThanOrderByMemberIdAsc(1L, 0L, Limit.of(3)))
+                .thenReturn(List.of(member(11L, "a@example.com"), member(12L, "b@example.com"),
+                        member(13L, "c@example.com")));
+
+        // Act
+        CursorPage<GroupMember> page = groupService.getGroupMembers(1L, null, 2, null);
+
+        // Assert
+        assertEquals(2, page.getItems().size());
+        assertEquals("b@example.com", page.getItems().get(1).getUserEmail());
+        assertEquals("12", page.getNextCursor());
+    }
+
+    @Test
+    void getGroupMembers_LastPageHasNoCursor() {
+        // Arrange
+        when(groupRepository.findById(1L)).thenReturn(Optional.of(testGroup));
+        when(groupMemberRepository.findByGroupIdAndRoleAndMemberIdGreaterThanOrderByMemberIdAsc(
+                1L, MemberRole.PARTICIPANT, 12L, Limit.of(3)))
+                .thenReturn(List.of(member(13L, "c@example.com")));
+
+        // Act
+        CursorPage<GroupMember> page = groupService.getGroupMembers(1L, "12", 2, "participant");
+
+        // Assert
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getNextCursor());
+        verify(groupMemberRepository, never())
+                .findByGroupIdAndMemberIdGreaterThanOrderByMemberIdAsc(any(), any(), any());
+    }
+
+    @Test
+    void getGroupMembers_InvalidCursor_ThrowsException() {
+        // Arrange
+        when(groupRepository.findById(1L)).thenReturn(Optional.of(testGroup));
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> groupService.getGroupMembers(1L, "not-a-cursor", 50, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> groupService.getGroupMembers(1L, null, 50, "owner"));
+    }
+
+    private GroupMember member(Long memberId, String email) {
+        GroupMember member = new GroupMember(1L, email, MemberRole.PARTICIPANT);
+        member.setMemberId(memberId);
+        return member;
+    }
+
+    private Event createUpcomingEvent(Long eventId) {
+        Event event = new Event();
+        event.setEventId(eventId);
+        event.setEventTime(LocalDateTime.now().plusDays(1));
+        return event;
+    }
+
     @Test
     void getGroupById_ShouldReturnGroup_WhenGroupExists() {
         // Arrange
@@ -246,27 +439,11 @@ public class GroupServiceTest {
     @Test
     void getShortGroupsByPublicStatus_Public_ReturnsOnlyPublicGroups() {
         // Arrange
-        List<Group> allGroups = new ArrayList<>();
+        List<ShortGroup> publicGroups = List.of(
+                new ShortGroup(1L, "Test Group", true, false, 1),
+                new ShortGroup(3L, "Another Public Group", true, false, 4));
 
-        // Add public test group
-        testGroup.setPublic(true);
-        allGroups.add(testGroup);
-
-        // Add private group
-        Group privateGroup = new Group();
-        privateGroup.setGroupId(2L);
-        privateGroup.setName("Private Group");
-        privateGroup.setPublic(false);
-        allGroups.add(privateGroup);
-
-        // Add another public group
-        Group anotherPublicGroup = new Group();
-        anotherPublicGroup.setGroupId(3L);
-        anotherPublicGroup.setName("Another Public Group");
-        anotherPublicGroup.setPublic(true);
-        allGroups.add(anotherPublicGroup);
-
-        when(groupRepository.findAll()).thenReturn(allGroups);
+        when(groupRepository.findShortGroupsByPublicStatus(true)).thenReturn(publicGroups);
 
         // Act
         List<ShortGroup> result = groupService.getShortGroupsByPublicStatus(true);
@@ -280,33 +457,18 @@ public class GroupServiceTest {
         assertEquals(3L, result.get(1).getGroupId());
         assertEquals("Another Public Group", result.get(1).getName());
         assertTrue(result.get(1).isPublic());
-        verify(groupRepository).findAll();
+        verify(groupRepository).findShortGroupsByPublicStatus(true);
+        verify(groupRepository, never()).findAll();
     }
 
     @Test
     void getShortGroupsByPublicStatus_Private_ReturnsOnlyPrivateGroups() {
         // Arrange
-        List<Group> allGroups = new ArrayList<>();
-
-        // Add public test group
-        testGroup.setPublic(true);
-        allGroups.add(testGroup);
-
-        // Add private group
-        Group privateGroup = new Group();
-        privateGroup.setGroupId(2L);
-        privateGroup.setName("Private Group");
-        privateGroup.setPublic(false);
-        allGroups.add(privateGroup);
+        List<ShortGroup> privateGroups = List.of(
+                new ShortGroup(2L, "Private Group", false, false, 2),
+                new ShortGroup(3L, "Another Private Group", false, false, 1));
 
-        // Add another private group
-        Group anotherPrivateGroup = new Group();
-        anotherPrivateGroup.setGroupId(3L);
-        anotherPrivateGroup.setName("Another Private Group");
-        anotherPrivateGroup.setPublic(false);
-        allGroups.add(anotherPrivateGroup);
-
-        when(groupRepository.findAll()).thenReturn(allGroups);
+        when(groupRepository.findShortGroupsByPublicStatus(false)).thenReturn(privateGroups);
 
         // Act
         List<ShortGroup> result = groupService.getShortGroupsByPublicStatus(false);
@@ -320,39 +482,13 @@ public class GroupServiceTest {
         assertEquals(3L, result.get(1).getGroupId());
         assertEquals("Another Private Group", result.get(1).getName());
         assertFalse(result.get(1).isPublic());
-        verify(groupRepository).findAll();
-    }
-
-    @Test
-    void getShortGroupsByPublicStatus_NoMatchingGroups_ReturnsEmptyList() {
-        // Arrange
-        List<Group> allGroups = new ArrayList<>();
-
-        // Add only public groups
-        testGroup.setPublic(true);
-        allGroups.add(testGroup);
-
-        Group anotherPublicGroup = new Group();
-        anotherPublicGroup.setGroupId(2L);
-        anotherPublicGroup.setName("Another Public Group");
-        anotherPublicGroup.setPublic(true);
-        allGroups.add(anotherPublicGroup);
-
-        when(groupRepository.findAll()).thenReturn(allGroups);
-
-        // Act
-        List<ShortGroup> result = groupService.getShortGroupsByPublicStatus(false);
-
-        // Assert
-        assertNotNull(result);
-        assertTrue(result.isEmpty());
-        verify(groupRepository).findAll();
+        verify(groupRepository).findShortGroupsByPublicStatus(false);
     }
 
     @Test
     void getShortGroupsByPublicStatus_EmptyRepository_ReturnsEmptyList() {
         // Arrange
-        when(groupRepository.findAll()).thenReturn(new ArrayList<>());
+        when(groupRepository.findShortGroupsByPublicStatus(true)).thenReturn(new ArrayList<>());
 
         // Act
         List<ShortGroup> result = groupService.getShortGroupsByPublicStatus(true);
@@ -360,7 +496,7 @@ public class GroupServiceTest {
         // Assert
         assertNotNull(result);
         assertTrue(result.isEmpty());
-        verify(groupRepository).findAll();
+        verify(groupRepository).findShortGroupsByPublicStatus(true);
     }
 
     //STORY12 As a user, I would like to rate groups I am in. AND STORY13 As a user, I would like to provide a written review for groups I am in.
@@ -772,8 +908,6 @@ public class GroupServiceTest {
     void checkUserHasGroupAccess_PublicGroup_ReturnsTrue() {
         // Arrange
         testGroup.setPublic(true);
-        testGroup.setParticipants(new ArrayList<>(List.of("otheruser@example.com")));
-        testGroup.setHosts(new ArrayList<>(List.of("host@example.com")));
 
         when(groupRepository.findById(1L)).thenReturn(Optional.of(testGroup));
 
@@ -789,8 +923,7 @@ public class GroupServiceTest {
     void checkUserHasGroupAccess_UserIsParticipant_ReturnsTrue() {
         // Arrange
         testGroup.setPublic(false);
-        testGroup.setParticipants(new ArrayList<>(List.of("test@example.com", "otheruser@example.com")));
-        testGroup.setHosts(new ArrayList<>(List.of("host@example.com")));
+        when(groupMemberRepository.existsByGroupIdAndUserEmail(1L, "test@example.com")).thenReturn(true);
 
         when(groupRepository.findById(1L)).thenReturn(Optional.of(testGroup));
 
@@ -806,8 +939,8 @@ public class GroupServiceTest {
     void checkUserHasGroupAccess_UserIsHost_ReturnsTrue() {
         // Arrange
         testGroup.setPublic(false);
-        testGroup.setParticipants(new ArrayList<>(List.of("otheruser@example.com")));
-        testGroup.setHosts(new ArrayList<>(List.of("test@example.com", "otherhost@example.com")));
+        // Hosts have a member row too, so the same lookup covers them
+        when(groupMemberRepository.existsByGroupIdAndUserEmail(1L, "test@example.com")).thenReturn(true);
 
         when(groupRepository.findById(1L)).thenReturn(Optional.of(testGroup));
 
@@ -823,8 +956,7 @@ public class GroupServiceTest {
         void checkUserHasGroupAccess_PrivateGroupNoAccess_ReturnsFalse() {
             // Arrange
             testGroup.setPublic(false);
-            testGroup.setParticipants(new ArrayList<>(List.of("otheruser@example.com")));
-            testGroup.setHosts(new ArrayList<>(List.of("otherhost@example.com")));
+            when(groupMemberRepository.existsByGroupIdAndUserEmail(1L, "test@example.com")).thenReturn(false);
 
             when(groupRepository.findById(1L)).thenReturn(Optional.of(testGroup));
 
@@ -839,28 +971,12 @@ public class GroupServiceTest {
 
         @Test
         void getAllShortGroups_ConvertsFull_ToShortCorrectly() {
-            // Arrange
-            List<Group> allGroups = new ArrayList<>();
+            // Arrange - the projection query builds ShortGroups directly from the groups table
+            List<ShortGroup> projected = List.of(
+                    new ShortGroup(1L, "Test Group", true, false, 3),
+                    new ShortGroup(2L, "Private Group", false, false, 2));
 
-            // Add groups with various properties
-            testGroup.setGroupId(1L);
-            testGroup.setName("Test Group");
-            testGroup.setPublic(true);
-            testGroup.setDescription("Test Description");
-            testGroup.setHosts(List.of("host@example.com"));
-            testGroup.setParticipants(List.of("user1@example.com", "user2@example.com"));
-            allGroups.add(testGroup);
-
-            Group privateGroup = new Group();
-            privateGroup.setGroupId(2L);
-            privateGroup.setName("Private Group");
-            privateGroup.setPublic(false);
-            privateGroup.setDescription("Private Description");
-            privateGroup.setHosts(List.of("host2@example.com"));
-            privateGroup.setParticipants(List.of("user3@example.com"));
-            allGroups.add(privateGroup);
-
-            when(groupRepository.findAll()).thenReturn(allGroups);
+            when(groupRepository.findAllShortGroups()).thenReturn(projected);
 
             // Act
             List<ShortGroup> result = groupService.getAllShortGroups();
@@ -878,15 +994,17 @@ public class GroupServiceTest {
             assertEquals(2L, result.get(1).getGroupId());
             assertEquals("Private Group", result.get(1).getName());
             assertFalse(result.get(1).isPublic());
+            assertEquals(2, result.get(1).getMemberCount());
 
-            // Verify only necessary fields are included in ShortGroup
-            verify(groupRepository).findAll();
+            // Verify full groups are never loaded for the listing
+            verify(groupRepository).findAllShortGroups();
+            verify(groupRepository, never()).findAll();
         }
 
         @Test
         void getAllShortGroups_EmptyRepository_ReturnsEmptyList() {
             // Arrange
-            when(groupRepository.findAll()).thenReturn(new ArrayList<>());
+            when(groupRepository.findAllShortGroups()).thenReturn(new ArrayList<>());
 
             // Act
             List<ShortGroup> result = groupService.getAllShortGroups();
@@ -894,23 +1012,14 @@ public class GroupServiceTest {
             // Assert
             assertNotNull(result);
             assertTrue(result.isEmpty());
-            verify(groupRepository).findAll();
+            verify(groupRepository).findAllShortGroups();
         }
 
         @Test
         void getAllShortGroups_NullFields_HandlesGracefully() {
-            // Arrange
-            List<Group> allGroups = new ArrayList<>();
-
-            // Create a minimal group with only necessary fields
-            Group minimalGroup = new Group();
-            minimalGroup.setGroupId(1L);
-            minimalGroup.setName("Minimal Group");
-            // No explicit public setting (should default)
-            // No participants, hosts, or other fields
-            allGroups.add(minimalGroup);
-
-            when(groupRepository.findAll()).thenReturn(allGroups);
+            // Arrange - a minimal group with only the required fields and no members yet
+            when(groupRepository.findAllShortGroups())
+                    .thenReturn(List.of(new ShortGroup(1L, "Minimal Group", false, false, 0)));
 
             // Act
             List<ShortGroup> result = groupService.getAllShortGroups();
@@ -920,9 +1029,9 @@ public class GroupServiceTest {
             assertEquals(1, result.size());
             assertEquals(1L, result.get(0).getGroupId());
             assertEquals("Minimal Group", result.get(0).getName());
-            // Default value for isPublic should be used (likely false)
             assertFalse(result.get(0).isPublic());
-            verify(groupRepository).findAll();
+            assertEquals(0, result.get(0).getMemberCount());
+            verify(groupRepository).findAllShortGroups();
         }
 
         @Test
@@ -953,9 +1062,8 @@ public class GroupServiceTest {
             assertEquals(1, result.getHosts().size());
             assertEquals("test@example.com", result.getHosts().get(0));
 
-            // Verify participants list is initialized
-            assertNotNull(result.getParticipants());
-            assertTrue(result.getParticipants().isEmpty());
+            // Verify the creator is the only member
+            assertEquals(1, result.getMemberCount());
 
             verify(groupRepository).save(any(Group.class));
             verify(userRepository).save(testUser);
@@ -1064,37 +1172,66 @@ public class GroupServiceTest {
             privateGroup.setGroupId(groupId);
             privateGroup.setName("Private Study Group");
             privateGroup.setPublic(false);
-            privateGroup.setHosts(List.of(hostEmail));
-            privateGroup.setParticipants(new ArrayList<>());
-
-            User host = new User();
-            host.setUserEmail(hostEmail);
-            host.setName("Host User");
 
             when(groupRepository.findById(groupId)).thenReturn(Optional.of(privateGroup));
-            when(userService.getUserByEmail(hostEmail)).thenReturn(host);
-            doNothing().when(emailService).sendHtmlEmail(
-                eq(hostEmail),
-                anyString(),
-                contains("wants to join your group")
-            );
+            when(groupMemberRepository.findEmailsByGroupIdAndRole(groupId, MemberRole.HOST)).thenReturn(List.of(hostEmail));
+            when(accessRequestRepository.findByGroupIdAndRequesterEmail(groupId, testUser.getUserEmail()))
+                .thenReturn(Optional.empty());
+            when(accessRequestRepository.save(any(GroupAccessRequest.class))).thenAnswer(i -> i.getArgument(0));
 
             // Act
             groupService.sendGroupAccessRequests(groupId, testUser);
 
             // Assert
             verify(groupRepository).findById(groupId);
-            verify(userService).getUserByEmail(hostEmail);
-            verify(emailService).sendHtmlEmail(
-                eq(hostEmail),
-                anyString(),
-                argThat(html ->
-                    html.contains(testUser.getName()) &&
-                    html.contains(privateGroup.getName()) &&
-                    html.contains("accept") &&
-                    html.contains("reject")
-                )
-            );
+            verify(accessRequestRepository).save(argThat((GroupAccessRequest request) ->
+                request.getGroupId().equals(groupId) &&
+                request.getRequesterEmail().equals(testUser.getUserEmail()) &&
+                request.getStatus() == GroupAccessRequest.Status.PENDING &&
+                request.getRequestToken() != null
+            ));
+            verify(accessRequestNotifier).notifyHosts(any(), anyString(), eq(groupId),
+                eq(testUser.getUserEmail()), eq(testUser.getName()), eq("Private Study Group"), eq(List.of(hostEmail)));
+            // Hosts are no longer loaded one by one on the request thread
+            verifyNoInteractions(userService);
+            verifyNoInteractions(emailService);
+        }
+
+        @Test
+        void sendGroupAccessRequests_AlreadyPending_DoesNotNotifyAgain() {
+            // Arrange
+            Long groupId = 1L;
+
+            Group privateGroup = new Group();
+            privateGroup.setGroupId(groupId);
+            privateGroup.setName("Private Study Group");
+            privateGroup.setPublic(false);
+
+            GroupAccessRequest pending = createAccessRequest("abc-123", groupId, testUser.getUserEmail());
+
+            when(groupRepository.findById(groupId)).thenReturn(Optional.of(privateGroup));
+            when(accessRequestRepository.findByGroupIdAndRequesterEmail(groupId, testUser.getUserEmail()))
+                .thenReturn(Optional.of(pending));
+
+            // Act
+            groupService.sendGroupAccessRequests(groupId, testUser);
+
+            // Assert
+            verify(accessRequestRepository, never()).save(any(GroupAccessRequest.class));
+            verifyNoInteractions(accessRequestNotifier);
+        }
+
+        @Test
+        void getPendingAccessRequests_NonHost_ThrowsUnauthorized() {
+            // Arrange
+            when(groupRepository.findById(1L)).thenReturn(Optional.of(testGroup));
+            when(groupMemberRepository.existsByGroupIdAndUserEmailAndRole(1L, testUser.getUserEmail(), MemberRole.HOST))
+                .thenReturn(false);
+
+            // Act & Assert
+            assertThrows(UnauthorizedException.class,
+                () -> groupService.getPendingAccessRequests(1L, testUser));
+            verifyNoInteractions(accessRequestRepository);
         }
 
         @Test
@@ -1108,16 +1245,20 @@ public class GroupServiceTest {
             Group group = new Group();
             group.setGroupId(groupId);
             group.setName("Test Group");
-            group.setParticipants(new ArrayList<>());
 
             User requestingUser = new User();
             requestingUser.setUserEmail(userEmail);
             requestingUser.setName("Requesting User");
             requestingUser.setJoinedGroups(new ArrayList<>());
 
+            GroupAccessRequest request = createAccessRequest(requestId, groupId, userEmail);
+
+            when(accessRequestRepository.findByRequestToken(requestId)).thenReturn(Optional.of(request));
+            when(accessRequestRepository.resolvePending(eq(10L), eq(GroupAccessRequest.Status.PENDING),
+                eq(GroupAccessRequest.Status.ACCEPTED), any())).thenReturn(1);
             when(groupRepository.findById(groupId)).thenReturn(Optional.of(group));
             when(userService.getUserByEmail(userEmail)).thenReturn(requestingUser);
-            when(groupRepository.save(any(Group.class))).thenReturn(group);
+            when(groupRepository.reserveSeat(groupId)).thenReturn(1);
             when(userRepository.save(any(User.class))).thenReturn(requestingUser);
 
             // Act
@@ -1125,12 +1266,104 @@ public class GroupServiceTest {
 
             // Assert
             assertTrue(result.contains("Request Accepted"));
-            assertTrue(group.getParticipants().contains(userEmail));
             assertTrue(requestingUser.getJoinedGroups().contains(groupId));
-            verify(groupRepository).save(group);
+            verify(groupRepository).reserveSeat(groupId);
+            verify(groupMemberRepository).save(argThat((GroupMember member) ->
+                member.getUserEmail().equals(userEmail) && member.getRole() == MemberRole.PARTICIPANT));
+            verify(groupRepository, never()).save(any(Group.class)); // Member row is inserted directly
             verify(userRepository).save(requestingUser);
         }
 
+        @Test
+        void processAccessResponse_Accept_GroupFull_ReopensRequest() {
+            // Arrange
+            String requestId = "abc-123";
+            Long groupId = 1L;
+            String userEmail = "requester@example.com";
+
+            Group group = new Group();
+            group.setGroupId(groupId);
+            group.setName("Test Group");
+
+            User requestingUser = new User();
+            requestingUser.setUserEmail(userEmail);
+            requestingUser.setName("Requesting User");
+
+            GroupAccessRequest request = createAccessRequest(requestId, groupId, userEmail);
+
+            when(accessRequestRepository.findByRequestToken(requestId)).thenReturn(Optional.of(request));
+            when(accessRequestRepository.resolvePending(any(), any(), any(), any())).thenReturn(1);
+            when(groupRepository.findById(groupId)).thenReturn(Optional.of(group));
+            when(userService.getUserByEmail(userEmail)).thenReturn(requestingUser);
+            when(groupRepository.reserveSeat(groupId)).thenReturn(0);
+
+            // Act
+            String result = groupService.processAccessResponse(requestId, "accept", groupId, userEmail);
+
+            // Assert
+            assertTrue(result.contains("Group Full"));
+            verify(accessRequestRepository).reopen(10L, GroupAccessRequest.Status.PENDING);
+            verify(groupMemberRepository, never()).save(any(GroupMember.class));
+            verifyNoInteractions(userRepository);
+        }
+
+        @Test
+        void processAccessResponse_AlreadyResolved_DoesNotAcceptTwice() {
+            // Arrange
+            String requestId = "abc-123";
+            Long groupId = 1L;
+            String userEmail = "requester@example.com";
+
+            GroupAccessRequest request = createAccessRequest(requestId, groupId, userEmail);
+            request.setStatus(GroupAccessRequest.Status.ACCEPTED);
+
+            when(accessRequestRepository.findByRequestToken(requestId)).thenReturn(Optional.of(request));
+
+            // Act
+            String result = groupService.processAccessResponse(requestId, "accept", groupId, userEmail);
+
+            // Assert
+            assertTrue(result.contains("Request Already Handled"));
+            verify(accessRequestRepository, never()).resolvePending(any(), any(), any(), any());
+            verifyNoInteractions(groupRepository);
+            verifyNoInteractions(userRepository);
+        }
+
+        @Test
+        void processAccessResponse_LosesRace_DoesNotAcceptTwice() {
+            // Arrange
+            String requestId = "abc-123";
+            Long groupId = 1L;
+            String userEmail = "requester@example.com";
+
+            GroupAccessRequest request = createAccessRequest(requestId, groupId, userEmail);
+
+            when(accessRequestRepository.findByRequestToken(requestId)).thenReturn(Optional.of(request));
+            when(accessRequestRepository.resolvePending(any(), any(), any(), any())).thenReturn(0);
+
+            // Act
+            String result = groupService.processAccessResponse(requestId, "accept", groupId, userEmail);
+
+            // Assert
+            assertTrue(result.contains("Request Already Handled"));
+            verifyNoInteractions(groupRepository);
+            verifyNoInteractions(userRepository);
+        }
+
+        @Test
+        void processAccessResponse_UnknownRequest_ThrowsException() {
+            // Arrange
+            when(accessRequestRepository.findByRequestToken("missing")).thenReturn(Optional.empty());
+
+            // Act & Assert
+            IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> groupService.processAccessResponse("missing", "accept", 1L, "requester@example.com")
+            );
+
+            assertEquals("Access request not found: missing", exception.getMessage());
+        }
+
         @Test
         void processAccessResponse_AlreadyMember_ReturnsAppropriateMessage() {
             // Arrange
@@ -1142,12 +1375,16 @@ public class GroupServiceTest {
             Group group = new Group();
             group.setGroupId(groupId);
             group.setName("Test Group");
-            group.setParticipants(new ArrayList<>(List.of(userEmail))); // Already a member
+            when(groupMemberRepository.existsByGroupIdAndUserEmail(groupId, userEmail)).thenReturn(true); // Already a member
 
             User requestingUser = new User();
             requestingUser.setUserEmail(userEmail);
             requestingUser.setName("Requesting User");
 
+            GroupAccessRequest request = createAccessRequest(requestId, groupId, userEmail);
+
+            when(accessRequestRepository.findByRequestToken(requestId)).thenReturn(Optional.of(request));
+            when(accessRequestRepository.resolvePending(any(), any(), any(), any())).thenReturn(1);
             when(groupRepository.findById(groupId)).thenReturn(Optional.of(group));
             when(userService.getUserByEmail(userEmail)).thenReturn(requestingUser);
 
@@ -1159,6 +1396,7 @@ public class GroupServiceTest {
             verify(groupRepository).findById(groupId);
             verify(userService).getUserByEmail(userEmail);
             verifyNoMoreInteractions(groupRepository); // Should not save as no changes made
+            verify(groupMemberRepository, never()).save(any(GroupMember.class));
             verifyNoInteractions(userRepository);
         }
 
@@ -1178,6 +1416,11 @@ public class GroupServiceTest {
             requestingUser.setUserEmail(userEmail);
             requestingUser.setName("Requesting User");
 
+            GroupAccessRequest request = createAccessRequest(requestId, groupId, userEmail);
+
+            when(accessRequestRepository.findByRequestToken(requestId)).thenReturn(Optional.of(request));
+            when(accessRequestRepository.resolvePending(eq(10L), eq(GroupAccessRequest.Status.PENDING),
+                eq(GroupAccessRequest.Status.REJECTED), any())).thenReturn(1);
             when(groupRepository.findById(groupId)).thenReturn(Optional.of(group));
             when(userService.getUserByEmail(userEmail)).thenReturn(requestingUser);
 
@@ -1200,15 +1443,6 @@ public class GroupServiceTest {
             Long groupId = 1L;
             String userEmail = "requester@example.com";
 
-            Group group = new Group();
-            group.setGroupId(groupId);
-
-            User requestingUser = new User();
-            requestingUser.setUserEmail(userEmail);
-
-            when(groupRepository.findById(groupId)).thenReturn(Optional.of(group));
-            when(userService.getUserByEmail(userEmail)).thenReturn(requestingUser);
-
             // Act & Assert
             IllegalArgumentException exception = assertThrows(
                 IllegalArgumentException.class,
@@ -1216,15 +1450,27 @@ public class GroupServiceTest {
             );
 
             assertEquals("Invalid action: invalid", exception.getMessage());
+            verifyNoInteractions(accessRequestRepository);
+        }
+
+        private GroupAccessRequest createAccessRequest(String token, Long groupId, String requesterEmail) {
+            GroupAccessRequest request = new GroupAccessRequest();
+            request.setAccessRequestId(10L);
+            request.setRequestToken(token);
+            request.setGroupId(groupId);
+            request.setRequesterEmail(requesterEmail);
+            request.setRequesterName("Requesting User");
+            request.setStatus(GroupAccessRequest.Status.PENDING);
+            return request;
         }
 
     // STORY3.1 As an instructor, I would like to be able to specify my group as an instructor led group (Ayush)
     @Test
     void toggleInstructorLedStatus_TogglesStatus_WhenUserIsInstructor() {
         // Arrange
-        // Initialize the hosts list and add the instructor as a host
-        testGroup.setHosts(new ArrayList<>());
-        testGroup.getHosts().add(instructorUser.getUserEmail());
+        // The instructor is a host of the group
+        when(groupMemberRepository.existsByGroupIdAndUserEmailAndRole(1L, instructorUser.getUserEmail(), MemberRole.HOST))
+                .thenReturn(true);
 
         // Set initial instructor-led status to false
         testGroup.setInstructorLed(false);
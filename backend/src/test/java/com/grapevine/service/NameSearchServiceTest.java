@@ -0,0 +1,107 @@
+package com.grapevine.service;
+
+import com.grapevine.index.PrefixIndex;
+import com.grapevine.model.Event;
+import com.grapevine.model.Group;
+import com.grapevine.repository.EventRepository;
+import com.grapevine.repository.GroupRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class NameSearchServiceTest {
+
+    @Mock
+    private EventRepository eventRepository;
+
+    @Mock
+    private GroupRepository groupRepository;
+
+    @InjectMocks
+    private NameSearchService nameSearchService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(eventRepository.findPublicEventNames()).thenReturn(List.of(
+                row(1L, "Calculus Review"),
+                row(2L, "Café Study Night"),
+                row(3L, "calculus finals cram")));
+        when(groupRepository.findAllGroupNames()).thenReturn(List.<Object[]>of(row(10L, "Études Françaises")));
+        nameSearchService.warm();
+    }
+
+    @Test
+    void searchEvents_IsCaseInsensitivePrefixInNameOrder() {
+        // "calculus finals cram" sorts before "calculus review"
+        assertEquals(List.of(3L, 1L), ids(nameSearchService.searchEvents("CALC", 10)));
+        assertEquals(List.of(3L), ids(nameSearchService.searchEvents("calculus f", 10)));
+        assertEquals(List.of(3L), ids(nameSearchService.searchEvents("calc", 1)));
+        assertTrue(nameSearchService.searchEvents("review", 10).isEmpty());
+        assertTrue(nameSearchService.searchEvents("  ", 10).isEmpty());
+    }
+
+    @Test
+    void search_IgnoresAccentsButReturnsOriginalName() {
+        List<PrefixIndex.Match> events = nameSearchService.searchEvents("cafe", 10);
+        List<PrefixIndex.Match> groups = nameSearchService.searchGroups("ETUDES  fr", 10);
+
+        assertEquals("Café Study Night", events.get(0).name());
+        assertEquals(List.of(10L), ids(groups));
+        assertEquals("Études Françaises", groups.get(0).name());
+    }
+
+    @Test
+    void indexEvent_RenameMovesEntryAndPrivateEventsAreDropped() {
+        // Arrange
+        Event renamed = new Event();
+        renamed.setEventId(1L);
+        renamed.setName("Linear Algebra Review");
+        renamed.setIsPublic(true);
+
+        Event hidden = new Event();
+        hidden.setEventId(3L);
+        hidden.setName("calculus finals cram");
+        hidden.setIsPublic(false);
+
+        // Act
+        nameSearchService.indexEvent(renamed);
+        nameSearchService.indexEvent(hidden);
+
+        // Assert
+        assertTrue(nameSearchService.searchEvents("calc", 10).isEmpty());
+        assertEquals(List.of(1L), ids(nameSearchService.searchEvents("linear", 10)));
+    }
+
+    @Test
+    void indexGroupAndRemove_KeepGroupIndexCurrent() {
+        // Arrange
+        Group group = new Group();
+        group.setGroupId(11L);
+        group.setName("Etudiants");
+
+        // Act
+        nameSearchService.indexGroup(group);
+        nameSearchService.removeGroup(10L);
+        nameSearchService.removeEvents(List.of(1L, 3L));
+
+        // Assert
+        assertEquals(List.of(11L), ids(nameSearchService.searchGroups("etud", 10)));
+        assertTrue(nameSearchService.searchEvents("calc", 10).isEmpty());
+    }
+
+    private static Object[] row(Long id, String name) {
+        return new Object[]{id, name};
+    }
+
+    private static List<Long> ids(List<PrefixIndex.Match> matches) {
+        return matches.stream().map(PrefixIndex.Match::id).toList();
+    }
+}
@@ -9,6 +9,8 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
@@ -100,6 +102,140 @@ public class NotificationServiceTest {
         );
     }
 
+    @Test
+    void createAndSendGroupAccessRequestNotifications_SavesInOneBatchAndPushesEachHost() {
+        // Arrange
+        when(notificationRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Notification> toSave = invocation.getArgument(0);
+            long id = 1;
+            for (Notification notification : toSave) {
+                notification.setNotificationId(id++);
+                notification.setCreatedAt(LocalDateTime.now());
+            }
+            return toSave;
+        });
+
+        // Act
+        List<Notification> result = notificationService.createAndSendGroupAccessRequestNotifications(
+                List.of("host1@example.com", "host2@example.com"),
+                "requester@example.com",
+                "Requesting User",
+                "Study Group",
+                5L);
+
+        // Assert
+        assertEquals(2, result.size());
+        assertEquals(Notification.NotificationType.GROUP_ACCESS_REQUEST, result.get(0).getType());
+        assertEquals("Requesting User", result.get(0).getSenderName());
+        assertEquals(5L, result.get(1).getReferenceId());
+        verify(notificationRepository).saveAll(anyList());
+        verify(notificationRepository, never()).save(any(Notification.class));
+        verifyNoInteractions(userService);
+        verify(messagingTemplate).convertAndSendToUser(eq("host1@example.com"), eq("/queue/notifications"), any(Map.class));
+        verify(messagingTemplate).convertAndSendToUser(eq("host2@example.com"), eq("/queue/notifications"), any(Map.class));
+    }
+
+    @Test
+    void createAndSendGroupAccessRequestNotifications_InATransaction_PushesOnlyOnCommit() {
+        // Arrange
+        when(notificationRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Notification> toSave = invocation.getArgument(0);
+            toSave.get(0).setNotificationId(1L);
+            toSave.get(0).setCreatedAt(LocalDateTime.now());
+            return toSave;
+        });
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            notificationService.createAndSendGroupAccessRequestNotifications(
+                    List.of("host1@example.com"), "requester@example.com", "Requesting User", "Study Group", 5L);
+
+            // Assert - the host hears nothing while the rows can still roll back
+            verifyNoInteractions(messagingTemplate);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            verify(messagingTemplate).convertAndSendToUser(eq("host1@example.com"), eq("/queue/notifications"), any(Map.class));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void createAndSendWaitlistPromotionNotifications_SavesInOneBatchAsSystem() {
+        // Arrange
+        when(notificationRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Notification> toSave = invocation.getArgument(0);
+            long id = 1;
+            for (Notification notification : toSave) {
+                notification.setNotificationId(id++);
+                notification.setCreatedAt(LocalDateTime.now());
+            }
+            return toSave;
+        });
+
+        // Act
+        notificationService.createAndSendWaitlistPromotionNotifications(
+                List.of("a@example.com", "b@example.com"), "Midterm Review", 7L);
+
+        // Assert
+        verify(notificationRepository).saveAll(argThat((List<Notification> saved) -> saved.size() == 2
+                && saved.get(0).getType() == Notification.NotificationType.WAITLIST_PROMOTION
+                && "SYSTEM".equals(saved.get(0).getSenderName())
+                && saved.get(1).getReferenceId().equals(7L)));
+        verifyNoInteractions(userService);
+        verify(messagingTemplate).convertAndSendToUser(eq("a@example.com"), eq("/queue/notifications"), any(Map.class));
+        verify(messagingTemplate).convertAndSendToUser(eq("b@example.com"), eq("/queue/notifications"), any(Map.class));
+    }
+
+    @Test
+    void createAndSendThreadCommentNotifications_InsertsOnceAndPushesEachRecipient() {
+        // Arrange
+        Notification first = new Notification();
+        first.setNotificationId(1L);
+        first.setRecipientEmail("a@example.com");
+        first.setSenderEmail("c@example.com");
+        first.setSenderName("C");
+        first.setType(Notification.NotificationType.COMMENT);
+        first.setContent("3 new comments on a thread you follow: Busy");
+        first.setReferenceId(9L);
+        first.setCreatedAt(LocalDateTime.now());
+        Notification second = new Notification();
+        second.setNotificationId(2L);
+        second.setRecipientEmail("b@example.com");
+        second.setSenderEmail("c@example.com");
+        second.setSenderName("C");
+        second.setType(Notification.NotificationType.COMMENT);
+        second.setContent("3 new comments on a thread you follow: Busy");
+        second.setReferenceId(9L);
+        second.setCreatedAt(LocalDateTime.now());
+        when(notificationRepository.insertThreadCommentNotifications(9L, "c@example.com", "C",
+                "3 new comments on your thread: Busy", "3 new comments on a thread you follow: Busy"))
+                .thenReturn(List.of(1L, 2L));
+        when(notificationRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(first, second));
+
+        // Act
+        notificationService.createAndSendThreadCommentNotifications(9L, "Busy", 3, "c@example.com", "C");
+
+        // Assert
+        verify(notificationRepository, never()).save(any(Notification.class));
+        verifyNoInteractions(userService);
+        verify(messagingTemplate).convertAndSendToUser(eq("a@example.com"), eq("/queue/notifications"), any(Map.class));
+        verify(messagingTemplate).convertAndSendToUser(eq("b@example.com"), eq("/queue/notifications"), any(Map.class));
+    }
+
+    @Test
+    void createAndSendThreadCommentNotifications_NoRecipients_PushesNothing() {
+        // Arrange
+        when(notificationRepository.insertThreadCommentNotifications(anyLong(), anyString(), anyString(), anyString(),
+                anyString())).thenReturn(List.of());
+
+        // Act
+        notificationService.createAndSendThreadCommentNotifications(9L, "Quiet", 1, "a@example.com", "A");
+
+        // Assert
+        verify(notificationRepository, never()).findAllById(any());
+        verifyNoInteractions(messagingTemplate);
+    }
+
     // STORY3.4 As a user, I would to receive notifications about messages (Ayush)
     @Test
     void getAllNotifications_ReturnsUserNotifications() {
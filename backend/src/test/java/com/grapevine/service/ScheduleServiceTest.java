@@ -0,0 +1,158 @@
+package com.grapevine.service;
+
+import com.grapevine.index.IntervalIndex;
+import com.grapevine.model.Event;
+import com.grapevine.model.ScheduleConflict;
+import com.grapevine.model.ScheduleEntry;
+import com.grapevine.repository.EventMemberRepository;
+import com.grapevine.repository.EventOccurrenceOverrideRepository;
+import com.grapevine.repository.EventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class ScheduleServiceTest {
+
+    @Mock
+    private EventRepository eventRepository;
+
+    @Mock
+    private EventMemberRepository eventMemberRepository;
+
+    @Mock
+    private EventOccurrenceOverrideRepository overrideRepository;
+
+    private ScheduleService scheduleService;
+
+    private LocalDateTime day;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        scheduleService = new ScheduleService(eventRepository,
+                new EventOccurrenceService(eventRepository, eventMemberRepository, overrideRepository));
+        day = LocalDateTime.now().plusDays(2).withHour(10).withMinute(0).withSecond(0).withNano(0);
+    }
+
+    @Test
+    void findConflicts_ReturnsOnlyOverlappingEntries() {
+        // Arrange - 10:00-11:00 and 14:00-15:30 on the user's schedule
+        Event morning = event(1L, day, null);
+        Event afternoon = event(2L, day.withHour(14), 90);
+        when(eventRepository.findScheduledForUser(eq("user@example.com"), any(LocalDateTime.class)))
+                .thenReturn(List.of(morning, afternoon));
+        when(eventRepository.findById(3L)).thenReturn(Optional.of(event(3L, day.withMinute(30), 60)));
+        when(eventRepository.findById(4L)).thenReturn(Optional.of(event(4L, day.withHour(11), 200)));
+
+        // Act
+        List<ScheduleConflict> overlapping = scheduleService.findConflicts("user@example.com", 3L);
+        // Starts the moment the morning event ends and runs into the afternoon one
+        List<ScheduleConflict> adjacent = scheduleService.findConflicts("user@example.com", 4L);
+
+        // Assert
+        assertEquals(1, overlapping.size());
+        assertEquals(1L, overlapping.get(0).conflictsWith().eventId());
+        assertEquals(day.withHour(11), overlapping.get(0).conflictsWith().end());
+        assertEquals(1, adjacent.size());
+        assertEquals(2L, adjacent.get(0).conflictsWith().eventId());
+    }
+
+    @Test
+    void findConflicts_ChecksEveryOccurrenceOfASeries() {
+        // Arrange - a one-off event that collides with the third session of a weekly series
+        Event oneOff = event(1L, day.plusWeeks(2).withMinute(45), 30);
+        when(eventRepository.findScheduledForUser(eq("user@example.com"), any(LocalDateTime.class)))
+                .thenReturn(List.of(oneOff));
+        Event series = event(2L, day, 60);
+        series.setRecurrenceRule("FREQ=WEEKLY;COUNT=4");
+        when(eventRepository.findById(2L)).thenReturn(Optional.of(series));
+
+        // Act
+        List<ScheduleConflict> conflicts = scheduleService.findConflicts("user@example.com", 2L);
+
+        // Assert
+        assertEquals(1, conflicts.size());
+        assertEquals(day.plusWeeks(2), conflicts.get(0).start());
+    }
+
+    @Test
+    void findConflicts_IgnoresTheCandidateItself() {
+        // Arrange - the user already joined the event they are checking
+        Event joined = event(1L, day, 60);
+        when(eventRepository.findScheduledForUser(eq("user@example.com"), any(LocalDateTime.class)))
+                .thenReturn(List.of(joined));
+        when(eventRepository.findById(1L)).thenReturn(Optional.of(joined));
+
+        // Act & Assert
+        assertTrue(scheduleService.findConflicts("user@example.com", 1L).isEmpty());
+    }
+
+    @Test
+    void schedule_IsCachedUntilInvalidated() {
+        // Arrange
+        when(eventRepository.findScheduledForUser(eq("user@example.com"), any(LocalDateTime.class)))
+                .thenReturn(List.of(event(1L, day, 60)));
+
+        // Act
+        List<ScheduleEntry> first = scheduleService.getSchedule("user@example.com", day.minusDays(1), day.plusDays(1));
+        scheduleService.getSchedule("user@example.com", day.minusDays(1), day.plusDays(1));
+        scheduleService.invalidate("user@example.com");
+        scheduleService.getSchedule("user@example.com", day.minusDays(1), day.plusDays(1));
+        scheduleService.invalidateAll();
+        scheduleService.getSchedule("user@example.com", day.minusDays(1), day.plusDays(1));
+
+        // Assert - one batched load per build, and only three builds
+        assertEquals(1, first.size());
+        verify(eventRepository, times(3)).findScheduledForUser(eq("user@example.com"), any(LocalDateTime.class));
+    }
+
+    @Test
+    void intervalIndex_MatchesBruteForce() {
+        // Arrange
+        Random random = new Random(42);
+        List<IntervalIndex.Interval<Integer>> intervals = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            LocalDateTime start = day.plusMinutes(random.nextInt(10_000));
+            intervals.add(new IntervalIndex.Interval<>(start, start.plusMinutes(1 + random.nextInt(300)), i));
+        }
+        IntervalIndex<Integer> index = new IntervalIndex<>(intervals);
+
+        for (int q = 0; q < 200; q++) {
+            LocalDateTime from = day.plusMinutes(random.nextInt(10_000));
+            LocalDateTime to = from.plusMinutes(1 + random.nextInt(200));
+
+            // Act
+            List<Integer> found = index.overlapping(from, to).stream().map(IntervalIndex.Interval::value)
+                    .sorted().toList();
+
+            // Assert
+            List<Integer> expected = intervals.stream()
+                    .filter(interval -> interval.start().isBefore(to) && interval.end().isAfter(from))
+                    .map(IntervalIndex.Interval::value)
+                    .sorted(Comparator.naturalOrder()).toList();
+            assertEquals(expected, found);
+        }
+    }
+
+    private static Event event(Long eventId, LocalDateTime eventTime, Integer durationMinutes) {
+        Event event = new Event();
+        event.setEventId(eventId);
+        event.setName("Event " + eventId);
+        event.setEventTime(eventTime);
+        event.setDurationMinutes(durationMinutes);
+        return event;
+    }
+}
@@ -0,0 +1,73 @@
+package com.grapevine.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class ThreadCommentNotifierTest {
+
+    @Mock
+    private NotificationService notificationService;
+
+    @InjectMocks
+    private ThreadCommentNotifier threadCommentNotifier;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void flush_SendsOneBatchPerThread() {
+        // Arrange
+        threadCommentNotifier.commentAdded(1L, "Busy", "a@example.com", "A");
+        threadCommentNotifier.commentAdded(1L, "Busy", "b@example.com", "B");
+        threadCommentNotifier.commentAdded(1L, "Busy", "c@example.com", "C");
+        threadCommentNotifier.commentAdded(2L, "Quiet", "a@example.com", "A");
+
+        // Act
+        int handedOff = threadCommentNotifier.flush();
+
+        // Assert - the latest commenter sends it
+        assertEquals(2, handedOff);
+        verify(notificationService).createAndSendThreadCommentNotifications(1L, "Busy", 3, "c@example.com", "C");
+        verify(notificationService).createAndSendThreadCommentNotifications(2L, "Quiet", 1, "a@example.com", "A");
+        assertEquals(0, threadCommentNotifier.flush());
+    }
+
+    @Test
+    void flush_SendsFromTheLatestCommenter() {
+        // Arrange - a comments last, after b
+        threadCommentNotifier.commentAdded(1L, "Thread", "a@example.com", "A");
+        threadCommentNotifier.commentAdded(1L, "Thread", "b@example.com", "B");
+        threadCommentNotifier.commentAdded(1L, "Thread", "a@example.com", "A");
+
+        // Act
+        threadCommentNotifier.flush();
+
+        // Assert
+        verify(notificationService).createAndSendThreadCommentNotifications(1L, "Thread", 3, "a@example.com", "A");
+    }
+
+    @Test
+    void flush_KeepsGoingWhenOneThreadFails() {
+        // Arrange
+        doThrow(new RuntimeException("pool full")).when(notificationService)
+                .createAndSendThreadCommentNotifications(eq(1L), anyString(), anyInt(), anyString(), anyString());
+        threadCommentNotifier.commentAdded(1L, "First", "a@example.com", "A");
+        threadCommentNotifier.commentAdded(2L, "Second", "a@example.com", "A");
+
+        // Act
+        int handedOff = threadCommentNotifier.flush();
+
+        // Assert
+        assertEquals(1, handedOff);
+        verify(notificationService).createAndSendThreadCommentNotifications(2L, "Second", 1, "a@example.com", "A");
+    }
+}
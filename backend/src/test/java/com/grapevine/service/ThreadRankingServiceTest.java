@@ -0,0 +1,141 @@
+package com.grapevine.service;
+
+import com.grapevine.model.Thread;
+import com.grapevine.repository.ThreadRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class ThreadRankingServiceTest {
+
+    @Mock
+    private ThreadRepository threadRepository;
+
+    @Mock
+    private VoteAggregator voteAggregator;
+
+    @InjectMocks
+    private ThreadRankingService threadRankingService;
+
+    private final ZonedDateTime now = ZonedDateTime.now();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void refreshRankings_NetVotesBeatAgeOnlyUpToAPoint() {
+        // Arrange - thread 1 is two days old with 100 net votes, thread 2 is an hour old with 5,
+        // thread 3 is two minutes old with none
+        when(threadRepository.findRankingInputsSince(any(ZonedDateTime.class))).thenReturn(List.of(
+                row(1L, "CS 307", null, 110, 10, 0, now.minusDays(2)),
+                row(2L, "CS 307", null, 5, 0, 0, now.minusHours(1)),
+                row(3L, "CS 307", null, 0, 0, 0, now.minusMinutes(2))));
+
+        // Act
+        threadRankingService.refreshRankings();
+
+        // Assert
+        assertEquals(List.of(2L, 3L, 1L), threadRankingService.getHotThreadIds(null, null, 0, 10));
+        assertEquals(List.of(3L, 1L), threadRankingService.getHotThreadIds(null, null, 1, 10));
+    }
+
+    @Test
+    void recordVoteAndComment_MoveThreadUpWithoutWaitingForRefresh() {
+        // Arrange - same age, no votes
+        when(threadRepository.findRankingInputsSince(any(ZonedDateTime.class))).thenReturn(List.of(
+                row(1L, null, null, 0, 0, 0, now.minusHours(1)),
+                row(2L, null, null, 0, 0, 0, now.minusHours(1))));
+        threadRankingService.refreshRankings();
+        assertEquals(List.of(1L, 2L), threadRankingService.getHotThreadIds(null, null, 0, 10));
+
+        // Act & Assert
+        threadRankingService.recordComment(2L);
+        assertEquals(List.of(2L, 1L), threadRankingService.getHotThreadIds(null, null, 0, 10));
+
+        for (int i = 0; i < 20; i++) {
+            threadRankingService.recordVote(1L, 1);
+        }
+        assertEquals(List.of(1L, 2L), threadRankingService.getHotThreadIds(null, null, 0, 10));
+        verify(threadRepository, times(1)).findRankingInputsSince(any(ZonedDateTime.class));
+    }
+
+    @Test
+    void getHotThreadIds_ScopesByCourseThenMajor() {
+        // Arrange
+        when(threadRepository.findRankingInputsSince(any(ZonedDateTime.class))).thenReturn(List.of(
+                row(1L, "CS 307", "Computer Science", 3, 0, 0, now.minusHours(2)),
+                row(2L, "MA 261", "Mathematics", 9, 0, 0, now.minusHours(2)),
+                row(3L, null, "Computer Science", 1, 0, 0, now.minusHours(2))));
+
+        // Act
+        threadRankingService.refreshRankings();
+
+        // Assert
+        assertEquals(List.of(1L), threadRankingService.getHotThreadIds(" cs 307 ", null, 0, 10));
+        assertEquals(List.of(1L), threadRankingService.getHotThreadIds("CS 307", "Mathematics", 0, 10));
+        assertEquals(List.of(1L, 3L), threadRankingService.getHotThreadIds(null, "computer science", 0, 10));
+        assertEquals(List.of(2L, 1L, 3L), threadRankingService.getHotThreadIds("", null, 0, 10));
+        assertTrue(threadRankingService.getHotThreadIds("CHEM 115", null, 0, 10).isEmpty());
+    }
+
+    @Test
+    void boards_KeepOnlyTheTopThreads() {
+        // Arrange - one more thread than a board holds, the newest scoring highest
+        List<Object[]> rows = new ArrayList<>();
+        for (long id = 1; id <= ThreadRankingService.HOT_CAPACITY + 1; id++) {
+            rows.add(row(id, null, null, 0, 0, 0, now.minusMinutes(1000 - id)));
+        }
+        when(threadRepository.findRankingInputsSince(any(ZonedDateTime.class))).thenReturn(rows);
+
+        // Act
+        threadRankingService.refreshRankings();
+        List<Long> top = threadRankingService.getHotThreadIds(null, null, 0, ThreadRankingService.HOT_CAPACITY + 10);
+
+        // Assert
+        assertEquals(ThreadRankingService.HOT_CAPACITY, top.size());
+        assertEquals((long) ThreadRankingService.HOT_CAPACITY + 1, top.get(0));
+        assertFalse(top.contains(1L));
+    }
+
+    @Test
+    void trackAndRemoveThread_TakeEffectImmediately() {
+        // Arrange
+        Thread thread = new Thread();
+        thread.setThreadId(9L);
+        thread.setCourse("CS 307");
+        thread.setCreatedAt(now);
+
+        // Act & Assert
+        threadRankingService.trackThread(thread);
+        assertEquals(List.of(9L), threadRankingService.getHotThreadIds("CS 307", null, 0, 10));
+
+        threadRankingService.removeThread(9L);
+        assertTrue(threadRankingService.getHotThreadIds("CS 307", null, 0, 10).isEmpty());
+        assertTrue(threadRankingService.getHotThreadIds(null, null, 0, 10).isEmpty());
+    }
+
+    @Test
+    void hotScore_DownvotedThreadsSinkBelowNeutralOnes() {
+        Instant created = now.toInstant();
+        assertTrue(ThreadRankingService.hotScore(-10, 0, created) < ThreadRankingService.hotScore(0, 0, created));
+        assertTrue(ThreadRankingService.hotScore(0, 3, created) > ThreadRankingService.hotScore(0, 0, created));
+    }
+
+    private static Object[] row(Long threadId, String course, String major, int upvotes, int downvotes,
+                                int comments, ZonedDateTime createdAt) {
+        return new Object[]{threadId, course, major, upvotes, downvotes, comments, createdAt, createdAt};
+    }
+}
@@ -0,0 +1,208 @@
+package com.grapevine.service;
+
+import com.grapevine.model.ThreadSearchHit;
+import com.grapevine.model.ThreadSearchResults;
+import com.grapevine.model.ThreadSummary;
+import com.grapevine.repository.CommentRepository;
+import com.grapevine.repository.ThreadRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class ThreadSearchServiceTest {
+
+    @Mock
+    private ThreadRepository threadRepository;
+
+    @Mock
+    private CommentRepository commentRepository;
+
+    @InjectMocks
+    private ThreadSearchService threadSearchService;
+
+    @TempDir
+    Path dataDir;
+
+    private final Map<Long, Object[]> threads = new HashMap<>();
+    private final List<Object[]> comments = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        threads.put(1L, row(1L, "Curved exams in CS 307?", "Is the midterm curved this semester", "CS 307", "Computer Science"));
+        threads.put(2L, row(2L, "Study group for MA 261", "Anyone want to review multivariable calculus", "MA 261", "Mathematics"));
+        threads.put(3L, row(3L, "Internship advice", "Long description", null, "Computer Science"));
+        comments.add(new Object[]{2L, "The midterm was brutal, curved heavily I hope"});
+        comments.add(new Object[]{3L, "Ask about the midterm project"});
+        stubRepositories(threadRepository, commentRepository);
+
+        ReflectionTestUtils.setField(threadSearchService, "dataDir", dataDir.toString());
+        threadSearchService.load();
+    }
+
+    @Test
+    void search_RanksByBm25WithTitleBoostAndCountsFacets() {
+        // Act
+        ThreadSearchResults results = threadSearchService.search("midterm CURVED", null, null, 10);
+
+        // Assert - a title match beats a comment match, which beats matching one common word
+        assertEquals(List.of(1L, 2L, 3L), ids(results));
+        assertEquals(3, results.getTotal());
+        assertEquals(Map.of("CS 307", 1, "MA 261", 1), results.getCourses());
+        assertEquals(Map.of("Computer Science", 2, "Mathematics", 1), results.getMajors());
+        assertTrue(results.getHits().get(0).getScore() > results.getHits().get(1).getScore());
+    }
+
+    @Test
+    void search_FilterNarrowsHitsButNotItsOwnFacet() {
+        // Act
+        ThreadSearchResults results = threadSearchService.search("midterm curved", "MA 261", null, 10);
+
+        // Assert
+        assertEquals(List.of(2L), ids(results));
+        assertEquals(1, results.getTotal());
+        assertEquals(Map.of("CS 307", 1, "MA 261", 1), results.getCourses());
+        assertEquals(Map.of("Mathematics", 1), results.getMajors());
+    }
+
+    @Test
+    void search_HighlightsMatchesInTheBestText() {
+        // Act
+        ThreadSearchHit hit = threadSearchService.search("curved", "MA 261", null, 10).getHits().get(0);
+
+        // Assert - the match is in a comment, not the description
+        assertEquals("The midterm was brutal, <mark>curved</mark> heavily I hope", hit.getSnippet());
+    }
+
+    @Test
+    void snippet_EscapesHtmlAndTrimsToAWindowAroundTheMatches() {
+        String escaped = ThreadSearchService.snippet(List.of("Is <b>this</b> on the Midterm?"), Set.of("midterm"));
+        assertEquals("Is &lt;b&gt;this&lt;/b&gt; on the <mark>Midterm</mark>?", escaped);
+
+        String longText = "word ".repeat(100) + "the final exam is curved " + "word ".repeat(100);
+        String window = ThreadSearchService.snippet(List.of(longText), Set.of("curved"));
+        assertTrue(window.startsWith("…") && window.endsWith("…"));
+        assertTrue(window.contains("<mark>curved</mark>"));
+        assertTrue(window.length() < 200);
+    }
+
+    @Test
+    void incrementalUpdates_AreSearchableImmediately() {
+        // Act
+        threadSearchService.indexComment(3L, "Is the grading curved?");
+        threadSearchService.removeThread(1L);
+
+        // Assert - thread 3 has less text, so its single match ranks higher
+        assertEquals(List.of(3L, 2L), ids(threadSearchService.search("curved", null, null, 10)));
+
+        // A thread that's gone from the table is dropped on reindex
+        threads.remove(2L);
+        threadSearchService.reindexThread(2L);
+        assertEquals(List.of(3L), ids(threadSearchService.search("curved", null, null, 10)));
+    }
+
+    @Test
+    void save_ThenLoad_OnlyCatchesUpOnChangesSinceTheSave() {
+        // Arrange
+        threadSearchService.save();
+        threads.remove(3L);
+        // Thread 2 is rewritten, comments included, so nothing about it matches "curved" any more
+        threads.put(2L, row(2L, "Quantum computing reading group", "", "MA 261", "Mathematics"));
+        comments.removeIf(comment -> comment[0].equals(2L));
+        comments.add(new Object[]{2L, "Starting with Nielsen and Chuang"});
+        ThreadRepository restartedThreads = mock(ThreadRepository.class);
+        CommentRepository restartedComments = mock(CommentRepository.class);
+        stubRepositories(restartedThreads, restartedComments);
+        when(restartedThreads.findIdsChangedSince(any(ZonedDateTime.class))).thenReturn(List.of(2L));
+        when(restartedThreads.findAllIds()).thenAnswer(invocation -> new ArrayList<>(threads.keySet()));
+        ThreadSearchService restarted = new ThreadSearchService(restartedThreads, restartedComments);
+        ReflectionTestUtils.setField(restarted, "dataDir", dataDir.toString());
+
+        // Act
+        restarted.load();
+
+        // Assert
+        assertEquals(List.of(2L), ids(restarted.search("quantum", null, null, 10)));
+        assertEquals(List.of(1L), ids(restarted.search("curved", null, null, 10)));
+        assertTrue(restarted.search("internship", null, null, 10).getHits().isEmpty());
+        verify(restartedThreads, never()).findSearchInputsAfter(anyLong(), any(Limit.class));
+    }
+
+    @Test
+    void load_UnreadableSavedCopy_RebuildsFromTheTables() throws IOException {
+        // Arrange - e.g. a copy written by an older index format
+        Path file = dataDir.resolve("threads.idx");
+        Files.write(file, new byte[]{0, 0, 0, 0, 0, 0, 0, 1, 0, 0, 0, 99});
+        ThreadRepository restartedThreads = mock(ThreadRepository.class);
+        CommentRepository restartedComments = mock(CommentRepository.class);
+        stubRepositories(restartedThreads, restartedComments);
+        ThreadSearchService restarted = new ThreadSearchService(restartedThreads, restartedComments);
+        ReflectionTestUtils.setField(restarted, "dataDir", dataDir.toString());
+
+        // Act
+        restarted.load();
+
+        // Assert - every thread is searchable and the bad copy is gone
+        assertEquals(Set.of(1L, 2L), Set.copyOf(ids(restarted.search("curved", null, null, 10))));
+        assertEquals(List.of(3L), ids(restarted.search("internship", null, null, 10)));
+        verify(restartedThreads, never()).findIdsChangedSince(any(ZonedDateTime.class));
+        assertFalse(Files.exists(file));
+    }
+
+    @Test
+    void search_BlankQuery_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> threadSearchService.search("  ", null, null, 10));
+    }
+
+    private void stubRepositories(ThreadRepository threadRepository, CommentRepository commentRepository) {
+        when(threadRepository.findSearchInputsAfter(eq(0L), any(Limit.class)))
+                .thenAnswer(invocation -> new ArrayList<>(threads.values()));
+        when(threadRepository.findSearchInputsByIds(anyCollection()))
+                .thenAnswer(invocation -> selectThreads(invocation.getArgument(0)));
+        when(threadRepository.findSummariesByIds(anyCollection()))
+                .thenAnswer(invocation -> ((Collection<Long>) invocation.getArgument(0)).stream()
+                        .map(ThreadSearchServiceTest::summary).toList());
+        when(commentRepository.findContentsByThreadIds(anyCollection()))
+                .thenAnswer(invocation -> comments.stream()
+                        .filter(comment -> ((Collection<Long>) invocation.getArgument(0)).contains(comment[0]))
+                        .toList());
+    }
+
+    private List<Object[]> selectThreads(Collection<Long> ids) {
+        return ids.stream().filter(threads::containsKey).map(threads::get).toList();
+    }
+
+    private static Object[] row(Long threadId, String title, String description, String course, String major) {
+        return new Object[]{threadId, title, description, course, major};
+    }
+
+    private static ThreadSummary summary(Long threadId) {
+        ZonedDateTime now = ZonedDateTime.now();
+        return new ThreadSummary(threadId, "Thread " + threadId, "", "test@example.com", "Test User",
+                null, null, null, 0, 0, 0, now, now);
+    }
+
+    private static List<Long> ids(ThreadSearchResults results) {
+        return results.getHits().stream().map(hit -> hit.getThread().getThreadId()).toList();
+    }
+}
@@ -1,18 +1,27 @@
 package com.grapevine.service;
 
 import com.grapevine.model.Comment;
+import com.grapevine.model.CursorPage;
 import com.grapevine.model.Thread;
+import com.grapevine.model.ThreadSummary;
+import com.grapevine.repository.CommentLikeRepository;
+import com.grapevine.repository.CommentRepository;
 import com.grapevine.repository.ThreadRepository;
+import com.grapevine.repository.ThreadSubscriptionRepository;
+import com.grapevine.repository.ThreadVoteRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Limit;
 
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -24,7 +33,34 @@ class ThreadServiceTest {
     private ThreadRepository threadRepository;
 
     @Mock
-    private NotificationService notificationService;
+    private CommentRepository commentRepository;
+
+    @Mock
+    private CommentLikeRepository commentLikeRepository;
+
+    @Mock
+    private CommentLikeAggregator commentLikeAggregator;
+
+    @Mock
+    private ThreadVoteRepository threadVoteRepository;
+
+    @Mock
+    private VoteAggregator voteAggregator;
+
+    @Mock
+    private ThreadRankingService threadRankingService;
+
+    @Mock
+    private ThreadSearchService threadSearchService;
+
+    @Mock
+    private ThreadViewService threadViewService;
+
+    @Mock
+    private ThreadSubscriptionRepository threadSubscriptionRepository;
+
+    @Mock
+    private ThreadCommentNotifier threadCommentNotifier;
 
     @Mock
     private EmailService emailService;
@@ -49,7 +85,6 @@ class ThreadServiceTest {
         testThread.setCreatedAt(ZonedDateTime.now());
         testThread.setUpvotes(0);
         testThread.setDownvotes(0);
-        testThread.setVotes(new HashMap<>()); // Use mutable map
         testThread.setComments(new ArrayList<>()); // Use mutable list
         testThread.setNotificationsEnabled(true);
 
@@ -62,58 +97,359 @@ class ThreadServiceTest {
 
     // STORY 13 (sprint 3) (zhao)
     @Test
-    void addComment_SendsNotification_WhenAuthorIsNotCommenter() {
+    void addComment_QueuesNotificationForFollowers() {
         // Arrange
         when(threadRepository.findById(1L)).thenReturn(java.util.Optional.of(testThread));
-        when(threadRepository.save(any(Thread.class))).thenReturn(testThread);
+        when(commentRepository.save(any(Comment.class))).thenReturn(testComment);
+
+        // Act
+        Comment result = threadService.addComment(1L, testComment);
+
+        // Assert - nothing is sent on the request; the notifier batches it
+        verify(threadCommentNotifier).commentAdded(1L, "Test Thread", "other@example.com", "Other User");
+        assertEquals(testComment, result);
+    }
+
+    @Test
+    void followThread_RejectsMissingThread() {
+        // Arrange
+        when(threadRepository.existsById(1L)).thenReturn(true);
+        when(threadRepository.existsById(2L)).thenReturn(false);
+
+        // Act
+        threadService.followThread(1L, "reader@example.com");
+
+        // Assert
+        verify(threadSubscriptionRepository).insertIfAbsent(1L, "reader@example.com");
+        assertThrows(IllegalArgumentException.class, () -> threadService.followThread(2L, "reader@example.com"));
+        verify(threadSubscriptionRepository, never()).insertIfAbsent(eq(2L), anyString());
+    }
+
+    @Test
+    void getAllThreads_ReturnsSummaryPageWithCursor() {
+        // Arrange - one row more than the page size means there is a next page
+        ZonedDateTime now = ZonedDateTime.of(2025, 4, 1, 18, 0, 0, 0, ZoneOffset.ofHours(-4));
+        List<ThreadSummary> rows = List.of(summary(3L, now), summary(2L, now.minusMinutes(5)), summary(1L, now.minusMinutes(9)));
+        when(threadRepository.findNewestSummaries(Limit.of(3))).thenReturn(rows);
+
+        // Act
+        CursorPage<ThreadSummary> page = threadService.getAllThreads(null, null, null, null, 2);
+
+        // Assert
+        assertEquals(2, page.getItems().size());
+        assertEquals("2025-04-01T21:55:00Z_2", page.getNextCursor());
+        verify(threadRepository, never()).findAll();
+        verify(threadRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void getAllThreads_WithCursor_ContinuesAfterIt() {
+        // Arrange
+        when(threadRepository.findSummariesBefore(any(ZonedDateTime.class), eq(2L), eq(Limit.of(3))))
+                .thenReturn(List.of(summary(1L, ZonedDateTime.now())));
 
         // Act
-        Thread result = threadService.addComment(1L, testComment);
+        CursorPage<ThreadSummary> page = threadService.getAllThreads("new", null, null, "2025-04-01T21:55:00Z_2", 2);
 
         // Assert
-        verify(notificationService).createAndSendThreadCommentNotification(
-                "test@example.com",
-                "other@example.com",
-                "Test Thread",
-                1L
-        );
-        assertNotNull(result);
-        assertTrue(result.getComments().contains(testComment));
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getNextCursor());
+        verify(threadRepository).findSummariesBefore(
+                argThat(createdAt -> createdAt.toInstant().toString().equals("2025-04-01T21:55:00Z")),
+                eq(2L), eq(Limit.of(3)));
     }
 
     @Test
-    void addComment_DoesNotSendNotification_WhenAuthorIsCommenter() {
+    void getAllThreads_ActiveSort_PagesByLastActivity() {
+        // Arrange
+        ZonedDateTime now = ZonedDateTime.of(2025, 4, 1, 18, 0, 0, 0, ZoneOffset.UTC);
+        when(threadRepository.findActiveSummaries(Limit.of(2)))
+                .thenReturn(List.of(summary(4L, now), summary(1L, now)));
+
+        // Act
+        CursorPage<ThreadSummary> page = threadService.getAllThreads("active", null, null, null, 1);
+
+        // Assert - the cursor carries the last activity, not the creation time
+        assertEquals("2025-04-01T22:00:00Z_4", page.getNextCursor());
+        verify(threadRepository, never()).findNewestSummaries(any(Limit.class));
+        assertThrows(IllegalArgumentException.class, () -> threadService.getAllThreads("oldest", null, null, null, 1));
+    }
+
+    @Test
+    void addComment_InsertsCommentWithoutLoadingSiblings() {
         // Arrange
-        testComment.setAuthorEmail("test@example.com"); // Same as thread author
         when(threadRepository.findById(1L)).thenReturn(java.util.Optional.of(testThread));
-        when(threadRepository.save(any(Thread.class))).thenReturn(testThread);
+        when(commentRepository.save(any(Comment.class))).thenReturn(testComment);
+
+        // Act
+        threadService.addComment(1L, testComment);
+
+        // Assert - counted with one atomic UPDATE, and the thread itself is never saved
+        verify(commentRepository).save(testComment);
+        verify(threadRepository).recordComment(eq(1L), any(ZonedDateTime.class));
+        verify(threadRepository, never()).save(any(Thread.class));
+        assertEquals(testThread, testComment.getThread());
+        assertTrue(testThread.getComments().isEmpty());
+    }
+
+    @Test
+    void getComments_PagesOldestFirstWithCursor() {
+        // Arrange
+        LocalDateTime now = LocalDateTime.of(2025, 4, 1, 18, 0, 0);
+        List<Comment> rows = List.of(comment(1L, now), comment(2L, now), comment(3L, now.plusMinutes(1)));
+        when(commentRepository.findFirstByThread(1L, Limit.of(3))).thenReturn(rows);
+        when(commentRepository.findByThreadAfter(1L, now, 2L, Limit.of(3))).thenReturn(List.of(comment(3L, now.plusMinutes(1))));
+
+        // Act
+        CursorPage<Comment> first = threadService.getComments(1L, null, null, 2);
+        CursorPage<Comment> second = threadService.getComments(1L, null, first.getNextCursor(), 2);
+
+        // Assert
+        assertEquals(2, first.getItems().size());
+        assertEquals("2025-04-01T18:00_2", first.getNextCursor());
+        assertEquals(1, second.getItems().size());
+        assertNull(second.getNextCursor());
+        verify(threadRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void getComments_UnknownThreadOrInvalidCursor_Throws() {
+        when(commentRepository.findFirstByThread(eq(9L), any(Limit.class))).thenReturn(List.of());
+        when(threadRepository.existsById(9L)).thenReturn(false);
+
+        assertThrows(IllegalArgumentException.class, () -> threadService.getComments(9L, null, null, 20));
+        assertThrows(IllegalArgumentException.class, () -> threadService.getComments(1L, null, "yesterday_2", 20));
+    }
+
+    @Test
+    void getComments_AddsPendingLikesAndMarksTheReadersLikes() {
+        // Arrange
+        LocalDateTime now = LocalDateTime.of(2025, 4, 1, 18, 0, 0);
+        when(commentRepository.findFirstByThread(1L, Limit.of(21))).thenReturn(List.of(comment(1L, now), comment(2L, now)));
+        when(commentLikeAggregator.pendingLikes(2L)).thenReturn(3L);
+        when(commentLikeRepository.findLikedCommentIds(eq("reader@example.com"), anyCollection())).thenReturn(List.of(2L));
+
+        // Act
+        List<Comment> comments = threadService.getComments(1L, "reader@example.com", null, 20).getItems();
+
+        // Assert
+        assertEquals(0, comments.get(0).getLikes());
+        assertFalse(comments.get(0).isLiked());
+        assertEquals(3, comments.get(1).getLikes());
+        assertTrue(comments.get(1).isLiked());
+    }
+
+    @Test
+    void likeComment_CountsOnlyNewLikesAndReturnsCountWithPending() {
+        // Arrange - the first like inserts the row, the repeat finds it already there
+        when(commentRepository.findLikes(1L, 5L)).thenReturn(10);
+        when(commentLikeRepository.insertIfAbsent(5L, "reader@example.com")).thenReturn(1, 0);
+        when(commentLikeAggregator.pendingLikes(5L)).thenReturn(1L);
 
         // Act
-        Thread result = threadService.addComment(1L, testComment);
+        int first = threadService.likeComment(1L, 5L, "reader@example.com");
+        int repeat = threadService.likeComment(1L, 5L, "reader@example.com");
 
         // Assert
-        verify(notificationService, never()).createAndSendThreadCommentNotification(
-                anyString(), anyString(), anyString(), anyLong()
-        );
-        assertNotNull(result);
-        assertTrue(result.getComments().contains(testComment));
+        assertEquals(11, first);
+        assertEquals(11, repeat);
+        verify(commentLikeAggregator).add(5L, 1);
+        verify(commentLikeAggregator).add(5L, 0);
+        verify(commentRepository, never()).save(any(Comment.class));
     }
 
     @Test
-    void addComment_DoesNotSendNotification_WhenNotificationsDisabled() {
+    void unlikeComment_TakesBackOnlyAnExistingLike() {
         // Arrange
-        testThread.setNotificationsEnabled(false);
+        when(commentRepository.findLikes(1L, 5L)).thenReturn(10);
+        // Comment 5 isn't on thread 2
+        when(commentRepository.findLikes(2L, 5L)).thenReturn(null);
+        when(commentLikeRepository.deleteLike(5L, "reader@example.com")).thenReturn(1);
+
+        // Act
+        threadService.unlikeComment(1L, 5L, "reader@example.com");
+
+        // Assert
+        verify(commentLikeAggregator).add(5L, -1);
+        assertThrows(IllegalArgumentException.class, () -> threadService.unlikeComment(2L, 5L, "reader@example.com"));
+    }
+
+    @Test
+    void deleteComment_OnlyUncountsRemovedRows() {
+        // Arrange - the second delete races the first and finds nothing left
+        when(commentRepository.deleteFromThread(1L, 5L)).thenReturn(1).thenReturn(0);
+
+        // Act
+        threadService.deleteComment(1L, 5L);
+        threadService.deleteComment(1L, 5L);
+
+        // Assert
+        verify(threadRepository, times(1)).removeComment(1L);
+        verify(commentLikeRepository, times(1)).deleteByCommentId(5L);
+    }
+
+    @Test
+    void upvoteThread_FirstVote_AppliesDeltaWithoutLoadingThread() {
+        // Arrange
+        when(threadRepository.existsById(1L)).thenReturn(true);
+        when(threadVoteRepository.lockVote(1L, "voter@example.com")).thenReturn(0);
+
+        // Act
+        int vote = threadService.upvoteThread(1L, "voter@example.com");
+
+        // Assert
+        assertEquals(1, vote);
+        verify(threadVoteRepository).insertIfAbsent(1L, "voter@example.com");
+        verify(threadVoteRepository).setVote(1L, "voter@example.com", 1);
+        verify(voteAggregator).add(1L, 1, 0);
+        verify(threadRepository, never()).findById(anyLong());
+        verify(threadRepository, never()).save(any(Thread.class));
+    }
+
+    @Test
+    void downvoteThread_AfterUpvote_MovesBothCounters() {
+        // Arrange
+        when(threadRepository.existsById(1L)).thenReturn(true);
+        when(threadVoteRepository.lockVote(1L, "voter@example.com")).thenReturn(1);
+
+        // Act
+        int vote = threadService.downvoteThread(1L, "voter@example.com");
+
+        // Assert
+        assertEquals(-1, vote);
+        verify(voteAggregator).add(1L, -1, 1);
+    }
+
+    @Test
+    void upvoteThread_Again_TakesVoteBack() {
+        // Arrange
+        when(threadRepository.existsById(1L)).thenReturn(true);
+        when(threadVoteRepository.lockVote(1L, "voter@example.com")).thenReturn(1);
+
+        // Act
+        int vote = threadService.upvoteThread(1L, "voter@example.com");
+
+        // Assert
+        assertEquals(0, vote);
+        verify(threadVoteRepository).setVote(1L, "voter@example.com", 0);
+        verify(voteAggregator).add(1L, -1, 0);
+    }
+
+    @Test
+    void upvoteThread_MissingThread_Throws() {
+        // Arrange
+        when(threadRepository.existsById(9L)).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> threadService.upvoteThread(9L, "voter@example.com"));
+        verifyNoInteractions(threadVoteRepository);
+    }
+
+    @Test
+    void getThreadById_IncludesVotesNotYetFlushed() {
+        // Arrange
+        testThread.setUpvotes(10);
+        testThread.setDownvotes(2);
         when(threadRepository.findById(1L)).thenReturn(java.util.Optional.of(testThread));
+        when(voteAggregator.pendingUpvotes(1L)).thenReturn(5L);
+        when(voteAggregator.pendingDownvotes(1L)).thenReturn(-1L);
+
+        // Act
+        Thread result = threadService.getThreadById(1L);
+
+        // Assert
+        assertEquals(15, result.getUpvotes());
+        assertEquals(1, result.getDownvotes());
+    }
+
+    @Test
+    void getAllThreads_HotSort_ReadsRankedIdsInRankOrder() {
+        // Arrange - the lookup by id returns rows in table order
+        ZonedDateTime now = ZonedDateTime.now();
+        when(threadRankingService.getHotThreadIds("CS 307", null, 0, 3)).thenReturn(List.of(7L, 2L, 5L));
+        when(threadRepository.findSummariesByIds(List.of(7L, 2L)))
+                .thenReturn(List.of(summary(2L, now), summary(7L, now)));
+
+        // Act
+        CursorPage<ThreadSummary> page = threadService.getAllThreads("hot", "CS 307", null, null, 2);
+
+        // Assert
+        assertEquals(List.of(7L, 2L), page.getItems().stream().map(ThreadSummary::getThreadId).toList());
+        assertEquals("2", page.getNextCursor());
+        verify(threadRepository, never()).findNewestSummaries(any(Limit.class));
+        verify(threadRepository, never()).findAll();
+    }
+
+    @Test
+    void getAllThreads_CourseFilterWithoutHotSort_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> threadService.getAllThreads("new", "CS 307", null, null, 20));
+        assertThrows(IllegalArgumentException.class, () -> threadService.getAllThreads("hot", null, null, "first", 20));
+    }
+
+    @Test
+    void upvoteThread_UpdatesHotRankingAfterCommit() {
+        // Arrange
+        when(threadRepository.existsById(1L)).thenReturn(true);
+        when(threadVoteRepository.lockVote(1L, "voter@example.com")).thenReturn(-1);
+
+        // Act
+        threadService.upvoteThread(1L, "voter@example.com");
+
+        // Assert - from a downvote to an upvote moves the net score by two
+        verify(threadRankingService).recordVote(1L, 2);
+    }
+
+    @Test
+    void createAndUpdateThread_KeepSearchIndexCurrent() {
+        // Arrange
         when(threadRepository.save(any(Thread.class))).thenReturn(testThread);
+        when(threadRepository.findById(1L)).thenReturn(java.util.Optional.of(testThread));
+        when(commentRepository.save(any(Comment.class))).thenReturn(testComment);
+
+        // Act
+        threadService.createThread(testThread);
+        threadService.updateThread(1L, testThread);
+        threadService.addComment(1L, testComment);
+
+        // Assert
+        verify(threadSearchService).indexThread(testThread);
+        verify(threadSearchService).reindexThread(1L);
+        verify(threadSearchService).indexComment(1L, "Test comment");
+    }
+
+    @Test
+    void viewThread_RecordsViewerAndFillsInViewsWithoutWriting() {
+        // Arrange
+        byte[] sketch = new byte[0];
+        testThread.setViewerSketch(sketch);
+        when(threadRepository.findById(1L)).thenReturn(java.util.Optional.of(testThread));
+        when(threadViewService.uniqueViewers(1L, sketch)).thenReturn(12L);
 
         // Act
-        Thread result = threadService.addComment(1L, testComment);
+        Thread result = threadService.viewThread(1L, "reader@example.com");
 
         // Assert
-        verify(notificationService, never()).createAndSendThreadCommentNotification(
-                anyString(), anyString(), anyString(), anyLong()
-        );
-        assertNotNull(result);
-        assertTrue(result.getComments().contains(testComment));
+        assertEquals(12L, result.getViews());
+        verify(threadViewService).recordView(1L, "reader@example.com");
+        verify(threadRepository, never()).save(any(Thread.class));
+    }
+
+    @Test
+    void getAllThreads_InvalidCursor_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> threadService.getAllThreads(null, null, null, "yesterday_2", 20));
+        assertThrows(IllegalArgumentException.class, () -> threadService.getAllThreads(null, null, null, "2025-04-01T21:55:00Z", 20));
+    }
+
+    private static ThreadSummary summary(Long threadId, ZonedDateTime createdAt) {
+        return new ThreadSummary(threadId, "Thread " + threadId, "", "test@example.com", "Test User",
+                null, null, null, 0, 0, 0, createdAt, createdAt.plusHours(threadId));
+    }
+
+    private static Comment comment(Long commentId, LocalDateTime createdAt) {
+        Comment comment = new Comment();
+        comment.setCommentId(commentId);
+        comment.setContent("Comment " + commentId);
+        comment.setCreatedAt(createdAt);
+        return comment;
     }
-}
\ No newline at end of file
+}
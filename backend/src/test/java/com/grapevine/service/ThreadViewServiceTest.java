@@ -0,0 +1,113 @@
+package com.grapevine.service;
+
+import com.grapevine.index.HyperLogLog;
+import com.grapevine.repository.ThreadRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+public class ThreadViewServiceTest {
+
+    @Mock
+    private ThreadRepository threadRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private ThreadViewService threadViewService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void uniqueViewers_CountsEachViewerOnceWithoutWriting() {
+        // Act
+        for (int i = 0; i < 3; i++) {
+            threadViewService.recordView(1L, "a@example.com");
+            threadViewService.recordView(1L, "b@example.com");
+        }
+        threadViewService.recordView(2L, "a@example.com");
+
+        // Assert
+        assertEquals(2, threadViewService.uniqueViewers(1L, null));
+        assertEquals(1, threadViewService.uniqueViewers(2L, null));
+        assertEquals(0, threadViewService.uniqueViewers(3L, null));
+        verifyNoInteractions(threadRepository);
+    }
+
+    @Test
+    void flush_MergesPendingViewsIntoStoredSketch() {
+        // Arrange - the row already has two viewers, one of whom comes back
+        HyperLogLog stored = new HyperLogLog();
+        stored.add(HyperLogLog.hash("a@example.com"));
+        stored.add(HyperLogLog.hash("b@example.com"));
+        when(threadRepository.lockViewerSketch(1L)).thenReturn(stored.toBytes());
+        when(threadRepository.setViewerSketch(eq(1L), any(byte[].class))).thenReturn(1);
+        threadViewService.recordView(1L, "b@example.com");
+        threadViewService.recordView(1L, "c@example.com");
+
+        // Act
+        int written = threadViewService.flush();
+
+        // Assert
+        ArgumentCaptor<byte[]> merged = ArgumentCaptor.forClass(byte[].class);
+        verify(threadRepository).setViewerSketch(eq(1L), merged.capture());
+        assertEquals(1, written);
+        // Three viewers are stored as three 3-byte register entries, not the full 12 KB sketch
+        assertEquals(1 + 3 * 3, merged.getValue().length);
+        assertEquals(3, threadViewService.uniqueViewers(1L, merged.getValue()));
+        // Nothing new, nothing written
+        assertEquals(0, threadViewService.flush());
+        verify(threadRepository, times(1)).setViewerSketch(anyLong(), any(byte[].class));
+    }
+
+    @Test
+    void flush_FailedWrite_KeepsViewsForNextFlush() {
+        // Arrange
+        threadViewService.recordView(1L, "a@example.com");
+        when(threadRepository.setViewerSketch(eq(1L), any(byte[].class)))
+                .thenThrow(new RuntimeException("connection reset"))
+                .thenReturn(1);
+
+        // Act
+        int first = threadViewService.flush();
+        long viewersAfterFailure = threadViewService.uniqueViewers(1L, null);
+        int second = threadViewService.flush();
+
+        // Assert
+        assertEquals(0, first);
+        assertEquals(1, viewersAfterFailure);
+        assertEquals(1, second);
+        assertEquals(0, threadViewService.uniqueViewers(1L, null));
+    }
+
+    @Test
+    void sketch_StaysWithinErrorBoundsAndRoundTrips() {
+        // Arrange
+        HyperLogLog sketch = new HyperLogLog();
+        for (int i = 0; i < 100_000; i++) {
+            sketch.add(HyperLogLog.hash("user" + i + "@example.com"));
+        }
+
+        // Act
+        HyperLogLog copy = HyperLogLog.fromBytes(sketch.toBytes());
+
+        // Assert - three standard errors either way
+        assertEquals(100_000, sketch.estimate(), 100_000 * 0.025);
+        assertEquals(sketch.estimate(), copy.estimate());
+        assertEquals(HyperLogLog.MAX_BYTES, sketch.toBytes().length);
+        assertThrows(IllegalArgumentException.class, () -> HyperLogLog.fromBytes(new byte[10]));
+    }
+}
@@ -0,0 +1,163 @@
+package com.grapevine.service;
+
+import com.grapevine.index.UpcomingEventIndex;
+import com.grapevine.model.Event;
+import com.grapevine.repository.EventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class UpcomingEventServiceTest {
+
+    @Mock
+    private EventRepository eventRepository;
+
+    @InjectMocks
+    private UpcomingEventService upcomingEventService;
+
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        now = LocalDateTime.now();
+    }
+
+    @Test
+    void warm_LoadsUpcomingPublicEventsInTimeOrder() {
+        // Arrange
+        when(eventRepository.findUpcomingPublicEvents(any(LocalDateTime.class))).thenReturn(List.of(
+                event(2L, now.plusDays(2), 1L),
+                event(1L, now.plusDays(1), 2L),
+                event(3L, now.plusDays(3), 1L)));
+
+        // Act
+        upcomingEventService.warm();
+
+        // Assert
+        assertEquals(List.of(1L, 2L, 3L), ids(upcomingEventService.getUpcomingEvents(10, null, null, null)));
+        assertEquals(List.of(2L, 3L), ids(upcomingEventService.getUpcomingEvents(10, 1L, null, null)));
+        assertEquals(List.of(1L, 2L), ids(upcomingEventService.getUpcomingEvents(2, null, null, null)));
+    }
+
+    @Test
+    void getUpcomingEvents_TimeWindowIsInclusiveAndServedFromMemory() {
+        // Arrange
+        upcomingEventService.track(event(1L, now.plusDays(1), 1L));
+        upcomingEventService.track(event(2L, now.plusDays(2), 1L));
+        upcomingEventService.track(event(3L, now.plusDays(3), 1L));
+
+        // Act
+        List<UpcomingEventIndex.Entry> result = upcomingEventService.getUpcomingEvents(
+                10, null, now.plusDays(2), now.plusDays(3));
+
+        // Assert
+        assertEquals(List.of(2L, 3L), ids(result));
+        verifyNoInteractions(eventRepository);
+    }
+
+    @Test
+    void track_MovesUpdatedEventAndDropsPrivateOrPastOnes() {
+        // Arrange
+        Event moved = event(1L, now.plusDays(5), 1L);
+        upcomingEventService.track(moved);
+        upcomingEventService.track(event(2L, now.plusDays(2), 1L));
+
+        // Act - reschedule event 1 before event 2, move it to another location, then hide event 2
+        moved.setEventTime(now.plusDays(1));
+        moved.setLocationId(4L);
+        upcomingEventService.track(moved);
+
+        Event hidden = event(2L, now.plusDays(2), 1L);
+        hidden.setIsPublic(false);
+        upcomingEventService.track(hidden);
+        upcomingEventService.track(event(3L, now.minusHours(1), 1L));
+
+        // Assert
+        assertEquals(List.of(1L), ids(upcomingEventService.getUpcomingEvents(10, null, null, null)));
+        assertEquals(List.of(1L), ids(upcomingEventService.getUpcomingEvents(10, 4L, null, null)));
+        assertTrue(upcomingEventService.getUpcomingEvents(10, 1L, null, null).isEmpty());
+    }
+
+    @Test
+    void getUpcomingEvents_EventsSlideOutOnceTheyStart() {
+        // Arrange - an event that starts a moment from now
+        upcomingEventService.track(event(1L, now.plusNanos(50_000_000), 1L));
+        upcomingEventService.track(event(2L, now.plusDays(1), 1L));
+
+        // Act
+        sleep(100);
+        List<UpcomingEventIndex.Entry> result = upcomingEventService.getUpcomingEvents(10, null, null, null);
+
+        // Assert
+        assertEquals(List.of(2L), ids(result));
+    }
+
+    @Test
+    void getUpcomingEvents_SeriesMovesToItsNextOccurrenceOnceOneStarts() {
+        // Arrange - a daily series whose next occurrence starts a moment from now, and one that ends with it
+        Event series = event(1L, now.plusNanos(50_000_000), 1L);
+        series.setRecurrenceRule("FREQ=DAILY;COUNT=3");
+        Event lastOccurrence = event(2L, now.plusNanos(50_000_000), 1L);
+        lastOccurrence.setRecurrenceRule("FREQ=DAILY;COUNT=1");
+        upcomingEventService.track(series);
+        upcomingEventService.track(lastOccurrence);
+
+        // Act
+        sleep(100);
+        List<UpcomingEventIndex.Entry> result = upcomingEventService.getUpcomingEvents(10, 1L, null, null);
+
+        // Assert
+        assertEquals(List.of(1L), ids(result));
+        assertEquals(series.getEventTime().plusDays(1), result.get(0).eventTime());
+        verifyNoInteractions(eventRepository);
+    }
+
+    @Test
+    void updateMemberCount_ReplacesCountAndDeleteRemoves() {
+        // Arrange
+        upcomingEventService.track(event(1L, now.plusDays(1), 1L));
+
+        // Act
+        upcomingEventService.updateMemberCount(1L, 7);
+        int count = upcomingEventService.getUpcomingEvents(10, null, null, null).get(0).memberCount();
+        upcomingEventService.remove(1L);
+
+        // Assert
+        assertEquals(7, count);
+        assertTrue(upcomingEventService.getUpcomingEvents(10, null, null, null).isEmpty());
+    }
+
+    private static Event event(Long eventId, LocalDateTime eventTime, Long locationId) {
+        Event event = new Event();
+        event.setEventId(eventId);
+        event.setName("Event " + eventId);
+        event.setIsPublic(true);
+        event.setEventTime(eventTime);
+        event.setLocationId(locationId);
+        event.setMaxUsers(10);
+        event.setMemberCount(1);
+        return event;
+    }
+
+    private static List<Long> ids(List<UpcomingEventIndex.Entry> entries) {
+        return entries.stream().map(UpcomingEventIndex.Entry::eventId).toList();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.grapevine.service;
+
+import com.grapevine.repository.ThreadRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+public class VoteAggregatorTest {
+
+    @Mock
+    private ThreadRepository threadRepository;
+
+    @InjectMocks
+    private VoteAggregator voteAggregator;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void flush_WritesEachThreadOnceWithSummedDeltas() {
+        // Arrange
+        for (int i = 0; i < 40; i++) {
+            voteAggregator.add(1L, 1, 0);
+        }
+        voteAggregator.add(1L, -1, 1);
+        voteAggregator.add(2L, 0, 1);
+
+        // Act
+        int written = voteAggregator.flush();
+
+        // Assert
+        assertEquals(2, written);
+        verify(threadRepository).applyVoteDelta(1L, 39, 1);
+        verify(threadRepository).applyVoteDelta(2L, 0, 1);
+        assertEquals(0, voteAggregator.pendingUpvotes(1L));
+        // Nothing new, nothing written
+        assertEquals(0, voteAggregator.flush());
+        verify(threadRepository, times(2)).applyVoteDelta(anyLong(), anyInt(), anyInt());
+    }
+
+    @Test
+    void flush_WrittenThreads_AreNoLongerTracked() {
+        // Arrange
+        voteAggregator.add(1L, 1, 0);
+        voteAggregator.add(2L, 0, 1);
+        when(threadRepository.applyVoteDelta(anyLong(), anyInt(), anyInt())).thenReturn(1);
+        WriteBehindCounters counters = (WriteBehindCounters) ReflectionTestUtils.getField(voteAggregator, "counters");
+
+        // Act
+        voteAggregator.flush();
+
+        // Assert - a later vote on the same thread starts a fresh entry
+        assertEquals(0, counters.tracked());
+        voteAggregator.add(1L, 1, 0);
+        assertEquals(1, voteAggregator.pendingUpvotes(1L));
+        assertEquals(1, voteAggregator.flush());
+        verify(threadRepository, times(2)).applyVoteDelta(1L, 1, 0);
+    }
+
+    @Test
+    void flush_InFlightDelta_IsCountedOnce() {
+        // Arrange - read the pending count while the UPDATE is running
+        for (int i = 0; i < 3; i++) {
+            voteAggregator.add(1L, 1, 0);
+        }
+        long[] seenDuringWrite = new long[1];
+        when(threadRepository.applyVoteDelta(1L, 3, 0)).thenAnswer(invocation -> {
+            seenDuringWrite[0] = voteAggregator.pendingUpvotes(1L);
+            return 1;
+        });
+
+        // Act
+        voteAggregator.flush();
+
+        // Assert
+        assertEquals(3, seenDuringWrite[0]);
+        assertEquals(0, voteAggregator.pendingUpvotes(1L));
+    }
+
+    @Test
+    void pendingVotes_AreVisibleBeforeFlush() {
+        // Act
+        voteAggregator.add(1L, 1, 0);
+        voteAggregator.add(1L, 1, 0);
+        voteAggregator.add(1L, -1, 1);
+
+        // Assert
+        assertEquals(1, voteAggregator.pendingUpvotes(1L));
+        assertEquals(1, voteAggregator.pendingDownvotes(1L));
+        assertEquals(0, voteAggregator.pendingUpvotes(2L));
+        verifyNoInteractions(threadRepository);
+    }
+
+    @Test
+    void flush_FailedWrite_KeepsDeltaForNextFlush() {
+        // Arrange
+        voteAggregator.add(1L, 1, 0);
+        when(threadRepository.applyVoteDelta(1L, 1, 0))
+                .thenThrow(new RuntimeException("connection reset"))
+                .thenReturn(1);
+
+        // Act
+        int first = voteAggregator.flush();
+        long pendingAfterFailure = voteAggregator.pendingUpvotes(1L);
+        int second = voteAggregator.flush();
+
+        // Assert
+        assertEquals(0, first);
+        assertEquals(1, pendingAfterFailure);
+        assertEquals(1, second);
+        assertEquals(0, voteAggregator.pendingUpvotes(1L));
+    }
+}
@@ -0,0 +1,231 @@
+package com.grapevine.service;
+
+import com.grapevine.model.Event;
+import com.grapevine.model.EventMember;
+import com.grapevine.model.EventWaitlistEntry;
+import com.grapevine.model.User;
+import com.grapevine.model.WaitlistVersion;
+import com.grapevine.repository.EventMemberRepository;
+import com.grapevine.repository.EventRepository;
+import com.grapevine.repository.EventWaitlistRepository;
+import com.grapevine.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class WaitlistServiceTest {
+
+    @Mock
+    private EventWaitlistRepository waitlistRepository;
+
+    @Mock
+    private EventRepository eventRepository;
+
+    @Mock
+    private EventMemberRepository eventMemberRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private NotificationService notificationService;
+
+    @Mock
+    private ScheduleService scheduleService;
+
+    @InjectMocks
+    private WaitlistService waitlistService;
+
+    private Event event;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        event = new Event();
+        event.setEventId(1L);
+        event.setName("Midterm Review");
+        event.setIsPublic(true);
+        event.setMaxUsers(2);
+        event.setMemberCount(2);
+        event.setEventTime(LocalDateTime.now().plusDays(1));
+    }
+
+    @Test
+    void joinWaitlist_QueuesInArrivalOrder() {
+        // Arrange
+        when(eventRepository.findById(1L)).thenReturn(Optional.of(event));
+        rows();
+
+        // Act
+        int first = waitlistService.joinWaitlist(1L, user("a@example.com"));
+        int second = waitlistService.joinWaitlist(1L, user("b@example.com"));
+        int again = waitlistService.joinWaitlist(1L, user("a@example.com"));
+
+        // Assert
+        assertEquals(1, first);
+        assertEquals(2, second);
+        assertEquals(1, again);
+        verify(waitlistRepository, times(2)).save(any(EventWaitlistEntry.class));
+        // The queue is read from its rows once, then kept in memory
+        verify(waitlistRepository, times(1)).findEmailsInOrder(1L);
+    }
+
+    @Test
+    void getPosition_QueueChangedOnAnotherInstance_IsReloaded() {
+        // Arrange
+        rows("a@example.com", "b@example.com");
+        assertEquals(2, waitlistService.getPosition(1L, "b@example.com"));
+
+        // Act - another instance promotes a and queues c
+        waitlistRepository.removeEntry(1L, "a@example.com");
+        waitlistRepository.save(new EventWaitlistEntry(1L, "c@example.com"));
+
+        // Assert
+        assertEquals(0, waitlistService.getPosition(1L, "a@example.com"));
+        assertEquals(1, waitlistService.getPosition(1L, "b@example.com"));
+        assertEquals(2, waitlistService.getPosition(1L, "c@example.com"));
+    }
+
+    @Test
+    void joinWaitlist_EventWithOpenSeats_Throws() {
+        // Arrange
+        event.setMemberCount(1);
+        when(eventRepository.findById(1L)).thenReturn(Optional.of(event));
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> waitlistService.joinWaitlist(1L, user("a@example.com")));
+        verify(waitlistRepository, never()).save(any(EventWaitlistEntry.class));
+    }
+
+    @Test
+    void promote_FillsFreeSeatsOldestFirst() {
+        // Arrange - two seats free, three people waiting
+        rows("a@example.com", "b@example.com", "c@example.com");
+        when(eventRepository.reserveSeat(1L)).thenReturn(1, 1, 0);
+
+        // Act
+        List<String> promoted = waitlistService.promote(event);
+
+        // Assert
+        assertEquals(List.of("a@example.com", "b@example.com"), promoted);
+        verify(eventMemberRepository, times(2)).save(any(EventMember.class));
+        verify(userRepository).addJoinedEvent("a@example.com", 1L);
+        verify(userRepository).addJoinedEvent("b@example.com", 1L);
+        verify(notificationService).createAndSendWaitlistPromotionNotifications(promoted, "Midterm Review", 1L);
+        verify(scheduleService).invalidate("a@example.com");
+        assertEquals(1, waitlistService.getPosition(1L, "c@example.com"));
+        assertEquals(0, waitlistService.getPosition(1L, "a@example.com"));
+    }
+
+    @Test
+    void promote_EntryClaimedElsewhere_GivesSeatToNextInLine() {
+        // Arrange - a withdrew on another request between the version check and the promotion
+        rows("a@example.com", "b@example.com");
+        when(eventRepository.reserveSeat(1L)).thenReturn(1, 1, 0);
+        doReturn(0).when(waitlistRepository).removeEntry(1L, "a@example.com");
+
+        // Act
+        List<String> promoted = waitlistService.promote(event);
+
+        // Assert
+        assertEquals(List.of("b@example.com"), promoted);
+        verify(eventRepository).releaseSeat(1L);
+        verify(eventMemberRepository, times(1)).save(any(EventMember.class));
+    }
+
+    @Test
+    void promote_EmptyWaitlist_TouchesNoSeats() {
+        // Arrange
+        rows();
+
+        // Act
+        List<String> promoted = waitlistService.promote(event);
+
+        // Assert
+        assertTrue(promoted.isEmpty());
+        verify(eventRepository, never()).reserveSeat(anyLong());
+        verifyNoInteractions(notificationService);
+    }
+
+    @Test
+    void promote_ConcurrentLeaves_EachSeatGoesToExactlyOneUserInOrder() throws InterruptedException {
+        // Arrange - 100 waiting; 40 leaves race to promote, 20 seats actually open up
+        List<String> waiting = IntStream.range(0, 100).mapToObj(i -> "user" + i + "@example.com").toList();
+        rows(waiting.toArray(new String[0]));
+        AtomicInteger freeSeats = new AtomicInteger(20);
+        when(eventRepository.reserveSeat(1L)).thenAnswer(invocation ->
+                freeSeats.getAndUpdate(seats -> Math.max(0, seats - 1)) > 0 ? 1 : 0);
+        List<String> promoted = Collections.synchronizedList(new ArrayList<>());
+
+        // Act
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int i = 0; i < 40; i++) {
+            pool.submit(() -> {
+                start.await();
+                promoted.addAll(waitlistService.promote(event));
+                return null;
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        // Assert
+        assertEquals(20, promoted.size());
+        assertEquals(waiting.subList(0, 20), promoted.stream().sorted((a, b) ->
+                Integer.compare(waiting.indexOf(a), waiting.indexOf(b))).toList());
+        assertEquals(0, freeSeats.get());
+        assertEquals(1, waitlistService.getPosition(1L, "user20@example.com"));
+        verify(eventRepository, never()).releaseSeat(anyLong());
+    }
+
+    // Backs the mocked waitlist repository with event 1's rows, so the version check sees every write
+    private List<String> rows(String... emails) {
+        List<String> rows = Collections.synchronizedList(new ArrayList<>(List.of(emails)));
+        AtomicLong lastEntryId = new AtomicLong(emails.length);
+        when(waitlistRepository.findVersion(1L)).thenAnswer(invocation ->
+                new WaitlistVersion(rows.size(), lastEntryId.get()));
+        when(waitlistRepository.findEmailsInOrder(1L)).thenAnswer(invocation -> {
+            synchronized (rows) {
+                return new ArrayList<>(rows);
+            }
+        });
+        when(waitlistRepository.save(any(EventWaitlistEntry.class))).thenAnswer(invocation -> {
+            EventWaitlistEntry entry = invocation.getArgument(0);
+            entry.setEntryId(lastEntryId.incrementAndGet());
+            rows.add(entry.getUserEmail());
+            return entry;
+        });
+        when(waitlistRepository.removeEntry(eq(1L), anyString()))
+                .thenAnswer(invocation -> rows.remove(invocation.<String>getArgument(1)) ? 1 : 0);
+        return rows;
+    }
+
+    private static User user(String email) {
+        User user = new User();
+        user.setUserEmail(email);
+        return user;
+    }
+}
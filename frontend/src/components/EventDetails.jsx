@@ -5,6 +5,18 @@ import './EventDetails.css';
 import { base_url } from '../config';
 import 'react-toastify/dist/ReactToastify.css';
 
+// The event no longer embeds its roster; load the first page of participants alongside it
+const fetchEventWithParticipants = async (eventId, sessionId) => {
+    const [eventRes, membersRes] = await Promise.all([
+        axios.get(`${base_url}/events/${eventId}`, { headers: { "Session-Id": sessionId } }),
+        axios.get(`${base_url}/events/${eventId}/members`, {
+            headers: { "Session-Id": sessionId },
+            params: { role: "participant", limit: 200 }
+        })
+    ]);
+    return { ...eventRes.data, participants: membersRes.data.items.map(member => member.userEmail) };
+};
+
 function EventDetails() {
     const { eventId } = useParams();
     const navigate = useNavigate();
@@ -74,20 +86,18 @@ function EventDetails() {
                     navigate("/");
                     return;
                 }
-                const response = await axios.get(`${base_url}/events/${eventId}`, {
-                    headers: { "Session-Id": sessionId }
-                });
-                setEventData(response.data);
-                setEditedData(response.data);
+                const event = await fetchEventWithParticipants(eventId, sessionId);
+                setEventData(event);
+                setEditedData(event);
 
-                if (response.data.groupId) {
-                    const groupResponse = await axios.get(`${base_url}/groups/${response.data.groupId}`, {
+                if (event.groupId) {
+                    const groupResponse = await axios.get(`${base_url}/groups/${event.groupId}`, {
                         headers: { "Session-Id": sessionId }
                     });
                     setGroupName(groupResponse.data.name);
                 }
 
-                const hosts = response.data.hosts || [];
+                const hosts = event.hosts || [];
                 const names = {};
                 await Promise.all(
                     hosts.map(async (email) => {
@@ -218,10 +228,7 @@ function EventDetails() {
             setRegistrationMessage("✅ You have successfully registered for this event.");
 
             // Re-fetch the event to update members
-            const updatedEvent = await axios.get(`${base_url}/events/${eventId}`, {
-                headers: { "Session-Id": sessionId }
-            });
-            setEventData(updatedEvent.data);
+            setEventData(await fetchEventWithParticipants(eventId, sessionId));
         } catch (error) {
             console.error("Registration failed:", error);
             setRegistrationMessage("❌ Failed to register for event.");
@@ -368,7 +375,7 @@ function EventDetails() {
                 {eventData &&
                     !eventData.hosts?.includes(currentUserEmail) &&
                     !eventData.participants?.includes(currentUserEmail) &&
-                    eventData.participants?.length < eventData.maxUsers && (
+                    eventData.memberCount < eventData.maxUsers && (
                         <button className="register-button" onClick={handleRegistration}>
                             Register
                         </button>
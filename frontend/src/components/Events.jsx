@@ -9,6 +9,7 @@ import { base_url } from '../config';
 function Events() {
     const [myEvents, setMyEvents] = useState([]);
     const [filteredEvents, setFilteredEvents] = useState([]);
+    const [nextCursor, setNextCursor] = useState(null);
     const [search, setSearch] = useState("");
     const [maxUsers, setMaxUsers] = useState("");
     const [startTime, setStartTime] = useState("");
@@ -57,22 +58,14 @@ function Events() {
                 const sessionId = localStorage.getItem('sessionId');
                 if (!userData || !sessionId) return;
 
-                const email = userData.userEmail;
-
                 const response = await axios.get(
                     `${base_url}/users/${userData.userEmail}/all-events`,
                     { headers: { 'Session-Id': sessionId } }
                 );
 
                 console.log("My Events Response:", response.data);
-                const allEvents = response.data;
-
-                // Filter for events where the user is a host or participant
-                const userEvents = allEvents.filter(ev =>
-                    ev.hosts?.includes(email) || ev.participants?.includes(email)
-                );
-
-                setMyEvents(userEvents);
+                // Already limited to the events the user hosts or has joined
+                setMyEvents(response.data);
             } catch (error) {
                 console.error("Error fetching events:", error);
             }
@@ -82,7 +75,7 @@ function Events() {
     }, []);
 
     // Apply filter based on provided criteria
-    const applyEventFilter = useCallback(async () => {
+    const applyEventFilter = useCallback(async (cursor = null) => {
         try {
             const sessionId = localStorage.getItem('sessionId');
             if (!sessionId) {
@@ -109,6 +102,9 @@ function Events() {
             }
             params.includePastEvents = includePastEvents;
             params.onlyFullEvents = onlyFullEvents;
+            if (cursor) {
+                params.cursor = cursor;
+            }
 
             const query = new URLSearchParams();
             Object.keys(params).forEach(key => {
@@ -122,12 +118,15 @@ function Events() {
             const response = await axios.get(url, {
                 headers: { 'Session-Id': sessionId }
             });
-            setFilteredEvents(response.data);
+            // Results come one page at a time; a cursor appends the next page to what is already shown
+            const page = response.data;
+            setFilteredEvents(prev => cursor ? [...prev, ...page.items] : page.items);
+            setNextCursor(page.nextCursor);
         } catch (error) {
             console.error("Error applying event filter:", error);
             toast.error("Failed to fetch events with the given filters.");
         }
-    }, [search, maxUsers, startTime, endTime, locationId, includePastEvents, onlyFullEvents, navigate, setFilteredEvents]);
+    }, [search, maxUsers, startTime, endTime, locationId, includePastEvents, onlyFullEvents, navigate, setFilteredEvents, setNextCursor]);
 
     // Fetch All Events initially
     useEffect(() => {
@@ -290,7 +289,7 @@ function Events() {
                         </label>
                     </div>
 
-                    <button className="filter-button" onClick={applyEventFilter}>
+                    <button className="filter-button" onClick={() => applyEventFilter()}>
                         Search
                     </button>
                 </div>
@@ -308,6 +307,11 @@ function Events() {
                             </div>
                         ))
                     )}
+                    {nextCursor && (
+                        <button className="filter-button" onClick={() => applyEventFilter(nextCursor)}>
+                            Load More
+                        </button>
+                    )}
                 </div>
             </div>
             <ToastContainer />
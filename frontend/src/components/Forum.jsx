@@ -579,7 +579,7 @@ const ThreadRowWithAuthor = memo(({ thread, index, style, data }) => {
               <svg className="stats-icon" viewBox="0 0 24 24" width="16" height="16">
                 <path fill="currentColor" d="M21 6h-2v9H6v2c0 .55.45 1 1 1h11l4 4V7c0-.55-.45-1-1-1zm-4 6V3c0-.55-.45-1-1-1H3c-.55 0-1 .45-1 1v14l4-4h10c.55 0 1-.45 1-1z"/>
               </svg>
-              <span>{data.formatNumber(thread.comments ? thread.comments.length : 0)}</span>
+              <span>{data.formatNumber(thread.commentCount ?? (thread.comments ? thread.comments.length : 0))}</span>
             </div>
             
             <div className="stats-item score">
@@ -1529,7 +1529,9 @@ function Forum() {
     
     // Sum up all comments across all threads
     threadsArray.forEach(thread => {
-      if (thread.comments && Array.isArray(thread.comments)) {
+      if (typeof thread.commentCount === 'number') {
+        totalReplies += thread.commentCount;
+      } else if (thread.comments && Array.isArray(thread.comments)) {
         totalReplies += thread.comments.length;
       }
     });
@@ -1597,7 +1599,11 @@ function Forum() {
         setForumData(response.data);
         
         // Process the response data
-        if (Array.isArray(response.data)) {
+        if (Array.isArray(response.data?.items)) {
+          // The unfiltered listing is paged and returns thread summaries
+          dispatch({ type: 'SET_THREADS', payload: response.data.items });
+          setForumStats(calculateForumStats(response.data.items));
+        } else if (Array.isArray(response.data)) {
           dispatch({ type: 'SET_THREADS', payload: response.data });
           setForumStats(calculateForumStats(response.data));
         } else if (response.data.threads && Array.isArray(response.data.threads)) {
@@ -765,10 +765,12 @@ function Groups() {
   }, []); // Empty dependency array since setGroup has a stable identity by React
 
   // Replace the processGroupData regular function with this useCallback version
-  const processGroupData = useCallback((apiGroup, userEmail) => {
-    // Determine if user is host or member
-    const isUserHost = apiGroup.hosts && apiGroup.hosts.includes(userEmail);
-    const isUserMember = apiGroup.participants && apiGroup.participants.includes(userEmail);
+  const processGroupData = useCallback((apiGroup, userEmail, access = {}) => {
+    // Determine if user is host or member (the access check knows even when the roster is paged)
+    const isUserHost = access.isHost ?? (apiGroup.hosts && apiGroup.hosts.includes(userEmail));
+    const isUserMember = access.isMember ??
+        ((apiGroup.hosts && apiGroup.hosts.includes(userEmail)) ||
+            (apiGroup.participants && apiGroup.participants.includes(userEmail)));
 
     // Extract member emails
     const hostEmails = apiGroup.hosts || [];
@@ -800,6 +802,7 @@ function Groups() {
       description: apiGroup.description || 'No description available',
       hosts: enhancedHosts,
       members: enhancedMembers,
+      memberCount: apiGroup.memberCount ?? hostEmails.length + memberEmails.length,
       location: apiGroup.location || 'No location specified',
       meetingTimes: apiGroup.meetingTimes || 'No schedule specified',
       reviews: apiGroup.reviews || []
@@ -825,8 +828,8 @@ function Groups() {
 
     // Fetch data in parallel when possible
     try {
-      // Run access check and group data in parallel
-      const [accessResponse, groupDataPromise] = await Promise.allSettled([
+      // Run access check, group data and the first roster page in parallel
+      const [accessResponse, groupDataPromise, membersResponse] = await Promise.allSettled([
         axios.get(`${base_url}/groups/${id}/check-access`, {
           headers: { 'Session-Id': sessionId }
         }),
@@ -838,6 +841,10 @@ function Groups() {
             throw err;
           }
           return { status: 403 };
+        }),
+        axios.get(`${base_url}/groups/${id}/members`, {
+          headers: { 'Session-Id': sessionId },
+          params: { role: 'participant', limit: 200 }
         })
       ]);
 
@@ -848,8 +855,14 @@ function Groups() {
           const groupResponse = groupDataPromise.value;
           const apiGroup = groupResponse.data;
 
+          // The group no longer embeds its roster; participants come from the members endpoint
+          if (membersResponse.status === 'fulfilled') {
+            apiGroup.participants = membersResponse.value.data.items.map(member => member.userEmail);
+          }
+
           // Process group data
-          const { isUserHost, isUserMember, formattedGroup } = processGroupData(apiGroup, userData.userEmail);
+          const { isUserHost, isUserMember, formattedGroup } =
+              processGroupData(apiGroup, userData.userEmail, accessResponse.value.data);
 
           // Pass the entire group object to fetchGroupImage to handle profilePictureUrl
           fetchGroupImage(apiGroup)
@@ -1453,7 +1466,7 @@ function Groups() {
             <div className="group-meta">
               <div className="group-meta-item">
                 <span className="meta-icon">👥</span>
-                <span>{(group.hosts?.length || 0) + (group.members?.length || 0)} members</span>
+                <span>{group.memberCount ?? (group.hosts?.length || 0) + (group.members?.length || 0)} members</span>
               </div>
               <div className="group-meta-item">
                 <span className="meta-icon">📍</span>
@@ -1546,7 +1559,7 @@ function Groups() {
           </div>
 
           <div className="group-members-section">
-            <h2>Members ({(group.hosts?.length || 0) + (group.members?.length || 0)})</h2>
+            <h2>Members ({group.memberCount ?? (group.hosts?.length || 0) + (group.members?.length || 0)})</h2>
 
             {/* Show hosts section if there are hosts */}
             {group.hosts && group.hosts.length > 0 && (
@@ -14,7 +14,7 @@ import MarkdownToolbar from './MarkdownToolbar';
 import { getCachedUserByEmail } from '../utils/userUtils';
 import { getProfilePictureUrl } from '../utils/imageUtils';
 
-const Comment = memo(({ comment, formatDate, onUserClick, className = '' }) => {
+const Comment = memo(({ comment, formatDate, onUserClick, onToggleLike, className = '' }) => {
   const [commentAuthor, setCommentAuthor] = useState(comment._authorData || null);
   
   useEffect(() => {
@@ -156,13 +156,27 @@ const Comment = memo(({ comment, formatDate, onUserClick, className = '' }) => {
           {comment.content}
         </ReactMarkdown>
       </div>
+      <div className="thread-view-comment-footer">
+        <button
+          type="button"
+          className={`comment-like-button ${comment.liked ? 'liked' : ''}`}
+          onClick={() => onToggleLike && onToggleLike(comment)}
+          disabled={!onToggleLike || typeof comment.commentId !== 'number'}
+          aria-pressed={!!comment.liked}
+        >
+          <svg viewBox="0 0 24 24" width="14" height="14">
+            <path fill="currentColor" d="M12 21.35l-1.45-1.32C5.4 15.36 2 12.28 2 8.5 2 5.42 4.42 3 7.5 3c1.74 0 3.41.81 4.5 2.09C13.09 3.81 14.76 3 16.5 3 19.58 3 22 5.42 22 8.5c0 3.78-3.4 6.86-8.55 11.54L12 21.35z"/>
+          </svg>
+          <span>{comment.likes || 0}</span>
+        </button>
+      </div>
     </div>
   );
 });
 
 Comment.propTypes = {
   comment: PropTypes.shape({
-    commentId: PropTypes.string,
+    commentId: PropTypes.oneOfType([PropTypes.number, PropTypes.string]),
     content: PropTypes.string.isRequired,
     authorName: PropTypes.string,
     authorEmail: PropTypes.string,
@@ -172,10 +186,12 @@ Comment.propTypes = {
     }),
     createdAt: PropTypes.string,
     likes: PropTypes.number,
+    liked: PropTypes.bool,
     _authorData: PropTypes.object
   }).isRequired,
   formatDate: PropTypes.func.isRequired,
   onUserClick: PropTypes.func,
+  onToggleLike: PropTypes.func,
   className: PropTypes.string
 };
 
@@ -448,6 +464,8 @@ function Thread() {
   const [loading, setLoading] = useState(true);
   const [thread, setThread] = useState(null);
   const [comments, setComments] = useState([]);
+  const [commentsCursor, setCommentsCursor] = useState(null);
+  const [loadingMoreComments, setLoadingMoreComments] = useState(false);
   const [newComment, setNewComment] = useState('');
   const [submitting, setSubmitting] = useState(false);
   const [error, setError] = useState(null);
@@ -460,6 +478,7 @@ function Thread() {
     score: thread?.likes || 0,
     userVote: 0 // 1 for upvote, -1 for downvote, 0 for no vote
   });
+  const [following, setFollowing] = useState(false);
   
   const formatDate = useCallback((dateString) => {
     if (!dateString) return 'Unknown date';
@@ -472,14 +491,6 @@ function Thread() {
     };
     return new Date(dateString).toLocaleDateString(undefined, options);
   }, []);
-
-  const sortCommentsByDate = useCallback((commentsArray) => {
-    return [...commentsArray].sort((a, b) => {
-      const dateA = new Date(a.createdAt || 0);
-      const dateB = new Date(b.createdAt || 0);
-      return dateA - dateB;
-    });
-  }, []);
   
   useEffect(() => {
     if (newComment.trim()) {
@@ -512,6 +523,24 @@ function Thread() {
     loadCurrentUser();
   }, []);
 
+  const fetchCommentsPage = useCallback(async (cursor) => {
+    const sessionId = localStorage.getItem('sessionId');
+    const response = await axios.get(`${base_url}/threads/${threadId}/comments`, {
+      headers: { 'Session-Id': sessionId },
+      params: cursor ? { cursor } : {}
+    });
+    const extractedComments = (response.data.items || []).map(comment => ({
+      commentId: comment.commentId,
+      content: comment.content,
+      authorEmail: comment.authorEmail,
+      authorName: comment.authorName,
+      likes: comment.likes || 0,
+      liked: !!comment.liked,
+      createdAt: comment.createdAt
+    }));
+    return { comments: extractedComments, nextCursor: response.data.nextCursor };
+  }, [threadId]);
+
   const fetchThreadData = useCallback(async () => {
     if (!threadId) {
       setError('Invalid thread ID');
@@ -545,8 +574,13 @@ function Thread() {
 
       // Check if user has already voted
       let userVote = 0;
-      if (threadResponse.data.votes && userEmail) {
-        userVote = threadResponse.data.votes[userEmail] || 0;
+      if (userEmail) {
+        const [voteResponse, followResponse] = await Promise.all([
+          axios.get(`${base_url}/threads/${threadId}/vote`, { headers: { 'Session-Id': sessionId } }),
+          axios.get(`${base_url}/threads/${threadId}/follow`, { headers: { 'Session-Id': sessionId } })
+        ]);
+        userVote = voteResponse.data.vote || 0;
+        setFollowing(Boolean(followResponse.data.following));
       }
 
       // Set thread votes
@@ -555,26 +589,10 @@ function Thread() {
         userVote: userVote
       });
       
-      // Extract and set comments from thread data
-      if (threadResponse.data.comments && Array.isArray(threadResponse.data.comments)) {
-        console.log('Comments found in thread data:', threadResponse.data.comments.length);
-        
-        // Extract comments but avoid circular references
-        const extractedComments = threadResponse.data.comments.map(comment => ({
-          commentId: comment.commentId,
-          content: comment.content,
-          authorEmail: comment.authorEmail,
-          authorName: comment.authorName,
-          likes: comment.likes || 0,
-          createdAt: comment.createdAt
-        }));
-        
-        // Sort comments by date (newest first) before setting state
-        setComments(sortCommentsByDate(extractedComments));
-      } else {
-        console.log('No comments found in thread data');
-        setComments([]);
-      }
+      // Comments are paged separately, oldest first
+      const firstPage = await fetchCommentsPage(null);
+      setComments(firstPage.comments);
+      setCommentsCursor(firstPage.nextCursor);
       
       // Increment view count (commented out in your original code)
       
@@ -585,7 +603,26 @@ function Thread() {
     } finally {
       setLoading(false);
     }
-  }, [threadId, navigate, sortCommentsByDate]);
+  }, [threadId, navigate, fetchCommentsPage]);
+
+  const handleLoadMoreComments = useCallback(async () => {
+    if (!commentsCursor) return;
+    setLoadingMoreComments(true);
+    try {
+      const page = await fetchCommentsPage(commentsCursor);
+      // Comments posted from this page may already be shown at the bottom
+      setComments(prevComments => {
+        const shown = new Set(prevComments.map(comment => comment.commentId));
+        return [...prevComments, ...page.comments.filter(comment => !shown.has(comment.commentId))];
+      });
+      setCommentsCursor(page.nextCursor);
+    } catch (error) {
+      console.error('Error loading more comments:', error);
+      toast.error('Failed to load more comments');
+    } finally {
+      setLoadingMoreComments(false);
+    }
+  }, [commentsCursor, fetchCommentsPage]);
   
   useEffect(() => {
     fetchThreadData();
@@ -661,6 +698,10 @@ function Thread() {
 
       // Add to state with new comment at the BOTTOM (not top)
       setComments(prevComments => [...prevComments, newCommentData]);
+      setThread(prevThread => prevThread && {
+        ...prevThread,
+        commentCount: (prevThread.commentCount || 0) + 1
+      });
       
       setNewComment('');
       localStorage.removeItem(`commentDraft-${threadId}`);
@@ -674,6 +715,32 @@ function Thread() {
     }
   }, [newComment, navigate, threadId, currentUser]);
   
+  const handleToggleCommentLike = useCallback(async (comment) => {
+    const sessionId = localStorage.getItem('sessionId');
+    if (!sessionId) {
+      toast.error('Please log in to like comments');
+      return;
+    }
+    const liked = !comment.liked;
+    const updateComment = (changes) => setComments(prevComments => prevComments.map(c =>
+      c.commentId === comment.commentId ? { ...c, ...changes } : c
+    ));
+
+    // Show the like straight away, then take the server's count
+    updateComment({ liked, likes: Math.max(0, (comment.likes || 0) + (liked ? 1 : -1)) });
+    try {
+      const url = `${base_url}/threads/${threadId}/comments/${comment.commentId}/like`;
+      const response = liked
+        ? await axios.post(url, {}, { headers: { 'Session-Id': sessionId } })
+        : await axios.delete(url, { headers: { 'Session-Id': sessionId } });
+      updateComment({ liked, likes: response.data.likes });
+    } catch (error) {
+      console.error('Error liking comment:', error);
+      updateComment({ liked: comment.liked, likes: comment.likes });
+      toast.error('Failed to update like');
+    }
+  }, [threadId]);
+
   const handleBackToForum = useCallback(() => {
     // Use replace instead of push to avoid adding to history stack
     navigate('/forum', { 
@@ -683,6 +750,7 @@ function Thread() {
   }, [navigate]);
 
   const handleThreadVote = useCallback(async (vote) => {
+    const previousVotes = threadVotes;
     try {
       const sessionId = localStorage.getItem('sessionId');
       if (!sessionId) {
@@ -738,13 +806,32 @@ function Thread() {
       toast.error('Failed to register vote');
       
       // Revert to previous state on error
-      const userData = JSON.parse(localStorage.getItem('userData') || '{}');
-      setThreadVotes(() => ({
-        score: (thread.upvotes || 0) - (thread.downvotes || 0),
-        userVote: thread.votes ? thread.votes[userData?.userEmail] || 0 : 0
-      }));
+      setThreadVotes(previousVotes);
     }
-  }, [thread, threadId, threadVotes.userVote]);
+  }, [threadId, threadVotes]);
+
+  // Followers are notified of new comments on the thread
+  const handleToggleFollow = useCallback(async () => {
+    const sessionId = localStorage.getItem('sessionId');
+    if (!sessionId) {
+      toast.error('Please log in to follow threads');
+      return;
+    }
+    const wasFollowing = following;
+    setFollowing(!wasFollowing);
+    try {
+      const response = await axios({
+        method: wasFollowing ? 'delete' : 'post',
+        url: `${base_url}/threads/${threadId}/follow`,
+        headers: { 'Session-Id': sessionId }
+      });
+      setFollowing(Boolean(response.data.following));
+    } catch (error) {
+      console.error('Error following thread:', error);
+      toast.error(wasFollowing ? 'Failed to unfollow thread' : 'Failed to follow thread');
+      setFollowing(wasFollowing);
+    }
+  }, [threadId, following]);
 
   const insertMarkdown = useCallback((prefix, suffix = '', placeholder = '') => {
     const textarea = textareaRef.current;
@@ -873,7 +960,7 @@ function Thread() {
               <svg className="thread-view-stats-icon" viewBox="0 0 24 24" width="16" height="16">
                 <path fill="currentColor" d="M21 6h-2v9H6v2c0 .55.45 1 1 1h11l4 4V7c0-.55-.45-1-1-1zm-4 6V3c0-.55-.45-1-1-1H3c-.55 0-1 .45-1 1v14l4-4h10c.55 0 1-.45 1-1z"/>
               </svg>
-              <span>{comments.length || 0} comments</span>
+              <span>{thread.commentCount ?? comments.length} comments</span>
             </div>
           </div>
         </div>
@@ -899,6 +986,17 @@ function Thread() {
             <path fill="currentColor" d="M7 10l5 5 5-5H7z"/>
           </svg>
         </button>
+        <button
+          className={`follow-thread-button ${following ? 'active' : ''}`}
+          onClick={handleToggleFollow}
+          aria-pressed={following}
+          title={following ? 'Stop getting notified of new comments' : 'Get notified of new comments'}
+        >
+          <svg viewBox="0 0 24 24" width="16" height="16">
+            <path fill="currentColor" d="M12 22c1.1 0 2-.9 2-2h-4c0 1.1.9 2 2 2zm6-6v-5c0-3.07-1.64-5.64-4.5-6.32V4c0-.83-.67-1.5-1.5-1.5s-1.5.67-1.5 1.5v.68C7.63 5.36 6 7.92 6 11v5l-2 2v1h16v-1l-2-2z"/>
+          </svg>
+          {following ? 'Following' : 'Follow'}
+        </button>
       </div>
 
       <div className="thread-view-content">
@@ -906,7 +1004,7 @@ function Thread() {
       </div>
       
       <div className="thread-view-comments-section">
-        <h2>Comments ({comments.length})</h2>
+        <h2>Comments ({thread.commentCount ?? comments.length})</h2>
         
         <div className="comment-form">
           <form onSubmit={handleSubmitComment}>
@@ -1027,10 +1125,21 @@ function Thread() {
                   comment={comment} 
                   formatDate={formatDate}
                   onUserClick={navigateToUserProfile}
+                  onToggleLike={handleToggleCommentLike}
                   className={isCurrentUser ? 'current-user' : ''}
                 />
               );
             })}
+            {commentsCursor && (
+              <button
+                type="button"
+                className="load-more-comments"
+                onClick={handleLoadMoreComments}
+                disabled={loadingMoreComments}
+              >
+                {loadingMoreComments ? 'Loading...' : 'Load more comments'}
+              </button>
+            )}
           </div>
         )}
       </div>
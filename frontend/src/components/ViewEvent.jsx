@@ -51,17 +51,22 @@ function ViewEvent() {
   const fetchEvent = useCallback(async () => {
     setLoading(true);
     try {
-      const response = await axios.get(
-        `${base_url}/events/${eventId}`,
-        { headers: { 'Session-Id': sessionId } }
-      );
-      
-      setEvent(response.data);
+      // The event no longer embeds its roster; load the first page of participants alongside it
+      const [response, membersResponse] = await Promise.all([
+        axios.get(`${base_url}/events/${eventId}`, { headers: { 'Session-Id': sessionId } }),
+        axios.get(`${base_url}/events/${eventId}/members`, {
+          headers: { 'Session-Id': sessionId },
+          params: { role: 'participant', limit: 200 }
+        })
+      ]);
+      const participants = membersResponse.data.items.map(member => member.userEmail);
+
+      setEvent({ ...response.data, participants });
       
       // Check if user is a host or participant
       if (userEmail) {
         const isHost = response.data.hosts?.includes(userEmail);
-        const isParticipant = response.data.participants?.includes(userEmail);
+        const isParticipant = participants.includes(userEmail);
         
         setIsUserHost(isHost);
         setIsUserParticipant(isParticipant);
@@ -210,9 +215,9 @@ function ViewEvent() {
             <button 
               className="join-event-button" 
               onClick={handleJoinEvent}
-              disabled={event.participants?.length >= event.maxUsers}
+              disabled={event.memberCount >= event.maxUsers}
             >
-              {event.participants?.length >= event.maxUsers ? 'Event Full' : 'Join Event'}
+              {event.memberCount >= event.maxUsers ? 'Event Full' : 'Join Event'}
             </button>
           )}
           <button className="back-button" onClick={() => navigate('/events')}>
@@ -237,7 +242,7 @@ function ViewEvent() {
           </div>
           <div className="info-item">
             <span className="label">Capacity:</span>
-            <span className="value">{event.participants?.length || 0} / {event.maxUsers}</span>
+            <span className="value">{event.memberCount || 0} / {event.maxUsers}</span>
           </div>
         </div>
         